@@ -2,6 +2,8 @@ package uk.gov.di.accountmanagement.lambda;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
@@ -12,40 +14,55 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.accountmanagement.entity.AuthPolicy;
 import uk.gov.di.accountmanagement.entity.TokenAuthorizerContext;
+import uk.gov.di.accountmanagement.services.AuthorisationCache;
+import uk.gov.di.authentication.shared.entity.AccessTokenStore;
 import uk.gov.di.authentication.shared.entity.CustomScopeValue;
+import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
+import uk.gov.di.authentication.shared.helpers.WarmerHelper;
+import uk.gov.di.authentication.shared.helpers.WarmupPrimers;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
 import uk.gov.di.authentication.shared.services.DynamoService;
 import uk.gov.di.authentication.shared.services.KmsConnectionService;
+import uk.gov.di.authentication.shared.services.RedisConnectionService;
 import uk.gov.di.authentication.shared.services.TokenValidationService;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
-import static java.lang.Thread.sleep;
 import static uk.gov.di.authentication.shared.helpers.WarmerHelper.WARMUP_HEADER;
 
 public class AuthoriseAccessTokenHandler
         implements RequestHandler<TokenAuthorizerContext, AuthPolicy> {
 
     private static final Logger LOGGER = LogManager.getLogger(AuthoriseAccessTokenHandler.class);
+    private static final String ACCESS_TOKEN_PREFIX = "ACCESS_TOKEN:";
+    private static final ObjectReader ACCESS_TOKEN_STORE_READER =
+            ObjectMapperFactory.getInternalReader(AccessTokenStore.class);
 
     private final TokenValidationService tokenValidationService;
     private final ConfigurationService configurationService;
     private final DynamoService dynamoService;
     private final DynamoClientService clientService;
+    private final AuthorisationCache authorisationCache;
+    private final RedisConnectionService redisConnectionService;
 
     public AuthoriseAccessTokenHandler(
             TokenValidationService tokenValidationService,
             ConfigurationService configurationService,
             DynamoService dynamoService,
-            DynamoClientService clientService) {
+            DynamoClientService clientService,
+            AuthorisationCache authorisationCache,
+            RedisConnectionService redisConnectionService) {
         this.tokenValidationService = tokenValidationService;
         this.configurationService = configurationService;
         this.dynamoService = dynamoService;
         this.clientService = clientService;
+        this.authorisationCache = authorisationCache;
+        this.redisConnectionService = redisConnectionService;
     }
 
     public AuthoriseAccessTokenHandler() {
@@ -59,18 +76,15 @@ public class AuthoriseAccessTokenHandler
                         configurationService.getAwsRegion(),
                         configurationService.getEnvironment(),
                         configurationService.getDynamoEndpointUri());
+        authorisationCache = new AuthorisationCache();
+        redisConnectionService = RedisConnectionService.getInstance(configurationService);
     }
 
     @Override
     public AuthPolicy handleRequest(TokenAuthorizerContext input, Context context) {
         if (input.getType().equals(WARMUP_HEADER)) {
             LOGGER.info("Warmup Request Received");
-            try {
-                sleep(configurationService.getWarmupDelayMillis());
-            } catch (InterruptedException e) {
-                LOGGER.error("Sleep was interrupted", e);
-                throw new RuntimeException("Sleep was interrupted", e);
-            }
+            WarmerHelper.warmUp(this::primeForWarmup);
             LOGGER.info("Instance warmed for request");
             throw new RuntimeException("Unauthorized");
         } else {
@@ -92,44 +106,39 @@ public class AuthoriseAccessTokenHandler
                             currentDateTime);
                     throw new RuntimeException("Unauthorized");
                 }
-                boolean isAccessTokenSignatureValid =
-                        tokenValidationService.validateAccessTokenSignature(accessToken);
-                if (!isAccessTokenSignatureValid) {
-                    LOGGER.error("Access Token signature is not valid");
-                    throw new RuntimeException("Unauthorized");
+                String jwtId = claimsSet.getJWTID();
+                // Without the token store check a cached token could not be revoked, so the
+                // cache is only used alongside it.
+                boolean tokenStoreCheckEnabled =
+                        configurationService.isAccessTokenStoreCheckEnabled();
+                Optional<String> cachedSubject =
+                        tokenStoreCheckEnabled
+                                ? authorisationCache.getPrincipal(jwtId, accessToken.getValue())
+                                : Optional.empty();
+                String subject;
+                if (cachedSubject.isPresent()) {
+                    LOGGER.info("Access Token already authorised by this instance");
+                    subject = cachedSubject.get();
+                } else {
+                    subject = validateAccessToken(accessToken, claimsSet);
                 }
-                LOGGER.info("Successfully validated Access Token signature");
-
-                List<String> scopeList = claimsSet.getStringListClaim("scope");
-                if (scopeList == null
-                        || !scopeList.contains(CustomScopeValue.ACCOUNT_MANAGEMENT.getValue())) {
-                    LOGGER.error("Access Token scope is not valid or missing");
+                if (tokenStoreCheckEnabled && !isAccessTokenStored(claimsSet, accessToken)) {
+                    LOGGER.error("Access Token is no longer in the token store");
+                    authorisationCache.invalidate(jwtId);
                     throw new RuntimeException("Unauthorized");
                 }
-                LOGGER.info("Successfully validated Access Token scope");
-                String clientId = claimsSet.getStringClaim("client_id");
-                if (clientId == null) {
-                    LOGGER.error("Access Token client_id is missing");
-                    throw new RuntimeException("Unauthorized");
+                if (tokenStoreCheckEnabled && cachedSubject.isEmpty()) {
+                    authorisationCache.put(
+                            jwtId,
+                            accessToken.getValue(),
+                            subject,
+                            claimsSet.getExpirationTime().toInstant());
                 }
-                if (!clientService.isValidClient(clientId)) {
-                    LOGGER.error(
-                            "Access Token client_id does not exist in Dynamo. ClientId {}",
-                            clientId);
-                    throw new RuntimeException("Unauthorized");
-                }
-                String subject = claimsSet.getSubject();
-                if (subject == null) {
-                    LOGGER.error("Access Token subject is missing");
-                    throw new RuntimeException("Unauthorized");
-                }
-                try {
-                    dynamoService.getUserProfileFromPublicSubject(subject);
-                } catch (Exception e) {
-                    LOGGER.error("Unable to retrieve UserProfile from Dynamo with given SubjectID");
-                    throw new RuntimeException("Unauthorized");
-                }
-                LOGGER.info("User found in Dynamo with given SubjectID");
+                LOGGER.info(
+                        "Authorisation cache hit ratio: {} ({} hits, {} misses)",
+                        authorisationCache.getHitRatio(),
+                        authorisationCache.getHits(),
+                        authorisationCache.getMisses());
                 String methodArn = input.getMethodArn();
                 String[] arnPartials = methodArn.split(":");
                 String region = arnPartials[3];
@@ -148,4 +157,74 @@ public class AuthoriseAccessTokenHandler
             }
         }
     }
+
+    private void primeForWarmup() throws Exception {
+        WarmupPrimers.COMMON.prime();
+        tokenValidationService.getPublicJwk();
+        clientService.isValidClient(WarmupPrimers.WARMUP_ID);
+        if (configurationService.isAccessTokenStoreCheckEnabled()) {
+            redisConnectionService.keyExists(WarmupPrimers.WARMUP_ID);
+        }
+    }
+
+    private String validateAccessToken(AccessToken accessToken, JWTClaimsSet claimsSet)
+            throws java.text.ParseException {
+        boolean isAccessTokenSignatureValid =
+                tokenValidationService.validateAccessTokenSignature(accessToken);
+        if (!isAccessTokenSignatureValid) {
+            LOGGER.error("Access Token signature is not valid");
+            throw new RuntimeException("Unauthorized");
+        }
+        LOGGER.info("Successfully validated Access Token signature");
+
+        List<String> scopeList = claimsSet.getStringListClaim("scope");
+        if (scopeList == null
+                || !scopeList.contains(CustomScopeValue.ACCOUNT_MANAGEMENT.getValue())) {
+            LOGGER.error("Access Token scope is not valid or missing");
+            throw new RuntimeException("Unauthorized");
+        }
+        LOGGER.info("Successfully validated Access Token scope");
+        String clientId = claimsSet.getStringClaim("client_id");
+        if (clientId == null) {
+            LOGGER.error("Access Token client_id is missing");
+            throw new RuntimeException("Unauthorized");
+        }
+        if (!clientService.isValidClient(clientId)) {
+            LOGGER.error("Access Token client_id does not exist in Dynamo. ClientId {}", clientId);
+            throw new RuntimeException("Unauthorized");
+        }
+        String subject = claimsSet.getSubject();
+        if (subject == null) {
+            LOGGER.error("Access Token subject is missing");
+            throw new RuntimeException("Unauthorized");
+        }
+        try {
+            dynamoService.getUserProfileFromPublicSubject(subject);
+        } catch (Exception e) {
+            LOGGER.error("Unable to retrieve UserProfile from Dynamo with given SubjectID");
+            throw new RuntimeException("Unauthorized");
+        }
+        LOGGER.info("User found in Dynamo with given SubjectID");
+        return subject;
+    }
+
+    private boolean isAccessTokenStored(JWTClaimsSet claimsSet, AccessToken accessToken)
+            throws java.text.ParseException {
+        String value =
+                redisConnectionService.getValue(
+                        ACCESS_TOKEN_PREFIX
+                                + claimsSet.getStringClaim("client_id")
+                                + "."
+                                + claimsSet.getSubject());
+        if (value == null) {
+            return false;
+        }
+        try {
+            AccessTokenStore accessTokenStore = ACCESS_TOKEN_STORE_READER.readValue(value);
+            return accessTokenStore.matches(accessToken.getValue());
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Unable to parse Access Token store");
+            return false;
+        }
+    }
 }
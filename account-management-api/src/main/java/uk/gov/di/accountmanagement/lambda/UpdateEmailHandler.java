@@ -68,7 +68,7 @@ public class UpdateEmailHandler
                         configurationService.getSqsEndpointUri());
         this.validationService = new ValidationService();
         this.codeStorageService =
-                new CodeStorageService(new RedisConnectionService(configurationService));
+                new CodeStorageService(RedisConnectionService.getInstance(configurationService));
         this.auditService = new AuditService(configurationService);
     }
 
@@ -52,7 +52,7 @@ public class UpdatePhoneNumberHandler
                         configurationService.getSqsEndpointUri());
         this.validationService = new ValidationService();
         this.codeStorageService =
-                new CodeStorageService(new RedisConnectionService(configurationService));
+                new CodeStorageService(RedisConnectionService.getInstance(configurationService));
         this.auditService = new AuditService(configurationService);
     }
 
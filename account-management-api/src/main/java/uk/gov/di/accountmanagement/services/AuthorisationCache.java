@@ -0,0 +1,105 @@
+package uk.gov.di.accountmanagement.services;
+
+import uk.gov.di.authentication.shared.helpers.HashHelper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers access tokens that have already been authorised by this container, keyed by the jti
+ * of the token. Each entry is bound to a digest of the whole token so that another token reusing
+ * the jti is never matched. Entries are kept for at most {@link #MAX_TTL}, well short of the
+ * token lifetime, so that a deleted account stops being authorised soon after it is deleted. Only
+ * use the cache together with a check that the token has not been revoked, because a cached
+ * entry skips the account and client lookups.
+ */
+public class AuthorisationCache {
+
+    private static final int MAX_ENTRIES = 10000;
+    public static final Duration MAX_TTL = Duration.ofSeconds(30);
+
+    private final Clock clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Map<String, Entry> entries =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    public AuthorisationCache() {
+        this(Clock.systemUTC());
+    }
+
+    public AuthorisationCache(Clock clock) {
+        this.clock = clock;
+    }
+
+    public Optional<String> getPrincipal(String jwtId, String token) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(jwtId);
+            if (entry != null && !clock.instant().isBefore(entry.expiresAt)) {
+                entries.remove(jwtId);
+                entry = null;
+            }
+        }
+        if (entry == null || !entry.tokenHash.equals(HashHelper.hashSha256String(token))) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(entry.principal);
+    }
+
+    public void put(String jwtId, String token, String principal, Instant expiresAt) {
+        var now = clock.instant();
+        if (Objects.isNull(jwtId) || !now.isBefore(expiresAt)) {
+            return;
+        }
+        var cappedExpiry = expiresAt.isBefore(now.plus(MAX_TTL)) ? expiresAt : now.plus(MAX_TTL);
+        var entry = new Entry(HashHelper.hashSha256String(token), principal, cappedExpiry);
+        synchronized (entries) {
+            entries.put(jwtId, entry);
+        }
+    }
+
+    public void invalidate(String jwtId) {
+        synchronized (entries) {
+            entries.remove(jwtId);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    private static class Entry {
+        private final String tokenHash;
+        private final String principal;
+        private final Instant expiresAt;
+
+        private Entry(String tokenHash, String principal, Instant expiresAt) {
+            this.tokenHash = tokenHash;
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -14,10 +14,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import uk.gov.di.accountmanagement.entity.AuthPolicy;
 import uk.gov.di.accountmanagement.entity.TokenAuthorizerContext;
+import uk.gov.di.accountmanagement.services.AuthorisationCache;
 import uk.gov.di.authentication.shared.helpers.TokenGeneratorHelper;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
 import uk.gov.di.authentication.shared.services.DynamoService;
+import uk.gov.di.authentication.shared.services.RedisConnectionService;
 import uk.gov.di.authentication.shared.services.TokenValidationService;
 
 import java.time.LocalDateTime;
@@ -31,6 +33,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AuthoriseAccessTokenHandlerTest {
@@ -40,6 +44,8 @@ class AuthoriseAccessTokenHandlerTest {
     private final DynamoService dynamoService = mock(DynamoService.class);
     private final ConfigurationService configurationService = mock(ConfigurationService.class);
     private final DynamoClientService clientService = mock(DynamoClientService.class);
+    private final RedisConnectionService redisConnectionService =
+            mock(RedisConnectionService.class);
     private AuthoriseAccessTokenHandler handler;
     private final Context context = mock(Context.class);
     private static final String KEY_ID = "14342354354353";
@@ -59,7 +65,9 @@ class AuthoriseAccessTokenHandlerTest {
                         tokenValidationServicen,
                         configurationService,
                         dynamoService,
-                        clientService);
+                        clientService,
+                        new AuthorisationCache(),
+                        redisConnectionService);
     }
 
     @Test
@@ -78,6 +86,81 @@ class AuthoriseAccessTokenHandlerTest {
         assertNotNull(authPolicy.getPolicyDocument().get("Statement"));
     }
 
+    @Test
+    public void shouldNotRevalidateAccessTokenAlreadyAuthorisedByThisInstance()
+            throws JOSEException {
+        BearerAccessToken signedAccessToken =
+                new BearerAccessToken(createSignedAccessToken(SCOPES).serialize());
+        TokenAuthorizerContext tokenAuthorizerContext =
+                new TokenAuthorizerContext(
+                        TOKEN_TYPE, signedAccessToken.toAuthorizationHeader(), METHOD_ARN);
+        when(tokenValidationServicen.validateAccessTokenSignature(signedAccessToken))
+                .thenReturn(true);
+        when(clientService.isValidClient(CLIENT_ID)).thenReturn(true);
+        when(configurationService.isAccessTokenStoreCheckEnabled()).thenReturn(true);
+        when(redisConnectionService.getValue("ACCESS_TOKEN:client-id.some-subject"))
+                .thenReturn(
+                        "{\"token\":\""
+                                + signedAccessToken.getValue()
+                                + "\",\"internal_subject_id\":\"internal-subject\"}");
+
+        handler.handleRequest(tokenAuthorizerContext, context);
+        AuthPolicy authPolicy = handler.handleRequest(tokenAuthorizerContext, context);
+
+        assertThat(authPolicy.getPrincipalId(), equalTo(SUBJECT.getValue()));
+        verify(tokenValidationServicen, times(1)).validateAccessTokenSignature(signedAccessToken);
+        verify(clientService, times(1)).isValidClient(CLIENT_ID);
+        verify(dynamoService, times(1)).getUserProfileFromPublicSubject(SUBJECT.getValue());
+    }
+
+    @Test
+    public void shouldRevalidateAccessTokenOnEveryRequestWhenTokenStoreCheckIsDisabled()
+            throws JOSEException {
+        BearerAccessToken signedAccessToken =
+                new BearerAccessToken(createSignedAccessToken(SCOPES).serialize());
+        TokenAuthorizerContext tokenAuthorizerContext =
+                new TokenAuthorizerContext(
+                        TOKEN_TYPE, signedAccessToken.toAuthorizationHeader(), METHOD_ARN);
+        when(tokenValidationServicen.validateAccessTokenSignature(signedAccessToken))
+                .thenReturn(true);
+        when(clientService.isValidClient(CLIENT_ID)).thenReturn(true);
+
+        handler.handleRequest(tokenAuthorizerContext, context);
+        handler.handleRequest(tokenAuthorizerContext, context);
+
+        verify(tokenValidationServicen, times(2)).validateAccessTokenSignature(signedAccessToken);
+        verify(dynamoService, times(2)).getUserProfileFromPublicSubject(SUBJECT.getValue());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenCachedAccessTokenIsRemovedFromTokenStore()
+            throws JOSEException {
+        BearerAccessToken signedAccessToken =
+                new BearerAccessToken(createSignedAccessToken(SCOPES).serialize());
+        TokenAuthorizerContext tokenAuthorizerContext =
+                new TokenAuthorizerContext(
+                        TOKEN_TYPE, signedAccessToken.toAuthorizationHeader(), METHOD_ARN);
+        when(tokenValidationServicen.validateAccessTokenSignature(signedAccessToken))
+                .thenReturn(true);
+        when(clientService.isValidClient(CLIENT_ID)).thenReturn(true);
+        when(configurationService.isAccessTokenStoreCheckEnabled()).thenReturn(true);
+        when(redisConnectionService.getValue("ACCESS_TOKEN:client-id.some-subject"))
+                .thenReturn(
+                        "{\"token\":\""
+                                + signedAccessToken.getValue()
+                                + "\",\"internal_subject_id\":\"internal-subject\"}")
+                .thenReturn(null);
+
+        handler.handleRequest(tokenAuthorizerContext, context);
+        RuntimeException exception =
+                assertThrows(
+                        RuntimeException.class,
+                        () -> handler.handleRequest(tokenAuthorizerContext, context),
+                        "Expected to throw exception");
+
+        assertEquals("Unauthorized", exception.getMessage());
+    }
+
     @Test
     public void shouldThrowExceptionWhenAccessTokenHasExpired() throws JOSEException {
         BearerAccessToken signedAccessToken =
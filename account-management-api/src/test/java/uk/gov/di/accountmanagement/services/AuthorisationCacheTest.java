@@ -0,0 +1,71 @@
+package uk.gov.di.accountmanagement.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthorisationCacheTest {
+
+    private static final String JWT_ID = "jwt-id";
+    private static final String TOKEN = "header.payload.signature";
+    private static final String SUBJECT = "some-subject";
+    private static final Instant NOW = Instant.parse("2021-11-01T10:00:00Z");
+
+    private final Clock clock = mock(Clock.class);
+    private final AuthorisationCache cache = new AuthorisationCache(clock);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @Test
+    void shouldReturnPrincipalForSameTokenUntilItExpires() {
+        cache.put(JWT_ID, TOKEN, SUBJECT, NOW.plusSeconds(10));
+
+        assertThat(cache.getPrincipal(JWT_ID, TOKEN), equalTo(Optional.of(SUBJECT)));
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(10));
+
+        assertThat(cache.getPrincipal(JWT_ID, TOKEN), equalTo(Optional.empty()));
+        assertThat(cache.getHitRatio(), equalTo(0.5));
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTheMaximumTtlWhenTheTokenLivesLonger() {
+        cache.put(JWT_ID, TOKEN, SUBJECT, NOW.plusSeconds(180));
+
+        when(clock.instant()).thenReturn(NOW.plus(AuthorisationCache.MAX_TTL).minusSeconds(1));
+
+        assertThat(cache.getPrincipal(JWT_ID, TOKEN), equalTo(Optional.of(SUBJECT)));
+
+        when(clock.instant()).thenReturn(NOW.plus(AuthorisationCache.MAX_TTL));
+
+        assertThat(cache.getPrincipal(JWT_ID, TOKEN), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void shouldNotMatchADifferentTokenWithTheSameJwtId() {
+        cache.put(JWT_ID, TOKEN, SUBJECT, NOW.plusSeconds(180));
+
+        assertThat(
+                cache.getPrincipal(JWT_ID, "header.payload.forged"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void shouldNotReturnInvalidatedEntries() {
+        cache.put(JWT_ID, TOKEN, SUBJECT, NOW.plusSeconds(180));
+        cache.invalidate(JWT_ID);
+
+        assertThat(cache.getPrincipal(JWT_ID, TOKEN), equalTo(Optional.empty()));
+        assertThat(cache.getMisses(), equalTo(1L));
+    }
+}
@@ -0,0 +1,114 @@
+package uk.gov.di.authentication.accountmigration;
+
+import com.opencsv.bean.CsvToBeanBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an import file a chunk of rows at a time, keeping track of the byte offset at the end of
+ * each chunk so that an import can be resumed from there with a ranged read. Rows are assumed to
+ * be single lines, which holds for the legacy export.
+ */
+public class CsvChunkReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream input;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+    private int position;
+    private int limit;
+    private long offset;
+    private String header;
+
+    public CsvChunkReader(InputStream input, ImportCheckpoint checkpoint) throws IOException {
+        this.input = input;
+        this.offset = checkpoint.getOffset();
+        this.header = checkpoint.getHeader();
+        if (header == null) {
+            header = readLine();
+        }
+    }
+
+    public Chunk nextChunk(int maxRows) throws IOException {
+        List<String> lines = new ArrayList<>(maxRows);
+        String next;
+        while (lines.size() < maxRows && (next = readLine()) != null) {
+            if (!next.isBlank()) {
+                lines.add(next);
+            }
+        }
+        if (lines.isEmpty()) {
+            return null;
+        }
+        var csv = new StringReader(header + "\n" + String.join("\n", lines));
+        var parser = new CsvToBeanBuilder<ImportRecord>(csv).withType(ImportRecord.class).build();
+        return new Chunk(parser.parse(), header, offset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private String readLine() throws IOException {
+        line.reset();
+        while (true) {
+            if (position == limit) {
+                limit = input.read(buffer, 0, BUFFER_SIZE);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return line.size() == 0 ? null : decode(line);
+                }
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            line.write(buffer, start, position - start);
+            offset += position - start;
+            if (position < limit) {
+                position++;
+                offset++;
+                return decode(line);
+            }
+        }
+    }
+
+    private static String decode(ByteArrayOutputStream bytes) {
+        var value = bytes.toString(StandardCharsets.UTF_8);
+        return value.endsWith("\r") ? value.substring(0, value.length() - 1) : value;
+    }
+
+    public static class Chunk {
+        private final List<ImportRecord> records;
+        private final String header;
+        private final long endOffset;
+
+        private Chunk(List<ImportRecord> records, String header, long endOffset) {
+            this.records = records;
+            this.header = header;
+            this.endOffset = endOffset;
+        }
+
+        public List<ImportRecord> getRecords() {
+            return records;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public long getEndOffset() {
+            return endOffset;
+        }
+    }
+}
@@ -1,46 +1,78 @@
 package uk.gov.di.authentication.accountmigration;
 
+import com.amazonaws.services.lambda.AWSLambda;
+import com.amazonaws.services.lambda.AWSLambdaClientBuilder;
+import com.amazonaws.services.lambda.model.InvocationType;
+import com.amazonaws.services.lambda.model.InvokeRequest;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.S3Event;
 import com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.nimbusds.oauth2.sdk.id.Subject;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.TermsAndConditions;
 import uk.gov.di.authentication.shared.entity.UserCredentials;
 import uk.gov.di.authentication.shared.entity.UserProfile;
+import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoService;
 
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+/**
+ * Imports account data files dropped in the transfer bucket. A file is read in chunks and a
+ * checkpoint is saved after each one. When the invocation is close to its timeout the handler
+ * invokes itself asynchronously for the rest of the event, which resumes from the checkpoint, so an
+ * import is not limited to a single Lambda timeout.
+ */
 public class DataMigrationHandler implements RequestHandler<S3Event, String> {
 
     private static final Logger LOG = LogManager.getLogger(DataMigrationHandler.class);
-    private static final int BATCH_SIZE = 1000;
+    private static final int CHUNK_SIZE = 1000;
+    private static final int WRITE_BATCH_SIZE = 25;
+    private static final int WRITE_PARALLELISM = 8;
+    private static final long TIME_REMAINING_MARGIN_MILLIS = 60_000;
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
 
     private final AuthenticationService authenticationService;
     private final ConfigurationService configurationService;
     private final AmazonS3 client;
+    private final AWSLambda lambda;
+    private final ExecutorService writeExecutor =
+            Executors.newFixedThreadPool(
+                    WRITE_PARALLELISM,
+                    runnable -> {
+                        var thread = new Thread(runnable, "data-migration-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
 
     public DataMigrationHandler(
             AuthenticationService authenticationService,
             ConfigurationService configurationService,
-            AmazonS3 client) {
+            AmazonS3 client,
+            AWSLambda lambda) {
         this.authenticationService = authenticationService;
         this.configurationService = configurationService;
         this.client = client;
+        this.lambda = lambda;
     }
 
     public DataMigrationHandler() {
@@ -50,46 +82,172 @@ public class DataMigrationHandler implements RequestHandler<S3Event, String> {
                 AmazonS3ClientBuilder.standard()
                         .withRegion(configurationService.getAwsRegion())
                         .build();
+        this.lambda =
+                AWSLambdaClientBuilder.standard()
+                        .withRegion(configurationService.getAwsRegion())
+                        .build();
     }
 
     @Override
     public String handleRequest(S3Event input, Context context) {
-        for (S3EventNotification.S3EventNotificationRecord record : input.getRecords()) {
-            String s3Key = record.getS3().getObject().getKey();
-            String s3Bucket = record.getS3().getBucket().getName();
+        var records = input.getRecords();
+        for (int i = 0; i < records.size(); i++) {
+            String s3Key = records.get(i).getS3().getObject().getKey();
+            String s3Bucket = records.get(i).getS3().getBucket().getName();
 
             LOG.info("New data transfer file {} detected", s3Key);
 
-            S3Object object = client.getObject(s3Bucket, s3Key);
-
-            InputStreamReader reader = new InputStreamReader(object.getObjectContent());
-            CsvToBean<ImportRecord> importRecords =
-                    new CsvToBeanBuilder<ImportRecord>(reader).withType(ImportRecord.class).build();
-            var records = importRecords.parse();
-
-            int skip = 0;
-            int count;
-            do {
-                var importBatch =
-                        records.stream().skip(skip).limit(BATCH_SIZE).collect(Collectors.toList());
-                count = importBatch.size();
-                skip = skip + count;
-                LOG.info("Read {} records starting at {}", count, skip);
-                var batch =
-                        buildImportBatch(
-                                importBatch, configurationService.getTermsAndConditionsVersion());
-
-                authenticationService.bulkAdd(
-                        batch.stream().map(p -> p.getLeft()).collect(Collectors.toList()),
-                        batch.stream().map(p -> p.getRight()).collect(Collectors.toList()));
-
-            } while (count == BATCH_SIZE);
-            LOG.info("Imported {} records", skip);
+            try {
+                if (!importFile(s3Bucket, s3Key, context)) {
+                    continueImport(records.subList(i, records.size()), context);
+                    return "Continuing";
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
 
         return "Complete";
     }
 
+    /**
+     * Invokes this function asynchronously with the files still to import. The first of them
+     * resumes from its checkpoint. If the invoke fails the exception fails this invocation, and the
+     * asynchronous retry resumes from the same checkpoint.
+     */
+    private void continueImport(
+            List<S3EventNotification.S3EventNotificationRecord> records, Context context) {
+        var payload =
+                Map.of(
+                        "Records",
+                        records.stream()
+                                .map(DataMigrationHandler::eventRecord)
+                                .collect(Collectors.toList()));
+        try {
+            lambda.invoke(
+                    new InvokeRequest()
+                            .withFunctionName(context.getInvokedFunctionArn())
+                            .withInvocationType(InvocationType.Event)
+                            .withPayload(
+                                    ObjectMapperFactory.getInternalInstance()
+                                            .writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+        LOG.info("Continuing import of {} files in a new invocation", records.size());
+    }
+
+    private static Map<String, Object> eventRecord(
+            S3EventNotification.S3EventNotificationRecord record) {
+        return Map.of(
+                "s3",
+                Map.of(
+                        "bucket",
+                        Map.of("name", record.getS3().getBucket().getName()),
+                        "object",
+                        Map.of("key", record.getS3().getObject().getKey())));
+    }
+
+    /** Returns false if the import stopped at a checkpoint because time was running out. */
+    private boolean importFile(String s3Bucket, String s3Key, Context context) throws IOException {
+        var checkpointKey = s3Key + CHECKPOINT_SUFFIX;
+        var checkpoint =
+                client.doesObjectExist(s3Bucket, checkpointKey)
+                        ? ImportCheckpoint.parse(client.getObjectAsString(s3Bucket, checkpointKey))
+                        : ImportCheckpoint.start();
+        if (checkpoint.getOffset() > 0) {
+            LOG.info(
+                    "Resuming import of {} at byte {} after {} records",
+                    s3Key,
+                    checkpoint.getOffset(),
+                    checkpoint.getRows());
+        }
+
+        var request = new GetObjectRequest(s3Bucket, s3Key);
+        if (checkpoint.getOffset() > 0) {
+            request.setRange(checkpoint.getOffset());
+        }
+        var termsAndConditionsVersion = configurationService.getTermsAndConditionsVersion();
+        long resumedRows = checkpoint.getRows();
+        long start = System.nanoTime();
+
+        try (S3Object object = client.getObject(request);
+                var reader = new CsvChunkReader(object.getObjectContent(), checkpoint)) {
+            CsvChunkReader.Chunk pendingChunk = null;
+            CompletableFuture<Void> pendingWrites = null;
+            CsvChunkReader.Chunk chunk;
+            while ((chunk = reader.nextChunk(CHUNK_SIZE)) != null) {
+                var writes = writeChunk(chunk.getRecords(), termsAndConditionsVersion);
+                if (pendingChunk != null) {
+                    pendingWrites.join();
+                    checkpoint = saveCheckpoint(s3Bucket, checkpointKey, checkpoint, pendingChunk);
+                    logProgress(checkpoint.getRows(), checkpoint.getRows() - resumedRows, start);
+                }
+                pendingChunk = chunk;
+                pendingWrites = writes;
+                if (context.getRemainingTimeInMillis() < TIME_REMAINING_MARGIN_MILLIS) {
+                    pendingWrites.join();
+                    checkpoint = saveCheckpoint(s3Bucket, checkpointKey, checkpoint, pendingChunk);
+                    logProgress(checkpoint.getRows(), checkpoint.getRows() - resumedRows, start);
+                    LOG.info("Import of {} stopped at a checkpoint before the timeout", s3Key);
+                    return false;
+                }
+            }
+            if (pendingChunk != null) {
+                pendingWrites.join();
+                checkpoint = saveCheckpoint(s3Bucket, checkpointKey, checkpoint, pendingChunk);
+            }
+        }
+
+        client.deleteObject(s3Bucket, checkpointKey);
+        logProgress(checkpoint.getRows(), checkpoint.getRows() - resumedRows, start);
+        return true;
+    }
+
+    private CompletableFuture<Void> writeChunk(
+            List<ImportRecord> records, String termsAndConditionsVersion) {
+        var batch = buildImportBatch(records, termsAndConditionsVersion);
+        var writes = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < batch.size(); i += WRITE_BATCH_SIZE) {
+            var writeBatch = batch.subList(i, Math.min(i + WRITE_BATCH_SIZE, batch.size()));
+            writes.add(
+                    CompletableFuture.runAsync(
+                            () ->
+                                    authenticationService.bulkAdd(
+                                            writeBatch.stream()
+                                                    .map(Pair::getLeft)
+                                                    .collect(Collectors.toList()),
+                                            writeBatch.stream()
+                                                    .map(Pair::getRight)
+                                                    .collect(Collectors.toList())),
+                            writeExecutor));
+        }
+        return CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
+    }
+
+    private ImportCheckpoint saveCheckpoint(
+            String s3Bucket,
+            String checkpointKey,
+            ImportCheckpoint checkpoint,
+            CsvChunkReader.Chunk chunk) {
+        var next =
+                new ImportCheckpoint(
+                        chunk.getEndOffset(),
+                        checkpoint.getRows() + chunk.getRecords().size(),
+                        chunk.getHeader());
+        client.putObject(s3Bucket, checkpointKey, next.serialise());
+        return next;
+    }
+
+    private void logProgress(long total, long imported, long startNanos) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        LOG.info(
+                "Imported {} records, {} in this run at {} records/s",
+                total,
+                imported,
+                imported * 1000 / elapsedMillis);
+    }
+
     private List<Pair<UserCredentials, UserProfile>> buildImportBatch(
             List<ImportRecord> importRecords, String termsAndConditionsVersion) {
         return importRecords.stream()
@@ -0,0 +1,68 @@
+package uk.gov.di.authentication.accountmigration;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * How far an import has got through a file: the byte offset of the first row that has not yet
+ * been written, the number of rows written before it, and the CSV header needed to parse the rows
+ * that follow.
+ */
+public class ImportCheckpoint {
+
+    private final long offset;
+    private final long rows;
+    private final String header;
+
+    public ImportCheckpoint(long offset, long rows, String header) {
+        this.offset = offset;
+        this.rows = rows;
+        this.header = header;
+    }
+
+    public static ImportCheckpoint start() {
+        return new ImportCheckpoint(0, 0, null);
+    }
+
+    public static ImportCheckpoint parse(String content) {
+        var properties = new Properties();
+        try {
+            properties.load(new StringReader(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ImportCheckpoint(
+                Long.parseLong(properties.getProperty("offset")),
+                Long.parseLong(properties.getProperty("rows")),
+                properties.getProperty("header"));
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public String serialise() {
+        var properties = new Properties();
+        properties.setProperty("offset", String.valueOf(offset));
+        properties.setProperty("rows", String.valueOf(rows));
+        properties.setProperty("header", header);
+        var writer = new StringWriter();
+        try {
+            properties.store(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+}
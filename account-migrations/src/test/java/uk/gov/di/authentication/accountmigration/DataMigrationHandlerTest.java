@@ -1,9 +1,13 @@
 package uk.gov.di.authentication.accountmigration;
 
+import com.amazonaws.services.lambda.AWSLambda;
+import com.amazonaws.services.lambda.model.InvocationType;
+import com.amazonaws.services.lambda.model.InvokeRequest;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.S3Event;
 import com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification;
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.util.StringInputStream;
@@ -16,15 +20,19 @@ import uk.gov.di.authentication.shared.services.AuthenticationService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static java.lang.String.format;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,14 +42,17 @@ class DataMigrationHandlerTest {
     private final ConfigurationService configurationService = mock(ConfigurationService.class);
     private final AuthenticationService authenticationService = mock(AuthenticationService.class);
     private final AmazonS3Client s3Client = mock(AmazonS3Client.class);
+    private final AWSLambda lambda = mock(AWSLambda.class);
     private final Context context = mock(Context.class);
 
     private final DataMigrationHandler handler =
-            new DataMigrationHandler(authenticationService, configurationService, s3Client);
+            new DataMigrationHandler(authenticationService, configurationService, s3Client, lambda);
 
     @BeforeEach
     public void setup() {
         when(configurationService.getTermsAndConditionsVersion()).thenReturn("1.0");
+        when(context.getRemainingTimeInMillis()).thenReturn(900_000);
+        when(context.getInvokedFunctionArn()).thenReturn("data-transfer-lambda-arn");
     }
 
     @Test
@@ -71,13 +82,73 @@ class DataMigrationHandlerTest {
         ArgumentCaptor<List<UserCredentials>> credentials = ArgumentCaptor.forClass(List.class);
         ArgumentCaptor<List<UserProfile>> profiles = ArgumentCaptor.forClass(List.class);
 
-        verify(authenticationService, times(61)).bulkAdd(credentials.capture(), profiles.capture());
+        verify(authenticationService, times(2406))
+                .bulkAdd(credentials.capture(), profiles.capture());
+
+        assertThat(
+                credentials.getAllValues().stream().mapToInt(List::size).max().getAsInt(),
+                equalTo(25));
+        assertThat(
+                credentials.getAllValues().stream().mapToInt(List::size).sum(), equalTo(60150));
+        assertThat(profiles.getAllValues().stream().mapToInt(List::size).sum(), equalTo(60150));
+        verify(s3Client).deleteObject("test-bucket", "test-file.csv.checkpoint");
+        verify(lambda, never()).invoke(any());
+    }
+
+    @Test
+    public void testImportResumesFromCheckpoint() throws IOException {
+        var csv = buildValidCsv(2000).toString();
+        var header = csv.substring(0, csv.indexOf('\n'));
+        var offset = csv.indexOf("\"hello+1500@");
+        when(s3Client.doesObjectExist("test-bucket", "test-file.csv.checkpoint")).thenReturn(true);
+        when(s3Client.getObjectAsString("test-bucket", "test-file.csv.checkpoint"))
+                .thenReturn(new ImportCheckpoint(offset, 1500, header).serialise());
+        mockCsvData(new StringBuilder(csv.substring(offset)));
+
+        handler.handleRequest(mockS3Event(), context);
 
-        assertThat(credentials.getAllValues().get(0).size(), equalTo(1000));
-        assertThat(profiles.getAllValues().get(0).size(), equalTo(1000));
+        ArgumentCaptor<GetObjectRequest> request = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3Client).getObject(request.capture());
+        assertThat(request.getValue().getRange()[0], equalTo((long) offset));
 
-        assertThat(credentials.getAllValues().get(60).size(), equalTo(150));
-        assertThat(profiles.getAllValues().get(60).size(), equalTo(150));
+        ArgumentCaptor<List<UserCredentials>> credentials = ArgumentCaptor.forClass(List.class);
+        verify(authenticationService, times(20)).bulkAdd(credentials.capture(), any());
+        assertThat(
+                credentials.getAllValues().stream()
+                        .flatMap(List::stream)
+                        .map(UserCredentials::getEmail)
+                        .anyMatch("hello+1500@gov.uk"::equals),
+                equalTo(true));
+        assertThat(
+                credentials.getAllValues().stream()
+                        .flatMap(List::stream)
+                        .map(UserCredentials::getEmail)
+                        .anyMatch("hello+1499@gov.uk"::equals),
+                equalTo(false));
+    }
+
+    @Test
+    public void testCheckpointsAndContinuesInANewInvocationWhenRunningOutOfTime()
+            throws IOException {
+        mockCsvData(buildValidCsv(3000));
+        when(context.getRemainingTimeInMillis()).thenReturn(900_000, 30_000);
+
+        var result = handler.handleRequest(mockS3Event(), context);
+
+        assertThat(result, equalTo("Continuing"));
+        ArgumentCaptor<String> checkpoint = ArgumentCaptor.forClass(String.class);
+        verify(s3Client, times(2))
+                .putObject(eq("test-bucket"), eq("test-file.csv.checkpoint"), checkpoint.capture());
+        assertThat(ImportCheckpoint.parse(checkpoint.getValue()).getRows(), equalTo(2000L));
+        verify(s3Client, never()).deleteObject(anyString(), anyString());
+
+        ArgumentCaptor<InvokeRequest> invoke = ArgumentCaptor.forClass(InvokeRequest.class);
+        verify(lambda).invoke(invoke.capture());
+        assertThat(invoke.getValue().getFunctionName(), equalTo("data-transfer-lambda-arn"));
+        assertThat(invoke.getValue().getInvocationType(), equalTo(InvocationType.Event.toString()));
+        var payload = StandardCharsets.UTF_8.decode(invoke.getValue().getPayload()).toString();
+        assertThat(payload, containsString("\"name\":\"test-bucket\""));
+        assertThat(payload, containsString("\"key\":\"test-file.csv\""));
     }
 
     private StringBuilder buildValidCsv(int rows) {
@@ -104,7 +175,7 @@ class DataMigrationHandlerTest {
                                         invocation.getArgument(1),
                                         invocation.getArgument(2)));
         when(file.getObjectContent()).thenReturn(s3ObjectInputStream);
-        when(s3Client.getObject(anyString(), anyString())).thenReturn(file);
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(file);
     }
 
     private S3Event mockS3Event() {
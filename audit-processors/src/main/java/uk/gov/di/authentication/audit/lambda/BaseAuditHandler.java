@@ -10,6 +10,7 @@ import org.apache.logging.log4j.Logger;
 import uk.gov.di.audit.AuditPayload.AuditEvent;
 import uk.gov.di.audit.AuditPayload.SignedAuditEvent;
 import uk.gov.di.authentication.audit.helper.AuditEventHelper;
+import uk.gov.di.authentication.audit.services.AuditSignatureValidationService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.KmsConnectionService;
 
@@ -19,17 +20,19 @@ import java.util.Optional;
 public abstract class BaseAuditHandler implements RequestHandler<SNSEvent, Object> {
 
     protected final Logger LOG = LogManager.getLogger(getClass());
-    private final KmsConnectionService kmsConnectionService;
+    private final AuditSignatureValidationService signatureValidationService;
     protected final ConfigurationService service;
 
     BaseAuditHandler(KmsConnectionService kmsConnectionService, ConfigurationService service) {
-        this.kmsConnectionService = kmsConnectionService;
+        this.signatureValidationService =
+                new AuditSignatureValidationService(kmsConnectionService, service);
         this.service = service;
     }
 
     BaseAuditHandler() {
         this.service = ConfigurationService.getInstance();
-        this.kmsConnectionService = new KmsConnectionService(service);
+        this.signatureValidationService =
+                new AuditSignatureValidationService(new KmsConnectionService(service), service);
     }
 
     @Override
@@ -56,9 +59,6 @@ public abstract class BaseAuditHandler implements RequestHandler<SNSEvent, Objec
             return false;
         }
 
-        return kmsConnectionService.validateSignature(
-                event.get().getSignature().asReadOnlyByteBuffer(),
-                event.get().getPayload().asReadOnlyByteBuffer(),
-                service.getAuditSigningKeyAlias());
+        return signatureValidationService.isSignatureValid(event.get());
     }
 }
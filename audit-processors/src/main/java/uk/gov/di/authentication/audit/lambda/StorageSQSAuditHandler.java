@@ -2,6 +2,8 @@ package uk.gov.di.authentication.audit.lambda;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
 import com.google.gson.JsonParser;
@@ -12,20 +14,20 @@ import org.apache.logging.log4j.Logger;
 import uk.gov.di.audit.AuditPayload.AuditEvent;
 import uk.gov.di.audit.AuditPayload.SignedAuditEvent;
 import uk.gov.di.authentication.audit.helper.AuditEventHelper;
+import uk.gov.di.authentication.audit.services.AuditSignatureValidationService;
 import uk.gov.di.authentication.audit.services.S3Service;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.KmsConnectionService;
 
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
-public class StorageSQSAuditHandler implements RequestHandler<SQSEvent, Object> {
+public class StorageSQSAuditHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
 
     protected final Logger LOG = LogManager.getLogger(getClass());
-    private final KmsConnectionService kmsConnectionService;
+    private final AuditSignatureValidationService signatureValidationService;
     private final ConfigurationService service;
     private final S3Service s3service;
 
@@ -33,39 +35,64 @@ public class StorageSQSAuditHandler implements RequestHandler<SQSEvent, Object>
             KmsConnectionService kmsConnectionService,
             ConfigurationService service,
             S3Service s3Service) {
-        this.kmsConnectionService = kmsConnectionService;
+        this.signatureValidationService =
+                new AuditSignatureValidationService(kmsConnectionService, service);
         this.service = service;
         this.s3service = s3Service;
     }
 
     public StorageSQSAuditHandler() {
         this.service = ConfigurationService.getInstance();
-        this.kmsConnectionService = new KmsConnectionService(service);
+        this.signatureValidationService =
+                new AuditSignatureValidationService(new KmsConnectionService(service), service);
         this.s3service = new S3Service(service);
     }
 
     @Override
-    public Object handleRequest(SQSEvent input, Context context) {
+    public SQSBatchResponse handleRequest(SQSEvent input, Context context) {
         LOG.info("Processing {} events from queue", input.getRecords().size());
-        var auditMessages =
-                input.getRecords().stream()
-                        .peek(record -> LOG.info("Processing record {}", record.getMessageId()))
-                        .map(SQSMessage::getBody)
-                        .map(this::readAsJson)
-                        .map(Base64.getDecoder()::decode)
-                        .peek(payload -> LOG.info("Extracted payload: length {}", payload.length))
-                        .map(AuditEventHelper::parseToSignedAuditEvent)
-                        .filter(this::validateSignature)
-                        .map(AuditEventHelper::extractPayload)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList());
+        var failures = new ArrayList<BatchItemFailure>();
+        var messageIds = new ArrayList<String>();
+        var auditMessages = new ArrayList<AuditEvent>();
+
+        for (var record : input.getRecords()) {
+            var auditEvent = readAuditEvent(record);
+            if (auditEvent.isPresent()) {
+                messageIds.add(record.getMessageId());
+                auditMessages.add(auditEvent.get());
+            } else {
+                LOG.error("Unable to consume record {}", record.getMessageId());
+                failures.add(new BatchItemFailure(record.getMessageId()));
+            }
+        }
 
         LOG.info("Consuming {} audit messages", auditMessages.size());
 
-        this.handleAuditEvent(auditMessages);
+        if (!auditMessages.isEmpty()) {
+            try {
+                this.handleAuditEvent(auditMessages);
+            } catch (RuntimeException e) {
+                LOG.error("Unable to store {} audit messages", auditMessages.size(), e);
+                messageIds.forEach(messageId -> failures.add(new BatchItemFailure(messageId)));
+            }
+        }
 
-        return null;
+        return new SQSBatchResponse(failures);
+    }
+
+    private Optional<AuditEvent> readAuditEvent(SQSMessage record) {
+        try {
+            var payload = Base64.getDecoder().decode(readAsJson(record.getBody()));
+            LOG.info("Extracted payload: length {}", payload.length);
+            var signedAuditEvent = AuditEventHelper.parseToSignedAuditEvent(payload);
+            if (!validateSignature(signedAuditEvent)) {
+                return Optional.empty();
+            }
+            return AuditEventHelper.extractPayload(signedAuditEvent);
+        } catch (RuntimeException e) {
+            LOG.error("Unable to read record {}", record.getMessageId(), e);
+            return Optional.empty();
+        }
     }
 
     private String readAsJson(String snsMessage) {
@@ -73,22 +100,16 @@ public class StorageSQSAuditHandler implements RequestHandler<SQSEvent, Object>
     }
 
     void handleAuditEvent(List<AuditEvent> auditEvent) {
-        var content =
-                auditEvent.stream()
-                        .map(
-                                event -> {
-                                    try {
-                                        return JsonFormat.printer()
-                                                .omittingInsignificantWhitespace()
-                                                .print(event);
-                                    } catch (InvalidProtocolBufferException e) {
-                                        return null;
-                                    }
-                                })
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.joining("\n"));
-
-        s3service.storeRecords(content);
+        var records = new ArrayList<String>(auditEvent.size());
+        for (var event : auditEvent) {
+            try {
+                records.add(JsonFormat.printer().omittingInsignificantWhitespace().print(event));
+            } catch (InvalidProtocolBufferException e) {
+                throw new IllegalStateException("Unable to format audit event as JSON", e);
+            }
+        }
+
+        s3service.storeRecords(records);
     }
 
     private boolean validateSignature(Optional<SignedAuditEvent> event) {
@@ -99,9 +120,6 @@ public class StorageSQSAuditHandler implements RequestHandler<SQSEvent, Object>
 
         LOG.info("Validating signature");
 
-        return kmsConnectionService.validateSignature(
-                event.get().getSignature().asReadOnlyByteBuffer(),
-                event.get().getPayload().asReadOnlyByteBuffer(),
-                service.getAuditSigningKeyAlias());
+        return signatureValidationService.isSignatureValid(event.get());
     }
 }
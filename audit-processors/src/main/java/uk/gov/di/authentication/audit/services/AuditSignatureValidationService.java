@@ -0,0 +1,68 @@
+package uk.gov.di.authentication.audit.services;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.audit.AuditPayload.SignedAuditEvent;
+import uk.gov.di.authentication.shared.services.ConfigurationService;
+import uk.gov.di.authentication.shared.services.KmsConnectionService;
+import uk.gov.di.authentication.shared.services.KmsPublicKeyCache;
+
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.time.Duration;
+
+public class AuditSignatureValidationService {
+
+    private static final Logger LOG = LogManager.getLogger(AuditSignatureValidationService.class);
+    private static final String SIGNATURE_ALGORITHM = "SHA256withECDSA";
+
+    private final KmsConnectionService kmsConnectionService;
+    private final KmsPublicKeyCache publicKeyCache;
+    private final ConfigurationService configurationService;
+
+    public AuditSignatureValidationService(
+            KmsConnectionService kmsConnectionService,
+            KmsPublicKeyCache publicKeyCache,
+            ConfigurationService configurationService) {
+        this.kmsConnectionService = kmsConnectionService;
+        this.publicKeyCache = publicKeyCache;
+        this.configurationService = configurationService;
+    }
+
+    public AuditSignatureValidationService(
+            KmsConnectionService kmsConnectionService,
+            ConfigurationService configurationService) {
+        this(
+                kmsConnectionService,
+                new KmsPublicKeyCache(
+                        kmsConnectionService,
+                        Duration.ofSeconds(configurationService.getPublicKeyCacheTtl())),
+                configurationService);
+    }
+
+    public boolean isSignatureValid(SignedAuditEvent event) {
+        var keyAlias = configurationService.getAuditSigningKeyAlias();
+
+        if (configurationService.isLocalAuditSignatureValidationEnabled()) {
+            try {
+                return verifyLocally(event, keyAlias);
+            } catch (Exception e) {
+                LOG.warn("Unable to validate signature locally, falling back to KMS", e);
+            }
+        }
+
+        return kmsConnectionService.validateSignature(
+                event.getSignature().asReadOnlyByteBuffer(),
+                event.getPayload().asReadOnlyByteBuffer(),
+                keyAlias);
+    }
+
+    private boolean verifyLocally(SignedAuditEvent event, String keyAlias)
+            throws GeneralSecurityException {
+        var signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+        signature.initVerify(publicKeyCache.get(keyAlias).getPublicKey());
+        signature.update(event.getPayload().asReadOnlyByteBuffer());
+
+        return signature.verify(event.getSignature().toByteArray());
+    }
+}
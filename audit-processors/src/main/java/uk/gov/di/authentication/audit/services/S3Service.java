@@ -2,22 +2,50 @@ package uk.gov.di.authentication.audit.services;
 
 import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Clock;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static com.amazonaws.services.s3.AmazonS3ClientBuilder.standard;
-import static uk.gov.di.authentication.shared.helpers.HashHelper.hashSha256String;
 
+/**
+ * Writes batches of audit records to S3 as gzipped, newline delimited JSON. Records are compressed
+ * as they are written, and once the compressed batch grows past the part size it is sent as a
+ * multipart upload rather than being held in memory until the end.
+ */
 public class S3Service {
+
+    private static final Logger LOG = LogManager.getLogger(S3Service.class);
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy/MM/dd/'audit'-HHmmss").withZone(ZoneId.of("UTC"));
+    private static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+    private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
 
     private final String bucket;
     private final AmazonS3 s3Client;
     private final Clock clock;
+    private final int partSize;
 
     public S3Service(ConfigurationService configService) {
         this.bucket = configService.getAuditStorageS3Bucket();
@@ -32,17 +60,143 @@ public class S3Service {
                         .build();
 
         this.clock = Clock.systemUTC();
+        this.partSize = DEFAULT_PART_SIZE;
     }
 
     protected S3Service(AmazonS3 s3Client, String bucket, Clock clock) {
+        this(s3Client, bucket, clock, DEFAULT_PART_SIZE);
+    }
+
+    protected S3Service(AmazonS3 s3Client, String bucket, Clock clock, int partSize) {
         this.s3Client = s3Client;
         this.bucket = bucket;
         this.clock = clock;
+        this.partSize = partSize;
+    }
+
+    public void storeRecords(List<String> records) {
+        var key = FORMATTER.format(clock.instant()) + "-" + contentHash(records) + ".json.gz";
+        var upload = new Upload(key);
+        try {
+            upload.write(records);
+        } catch (RuntimeException e) {
+            try {
+                upload.abort();
+            } catch (RuntimeException abortFailure) {
+                e.addSuppressed(abortFailure);
+            }
+            throw e;
+        }
+    }
+
+    private static String contentHash(List<String> records) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        for (int i = 0; i < records.size(); i++) {
+            if (i > 0) {
+                digest.update(NEWLINE);
+            }
+            digest.update(records.get(i).getBytes(StandardCharsets.UTF_8));
+        }
+        return Hex.encodeHexString(digest.digest());
     }
 
-    public void storeRecords(String payloads) {
-        var key = FORMATTER.format(clock.instant()) + "-" + hashSha256String(payloads) + ".json";
+    private class Upload {
+        private final String key;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final List<PartETag> parts = new ArrayList<>();
+        private String uploadId;
+        private long uncompressedBytes;
+        private long compressedBytes;
+
+        private Upload(String key) {
+            this.key = key;
+        }
+
+        private void write(List<String> records) {
+            try (var gzip = new GZIPOutputStream(buffer)) {
+                for (int i = 0; i < records.size(); i++) {
+                    var bytes = records.get(i).getBytes(StandardCharsets.UTF_8);
+                    if (i > 0) {
+                        gzip.write(NEWLINE);
+                        uncompressedBytes += NEWLINE.length;
+                    }
+                    gzip.write(bytes);
+                    uncompressedBytes += bytes.length;
+                    if (buffer.size() >= partSize) {
+                        uploadPart(false);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            if (uploadId == null) {
+                putObject();
+            } else {
+                uploadPart(true);
+                s3Client.completeMultipartUpload(
+                        new CompleteMultipartUploadRequest(bucket, key, uploadId, parts));
+            }
+            LOG.info(
+                    "Stored {} audit records in {}: {} bytes compressed to {} in {} parts",
+                    records.size(),
+                    key,
+                    uncompressedBytes,
+                    compressedBytes,
+                    Math.max(1, parts.size()));
+        }
+
+        private void putObject() {
+            var bytes = buffer.toByteArray();
+            compressedBytes = bytes.length;
+            s3Client.putObject(
+                    bucket, key, new ByteArrayInputStream(bytes), metadata(bytes.length));
+        }
+
+        private void uploadPart(boolean lastPart) {
+            if (uploadId == null) {
+                uploadId =
+                        s3Client.initiateMultipartUpload(
+                                        new InitiateMultipartUploadRequest(
+                                                bucket, key, metadata(null)))
+                                .getUploadId();
+            }
+            var bytes = buffer.toByteArray();
+            buffer.reset();
+            compressedBytes += bytes.length;
+            var result =
+                    s3Client.uploadPart(
+                            new UploadPartRequest()
+                                    .withBucketName(bucket)
+                                    .withKey(key)
+                                    .withUploadId(uploadId)
+                                    .withPartNumber(parts.size() + 1)
+                                    .withInputStream(new ByteArrayInputStream(bytes))
+                                    .withPartSize(bytes.length)
+                                    .withLastPart(lastPart));
+            parts.add(result.getPartETag());
+        }
+
+        private void abort() {
+            if (uploadId != null) {
+                s3Client.abortMultipartUpload(
+                        new AbortMultipartUploadRequest(bucket, key, uploadId));
+            }
+        }
 
-        this.s3Client.putObject(this.bucket, key, payloads);
+        private ObjectMetadata metadata(Integer contentLength) {
+            var metadata = new ObjectMetadata();
+            metadata.setContentType("application/x-ndjson");
+            metadata.setContentEncoding("gzip");
+            if (contentLength != null) {
+                metadata.setContentLength(contentLength);
+            }
+            return metadata;
+        }
     }
 }
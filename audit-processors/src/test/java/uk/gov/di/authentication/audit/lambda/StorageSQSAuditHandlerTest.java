@@ -1,5 +1,8 @@
 package uk.gov.di.authentication.audit.lambda;
 
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
 import com.google.gson.Gson;
@@ -18,11 +21,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -64,7 +70,48 @@ public class StorageSQSAuditHandlerTest {
 
         handler.handleRequest(inputEvent(payloads), null);
 
-        verify(s3Service).storeRecords("{\"eventId\":\"foo\"}\n{\"eventId\":\"bar\"}");
+        verify(s3Service)
+                .storeRecords(List.of("{\"eventId\":\"foo\"}", "{\"eventId\":\"bar\"}"));
+    }
+
+    @Test
+    void reportsOnlyUnverifiableRecordsAsFailures() {
+        when(config.getAuditSigningKeyAlias()).thenReturn("key_alias");
+        when(kms.validateSignature(any(ByteBuffer.class), any(ByteBuffer.class), anyString()))
+                .thenReturn(true, false);
+
+        var handler = new StorageSQSAuditHandler(kms, config, s3Service);
+
+        var payloads = List.of(payloadWithEventId("foo"), payloadWithEventId("bar"));
+
+        var response = handler.handleRequest(inputEvent(payloads), null);
+
+        verify(s3Service).storeRecords(List.of("{\"eventId\":\"foo\"}"));
+        assertThat(failedMessageIds(response), is(List.of("message-1")));
+    }
+
+    @Test
+    void reportsEveryStoredRecordAsFailedWhenTheWriteFails() {
+        when(config.getAuditSigningKeyAlias()).thenReturn("key_alias");
+        when(kms.validateSignature(any(ByteBuffer.class), any(ByteBuffer.class), anyString()))
+                .thenReturn(true);
+        doThrow(new AmazonServiceException("S3 unavailable"))
+                .when(s3Service)
+                .storeRecords(anyList());
+
+        var handler = new StorageSQSAuditHandler(kms, config, s3Service);
+
+        var payloads = List.of(payloadWithEventId("foo"), payloadWithEventId("bar"));
+
+        var response = handler.handleRequest(inputEvent(payloads), null);
+
+        assertThat(failedMessageIds(response), is(List.of("message-0", "message-1")));
+    }
+
+    private List<String> failedMessageIds(SQSBatchResponse response) {
+        return response.getBatchItemFailures().stream()
+                .map(BatchItemFailure::getItemIdentifier)
+                .collect(Collectors.toList());
     }
 
     private SignedAuditEvent payloadWithEventId(String eventId) {
@@ -79,15 +126,19 @@ public class StorageSQSAuditHandlerTest {
     }
 
     private SQSEvent inputEvent(List<SignedAuditEvent> payload) {
-        var messages =
+        var bodies =
                 payload.stream()
                         .map(AbstractMessageLite::toByteArray)
                         .map(Base64.getEncoder()::encodeToString)
                         .map(encodedPayload -> new Gson().toJson(Map.of("Message", encodedPayload)))
-                        .map(
-                                body -> {
+                        .collect(Collectors.toList());
+        var messages =
+                IntStream.range(0, bodies.size())
+                        .mapToObj(
+                                i -> {
                                     var message = new SQSMessage();
-                                    message.setBody(body);
+                                    message.setMessageId("message-" + i);
+                                    message.setBody(bodies.get(i));
 
                                     return message;
                                 })
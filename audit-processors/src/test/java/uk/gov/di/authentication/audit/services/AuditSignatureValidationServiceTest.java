@@ -0,0 +1,124 @@
+package uk.gov.di.authentication.audit.services;
+
+import com.amazonaws.services.kms.model.GetPublicKeyRequest;
+import com.amazonaws.services.kms.model.GetPublicKeyResult;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.audit.AuditPayload.AuditEvent;
+import uk.gov.di.audit.AuditPayload.SignedAuditEvent;
+import uk.gov.di.authentication.shared.services.ConfigurationService;
+import uk.gov.di.authentication.shared.services.KmsConnectionService;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditSignatureValidationServiceTest {
+
+    private static final String KEY_ALIAS = "audit-signing-key";
+
+    private final KmsConnectionService kms = mock(KmsConnectionService.class);
+    private final ConfigurationService config = mock(ConfigurationService.class);
+
+    private AuditSignatureValidationService validationService;
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        var generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        keyPair = generator.generateKeyPair();
+
+        when(config.getAuditSigningKeyAlias()).thenReturn(KEY_ALIAS);
+        when(config.getPublicKeyCacheTtl()).thenReturn(300L);
+        when(config.isLocalAuditSignatureValidationEnabled()).thenReturn(true);
+        when(kms.getPublicKey(any(GetPublicKeyRequest.class)))
+                .thenReturn(
+                        new GetPublicKeyResult()
+                                .withKeyId(KEY_ALIAS)
+                                .withPublicKey(ByteBuffer.wrap(keyPair.getPublic().getEncoded())));
+        validationService = new AuditSignatureValidationService(kms, config);
+    }
+
+    @Test
+    void shouldValidateSignaturesLocallyWithoutCallingKmsVerify() throws Exception {
+        for (var eventId : new String[] {"foo", "bar", "baz"}) {
+            assertThat(validationService.isSignatureValid(signedEvent(eventId)), is(true));
+        }
+
+        verify(kms, times(1)).getPublicKey(any(GetPublicKeyRequest.class));
+        verify(kms, never()).validateSignature(any(), any(), any());
+    }
+
+    @Test
+    void shouldFallBackToKmsWhenLocalValidationThrows() {
+        when(kms.validateSignature(any(ByteBuffer.class), any(ByteBuffer.class), eq(KEY_ALIAS)))
+                .thenReturn(false);
+        var payload = AuditEvent.newBuilder().setEventId("foo").build().toByteString();
+        var event =
+                SignedAuditEvent.newBuilder()
+                        .setSignature(ByteString.copyFrom("signature".getBytes()))
+                        .setPayload(payload)
+                        .build();
+
+        assertThat(validationService.isSignatureValid(event), is(false));
+
+        verify(kms).validateSignature(any(ByteBuffer.class), any(ByteBuffer.class), eq(KEY_ALIAS));
+    }
+
+    @Test
+    void shouldRejectAnInvalidSignatureLocallyWithoutCallingKmsVerify() throws Exception {
+        var generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        var payload = AuditEvent.newBuilder().setEventId("foo").build().toByteArray();
+        var signer = Signature.getInstance("SHA256withECDSA");
+        signer.initSign(generator.generateKeyPair().getPrivate());
+        signer.update(payload);
+        var event =
+                SignedAuditEvent.newBuilder()
+                        .setSignature(ByteString.copyFrom(signer.sign()))
+                        .setPayload(ByteString.copyFrom(payload))
+                        .build();
+
+        assertThat(validationService.isSignatureValid(event), is(false));
+
+        verify(kms, never()).validateSignature(any(), any(), any());
+    }
+
+    @Test
+    void shouldOnlyUseKmsWhenLocalValidationIsDisabled() throws Exception {
+        when(config.isLocalAuditSignatureValidationEnabled()).thenReturn(false);
+        when(kms.validateSignature(any(ByteBuffer.class), any(ByteBuffer.class), eq(KEY_ALIAS)))
+                .thenReturn(true);
+
+        assertThat(validationService.isSignatureValid(signedEvent("foo")), is(true));
+
+        verify(kms, never()).getPublicKey(any(GetPublicKeyRequest.class));
+    }
+
+    private SignedAuditEvent signedEvent(String eventId) throws GeneralSecurityException {
+        var payload = AuditEvent.newBuilder().setEventId(eventId).build().toByteArray();
+        var signer = Signature.getInstance("SHA256withECDSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(payload);
+
+        return SignedAuditEvent.newBuilder()
+                .setSignature(ByteString.copyFrom(signer.sign()))
+                .setPayload(ByteString.copyFrom(payload))
+                .build();
+    }
+}
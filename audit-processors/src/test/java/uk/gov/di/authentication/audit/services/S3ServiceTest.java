@@ -1,34 +1,142 @@
 package uk.gov.di.authentication.audit.services;
 
+import com.amazonaws.SdkClientException;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class S3ServiceTest {
 
-    @Test
-    void shouldPushContentToBucket() {
-        var s3Client = mock(AmazonS3.class);
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochSecond(0), ZoneId.of("UTC"));
+
+    private final AmazonS3 s3Client = mock(AmazonS3.class);
 
-        var service =
-                new S3Service(
-                        s3Client,
-                        "some-bucket",
-                        Clock.fixed(Instant.ofEpochSecond(0), ZoneId.of("UTC")));
+    @Test
+    void shouldPushCompressedContentToBucket() throws IOException {
+        var service = new S3Service(s3Client, "some-bucket", CLOCK);
 
-        service.storeRecords("some-content");
+        service.storeRecords(List.of("some-content"));
 
         var expectedKey =
                 "1970/01/01/audit-000000-"
                         + "0a8cac771ca188eacc57e2c96c31f5611925c5ecedccb16b8c236d6c0d325112" // content hash
-                        + ".json";
+                        + ".json.gz";
+        var content = ArgumentCaptor.forClass(InputStream.class);
+        var metadata = ArgumentCaptor.forClass(ObjectMetadata.class);
+
+        verify(s3Client)
+                .putObject(
+                        eq("some-bucket"), eq(expectedKey), content.capture(), metadata.capture());
+        assertThat(metadata.getValue().getContentEncoding(), equalTo("gzip"));
+        assertThat(gunzip(content.getValue()), equalTo("some-content"));
+    }
+
+    @Test
+    void shouldUseMultipartUploadWhenCompressedContentExceedsPartSize() throws IOException {
+        var service = new S3Service(s3Client, "some-bucket", CLOCK, 1024);
+        var records =
+                IntStream.range(0, 2000)
+                        .mapToObj(i -> UUID.randomUUID().toString())
+                        .collect(Collectors.toList());
+        when(s3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+                .thenReturn(new InitiateMultipartUploadResult());
+        var parts = new ArrayList<InputStream>();
+        when(s3Client.uploadPart(any(UploadPartRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            UploadPartRequest request = invocation.getArgument(0);
+                            parts.add(request.getInputStream());
+                            var result = new UploadPartResult();
+                            result.setPartNumber(request.getPartNumber());
+                            result.setETag("etag-" + request.getPartNumber());
+                            return result;
+                        });
+
+        service.storeRecords(records);
+
+        var complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(complete.capture());
+        verify(s3Client, never())
+                .putObject(any(String.class), any(String.class), any(InputStream.class), any());
+        assertThat(parts.size(), greaterThan(1));
+        assertThat(
+                complete.getValue().getPartETags().stream()
+                        .map(PartETag::getPartNumber)
+                        .collect(Collectors.toList()),
+                equalTo(
+                        IntStream.rangeClosed(1, parts.size())
+                                .boxed()
+                                .collect(Collectors.toList())));
+        assertThat(
+                gunzip(new SequenceInputStream(Collections.enumeration(parts))),
+                equalTo(String.join("\n", records)));
+    }
+
+    @Test
+    void shouldRethrowTheUploadFailureWhenAbortingTheUploadAlsoFails() {
+        var service = new S3Service(s3Client, "some-bucket", CLOCK, 1024);
+        var records =
+                IntStream.range(0, 2000)
+                        .mapToObj(i -> UUID.randomUUID().toString())
+                        .collect(Collectors.toList());
+        var uploadFailure = new SdkClientException("Unable to upload part");
+        var abortFailure = new SdkClientException("Unable to abort upload");
+        when(s3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+                .thenReturn(new InitiateMultipartUploadResult());
+        when(s3Client.uploadPart(any(UploadPartRequest.class))).thenThrow(uploadFailure);
+        doThrow(abortFailure)
+                .when(s3Client)
+                .abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+
+        var thrown = assertThrows(SdkClientException.class, () -> service.storeRecords(records));
+
+        assertThat(thrown, sameInstance(uploadFailure));
+        assertThat(thrown.getSuppressed(), arrayContaining(abortFailure));
+    }
 
-        verify(s3Client).putObject("some-bucket", expectedKey, "some-content");
+    private String gunzip(InputStream compressed) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var gzip = new GZIPInputStream(compressed)) {
+            gzip.transferTo(bytes);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
     }
 }
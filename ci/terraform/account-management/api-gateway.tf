@@ -77,7 +77,7 @@ EOF
 resource "aws_lambda_function" "authorizer" {
   filename         = var.lambda_zip_file
   function_name    = "${var.environment}-api_gateway_authorizer"
-  role             = module.account_notification_default_role.arn
+  role             = module.authoriser_role.arn
   handler          = "uk.gov.di.accountmanagement.lambda.AuthoriseAccessTokenHandler::handleRequest"
   runtime          = "java11"
   source_code_hash = filebase64sha256(var.lambda_zip_file)
@@ -85,13 +85,15 @@ resource "aws_lambda_function" "authorizer" {
   timeout          = 30
   memory_size      = 2048
   vpc_config {
-    security_group_ids = [aws_vpc.account_management_vpc.default_security_group_id]
-    subnet_ids         = aws_subnet.account_management_subnets.*.id
+    security_group_ids = [data.terraform_remote_state.shared.outputs.authentication_security_group_id]
+    subnet_ids         = data.terraform_remote_state.shared.outputs.authentication_subnet_ids
   }
   environment {
     variables = {
-      TOKEN_SIGNING_KEY_ALIAS = data.aws_kms_key.id_token_public_key.key_id
-      ENVIRONMENT             = var.environment
+      TOKEN_SIGNING_KEY_ALIAS          = data.aws_kms_key.id_token_public_key.key_id
+      ENVIRONMENT                      = var.environment
+      REDIS_KEY                        = local.token_store_redis_key
+      ACCESS_TOKEN_STORE_CHECK_ENABLED = var.access_token_store_check_enabled
     }
   }
   kms_key_arn = data.terraform_remote_state.shared.outputs.lambda_env_vars_encryption_kms_key_arn
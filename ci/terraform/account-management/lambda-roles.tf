@@ -12,6 +12,22 @@ module "account_notification_default_role" {
   ]
 }
 
+# The authoriser checks access tokens against the OIDC token store, which is the session Redis in
+# the shared authentication VPC. That VPC shares this stack's CIDR range, so the authoriser runs
+# inside it rather than reaching it through peering.
+module "authoriser_role" {
+  source      = "../modules/lambda-role"
+  environment = var.environment
+  role_name   = "account-management-authoriser-role"
+  vpc_arn     = data.terraform_remote_state.shared.outputs.authentication_vpc_arn
+
+  policies_to_attach = var.use_localstack ? [data.terraform_remote_state.shared.outputs.redis_ssm_parameter_policy] : [
+    aws_iam_policy.lambda_kms_policy[0].arn,
+    aws_iam_policy.lambda_dynamo_policy[0].arn,
+    data.terraform_remote_state.shared.outputs.redis_ssm_parameter_policy
+  ]
+}
+
 module "account_notification_dynamo_sqs_role" {
   source      = "../modules/lambda-role"
   environment = var.environment
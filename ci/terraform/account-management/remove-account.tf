@@ -31,11 +31,4 @@ module "delete_account" {
   cloudwatch_key_arn                     = data.terraform_remote_state.shared.outputs.cloudwatch_encryption_key_arn
   cloudwatch_log_retention               = var.cloudwatch_log_retention
   lambda_env_vars_encryption_kms_key_arn = data.terraform_remote_state.shared.outputs.lambda_env_vars_encryption_kms_key_arn
-
-  keep_lambda_warm             = var.keep_lambdas_warm
-  warmer_handler_function_name = "uk.gov.di.lambdawarmer.lambda.LambdaWarmerHandler::handleRequest"
-  warmer_lambda_zip_file       = var.lambda_warmer_zip_file
-  warmer_handler_environment_variables = {
-    LAMBDA_MIN_CONCURRENCY = var.lambda_min_concurrency
-  }
 }
\ No newline at end of file
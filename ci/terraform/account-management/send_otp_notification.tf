@@ -34,13 +34,6 @@ module "send_otp_notification" {
   authorizer_id                          = aws_api_gateway_authorizer.di_account_management_api.id
   use_localstack                         = var.use_localstack
 
-  keep_lambda_warm             = var.keep_lambdas_warm
-  warmer_handler_function_name = "uk.gov.di.lambdawarmer.lambda.LambdaWarmerHandler::handleRequest"
-  warmer_lambda_zip_file       = var.lambda_warmer_zip_file
-  warmer_handler_environment_variables = {
-    LAMBDA_MIN_CONCURRENCY = var.lambda_min_concurrency
-  }
-
   depends_on = [
     aws_api_gateway_rest_api.di_account_management_api,
     aws_vpc.account_management_vpc,
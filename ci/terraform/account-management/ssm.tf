@@ -1,5 +1,6 @@
 locals {
-  redis_key = "account-management"
+  redis_key             = "account-management"
+  token_store_redis_key = "session"
 }
 
 data "aws_iam_policy_document" "key_policy" {
@@ -158,6 +158,24 @@ variable "lambda_min_concurrency" {
   description = "The number of lambda instance to keep 'warm'"
 }
 
+variable "lambda_max_concurrency" {
+  default     = 100
+  type        = number
+  description = "The most lambda instances a warmer will keep 'warm'"
+}
+
+variable "lambda_concurrency_schedule" {
+  default     = ""
+  type        = string
+  description = "Instances to keep 'warm' by time of day, as HH:mm-HH:mm=n separated by commas"
+}
+
+variable "lambda_observed_peak_enabled" {
+  default     = false
+  type        = bool
+  description = "Whether warmers also keep 'warm' the recent and week-ago peak concurrency"
+}
+
 variable "customer_support_link_route" {
   type    = string
   default = "support"
@@ -167,3 +185,9 @@ variable "localstack_endpoint" {
   type    = string
   default = "http://localhost:45678/"
 }
+
+variable "access_token_store_check_enabled" {
+  default     = true
+  type        = bool
+  description = "Whether the authoriser rejects access tokens that are no longer in the OIDC token store"
+}
@@ -0,0 +1,33 @@
+module "lambda_warmer" {
+  source = "../modules/lambda-warmer"
+
+  environment = var.environment
+  name        = "account-management"
+  enabled     = var.keep_lambdas_warm
+
+  targets = [
+    "${aws_lambda_function.authorizer.arn}|${aws_lambda_alias.authorizer_alias.name}|AUTHORIZER",
+    module.authenticate.warmer_target,
+    module.delete_account.warmer_target,
+    module.send_otp_notification.warmer_target,
+    module.update_email.warmer_target,
+    module.update_password.warmer_target,
+    module.update_phone_number.warmer_target,
+  ]
+
+  lambda_zip_file = var.lambda_warmer_zip_file
+  handler_environment_variables = {
+    LAMBDA_CONCURRENCY_SCHEDULE  = var.lambda_concurrency_schedule
+    LAMBDA_MAX_CONCURRENCY       = var.lambda_max_concurrency
+    LAMBDA_MIN_CONCURRENCY       = var.lambda_min_concurrency
+    LAMBDA_OBSERVED_PEAK_ENABLED = var.lambda_observed_peak_enabled
+  }
+
+  vpc_arn                                = aws_vpc.account_management_vpc.arn
+  security_group_id                      = aws_vpc.account_management_vpc.default_security_group_id
+  subnet_ids                             = aws_subnet.account_management_subnets.*.id
+  lambda_env_vars_encryption_kms_key_arn = data.terraform_remote_state.shared.outputs.lambda_env_vars_encryption_kms_key_arn
+  cloudwatch_key_arn                     = data.terraform_remote_state.shared.outputs.cloudwatch_encryption_key_arn
+  cloudwatch_log_retention               = var.cloudwatch_log_retention
+  default_tags                           = local.default_tags
+}
@@ -167,6 +167,8 @@ resource "aws_sns_topic_subscription" "event_stream_subscription" {
 resource "aws_lambda_event_source_mapping" "audit_storage_batch_queue_subscription" {
   event_source_arn = aws_sqs_queue.storage_batch.arn
   function_name    = aws_lambda_function.audit_processor_lambda.arn
+
+  function_response_types = ["ReportBatchItemFailures"]
 }
 
 resource "aws_lambda_permission" "sqs_can_execute_subscriber_lambda" {
@@ -223,6 +225,8 @@ resource "aws_s3_bucket" "audit_storage_bucket" {
     id      = "default-intelligent-tiering"
     enabled = true
 
+    abort_incomplete_multipart_upload_days = 1
+
     transition {
       days          = 1
       storage_class = "INTELLIGENT_TIERING"
@@ -258,6 +262,7 @@ resource "aws_iam_policy" "audit_storage_s3_access" {
       Effect = "Allow"
       Action = [
         "s3:PutObject",
+        "s3:AbortMultipartUpload",
       ]
 
       Resource = [
@@ -18,8 +18,12 @@ resource "aws_lambda_function" "endpoint_lambda" {
   }
   environment {
     variables = merge(var.handler_environment_variables, {
-      WARMER_DELAY = var.warmer_delay_millis
-    })
+      TUNABLES_HOT_RELOAD_ENABLED = var.tunables_hot_reload_enabled
+      WARMER_DELAY                = var.warmer_delay_millis
+      WARMUP_PRIMING_ENABLED      = var.warmup_priming_enabled
+      }, var.app_cds_archive_enabled ? {
+      JAVA_TOOL_OPTIONS = "-XX:SharedArchiveFile=/var/task/app.jsa -Xshare:auto"
+    } : {})
   }
   kms_key_arn = var.lambda_env_vars_encryption_kms_key_arn
 
@@ -103,39 +103,25 @@ variable "default_tags" {
   description = "Default tags to apply to all resources"
 }
 
-variable "keep_lambda_warm" {
-  type    = bool
-  default = true
-}
-
-variable "warmer_lambda_zip_file" {
-  type    = string
-  default = null
-}
-
-variable "warmer_handler_function_name" {
-  type    = string
-  default = null
-}
-
-variable "warmer_handler_environment_variables" {
-  type    = map(string)
-  default = null
+variable "warmer_delay_millis" {
+  type    = number
+  default = 200
 }
 
-variable "warmer_handler_runtime" {
-  type    = string
-  default = "java11"
+variable "warmup_priming_enabled" {
+  type    = bool
+  default = true
 }
 
-variable "warmer_run_minutes" {
-  type    = number
-  default = 5
+variable "app_cds_archive_enabled" {
+  type        = bool
+  default     = false
+  description = "Whether the JVM maps the app.jsa class data sharing archive packaged with the lambda zip"
 }
 
-variable "warmer_delay_millis" {
-  type    = number
-  default = 200
+variable "tunables_hot_reload_enabled" {
+  type    = bool
+  default = false
 }
 
 variable "authorizer_id" {
@@ -99,4 +99,35 @@ resource "aws_iam_role_policy_attachment" "networking_policy" {
     aws_iam_role.lambda_role,
     aws_iam_policy.networking_policy
   ]
-}
\ No newline at end of file
+}
+
+resource "aws_iam_policy" "tunables_parameter_policy" {
+  name_prefix = "tunables-parameter"
+  path        = "/${var.environment}/${var.role_name}/"
+  description = "IAM policy for reading configuration tunables from a lambda"
+
+  policy = jsonencode({
+    Version = "2012-10-17"
+
+    Statement = [{
+      Effect = "Allow"
+      Action = [
+        "ssm:GetParameter",
+        "ssm:GetParameters",
+      ]
+      Resource = [
+        "arn:aws:ssm:*:*:parameter/${var.environment}-tunables",
+      ]
+    }]
+  })
+}
+
+resource "aws_iam_role_policy_attachment" "tunables_parameter_policy" {
+  role       = aws_iam_role.lambda_role.name
+  policy_arn = aws_iam_policy.tunables_parameter_policy.arn
+
+  depends_on = [
+    aws_iam_role.lambda_role,
+    aws_iam_policy.tunables_parameter_policy
+  ]
+}
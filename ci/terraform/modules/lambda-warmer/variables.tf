@@ -0,0 +1,67 @@
+variable "environment" {
+  type = string
+}
+
+variable "name" {
+  type        = string
+  description = "The stack the warmer belongs to, used to name its resources"
+}
+
+variable "enabled" {
+  type    = bool
+  default = true
+}
+
+variable "targets" {
+  type        = list(string)
+  description = "The functions to warm, as arn|qualifier|type entries"
+}
+
+variable "lambda_zip_file" {
+  type = string
+}
+
+variable "handler_environment_variables" {
+  type    = map(string)
+  default = {}
+}
+
+variable "runtime" {
+  type    = string
+  default = "java11"
+}
+
+variable "run_minutes" {
+  type    = number
+  default = 5
+}
+
+variable "vpc_arn" {
+  type = string
+}
+
+variable "security_group_id" {
+  type = string
+}
+
+variable "subnet_ids" {
+  type = list(string)
+}
+
+variable "lambda_env_vars_encryption_kms_key_arn" {
+  type = string
+}
+
+variable "cloudwatch_key_arn" {
+  type = string
+}
+
+variable "cloudwatch_log_retention" {
+  type = number
+}
+
+variable "default_tags" {
+  default     = {}
+  type        = map(string)
+  description = "Default tags to apply to all resources"
+}
@@ -62,4 +62,40 @@ resource "aws_cloudwatch_metric_alarm" "waf_frontend_blocked_request_cloudwatch_
 
 data "aws_sns_topic" "slack_events" {
   name = "${var.environment}-slack-events"
-}
\ No newline at end of file
+}
+
+resource "aws_cloudwatch_metric_alarm" "password_migration_backlog_cloudwatch_alarm" {
+  count               = var.use_localstack ? 0 : 1
+  alarm_name          = replace("${var.environment}-password-migration-backlog-alarm", ".", "")
+  comparison_operator = "GreaterThanOrEqualToThreshold"
+  evaluation_periods  = "3"
+  metric_name         = "ApproximateAgeOfOldestMessage"
+  namespace           = "AWS/SQS"
+  period              = "300"
+  statistic           = "Maximum"
+  threshold           = "900"
+
+  dimensions = {
+    QueueName = aws_sqs_queue.password_migration_queue.name
+  }
+  alarm_description = "Messages on the ${aws_sqs_queue.password_migration_queue.name} have been waiting for 15 minutes or more"
+  alarm_actions     = [data.aws_sns_topic.slack_events.arn]
+}
+
+resource "aws_cloudwatch_metric_alarm" "password_migration_deadletter_cloudwatch_alarm" {
+  count               = var.use_localstack ? 0 : 1
+  alarm_name          = replace("${var.environment}-password-migration-dlq-alarm", ".", "")
+  comparison_operator = "GreaterThanOrEqualToThreshold"
+  evaluation_periods  = "1"
+  metric_name         = "ApproximateNumberOfMessagesVisible"
+  namespace           = "AWS/SQS"
+  period              = "300"
+  statistic           = "Sum"
+  threshold           = var.dlq_alarm_threshold
+
+  dimensions = {
+    QueueName = aws_sqs_queue.password_migration_dead_letter_queue.name
+  }
+  alarm_description = "${var.dlq_alarm_threshold} or more messages have appeared on the ${aws_sqs_queue.password_migration_dead_letter_queue.name}"
+  alarm_actions     = [data.aws_sns_topic.slack_events.arn]
+}
@@ -34,13 +34,6 @@ module "client-info" {
   default_tags                           = local.default_tags
   api_key_required                       = true
 
-  keep_lambda_warm             = var.keep_lambdas_warm
-  warmer_handler_function_name = "uk.gov.di.lambdawarmer.lambda.LambdaWarmerHandler::handleRequest"
-  warmer_lambda_zip_file       = var.lambda_warmer_zip_file
-  warmer_handler_environment_variables = {
-    LAMBDA_MIN_CONCURRENCY = var.lambda_min_concurrency
-  }
-
   use_localstack = var.use_localstack
 
   depends_on = [
@@ -16,6 +16,13 @@ module "login" {
     DYNAMO_ENDPOINT          = var.use_localstack ? var.lambda_dynamo_endpoint : null
     TERMS_CONDITIONS_VERSION = var.terms_and_conditions
     HEADERS_CASE_INSENSITIVE = var.use_localstack ? "true" : "false"
+
+    SQS_ENDPOINT                 = var.use_localstack ? "http://localhost:45678/" : null
+    PASSWORD_MIGRATION_QUEUE_URL = aws_sqs_queue.password_migration_queue.id
+    PASSWORD_MIGRATION_KEY_ALIAS = aws_kms_alias.password_migration_key_alias.name
+    ARGON2_MEMORY_KIB            = var.argon2_memory_kib
+    ARGON2_ITERATIONS            = var.argon2_iterations
+    ARGON2_PARALLELISM           = var.argon2_parallelism
   }
   handler_function_name = "uk.gov.di.authentication.frontendapi.lambda.LoginHandler::handleRequest"
 
@@ -26,7 +33,7 @@ module "login" {
   authentication_vpc_arn                 = local.authentication_vpc_arn
   security_group_id                      = local.authentication_security_group_id
   subnet_id                              = local.authentication_subnet_ids
-  lambda_role_arn                        = module.oidc_default_role.arn
+  lambda_role_arn                        = module.oidc_login_role.arn
   logging_endpoint_enabled               = var.logging_endpoint_enabled
   logging_endpoint_arn                   = var.logging_endpoint_arn
   cloudwatch_key_arn                     = data.terraform_remote_state.shared.outputs.cloudwatch_encryption_key_arn
@@ -35,12 +42,5 @@ module "login" {
   default_tags                           = local.default_tags
   api_key_required                       = true
 
-  keep_lambda_warm             = var.keep_lambdas_warm
-  warmer_handler_function_name = "uk.gov.di.lambdawarmer.lambda.LambdaWarmerHandler::handleRequest"
-  warmer_lambda_zip_file       = var.lambda_warmer_zip_file
-  warmer_handler_environment_variables = {
-    LAMBDA_MIN_CONCURRENCY = var.lambda_min_concurrency
-  }
-
   use_localstack = var.use_localstack
 }
@@ -0,0 +1,215 @@
+resource "aws_kms_key" "password_migration_key" {
+  description             = "KMS key for passwords queued for migration to Argon2"
+  deletion_window_in_days = 30
+
+  tags = local.default_tags
+}
+
+resource "aws_kms_alias" "password_migration_key_alias" {
+  name          = "alias/${var.environment}-password-migration-key-alias"
+  target_key_id = aws_kms_key.password_migration_key.key_id
+}
+
+resource "aws_sqs_queue" "password_migration_queue" {
+  name                      = "${var.environment}-password-migration-queue"
+  max_message_size          = 2048
+  message_retention_seconds = 3600 * 24
+  receive_wait_time_seconds = 10
+  redrive_policy = jsonencode({
+    deadLetterTargetArn = aws_sqs_queue.password_migration_dead_letter_queue.arn
+    maxReceiveCount     = 3
+  })
+
+  kms_master_key_id                 = var.use_localstack ? null : "alias/aws/sqs"
+  kms_data_key_reuse_period_seconds = var.use_localstack ? null : 300
+
+  tags = local.default_tags
+}
+
+resource "aws_sqs_queue" "password_migration_dead_letter_queue" {
+  name = "${var.environment}-password-migration-dlq"
+
+  kms_master_key_id                 = var.use_localstack ? null : "alias/aws/sqs"
+  kms_data_key_reuse_period_seconds = var.use_localstack ? null : 300
+
+  message_retention_seconds = 3600 * 24
+
+  tags = local.default_tags
+}
+
+### Producer (login) and consumer policies
+
+data "aws_iam_policy_document" "password_migration_producer_policy_document" {
+  statement {
+    sid    = "AllowEncryptWithPasswordMigrationKey"
+    effect = "Allow"
+
+    actions = [
+      "kms:Encrypt",
+    ]
+    resources = [
+      aws_kms_key.password_migration_key.arn,
+    ]
+  }
+
+  statement {
+    sid    = "AllowSendToPasswordMigrationQueue"
+    effect = "Allow"
+
+    actions = [
+      "sqs:SendMessage",
+    ]
+    resources = [
+      aws_sqs_queue.password_migration_queue.arn,
+    ]
+  }
+}
+
+resource "aws_iam_policy" "password_migration_producer_policy" {
+  name_prefix = "password-migration-producer-policy"
+  path        = "/${var.environment}/oidc-default/"
+  description = "IAM policy for a lambda which queues passwords for migration to Argon2"
+
+  policy = data.aws_iam_policy_document.password_migration_producer_policy_document.json
+}
+
+data "aws_iam_policy_document" "password_migration_consumer_policy_document" {
+  statement {
+    sid    = "AllowDecryptWithPasswordMigrationKey"
+    effect = "Allow"
+
+    actions = [
+      "kms:Decrypt",
+    ]
+    resources = [
+      aws_kms_key.password_migration_key.arn,
+    ]
+  }
+
+  statement {
+    sid    = "AllowReceiveFromPasswordMigrationQueue"
+    effect = "Allow"
+
+    actions = [
+      "sqs:ReceiveMessage",
+      "sqs:DeleteMessage",
+      "sqs:GetQueueAttributes",
+    ]
+    resources = [
+      aws_sqs_queue.password_migration_queue.arn,
+    ]
+  }
+}
+
+resource "aws_iam_policy" "password_migration_consumer_policy" {
+  name_prefix = "password-migration-consumer-policy"
+  path        = "/${var.environment}/"
+  description = "IAM policy for the lambda which migrates queued passwords to Argon2"
+
+  policy = data.aws_iam_policy_document.password_migration_consumer_policy_document.json
+}
+
+module "oidc_login_role" {
+  source      = "../modules/lambda-role"
+  environment = var.environment
+  role_name   = "oidc-login-role"
+  vpc_arn     = local.authentication_vpc_arn
+
+  policies_to_attach = var.use_localstack ? [
+    aws_iam_policy.lambda_sns_policy.arn,
+    aws_iam_policy.redis_parameter_policy.arn,
+    aws_iam_policy.pepper_parameter_policy.arn,
+    aws_iam_policy.password_migration_producer_policy.arn
+    ] : [
+    aws_iam_policy.oidc_default_id_token_public_key_kms_policy[0].arn,
+    aws_iam_policy.audit_signing_key_lambda_kms_signing_policy[0].arn,
+    aws_iam_policy.dynamo_access_policy[0].arn,
+    aws_iam_policy.lambda_sns_policy.arn,
+    aws_iam_policy.redis_parameter_policy.arn,
+    aws_iam_policy.pepper_parameter_policy.arn,
+    aws_iam_policy.password_migration_producer_policy.arn
+  ]
+}
+
+module "oidc_password_migration_role" {
+  source      = "../modules/lambda-role"
+  environment = var.environment
+  role_name   = "oidc-password-migration"
+  vpc_arn     = local.authentication_vpc_arn
+
+  policies_to_attach = var.use_localstack ? [
+    aws_iam_policy.pepper_parameter_policy.arn,
+    aws_iam_policy.password_migration_consumer_policy.arn
+    ] : [
+    aws_iam_policy.dynamo_access_policy[0].arn,
+    aws_iam_policy.pepper_parameter_policy.arn,
+    aws_iam_policy.password_migration_consumer_policy.arn
+  ]
+}
+
+### Consumer lambda
+
+resource "aws_lambda_function" "password_migration_lambda" {
+  filename      = var.frontend_api_lambda_zip_file
+  function_name = "${var.environment}-password-migration-lambda"
+  role          = module.oidc_password_migration_role.arn
+  handler       = "uk.gov.di.authentication.frontendapi.lambda.PasswordMigrationHandler::handleRequest"
+  timeout       = 60
+  memory_size   = 1024
+  runtime       = "java11"
+  publish       = true
+
+  source_code_hash = filebase64sha256(var.frontend_api_lambda_zip_file)
+  vpc_config {
+    security_group_ids = [local.authentication_security_group_id]
+    subnet_ids         = local.authentication_subnet_ids
+  }
+  environment {
+    variables = {
+      ENVIRONMENT                  = var.environment
+      LOCALSTACK_ENDPOINT          = var.use_localstack ? var.localstack_endpoint : null
+      DYNAMO_ENDPOINT              = var.use_localstack ? var.lambda_dynamo_endpoint : null
+      PASSWORD_MIGRATION_KEY_ALIAS = aws_kms_alias.password_migration_key_alias.name
+      ARGON2_MEMORY_KIB            = var.argon2_memory_kib
+      ARGON2_ITERATIONS            = var.argon2_iterations
+      ARGON2_PARALLELISM           = var.argon2_parallelism
+    }
+  }
+  kms_key_arn = local.lambda_env_vars_encryption_kms_key_arn
+
+  tags = local.default_tags
+}
+
+resource "aws_lambda_event_source_mapping" "password_migration_sqs_mapping" {
+  event_source_arn        = aws_sqs_queue.password_migration_queue.arn
+  function_name           = aws_lambda_function.password_migration_lambda.arn
+  batch_size              = 10
+  function_response_types = ["ReportBatchItemFailures"]
+
+  depends_on = [
+    aws_sqs_queue.password_migration_queue,
+    aws_lambda_function.password_migration_lambda
+  ]
+}
+
+resource "aws_cloudwatch_log_group" "password_migration_lambda_log_group" {
+  count = var.use_localstack ? 0 : 1
+
+  name              = "/aws/lambda/${aws_lambda_function.password_migration_lambda.function_name}"
+  kms_key_id        = data.terraform_remote_state.shared.outputs.cloudwatch_encryption_key_arn
+  retention_in_days = var.cloudwatch_log_retention
+
+  tags = local.default_tags
+
+  depends_on = [
+    aws_lambda_function.password_migration_lambda
+  ]
+}
+
+resource "aws_cloudwatch_log_subscription_filter" "password_migration_lambda_log_subscription" {
+  count           = var.logging_endpoint_enabled ? 1 : 0
+  name            = "${aws_lambda_function.password_migration_lambda.function_name}-log-subscription"
+  log_group_name  = aws_cloudwatch_log_group.password_migration_lambda_log_group[0].name
+  filter_pattern  = ""
+  destination_arn = var.logging_endpoint_arn
+}
@@ -17,6 +17,9 @@ module "reset_password" {
     REDIS_KEY                = local.redis_key
     SQS_ENDPOINT             = var.use_localstack ? "http://localhost:45678/" : null
     TERMS_CONDITIONS_VERSION = var.terms_and_conditions
+    ARGON2_MEMORY_KIB        = var.argon2_memory_kib
+    ARGON2_ITERATIONS        = var.argon2_iterations
+    ARGON2_PARALLELISM       = var.argon2_parallelism
   }
   handler_function_name = "uk.gov.di.authentication.frontendapi.lambda.ResetPasswordHandler::handleRequest"
 
@@ -36,13 +39,6 @@ module "reset_password" {
   default_tags                           = local.default_tags
   api_key_required                       = true
 
-  keep_lambda_warm             = var.keep_lambdas_warm
-  warmer_handler_function_name = "uk.gov.di.lambdawarmer.lambda.LambdaWarmerHandler::handleRequest"
-  warmer_lambda_zip_file       = var.lambda_warmer_zip_file
-  warmer_handler_environment_variables = {
-    LAMBDA_MIN_CONCURRENCY = var.lambda_min_concurrency
-  }
-
   use_localstack = var.use_localstack
 
   depends_on = [
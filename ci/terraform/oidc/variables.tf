@@ -171,6 +171,24 @@ variable "lambda_min_concurrency" {
   description = "The number of lambda instance to keep 'warm'"
 }
 
+variable "lambda_max_concurrency" {
+  default     = 100
+  type        = number
+  description = "The most lambda instances a warmer will keep 'warm'"
+}
+
+variable "lambda_concurrency_schedule" {
+  default     = ""
+  type        = string
+  description = "Instances to keep 'warm' by time of day, as HH:mm-HH:mm=n separated by commas"
+}
+
+variable "lambda_observed_peak_enabled" {
+  default     = false
+  type        = bool
+  description = "Whether warmers also keep 'warm' the recent and week-ago peak concurrency"
+}
+
 variable "dlq_alarm_threshold" {
   default     = 1
   type        = number
@@ -198,4 +216,19 @@ variable "test_clients_enabled" {
 
 variable "client_registry_api_enabled" {
   default = true
-}
\ No newline at end of file
+}
+
+variable "argon2_memory_kib" {
+  type    = number
+  default = 15360
+}
+
+variable "argon2_iterations" {
+  type    = number
+  default = 2
+}
+
+variable "argon2_parallelism" {
+  type    = number
+  default = 1
+}
@@ -0,0 +1,46 @@
+module "lambda_warmer" {
+  source = "../modules/lambda-warmer"
+
+  environment = var.environment
+  name        = "oidc"
+  enabled     = var.keep_lambdas_warm
+
+  targets = [
+    module.auth-code.warmer_target,
+    module.authorize.warmer_target,
+    module.client-info.warmer_target,
+    module.jwks.warmer_target,
+    module.login.warmer_target,
+    module.logout.warmer_target,
+    module.mfa.warmer_target,
+    module.register.warmer_target,
+    module.reset-password-request.warmer_target,
+    module.reset_password.warmer_target,
+    module.send_notification.warmer_target,
+    module.signup.warmer_target,
+    module.token.warmer_target,
+    module.trustmarks.warmer_target,
+    module.update.warmer_target,
+    module.update_profile.warmer_target,
+    module.userexists.warmer_target,
+    module.userinfo.warmer_target,
+    module.verify_code.warmer_target,
+    module.openid_configuration_discovery.warmer_target,
+  ]
+
+  lambda_zip_file = var.lambda_warmer_zip_file
+  handler_environment_variables = {
+    LAMBDA_CONCURRENCY_SCHEDULE  = var.lambda_concurrency_schedule
+    LAMBDA_MAX_CONCURRENCY       = var.lambda_max_concurrency
+    LAMBDA_MIN_CONCURRENCY       = var.lambda_min_concurrency
+    LAMBDA_OBSERVED_PEAK_ENABLED = var.lambda_observed_peak_enabled
+  }
+
+  vpc_arn                                = local.authentication_vpc_arn
+  security_group_id                      = local.authentication_security_group_id
+  subnet_ids                             = local.authentication_subnet_ids
+  lambda_env_vars_encryption_kms_key_arn = local.lambda_env_vars_encryption_kms_key_arn
+  cloudwatch_key_arn                     = data.terraform_remote_state.shared.outputs.cloudwatch_encryption_key_arn
+  cloudwatch_log_retention               = var.cloudwatch_log_retention
+  default_tags                           = local.default_tags
+}
@@ -41,10 +41,34 @@ data "aws_iam_policy_document" "data_transfer_lambda_s3_policy" {
     effect = "Allow"
   }
 
+  statement {
+    sid = "AllowDataTransferLambdaToCheckpointImports"
+    actions = [
+      "s3:PutObject",
+      "s3:DeleteObject"
+    ]
+    resources = [
+      "${aws_s3_bucket.data_transfer_bucket[0].arn}/*.checkpoint"
+    ]
+    effect = "Allow"
+  }
+
+  statement {
+    sid = "AllowDataTransferLambdaToFindCheckpoints"
+    actions = [
+      "s3:ListBucket"
+    ]
+    resources = [
+      aws_s3_bucket.data_transfer_bucket[0].arn
+    ]
+    effect = "Allow"
+  }
+
   statement {
     sid = "AllowDataTransferLambdaToDecrypt"
     actions = [
-      "kms:Decrypt"
+      "kms:Decrypt",
+      "kms:GenerateDataKey"
     ]
     resources = [
       aws_kms_key.data_transfer_key[0].arn
@@ -129,6 +153,37 @@ resource "aws_lambda_function" "data_transfer_lambda" {
   tags = local.default_tags
 }
 
+data "aws_iam_policy_document" "data_transfer_lambda_invoke_policy" {
+  count = var.use_localstack ? 0 : 1
+
+  version = "2012-10-17"
+  statement {
+    sid = "AllowDataTransferLambdaToContinueImports"
+    actions = [
+      "lambda:InvokeFunction"
+    ]
+    resources = [
+      aws_lambda_function.data_transfer_lambda[0].arn
+    ]
+    effect = "Allow"
+  }
+}
+
+resource "aws_iam_policy" "data_transfer_invoke_policy" {
+  count = var.use_localstack ? 0 : 1
+
+  name        = "${var.environment}-data-transfer-lambda-invoke-policy"
+  description = "IAM policy allowing data transfer lambda to invoke itself to continue an import"
+  policy      = data.aws_iam_policy_document.data_transfer_lambda_invoke_policy[0].json
+}
+
+resource "aws_iam_role_policy_attachment" "data_transfer_invoke" {
+  count = var.use_localstack ? 0 : 1
+
+  role       = aws_iam_role.data_transfer_lambda_role[0].name
+  policy_arn = aws_iam_policy.data_transfer_invoke_policy[0].arn
+}
+
 resource "aws_cloudwatch_log_group" "data_transfer_lambda_log_group" {
   count = var.use_localstack ? 0 : 1
 
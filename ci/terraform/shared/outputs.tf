@@ -116,4 +116,4 @@ output "redis_ssm_parameter_policy" {
 
 output "pepper_ssm_parameter_policy" {
   value = aws_iam_policy.pepper_parameter_policy.arn
-}
\ No newline at end of file
+}
@@ -83,6 +83,16 @@ resource "aws_ssm_parameter" "password_pepper" {
   value  = var.password_pepper
 }
 
+resource "aws_ssm_parameter" "tunables" {
+  name  = "${var.environment}-tunables"
+  type  = "String"
+  value = "# NAME=value overrides of allowed lambda tunables, read when hot reload is enabled"
+
+  lifecycle {
+    ignore_changes = [value]
+  }
+}
+
 data "aws_iam_policy_document" "redis_parameter_policy" {
   statement {
     sid    = "AllowGetParameters"
@@ -0,0 +1,25 @@
+package uk.gov.di.authentication.frontendapi.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class PasswordMigrationRequest {
+
+    @JsonProperty private String email;
+
+    @JsonProperty private String encryptedPassword;
+
+    public PasswordMigrationRequest(
+            @JsonProperty(required = true, value = "email") String email,
+            @JsonProperty(required = true, value = "encryptedPassword") String encryptedPassword) {
+        this.email = email;
+        this.encryptedPassword = encryptedPassword;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getEncryptedPassword() {
+        return encryptedPassword;
+    }
+}
@@ -14,21 +14,31 @@ import uk.gov.di.authentication.shared.entity.ClientSession;
 import uk.gov.di.authentication.shared.entity.ErrorResponse;
 import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
+import uk.gov.di.authentication.shared.helpers.WarmerHelper;
+import uk.gov.di.authentication.shared.helpers.WarmupPrimers;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
 import uk.gov.di.authentication.shared.services.ClientService;
 import uk.gov.di.authentication.shared.services.ClientSessionService;
+import uk.gov.di.authentication.shared.services.CodeStorageService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
 import uk.gov.di.authentication.shared.services.DynamoService;
+import uk.gov.di.authentication.shared.services.RedisConnectionService;
+import uk.gov.di.authentication.shared.services.RequestScoped;
+import uk.gov.di.authentication.shared.services.RequestScopedAuthenticationService;
+import uk.gov.di.authentication.shared.services.RequestScopedClientService;
 import uk.gov.di.authentication.shared.services.SessionService;
 import uk.gov.di.authentication.shared.state.UserContext;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
 import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateApiGatewayProxyErrorResponse;
 import static uk.gov.di.authentication.shared.helpers.LogLineHelper.attachSessionIdToLogs;
 import static uk.gov.di.authentication.shared.helpers.WarmerHelper.isWarming;
+import static uk.gov.di.authentication.shared.services.ClientSessionService.CLIENT_SESSION_PREFIX;
 
 public abstract class BaseFrontendHandler<T>
         implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
@@ -42,6 +52,8 @@ public abstract class BaseFrontendHandler<T>
     protected final ClientService clientService;
     protected final AuthenticationService authenticationService;
     protected final ObjectMapper objectMapper = ObjectMapperFactory.getInstance();
+    private final RedisConnectionService redisConnectionService;
+    private final List<RequestScoped> requestScopedServices;
 
     protected BaseFrontendHandler(
             Class<T> clazz,
@@ -56,6 +68,8 @@ public abstract class BaseFrontendHandler<T>
         this.clientSessionService = clientSessionService;
         this.clientService = clientService;
         this.authenticationService = authenticationService;
+        this.redisConnectionService = null;
+        this.requestScopedServices = new ArrayList<>();
     }
 
     protected BaseFrontendHandler(Class<T> clazz, ConfigurationService configurationService) {
@@ -63,22 +77,54 @@ public abstract class BaseFrontendHandler<T>
         this.configurationService = configurationService;
         this.sessionService = new SessionService(configurationService);
         this.clientSessionService = new ClientSessionService(configurationService);
-        this.clientService =
-                new DynamoClientService(
-                        configurationService.getAwsRegion(),
-                        configurationService.getEnvironment(),
-                        configurationService.getDynamoEndpointUri());
-        this.authenticationService =
-                new DynamoService(
-                        configurationService.getAwsRegion(),
-                        configurationService.getEnvironment(),
-                        configurationService.getDynamoEndpointUri());
+        var requestScopedClientService =
+                new RequestScopedClientService(
+                        new DynamoClientService(
+                                configurationService.getAwsRegion(),
+                                configurationService.getEnvironment(),
+                                configurationService.getDynamoEndpointUri()));
+        var requestScopedAuthenticationService =
+                new RequestScopedAuthenticationService(new DynamoService(configurationService));
+        this.clientService = requestScopedClientService;
+        this.authenticationService = requestScopedAuthenticationService;
+        this.redisConnectionService = RedisConnectionService.getInstance(configurationService);
+        this.requestScopedServices =
+                new ArrayList<>(
+                        List.of(
+                                requestScopedClientService,
+                                requestScopedAuthenticationService,
+                                redisConnectionService));
+    }
+
+    protected <S extends RequestScoped> S endWithRequest(S service) {
+        requestScopedServices.add(service);
+        return service;
     }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
-        return isWarming(input).orElseGet(() -> validateAndHandleRequest(input, context));
+        try {
+            return isWarming(input, this::primeForWarmup)
+                    .orElseGet(() -> validateAndHandleRequest(input, context));
+        } finally {
+            try {
+                RequestScoped.endRequests(requestScopedServices);
+            } finally {
+                WarmerHelper.requestComplete();
+            }
+        }
+    }
+
+    /**
+     * Primes what every frontend request touches: the Redis connection, the DynamoDB client and
+     * the session serializers. Handlers with other first-use costs add to this.
+     */
+    protected void primeForWarmup() throws Exception {
+        WarmupPrimers.COMMON.prime();
+        sessionService.readSessionFromRedis(WarmupPrimers.WARMUP_ID);
+        authenticationService.userExists(WarmupPrimers.WARMUP_EMAIL);
+        clientService.isValidClient(WarmupPrimers.WARMUP_ID);
     }
 
     public void onRequestReceived(Context context) {}
@@ -94,6 +140,13 @@ public abstract class BaseFrontendHandler<T>
     private APIGatewayProxyResponseEvent validateAndHandleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
         onRequestReceived(context);
+        Optional<T> parsedRequest;
+        try {
+            parsedRequest = Optional.of(objectMapper.readValue(input.getBody(), clazz));
+        } catch (JsonProcessingException | ConstraintViolationException e) {
+            parsedRequest = Optional.empty();
+        }
+        prefetchRequestState(input, parsedRequest);
         Optional<Session> session = sessionService.getSessionFromRequestHeaders(input.getHeaders());
         Optional<ClientSession> clientSession =
                 clientSessionService.getClientSessionFromRequestHeaders(input.getHeaders());
@@ -103,14 +156,12 @@ public abstract class BaseFrontendHandler<T>
         } else {
             attachSessionIdToLogs(session.get());
         }
-        final T request;
-        try {
-            request = objectMapper.readValue(input.getBody(), clazz);
-        } catch (JsonProcessingException | ConstraintViolationException e) {
+        if (parsedRequest.isEmpty()) {
             LOG.error("Request is missing parameters.");
             onRequestValidationError(context);
             return generateApiGatewayProxyErrorResponse(400, ErrorResponse.ERROR_1001);
         }
+        final T request = parsedRequest.get();
 
         UserContext.Builder userContextBuilder = UserContext.builder(session.get());
 
@@ -142,4 +193,31 @@ public abstract class BaseFrontendHandler<T>
 
         return handleRequestWithUserContext(input, context, request, userContextBuilder.build());
     }
+
+    /**
+     * Reads the session, the client session, and the blocks and incorrect password count for the
+     * email address in the request with one MGET, so the reads the services make for them later in
+     * the request do not go back to Redis. Blocks on the email address held in the session are not known until the session
+     * has been read, so those are still read when the handler checks them.
+     */
+    private void prefetchRequestState(APIGatewayProxyRequestEvent input, Optional<T> request) {
+        if (redisConnectionService == null) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        sessionService.getSessionIdFromRequestHeaders(input.getHeaders()).ifPresent(keys::add);
+        clientSessionService
+                .getClientSessionIdFromRequestHeaders(input.getHeaders())
+                .map(CLIENT_SESSION_PREFIX::concat)
+                .ifPresent(keys::add);
+        request.filter(BaseFrontendRequest.class::isInstance)
+                .map(r -> ((BaseFrontendRequest) r).getEmail())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .ifPresent(
+                        email -> {
+                            keys.addAll(CodeStorageService.getBlockKeysForEmail(email));
+                            keys.add(CodeStorageService.getIncorrectPasswordCountKey(email));
+                        });
+        redisConnectionService.prefetch(keys);
+    }
 }
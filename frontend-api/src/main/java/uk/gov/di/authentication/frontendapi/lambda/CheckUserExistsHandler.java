@@ -70,7 +70,7 @@ public class CheckUserExistsHandler extends BaseFrontendHandler<CheckUserExistsR
     public CheckUserExistsHandler(ConfigurationService configurationService) {
         super(CheckUserExistsRequest.class, configurationService);
         this.validationService = new ValidationService();
-        this.auditService = new AuditService(configurationService);
+        this.auditService = endWithRequest(new AuditService(configurationService, true));
     }
 
     @Override
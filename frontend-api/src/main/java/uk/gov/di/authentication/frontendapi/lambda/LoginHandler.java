@@ -21,13 +21,13 @@ import uk.gov.di.authentication.shared.entity.SessionState;
 import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.helpers.IpAddressHelper;
 import uk.gov.di.authentication.shared.helpers.PersistentIdHelper;
+import uk.gov.di.authentication.shared.helpers.WarmupPrimers;
 import uk.gov.di.authentication.shared.services.AuditService;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
 import uk.gov.di.authentication.shared.services.ClientService;
 import uk.gov.di.authentication.shared.services.ClientSessionService;
 import uk.gov.di.authentication.shared.services.CodeStorageService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
-import uk.gov.di.authentication.shared.services.DynamoService;
 import uk.gov.di.authentication.shared.services.RedisConnectionService;
 import uk.gov.di.authentication.shared.services.SessionService;
 import uk.gov.di.authentication.shared.state.StateMachine;
@@ -78,17 +78,22 @@ public class LoginHandler extends BaseFrontendHandler<LoginRequest>
     public LoginHandler(ConfigurationService configurationService) {
         super(LoginRequest.class, configurationService);
         this.codeStorageService =
-                new CodeStorageService(new RedisConnectionService(configurationService));
+                new CodeStorageService(RedisConnectionService.getInstance(configurationService));
         this.userMigrationService =
-                new UserMigrationService(
-                        new DynamoService(configurationService), configurationService);
-        this.auditService = new AuditService(configurationService);
+                new UserMigrationService(authenticationService, configurationService);
+        this.auditService = endWithRequest(new AuditService(configurationService, true));
     }
 
     public LoginHandler() {
         this(ConfigurationService.getInstance());
     }
 
+    @Override
+    protected void primeForWarmup() throws Exception {
+        super.primeForWarmup();
+        WarmupPrimers.ARGON2.prime();
+    }
+
     @Override
     public APIGatewayProxyResponseEvent handleRequestWithUserContext(
             APIGatewayProxyRequestEvent input,
@@ -123,10 +128,11 @@ public class LoginHandler extends BaseFrontendHandler<LoginRequest>
             }
 
             SessionState currentState = userContext.getSession().getState();
+            int maxPasswordRetries = configurationService.getMaxPasswordRetries();
             int incorrectPasswordCount =
                     codeStorageService.getIncorrectPasswordCount(request.getEmail());
 
-            if (incorrectPasswordCount >= configurationService.getMaxPasswordRetries()) {
+            if (incorrectPasswordCount >= maxPasswordRetries) {
                 LOGGER.info(
                         "User has exceeded max password retries with session: {}",
                         userContext.getSession().getSessionId());
@@ -179,10 +185,17 @@ public class LoginHandler extends BaseFrontendHandler<LoginRequest>
             }
 
             if (!hasValidCredentials) {
-                codeStorageService.increaseIncorrectPasswordCount(request.getEmail());
+                int incorrectPasswords =
+                        codeStorageService.increaseIncorrectPasswordCount(
+                                request.getEmail(), maxPasswordRetries);
                 LOGGER.info(
                         "Invalid login credentials entered with session: {}",
                         userContext.getSession().getSessionId());
+                if (incorrectPasswords == maxPasswordRetries) {
+                    LOGGER.info(
+                            "User has reached max password retries with session: {}",
+                            userContext.getSession().getSessionId());
+                }
 
                 auditService.submitAuditEvent(
                         FrontendAuditableEvent.INVALID_CREDENTIALS,
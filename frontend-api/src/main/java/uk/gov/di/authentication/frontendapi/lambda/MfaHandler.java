@@ -89,8 +89,8 @@ public class MfaHandler extends BaseFrontendHandler<MfaRequest>
         super(MfaRequest.class, ConfigurationService.getInstance());
         this.codeGeneratorService = new CodeGeneratorService();
         this.codeStorageService =
-                new CodeStorageService(new RedisConnectionService(configurationService));
-        this.auditService = new AuditService(configurationService);
+                new CodeStorageService(RedisConnectionService.getInstance(configurationService));
+        this.auditService = endWithRequest(new AuditService(configurationService, true));
         this.sqsClient =
                 new AwsSqsClient(
                         configurationService.getAwsRegion(),
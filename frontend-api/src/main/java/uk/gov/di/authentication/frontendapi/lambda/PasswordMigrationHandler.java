@@ -0,0 +1,93 @@
+package uk.gov.di.authentication.frontendapi.lambda;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.authentication.frontendapi.entity.PasswordMigrationRequest;
+import uk.gov.di.authentication.frontendapi.services.UserMigrationService;
+import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
+import uk.gov.di.authentication.shared.services.ConfigurationService;
+import uk.gov.di.authentication.shared.services.DynamoService;
+import uk.gov.di.authentication.shared.services.KmsConnectionService;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * Consumes the password migration queue written to by {@link LoginHandler}, replacing the legacy
+ * bcrypt hash of each user with an Argon2 hash. Messages that fail are reported individually so
+ * only they are retried.
+ */
+public class PasswordMigrationHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
+
+    private static final Logger LOG = LogManager.getLogger(PasswordMigrationHandler.class);
+    private static final String SENT_TIMESTAMP = "SentTimestamp";
+
+    private final UserMigrationService userMigrationService;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getInstance();
+
+    public PasswordMigrationHandler(UserMigrationService userMigrationService, Clock clock) {
+        this.userMigrationService = userMigrationService;
+        this.clock = clock;
+    }
+
+    public PasswordMigrationHandler() {
+        this(ConfigurationService.getInstance());
+    }
+
+    public PasswordMigrationHandler(ConfigurationService configurationService) {
+        this.userMigrationService =
+                new UserMigrationService(
+                        new DynamoService(configurationService),
+                        configurationService,
+                        new KmsConnectionService(
+                                configurationService.getLocalstackEndpointUri(),
+                                configurationService.getAwsRegion()));
+        this.clock = Clock.systemUTC();
+    }
+
+    @Override
+    public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
+        var failures = new ArrayList<BatchItemFailure>();
+        int migrated = 0;
+        long oldestMessageAge = 0;
+
+        for (SQSMessage message : event.getRecords()) {
+            oldestMessageAge = Math.max(oldestMessageAge, messageAge(message));
+            try {
+                var request =
+                        objectMapper.readValue(message.getBody(), PasswordMigrationRequest.class);
+                if (userMigrationService.completeMigration(request)) {
+                    migrated++;
+                }
+            } catch (Exception e) {
+                LOG.error("Unable to migrate password for message {}", message.getMessageId(), e);
+                failures.add(new BatchItemFailure(message.getMessageId()));
+            }
+        }
+
+        LOG.info(
+                "Migrated {} of {} queued passwords. {} failed. Oldest message was {} ms old",
+                migrated,
+                event.getRecords().size(),
+                failures.size(),
+                oldestMessageAge);
+
+        return new SQSBatchResponse(failures);
+    }
+
+    private long messageAge(SQSMessage message) {
+        return Optional.ofNullable(message.getAttributes())
+                .map(attributes -> attributes.get(SENT_TIMESTAMP))
+                .map(sent -> clock.millis() - Long.parseLong(sent))
+                .orElse(0L);
+    }
+}
@@ -100,8 +100,8 @@ public class ResetPasswordRequestHandler extends BaseFrontendHandler<ResetPasswo
         this.validationService = new ValidationService();
         this.codeGeneratorService = new CodeGeneratorService();
         this.codeStorageService =
-                new CodeStorageService(new RedisConnectionService(configurationService));
-        this.auditService = new AuditService(configurationService);
+                new CodeStorageService(RedisConnectionService.getInstance(configurationService));
+        this.auditService = endWithRequest(new AuditService(configurationService, true));
         this.resetPasswordService = new ResetPasswordService(configurationService);
     }
 
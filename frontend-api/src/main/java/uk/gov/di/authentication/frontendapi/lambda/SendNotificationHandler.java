@@ -18,6 +18,7 @@ import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.entity.SessionAction;
 import uk.gov.di.authentication.shared.entity.SessionState;
 import uk.gov.di.authentication.shared.exceptions.ClientNotFoundException;
+import uk.gov.di.authentication.shared.helpers.WarmupPrimers;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
 import uk.gov.di.authentication.shared.services.ClientService;
 import uk.gov.di.authentication.shared.services.ClientSessionService;
@@ -97,7 +98,13 @@ public class SendNotificationHandler extends BaseFrontendHandler<SendNotificatio
         this.validationService = new ValidationService();
         this.codeGeneratorService = new CodeGeneratorService();
         this.codeStorageService =
-                new CodeStorageService(new RedisConnectionService(configurationService));
+                new CodeStorageService(RedisConnectionService.getInstance(configurationService));
+    }
+
+    @Override
+    protected void primeForWarmup() throws Exception {
+        super.primeForWarmup();
+        WarmupPrimers.PHONE_NUMBERS.prime();
     }
 
     @Override
@@ -252,27 +259,19 @@ public class SendNotificationHandler extends BaseFrontendHandler<SendNotificatio
             sessionService.save(session.setState(nextState).resetCodeRequestCount());
             return false;
         }
-        if (codeStorageService.isBlockedForEmail(email, CODE_REQUEST_BLOCKED_KEY_PREFIX)) {
-            LOGGER.info(
-                    "User is blocked from requesting any OTP codes for session {}",
-                    session.getSessionId());
-            SessionState nextState =
-                    stateMachine.transition(
-                            session.getState(),
-                            getSessionActionForMaxCodeRequests(notificationType),
-                            userContext);
-            sessionService.save(session.setState(nextState));
-            return false;
-        }
-        if (codeStorageService.isBlockedForEmail(email, CODE_BLOCKED_KEY_PREFIX)) {
+        Optional<String> block =
+                codeStorageService.getBlockForEmail(
+                        email, CODE_REQUEST_BLOCKED_KEY_PREFIX, CODE_BLOCKED_KEY_PREFIX);
+        if (block.isPresent()) {
             LOGGER.info(
                     "User is blocked from requesting any OTP codes for session {}",
                     session.getSessionId());
+            SessionAction action =
+                    block.get().equals(CODE_REQUEST_BLOCKED_KEY_PREFIX)
+                            ? getSessionActionForMaxCodeRequests(notificationType)
+                            : getSessionActionForMaxCodeAttempts(notificationType);
             SessionState nextState =
-                    stateMachine.transition(
-                            session.getState(),
-                            getSessionActionForMaxCodeAttempts(notificationType),
-                            userContext);
+                    stateMachine.transition(session.getState(), action, userContext);
             sessionService.save(session.setState(nextState));
             return false;
         }
@@ -18,6 +18,7 @@ import uk.gov.di.authentication.shared.entity.SessionState;
 import uk.gov.di.authentication.shared.entity.TermsAndConditions;
 import uk.gov.di.authentication.shared.helpers.IpAddressHelper;
 import uk.gov.di.authentication.shared.helpers.PersistentIdHelper;
+import uk.gov.di.authentication.shared.helpers.WarmupPrimers;
 import uk.gov.di.authentication.shared.services.AuditService;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
 import uk.gov.di.authentication.shared.services.ClientService;
@@ -73,7 +74,13 @@ public class SignUpHandler extends BaseFrontendHandler<SignupRequest>
     public SignUpHandler(ConfigurationService configurationService) {
         super(SignupRequest.class, configurationService);
         this.validationService = new ValidationService();
-        this.auditService = new AuditService(configurationService);
+        this.auditService = endWithRequest(new AuditService(configurationService, true));
+    }
+
+    @Override
+    protected void primeForWarmup() throws Exception {
+        super.primeForWarmup();
+        WarmupPrimers.ARGON2.prime();
     }
 
     @Override
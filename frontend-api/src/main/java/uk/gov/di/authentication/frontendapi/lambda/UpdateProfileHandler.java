@@ -83,7 +83,7 @@ public class UpdateProfileHandler extends BaseFrontendHandler<UpdateProfileReque
 
     public UpdateProfileHandler(ConfigurationService configurationService) {
         super(UpdateProfileRequest.class, configurationService);
-        auditService = new AuditService(configurationService);
+        auditService = endWithRequest(new AuditService(configurationService, true));
         this.stateMachine = userJourneyStateMachine();
     }
 
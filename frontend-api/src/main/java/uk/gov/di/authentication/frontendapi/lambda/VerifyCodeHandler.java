@@ -101,10 +101,10 @@ public class VerifyCodeHandler extends BaseFrontendHandler<VerifyCodeRequest>
     public VerifyCodeHandler(ConfigurationService configurationService) {
         super(VerifyCodeRequest.class, configurationService);
         this.codeStorageService =
-                new CodeStorageService(new RedisConnectionService(configurationService));
+                new CodeStorageService(RedisConnectionService.getInstance(configurationService));
         this.validationService = new ValidationService();
         this.stateMachine = userJourneyStateMachine();
-        this.auditService = new AuditService(configurationService);
+        this.auditService = endWithRequest(new AuditService(configurationService, true));
     }
 
     @Override
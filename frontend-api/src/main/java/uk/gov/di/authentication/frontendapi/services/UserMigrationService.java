@@ -1,28 +1,85 @@
 package uk.gov.di.authentication.frontendapi.services;
 
+import com.amazonaws.services.kms.model.DecryptRequest;
+import com.amazonaws.services.kms.model.EncryptRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.bouncycastle.crypto.generators.BCrypt;
 import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
+import uk.gov.di.authentication.frontendapi.entity.PasswordMigrationRequest;
 import uk.gov.di.authentication.shared.entity.UserCredentials;
+import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
+import uk.gov.di.authentication.shared.services.KmsConnectionService;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 public class UserMigrationService {
 
     private static final Logger LOGGER = LogManager.getLogger(UserMigrationService.class);
+    private static final String ENCRYPTION_CONTEXT_KEY = "email";
 
     private final AuthenticationService authenticationService;
     private final ConfigurationService configurationService;
+    private final KmsConnectionService kmsConnectionService;
+    private final Optional<AwsSqsClient> migrationQueue;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getInstance();
+
+    public UserMigrationService(
+            AuthenticationService authenticationService,
+            ConfigurationService configurationService,
+            KmsConnectionService kmsConnectionService,
+            AwsSqsClient migrationQueue) {
+        this(
+                authenticationService,
+                configurationService,
+                kmsConnectionService,
+                Optional.of(migrationQueue));
+    }
+
+    /**
+     * For the consumer of the migration queue, which only completes migrations. Without a queue a
+     * migration is done as soon as the password has been checked.
+     */
+    public UserMigrationService(
+            AuthenticationService authenticationService,
+            ConfigurationService configurationService,
+            KmsConnectionService kmsConnectionService) {
+        this(authenticationService, configurationService, kmsConnectionService, Optional.empty());
+    }
 
     public UserMigrationService(
             AuthenticationService authenticationService,
             ConfigurationService configurationService) {
+        this(
+                authenticationService,
+                configurationService,
+                new KmsConnectionService(
+                        configurationService.getLocalstackEndpointUri(),
+                        configurationService.getAwsRegion()),
+                new AwsSqsClient(
+                        configurationService.getAwsRegion(),
+                        configurationService.getPasswordMigrationQueueUri(),
+                        configurationService.getSqsEndpointUri()));
+    }
+
+    private UserMigrationService(
+            AuthenticationService authenticationService,
+            ConfigurationService configurationService,
+            KmsConnectionService kmsConnectionService,
+            Optional<AwsSqsClient> migrationQueue) {
         this.authenticationService = authenticationService;
         this.configurationService = configurationService;
+        this.kmsConnectionService = kmsConnectionService;
+        this.migrationQueue = migrationQueue;
     }
 
     public boolean userHasBeenPartlyMigrated(String legacySubjectId, String email) {
@@ -30,24 +87,96 @@ public class UserMigrationService {
         return Objects.nonNull(legacySubjectId) && Objects.isNull(userCredentials.getPassword());
     }
 
+    /**
+     * Checks the password against the migrated legacy hash. When it matches, the upgrade to an
+     * Argon2 hash is queued for {@link #completeMigration} rather than done here, so a login only
+     * waits for the bcrypt check. The password is encrypted with KMS before it is queued.
+     */
     public boolean processMigratedUser(String email, String inputPassword) {
+        UserCredentials userCredentials = authenticationService.getUserCredentialsFromEmail(email);
+
+        if (!hasValidLegacyCredentials(userCredentials, inputPassword)) {
+            LOGGER.info("Migrated user has invalid credentials");
+            return false;
+        }
+        if (migrationQueue.isEmpty()) {
+            LOGGER.info("Migrated user has valid credentials. Migrating password");
+            authenticationService.migrateLegacyPassword(email, inputPassword);
+            return true;
+        }
+        LOGGER.info("Migrated user has valid credentials. Queueing password migration");
+        try {
+            var request =
+                    new PasswordMigrationRequest(email, encryptPassword(email, inputPassword));
+            migrationQueue.get().send(objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException | RuntimeException e) {
+            LOGGER.warn("Unable to queue password migration. Migrating password now", e);
+            authenticationService.migrateLegacyPassword(email, inputPassword);
+        }
+        return true;
+    }
+
+    /**
+     * Upgrades a queued password to an Argon2 hash. This is idempotent: a user whose password has
+     * already been migrated is left alone, and the password is only stored if it still matches the
+     * legacy hash.
+     *
+     * @return false if the user has already been migrated or the password no longer matches
+     */
+    public boolean completeMigration(PasswordMigrationRequest request) {
+        UserCredentials userCredentials =
+                authenticationService.getUserCredentialsFromEmail(request.getEmail());
+        if (Objects.isNull(userCredentials) || Objects.nonNull(userCredentials.getPassword())) {
+            LOGGER.info("User has already been migrated");
+            return false;
+        }
+        var password = decryptPassword(request.getEmail(), request.getEncryptedPassword());
+        if (!hasValidLegacyCredentials(userCredentials, password)) {
+            LOGGER.warn("Queued password no longer matches the migrated password");
+            return false;
+        }
+        authenticationService.migrateLegacyPassword(request.getEmail(), password);
+        return true;
+    }
+
+    private boolean hasValidLegacyCredentials(
+            UserCredentials userCredentials, String inputPassword) {
         Optional<String> passwordPepper = configurationService.getPasswordPepper();
         char[] passwordChar =
                 passwordPepper.map(t -> inputPassword + t).orElse(inputPassword).toCharArray();
         byte[] passwordByteArray = BCrypt.passwordToByteArray(passwordChar);
 
-        UserCredentials userCredentials = authenticationService.getUserCredentialsFromEmail(email);
+        return OpenBSDBCrypt.checkPassword(
+                userCredentials.getMigratedPassword(), passwordByteArray);
+    }
 
-        boolean hasValidCredentials =
-                OpenBSDBCrypt.checkPassword(
-                        userCredentials.getMigratedPassword(), passwordByteArray);
+    private String encryptPassword(String email, String password) {
+        var result =
+                kmsConnectionService.encrypt(
+                        new EncryptRequest()
+                                .withKeyId(configurationService.getPasswordMigrationKeyAlias())
+                                .withEncryptionContext(Map.of(ENCRYPTION_CONTEXT_KEY, email))
+                                .withPlaintext(
+                                        ByteBuffer.wrap(
+                                                password.getBytes(StandardCharsets.UTF_8))));
+        return Base64.getEncoder().encodeToString(toByteArray(result.getCiphertextBlob()));
+    }
 
-        if (!hasValidCredentials) {
-            LOGGER.info("Migrated user has invalid credentials");
-            return hasValidCredentials;
-        }
-        LOGGER.info("Migrated user has valid credentials. About to migrate password");
-        authenticationService.migrateLegacyPassword(email, inputPassword);
-        return true;
+    private String decryptPassword(String email, String encryptedPassword) {
+        var result =
+                kmsConnectionService.decrypt(
+                        new DecryptRequest()
+                                .withKeyId(configurationService.getPasswordMigrationKeyAlias())
+                                .withEncryptionContext(Map.of(ENCRYPTION_CONTEXT_KEY, email))
+                                .withCiphertextBlob(
+                                        ByteBuffer.wrap(
+                                                Base64.getDecoder().decode(encryptedPassword))));
+        return new String(toByteArray(result.getPlaintext()), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toByteArray(ByteBuffer buffer) {
+        var bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
     }
 }
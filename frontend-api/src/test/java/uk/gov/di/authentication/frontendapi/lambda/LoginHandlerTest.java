@@ -50,6 +50,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -258,6 +259,7 @@ class LoginHandlerTest {
         LoginResponse response =
                 new ObjectMapper().readValue(result.getBody(), LoginResponse.class);
         assertThat(response.getSessionState(), equalTo(ACCOUNT_TEMPORARILY_LOCKED));
+        verify(authenticationService, never()).login(EMAIL, PASSWORD);
 
         verify(auditService)
                 .submitAuditEvent(
@@ -281,7 +283,8 @@ class LoginHandlerTest {
                         userProfile.getLegacySubjectID(), EMAIL))
                 .thenReturn(false);
         when(authenticationService.login(EMAIL, PASSWORD)).thenReturn(false);
-        when(codeStorageService.getIncorrectPasswordCount(EMAIL)).thenReturn(4);
+        when(codeStorageService.getIncorrectPasswordCount(EMAIL)).thenReturn(3, 4);
+        when(codeStorageService.increaseIncorrectPasswordCount(EMAIL, 5)).thenReturn(4);
 
         usingValidSession();
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -300,6 +303,31 @@ class LoginHandlerTest {
         LoginResponse response =
                 new ObjectMapper().readValue(result2.getBody(), LoginResponse.class);
         assertThat(response.getSessionState(), equalTo(LOGGED_IN));
+        verify(codeStorageService, times(1)).increaseIncorrectPasswordCount(EMAIL, 5);
+        verify(codeStorageService, times(1)).deleteIncorrectPasswordCount(EMAIL);
+    }
+
+    @Test
+    public void shouldOnlyReadIncorrectPasswordCountOnFirstSuccessfulLogin() {
+        UserProfile userProfile = generateUserProfile(null);
+        when(authenticationService.getUserProfileByEmail(EMAIL)).thenReturn(userProfile);
+        when(userMigrationService.userHasBeenPartlyMigrated(
+                        userProfile.getLegacySubjectID(), EMAIL))
+                .thenReturn(false);
+        when(authenticationService.login(EMAIL, PASSWORD)).thenReturn(true);
+        when(clientSession.getAuthRequestParams())
+                .thenReturn(generateAuthRequest(Optional.empty()).toParameters());
+
+        usingValidSession();
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.setHeaders(Map.of("Session-Id", session.getSessionId()));
+        event.setBody(format("{ \"password\": \"%s\", \"email\": \"%s\" }", PASSWORD, EMAIL));
+        APIGatewayProxyResponseEvent result = handler.handleRequest(event, context);
+
+        assertThat(result, hasStatus(200));
+        verify(codeStorageService).getIncorrectPasswordCount(EMAIL);
+        verify(codeStorageService, never()).increaseIncorrectPasswordCount(EMAIL, 5);
+        verify(codeStorageService, never()).deleteIncorrectPasswordCount(EMAIL);
     }
 
     @Test
@@ -0,0 +1,95 @@
+package uk.gov.di.authentication.frontendapi.lambda;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.frontendapi.entity.PasswordMigrationRequest;
+import uk.gov.di.authentication.frontendapi.services.UserMigrationService;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordMigrationHandlerTest {
+
+    private static final Instant NOW = Instant.parse("2021-11-01T10:00:00Z");
+
+    private final Context context = mock(Context.class);
+    private final UserMigrationService userMigrationService = mock(UserMigrationService.class);
+    private final PasswordMigrationHandler handler =
+            new PasswordMigrationHandler(
+                    userMigrationService, Clock.fixed(NOW, ZoneId.of("UTC")));
+
+    @Test
+    void shouldCompleteEachQueuedMigration() {
+        when(userMigrationService.completeMigration(any(PasswordMigrationRequest.class)))
+                .thenReturn(true);
+
+        var response =
+                handler.handleRequest(
+                        sqsEvent(
+                                message("message-1", "joe.bloggs@example.com"),
+                                message("message-2", "jane.bloggs@example.com")),
+                        context);
+
+        assertThat(response.getBatchItemFailures().size(), equalTo(0));
+        verify(userMigrationService, times(2)).completeMigration(any());
+        verify(userMigrationService)
+                .completeMigration(
+                        argThat(request -> request.getEmail().equals("jane.bloggs@example.com")));
+    }
+
+    @Test
+    void shouldOnlyReportFailedMessages() {
+        when(userMigrationService.completeMigration(any(PasswordMigrationRequest.class)))
+                .thenThrow(new RuntimeException("KMS unavailable"))
+                .thenReturn(true);
+        var malformed = new SQSMessage();
+        malformed.setMessageId("message-3");
+        malformed.setBody("not-json");
+
+        var response =
+                handler.handleRequest(
+                        sqsEvent(
+                                message("message-1", "joe.bloggs@example.com"),
+                                message("message-2", "jane.bloggs@example.com"),
+                                malformed),
+                        context);
+
+        assertThat(
+                response.getBatchItemFailures().stream()
+                        .map(BatchItemFailure::getItemIdentifier)
+                        .collect(Collectors.toList()),
+                equalTo(List.of("message-1", "message-3")));
+    }
+
+    private SQSMessage message(String messageId, String email) {
+        var message = new SQSMessage();
+        message.setMessageId(messageId);
+        message.setBody(
+                "{\"email\":\"" + email + "\",\"encryptedPassword\":\"Y2lwaGVydGV4dA==\"}");
+        message.setAttributes(
+                Map.of("SentTimestamp", String.valueOf(NOW.minusSeconds(5).toEpochMilli())));
+        return message;
+    }
+
+    private SQSEvent sqsEvent(SQSMessage... messages) {
+        var event = new SQSEvent();
+        event.setRecords(List.of(messages));
+        return event;
+    }
+}
@@ -449,9 +449,11 @@ class SendNotificationHandlerTest {
             throws JsonProcessingException {
         when(validationService.validateEmailAddress(eq(TEST_EMAIL_ADDRESS)))
                 .thenReturn(Optional.empty());
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS, CODE_REQUEST_BLOCKED_KEY_PREFIX))
-                .thenReturn(true);
+        when(codeStorageService.getBlockForEmail(
+                        TEST_EMAIL_ADDRESS,
+                        CODE_REQUEST_BLOCKED_KEY_PREFIX,
+                        CODE_BLOCKED_KEY_PREFIX))
+                .thenReturn(Optional.of(CODE_REQUEST_BLOCKED_KEY_PREFIX));
         session.setState(SessionState.EMAIL_MAX_CODES_SENT);
         usingValidSession();
 
@@ -475,8 +477,11 @@ class SendNotificationHandlerTest {
             throws JsonProcessingException {
         when(validationService.validateEmailAddress(eq(TEST_EMAIL_ADDRESS)))
                 .thenReturn(Optional.empty());
-        when(codeStorageService.isBlockedForEmail(TEST_EMAIL_ADDRESS, CODE_BLOCKED_KEY_PREFIX))
-                .thenReturn(true);
+        when(codeStorageService.getBlockForEmail(
+                        TEST_EMAIL_ADDRESS,
+                        CODE_REQUEST_BLOCKED_KEY_PREFIX,
+                        CODE_BLOCKED_KEY_PREFIX))
+                .thenReturn(Optional.of(CODE_BLOCKED_KEY_PREFIX));
         session.setState(SessionState.EMAIL_CODE_MAX_RETRIES_REACHED);
         usingValidSession();
 
@@ -500,8 +505,11 @@ class SendNotificationHandlerTest {
             throws JsonProcessingException {
         when(validationService.validateEmailAddress(eq(TEST_EMAIL_ADDRESS)))
                 .thenReturn(Optional.empty());
-        when(codeStorageService.isBlockedForEmail(TEST_EMAIL_ADDRESS, CODE_BLOCKED_KEY_PREFIX))
-                .thenReturn(true);
+        when(codeStorageService.getBlockForEmail(
+                        TEST_EMAIL_ADDRESS,
+                        CODE_REQUEST_BLOCKED_KEY_PREFIX,
+                        CODE_BLOCKED_KEY_PREFIX))
+                .thenReturn(Optional.of(CODE_BLOCKED_KEY_PREFIX));
         session.setState(SessionState.PHONE_NUMBER_CODE_MAX_RETRIES_REACHED);
         usingValidSession();
 
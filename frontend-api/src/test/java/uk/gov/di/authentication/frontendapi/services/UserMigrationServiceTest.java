@@ -1,15 +1,29 @@
 package uk.gov.di.authentication.frontendapi.services;
 
+import com.amazonaws.services.kms.model.DecryptRequest;
+import com.amazonaws.services.kms.model.DecryptResult;
+import com.amazonaws.services.kms.model.EncryptRequest;
+import com.amazonaws.services.kms.model.EncryptResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import uk.gov.di.authentication.frontendapi.entity.PasswordMigrationRequest;
 import uk.gov.di.authentication.shared.entity.UserCredentials;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
+import uk.gov.di.authentication.shared.services.KmsConnectionService;
 
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -19,6 +33,8 @@ class UserMigrationServiceTest {
 
     private final AuthenticationService authenticationService = mock(AuthenticationService.class);
     private final ConfigurationService configurationService = mock(ConfigurationService.class);
+    private final KmsConnectionService kmsConnectionService = mock(KmsConnectionService.class);
+    private final AwsSqsClient migrationQueue = mock(AwsSqsClient.class);
     private UserMigrationService userMigrationService;
     private static final String TEST_EMAIL = "test@digital.cabinet-office.gov.uk";
     private static final String LEGACY_SUBJECT = "some-subject";
@@ -26,12 +42,26 @@ class UserMigrationServiceTest {
             "$2a$05$2m1Swyvp.1UUWF3whZf4/e5bHFe/5G0I25txZOQ/zBJzWQWeZjPZK";
     private static final String LEGACY_PASSWORD_DECRYPTED = "password000";
     private static final String TEST_PEPPER = "CUokSd0tqVvM64dEiGNe9-LwZoE";
+    private static final String KEY_ALIAS = "password-migration-key";
+    private static final byte[] CIPHERTEXT = "ciphertext".getBytes();
 
     @BeforeEach
     public void setUp() {
         when(configurationService.getPasswordPepper()).thenReturn(Optional.of(TEST_PEPPER));
+        when(configurationService.getPasswordMigrationKeyAlias()).thenReturn(KEY_ALIAS);
+        when(kmsConnectionService.encrypt(any(EncryptRequest.class)))
+                .thenReturn(new EncryptResult().withCiphertextBlob(ByteBuffer.wrap(CIPHERTEXT)));
+        when(kmsConnectionService.decrypt(any(DecryptRequest.class)))
+                .thenReturn(
+                        new DecryptResult()
+                                .withPlaintext(
+                                        ByteBuffer.wrap(LEGACY_PASSWORD_DECRYPTED.getBytes())));
         userMigrationService =
-                new UserMigrationService(authenticationService, configurationService);
+                new UserMigrationService(
+                        authenticationService,
+                        configurationService,
+                        kmsConnectionService,
+                        migrationQueue);
     }
 
     @Test
@@ -59,19 +89,87 @@ class UserMigrationServiceTest {
     }
 
     @Test
-    public void shouldReturnTrueIfMigratedUserHasEnteredCorrectCredentials() {
+    public void shouldMigratePasswordImmediatelyWhenThereIsNoMigrationQueue() {
         when(authenticationService.getUserCredentialsFromEmail(TEST_EMAIL))
-                .thenReturn(generateUserCredentials("sign-in-password", LEGACY_PASSWORD_ENCRYPTED));
+                .thenReturn(generateUserCredentials(null, LEGACY_PASSWORD_ENCRYPTED));
+        var queueConsumer =
+                new UserMigrationService(
+                        authenticationService, configurationService, kmsConnectionService);
+
+        assertTrue(queueConsumer.processMigratedUser(TEST_EMAIL, LEGACY_PASSWORD_DECRYPTED));
+
+        verify(authenticationService).migrateLegacyPassword(TEST_EMAIL, LEGACY_PASSWORD_DECRYPTED);
+        verify(kmsConnectionService, never()).encrypt(any(EncryptRequest.class));
+    }
+
+    @Test
+    public void shouldQueueMigrationIfMigratedUserHasEnteredCorrectCredentials() {
+        when(authenticationService.getUserCredentialsFromEmail(TEST_EMAIL))
+                .thenReturn(generateUserCredentials(null, LEGACY_PASSWORD_ENCRYPTED));
+
+        assertTrue(userMigrationService.processMigratedUser(TEST_EMAIL, LEGACY_PASSWORD_DECRYPTED));
+
+        verify(kmsConnectionService)
+                .encrypt(
+                        argThat(
+                                request ->
+                                        request.getKeyId().equals(KEY_ALIAS)
+                                                && request.getEncryptionContext()
+                                                        .equals(Map.of("email", TEST_EMAIL))));
+        verify(migrationQueue)
+                .send(
+                        argThat(
+                                body ->
+                                        body.contains(TEST_EMAIL)
+                                                && body.contains(
+                                                        Base64.getEncoder()
+                                                                .encodeToString(CIPHERTEXT))
+                                                && !body.contains(LEGACY_PASSWORD_DECRYPTED)));
+        verify(authenticationService, never()).migrateLegacyPassword(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldMigratePasswordImmediatelyIfItCannotBeQueued() {
+        when(authenticationService.getUserCredentialsFromEmail(TEST_EMAIL))
+                .thenReturn(generateUserCredentials(null, LEGACY_PASSWORD_ENCRYPTED));
+        doThrow(SdkClientException.create("SQS unavailable"))
+                .when(migrationQueue)
+                .send(anyString());
 
         assertTrue(userMigrationService.processMigratedUser(TEST_EMAIL, LEGACY_PASSWORD_DECRYPTED));
         verify(authenticationService).migrateLegacyPassword(TEST_EMAIL, LEGACY_PASSWORD_DECRYPTED);
     }
 
+    @Test
+    public void shouldMigrateQueuedPasswordOfPartlyMigratedUser() {
+        when(authenticationService.getUserCredentialsFromEmail(TEST_EMAIL))
+                .thenReturn(generateUserCredentials(null, LEGACY_PASSWORD_ENCRYPTED));
+
+        assertTrue(userMigrationService.completeMigration(migrationRequest()));
+        verify(authenticationService).migrateLegacyPassword(TEST_EMAIL, LEGACY_PASSWORD_DECRYPTED);
+    }
+
+    @Test
+    public void shouldIgnoreQueuedPasswordOfUserWhoHasAlreadyBeenMigrated() {
+        when(authenticationService.getUserCredentialsFromEmail(TEST_EMAIL))
+                .thenReturn(generateUserCredentials("sign-in-password", LEGACY_PASSWORD_ENCRYPTED));
+
+        assertFalse(userMigrationService.completeMigration(migrationRequest()));
+        verify(kmsConnectionService, never()).decrypt(any(DecryptRequest.class));
+        verify(authenticationService, never()).migrateLegacyPassword(anyString(), anyString());
+    }
+
     @Test
     public void shouldReturnFalseIfMigratedUserHasEnteredIncorrectCredentials() {
         when(authenticationService.getUserCredentialsFromEmail(TEST_EMAIL))
                 .thenReturn(generateUserCredentials("sign-in-password", LEGACY_PASSWORD_ENCRYPTED));
         assertFalse(userMigrationService.processMigratedUser(TEST_EMAIL, "wrong-password"));
+        verify(migrationQueue, never()).send(anyString());
+    }
+
+    private PasswordMigrationRequest migrationRequest() {
+        return new PasswordMigrationRequest(
+                TEST_EMAIL, Base64.getEncoder().encodeToString(CIPHERTEXT));
     }
 
     private UserCredentials generateUserCredentials(
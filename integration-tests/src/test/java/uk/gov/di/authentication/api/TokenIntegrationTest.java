@@ -33,6 +33,7 @@ import uk.gov.di.authentication.shared.entity.ClientConsent;
 import uk.gov.di.authentication.shared.entity.RefreshTokenStore;
 import uk.gov.di.authentication.shared.entity.ServiceType;
 import uk.gov.di.authentication.shared.entity.ValidScopes;
+import uk.gov.di.authentication.shared.helpers.HashHelper;
 import uk.gov.di.authentication.sharedtest.basetest.ApiGatewayHandlerIntegrationTest;
 import uk.gov.di.authentication.sharedtest.helper.KeyPairHelper;
 
@@ -54,8 +55,12 @@ import java.util.UUID;
 
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static uk.gov.di.authentication.sharedtest.matchers.APIGatewayProxyResponseEventMatcher.hasStatus;
 
 public class TokenIntegrationTest extends ApiGatewayHandlerIntegrationTest {
@@ -64,6 +69,10 @@ public class TokenIntegrationTest extends ApiGatewayHandlerIntegrationTest {
     private static final String TEST_EMAIL = "joe.bloggs@digital.cabinet-office.gov.uk";
     private static final String CLIENT_ID = "test-id";
     private static final String REFRESH_TOKEN_PREFIX = "REFRESH_TOKEN:";
+    private static final String REFRESH_TOKEN_FAMILY_PREFIX = "REFRESH_TOKEN_FAMILY:";
+    private static final String ACCESS_TOKEN_PREFIX = "ACCESS_TOKEN:";
+    private static final Scope REFRESH_SCOPE =
+            new Scope(OIDCScopeValue.OPENID, OIDCScopeValue.EMAIL, OIDCScopeValue.OFFLINE_ACCESS);
     private static final String REDIRECT_URI = "http://localhost/redirect";
 
     @BeforeEach
@@ -118,30 +127,117 @@ public class TokenIntegrationTest extends ApiGatewayHandlerIntegrationTest {
     }
 
     @Test
-    void shouldCallTokenResourceWithRefreshTokenGrantAndReturn200()
+    void shouldExchangeLegacyRefreshTokenAndStartATokenFamily()
             throws JOSEException, JsonProcessingException, ParseException {
-        Scope scope =
-                new Scope(
-                        OIDCScopeValue.OPENID, OIDCScopeValue.EMAIL, OIDCScopeValue.OFFLINE_ACCESS);
         Subject publicSubject = new Subject();
         Subject internalSubject = new Subject();
         KeyPair keyPair = KeyPairHelper.GENERATE_RSA_KEY_PAIR();
-        setUpDynamo(keyPair, scope, internalSubject);
-        SignedJWT signedJWT = generateSignedRefreshToken(scope, publicSubject);
+        setUpDynamo(keyPair, REFRESH_SCOPE, internalSubject);
+        RefreshToken legacyRefreshToken = addLegacyRefreshToken(publicSubject, internalSubject);
+
+        var response = makeRefreshTokenRequest(keyPair, legacyRefreshToken);
+
+        assertThat(response, hasStatus(200));
+        JSONObject jsonResponse = JSONObjectUtils.parse(response.getBody());
+        var tokens = TokenResponse.parse(jsonResponse).toSuccessResponse().getTokens();
+        assertNotNull(tokens.getRefreshToken());
+        assertNotNull(tokens.getBearerAccessToken());
+        assertFalse(redis.keyExists(REFRESH_TOKEN_PREFIX + keySuffix(publicSubject)));
+        var family = redis.getHash(REFRESH_TOKEN_FAMILY_PREFIX + keySuffix(publicSubject));
+        assertThat(family.get("subject"), equalTo(internalSubject.getValue()));
+        assertThat(family.get(hash(tokens.getRefreshToken())), equalTo("active"));
+    }
+
+    @Test
+    void shouldRotateRefreshTokenWithinItsFamily()
+            throws JOSEException, JsonProcessingException, ParseException {
+        Subject publicSubject = new Subject();
+        KeyPair keyPair = KeyPairHelper.GENERATE_RSA_KEY_PAIR();
+        setUpDynamo(keyPair, REFRESH_SCOPE, new Subject());
+        RefreshToken refreshToken =
+                exchangeRefreshToken(
+                        keyPair, addLegacyRefreshToken(publicSubject, new Subject()));
+
+        RefreshToken rotatedRefreshToken = exchangeRefreshToken(keyPair, refreshToken);
+
+        assertThat(rotatedRefreshToken, not(equalTo(refreshToken)));
+        var family = redis.getHash(REFRESH_TOKEN_FAMILY_PREFIX + keySuffix(publicSubject));
+        assertThat(family.get(hash(refreshToken)), equalTo("1"));
+        assertThat(family.get(hash(rotatedRefreshToken)), equalTo("active"));
+        assertTrue(redis.keyExists(ACCESS_TOKEN_PREFIX + keySuffix(publicSubject)));
+    }
+
+    @Test
+    void shouldRevokeTokenFamilyAndAccessTokenWhenUsedRefreshTokenIsPresentedAgain()
+            throws JOSEException, JsonProcessingException, ParseException {
+        Subject publicSubject = new Subject();
+        KeyPair keyPair = KeyPairHelper.GENERATE_RSA_KEY_PAIR();
+        setUpDynamo(keyPair, REFRESH_SCOPE, new Subject());
+        RefreshToken refreshToken =
+                exchangeRefreshToken(
+                        keyPair, addLegacyRefreshToken(publicSubject, new Subject()));
+        RefreshToken rotatedRefreshToken = exchangeRefreshToken(keyPair, refreshToken);
+
+        var response = makeRefreshTokenRequest(keyPair, refreshToken);
+
+        assertThat(response, hasStatus(400));
+        assertFalse(redis.keyExists(REFRESH_TOKEN_FAMILY_PREFIX + keySuffix(publicSubject)));
+        assertFalse(redis.keyExists(ACCESS_TOKEN_PREFIX + keySuffix(publicSubject)));
+        assertThat(makeRefreshTokenRequest(keyPair, rotatedRefreshToken), hasStatus(400));
+    }
+
+    @Test
+    void shouldOnlyKeepTheMostRecentlyUsedRefreshTokensInAFamily()
+            throws JOSEException, JsonProcessingException, ParseException {
+        Subject publicSubject = new Subject();
+        KeyPair keyPair = KeyPairHelper.GENERATE_RSA_KEY_PAIR();
+        setUpDynamo(keyPair, REFRESH_SCOPE, new Subject());
+        RefreshToken refreshToken =
+                exchangeRefreshToken(
+                        keyPair, addLegacyRefreshToken(publicSubject, new Subject()));
+        RefreshToken firstRefreshToken = refreshToken;
+
+        for (int i = 0; i < 12; i++) {
+            refreshToken = exchangeRefreshToken(keyPair, refreshToken);
+        }
+
+        var family = redis.getHash(REFRESH_TOKEN_FAMILY_PREFIX + keySuffix(publicSubject));
+        assertThat(family.size(), equalTo(3 + 2 * 10));
+        assertFalse(family.containsKey(hash(firstRefreshToken)));
+        assertThat(family.get(hash(refreshToken)), equalTo("active"));
+    }
+
+    private RefreshToken addLegacyRefreshToken(Subject publicSubject, Subject internalSubject)
+            throws JsonProcessingException {
+        SignedJWT signedJWT = generateSignedRefreshToken(REFRESH_SCOPE, publicSubject);
         RefreshToken refreshToken = new RefreshToken(signedJWT.serialize());
         RefreshTokenStore tokenStore =
                 new RefreshTokenStore(List.of(refreshToken.getValue()), internalSubject.getValue());
         redis.addToRedis(
-                REFRESH_TOKEN_PREFIX + CLIENT_ID + "." + publicSubject.getValue(),
+                REFRESH_TOKEN_PREFIX + keySuffix(publicSubject),
                 new ObjectMapper().writeValueAsString(tokenStore),
                 900L);
-        PrivateKey privateKey = keyPair.getPrivate();
+        return refreshToken;
+    }
+
+    private RefreshToken exchangeRefreshToken(KeyPair keyPair, RefreshToken refreshToken)
+            throws JOSEException, ParseException {
+        var response = makeRefreshTokenRequest(keyPair, refreshToken);
+        assertThat(response, hasStatus(200));
+        return TokenResponse.parse(JSONObjectUtils.parse(response.getBody()))
+                .toSuccessResponse()
+                .getTokens()
+                .getRefreshToken();
+    }
+
+    private APIGatewayProxyResponseEvent makeRefreshTokenRequest(
+            KeyPair keyPair, RefreshToken refreshToken) throws JOSEException {
         PrivateKeyJWT privateKeyJWT =
                 new PrivateKeyJWT(
                         new ClientID(CLIENT_ID),
                         URI.create(ROOT_RESOURCE_URL + TOKEN_ENDPOINT),
                         JWSAlgorithm.RS256,
-                        (RSAPrivateKey) privateKey,
+                        (RSAPrivateKey) keyPair.getPrivate(),
                         null,
                         null);
         Map<String, List<String>> customParams = new HashMap<>();
@@ -152,21 +248,15 @@ public class TokenIntegrationTest extends ApiGatewayHandlerIntegrationTest {
         Map<String, List<String>> privateKeyParams = privateKeyJWT.toParameters();
         privateKeyParams.putAll(customParams);
         String requestParams = URLUtils.serializeParameters(privateKeyParams);
-        var response = makeRequest(Optional.of(requestParams), Map.of(), Map.of());
+        return makeRequest(Optional.of(requestParams), Map.of(), Map.of());
+    }
 
-        assertThat(response, hasStatus(200));
-        JSONObject jsonResponse = JSONObjectUtils.parse(response.getBody());
+    private static String keySuffix(Subject publicSubject) {
+        return CLIENT_ID + "." + publicSubject.getValue();
+    }
 
-        assertNotNull(
-                TokenResponse.parse(jsonResponse)
-                        .toSuccessResponse()
-                        .getTokens()
-                        .getRefreshToken());
-        assertNotNull(
-                TokenResponse.parse(jsonResponse)
-                        .toSuccessResponse()
-                        .getTokens()
-                        .getBearerAccessToken());
+    private static String hash(RefreshToken refreshToken) {
+        return HashHelper.hashSha256String(refreshToken.getValue());
     }
 
     private SignedJWT generateSignedRefreshToken(Scope scope, Subject publicSubject) {
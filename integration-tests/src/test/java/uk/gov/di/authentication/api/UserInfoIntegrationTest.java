@@ -73,7 +73,7 @@ public class UserInfoIntegrationTest extends ApiGatewayHandlerIntegrationTest {
         SignedJWT signedJWT = tokenSigner.signJwt(claimsSet);
         AccessToken accessToken = new BearerAccessToken(signedJWT.serialize());
         AccessTokenStore accessTokenStore =
-                new AccessTokenStore(accessToken.getValue(), internalSubject.getValue());
+                AccessTokenStore.forToken(accessToken.getValue(), internalSubject.getValue());
         String accessTokenStoreString = new ObjectMapper().writeValueAsString(accessTokenStore);
         redis.addToRedis(
                 ACCESS_TOKEN_PREFIX + CLIENT_ID + "." + publicSubject,
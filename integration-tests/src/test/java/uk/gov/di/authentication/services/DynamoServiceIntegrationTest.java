@@ -0,0 +1,86 @@
+package uk.gov.di.authentication.services;
+
+import com.nimbusds.oauth2.sdk.id.Subject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.di.authentication.shared.entity.TermsAndConditions;
+import uk.gov.di.authentication.shared.helpers.Argon2Cost;
+import uk.gov.di.authentication.shared.services.DynamoService;
+import uk.gov.di.authentication.sharedtest.extensions.UserStoreExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DynamoServiceIntegrationTest {
+
+    private static final String REGION = System.getenv().getOrDefault("AWS_REGION", "eu-west-2");
+    private static final String ENVIRONMENT = System.getenv().getOrDefault("ENVIRONMENT", "local");
+    private static final Optional<String> DYNAMO_ENDPOINT =
+            Optional.of(System.getenv().getOrDefault("DYNAMO_ENDPOINT", "http://localhost:8000"));
+    private static final String TEST_EMAIL = "joe.bloggs@digital.cabinet-office.gov.uk";
+    private static final String PASSWORD = "password-1";
+    private static final String NEW_PASSWORD = "password-2";
+    private static final Argon2Cost WEAK_COST = new Argon2Cost(1024, 1, 1);
+    private static final Argon2Cost CURRENT_COST = new Argon2Cost(2048, 2, 1);
+
+    @RegisterExtension
+    protected static final UserStoreExtension userStore = new UserStoreExtension();
+
+    @Test
+    void shouldRehashPasswordMadeWithAWeakerCostOnLogin() {
+        signUpWithCost(WEAK_COST);
+        String weakHash = userStore.getPasswordHash(TEST_EMAIL);
+
+        assertTrue(dynamoServiceWithCost(CURRENT_COST).login(TEST_EMAIL, PASSWORD));
+
+        String upgradedHash = userStore.getPasswordHash(TEST_EMAIL);
+        assertThat(upgradedHash, not(equalTo(weakHash)));
+        assertThat(upgradedHash, containsString("$v=19$m=2048,t=2,p=1$"));
+        assertTrue(dynamoServiceWithCost(CURRENT_COST).login(TEST_EMAIL, PASSWORD));
+    }
+
+    @Test
+    void shouldNotRehashPasswordMadeWithTheCurrentCostOnLogin() {
+        signUpWithCost(CURRENT_COST);
+        String hash = userStore.getPasswordHash(TEST_EMAIL);
+
+        assertTrue(dynamoServiceWithCost(CURRENT_COST).login(TEST_EMAIL, PASSWORD));
+
+        assertThat(userStore.getPasswordHash(TEST_EMAIL), equalTo(hash));
+    }
+
+    @Test
+    void shouldNotOverwriteAPasswordChangedWhileItsHashIsUpgraded() {
+        signUpWithCost(WEAK_COST);
+        var dynamoService = dynamoServiceWithCost(CURRENT_COST);
+        var credentialsReadAtLogin = dynamoService.getUserCredentialsFromEmail(TEST_EMAIL);
+        dynamoServiceWithCost(WEAK_COST).updatePassword(TEST_EMAIL, NEW_PASSWORD);
+        String resetHash = userStore.getPasswordHash(TEST_EMAIL);
+
+        assertTrue(dynamoService.login(credentialsReadAtLogin, PASSWORD));
+
+        assertThat(userStore.getPasswordHash(TEST_EMAIL), equalTo(resetHash));
+        assertTrue(dynamoService.login(TEST_EMAIL, NEW_PASSWORD));
+    }
+
+    private void signUpWithCost(Argon2Cost cost) {
+        dynamoServiceWithCost(cost)
+                .signUp(
+                        TEST_EMAIL,
+                        PASSWORD,
+                        new Subject(),
+                        new TermsAndConditions(
+                                "1.0", LocalDateTime.now(ZoneId.of("UTC")).toString()));
+    }
+
+    private static DynamoService dynamoServiceWithCost(Argon2Cost cost) {
+        return new DynamoService(REGION, ENVIRONMENT, DYNAMO_ENDPOINT, cost);
+    }
+}
@@ -0,0 +1,92 @@
+package uk.gov.di.authentication.services;
+
+import io.lettuce.core.RedisException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.shared.services.RedisConnectionService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RedisConnectionServiceIntegrationTest {
+
+    private static final String REDIS_HOST =
+            System.getenv().getOrDefault("REDIS_HOST", "localhost");
+    private static final Optional<String> REDIS_PASSWORD =
+            Optional.ofNullable(System.getenv("REDIS_PASSWORD"));
+
+    private static final String SESSION_KEY = "prefetch-session";
+    private static final String CLIENT_SESSION_KEY = "client-session-prefetch";
+    private static final String CODE_BLOCKED_KEY = "code-blocked:prefetch";
+
+    private RedisConnectionService redis;
+
+    @BeforeEach
+    void setUp() {
+        redis = new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD);
+        redis.saveWithExpiry(SESSION_KEY, "session".getBytes(StandardCharsets.UTF_8), 300);
+        redis.saveWithExpiry(CLIENT_SESSION_KEY, "client-session", 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redis.endRequest();
+        List.of(SESSION_KEY, CLIENT_SESSION_KEY, CODE_BLOCKED_KEY).forEach(redis::deleteValue);
+        redis.close();
+    }
+
+    @Test
+    void shouldAnswerReadsOfPrefetchedKeysWithoutAnotherRoundTrip() {
+        long roundTripsBefore = redis.getRoundTripCount();
+
+        redis.prefetch(List.of(SESSION_KEY, CLIENT_SESSION_KEY, CODE_BLOCKED_KEY));
+
+        assertThat(
+                new String(redis.getBytes(SESSION_KEY), StandardCharsets.UTF_8),
+                equalTo("session"));
+        assertThat(redis.getValue(CLIENT_SESSION_KEY), equalTo("client-session"));
+        assertThat(redis.getValue(CODE_BLOCKED_KEY), nullValue());
+        assertThat(
+                redis.getValues(List.of(CLIENT_SESSION_KEY, CODE_BLOCKED_KEY)),
+                equalTo(List.of(Optional.of("client-session"), Optional.empty())));
+        assertThat(redis.getRoundTripCount() - roundTripsBefore, equalTo(1L));
+    }
+
+    @Test
+    void shouldReadOwnWritesToPrefetchedKeys() {
+        redis.prefetch(List.of(CODE_BLOCKED_KEY));
+
+        redis.saveWithExpiry(CODE_BLOCKED_KEY, "blocked", 300);
+
+        assertThat(redis.getValue(CODE_BLOCKED_KEY), equalTo("blocked"));
+    }
+
+    @Test
+    void shouldCompletePipelinedFuturesAndRethrowWhenACommandFails() {
+        var value = new AtomicReference<CompletableFuture<String>>();
+        var failed = new AtomicReference<CompletableFuture<String>>();
+
+        assertThrows(
+                RedisException.class,
+                () ->
+                        redis.pipelined(
+                                pipeline -> {
+                                    value.set(pipeline.getValue(SESSION_KEY));
+                                    failed.set(
+                                            pipeline.saveWithExpiry(CODE_BLOCKED_KEY, "value", -1));
+                                }));
+
+        assertTrue(value.get().isDone());
+        assertTrue(failed.get().isCompletedExceptionally());
+    }
+}
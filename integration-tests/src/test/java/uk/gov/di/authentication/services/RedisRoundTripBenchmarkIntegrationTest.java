@@ -0,0 +1,133 @@
+package uk.gov.di.authentication.services;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.shared.services.RedisConnectionService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Compares the reads BaseFrontendHandler makes per request (session, client session and the
+ * code block keys) issued one command at a time against the same reads batched into a single
+ * round trip, using the local Redis from docker-compose.
+ */
+public class RedisRoundTripBenchmarkIntegrationTest {
+
+    private static final Logger LOG =
+            LogManager.getLogger(RedisRoundTripBenchmarkIntegrationTest.class);
+    private static final String REDIS_HOST =
+            System.getenv().getOrDefault("REDIS_HOST", "localhost");
+    private static final Optional<String> REDIS_PASSWORD =
+            Optional.ofNullable(System.getenv("REDIS_PASSWORD"));
+    private static final int ITERATIONS = 1000;
+
+    private static final String SESSION_KEY = "benchmark-session";
+    private static final String CLIENT_SESSION_KEY = "client-session-benchmark";
+    private static final String CODE_BLOCKED_KEY = "code-blocked:benchmark";
+    private static final String CODE_REQUEST_BLOCKED_KEY = "code-request-blocked:benchmark";
+
+    private RedisConnectionService redis;
+
+    @BeforeEach
+    void setUp() {
+        redis = new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD);
+        redis.saveWithExpiry(SESSION_KEY, "{\"session_id\":\"benchmark-session\"}", 300);
+        redis.saveWithExpiry(CLIENT_SESSION_KEY, "{\"auth_request_params\":{}}", 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        List.of(SESSION_KEY, CLIENT_SESSION_KEY).forEach(redis::deleteValue);
+        redis.close();
+    }
+
+    @Test
+    void shouldReadRequestStateInOneRoundTripWhenBatched() {
+        var sequential = measure(this::readSequentially);
+        var batched = measure(this::readWithMget);
+        var pipelined = measure(this::readWithPipeline);
+
+        LOG.info(
+                "Redis reads per request over {} iterations. Sequential: {} round trips, {} us. "
+                        + "MGET: {} round trips, {} us. Pipeline: {} round trips, {} us.",
+                ITERATIONS,
+                sequential.roundTrips,
+                sequential.micros,
+                batched.roundTrips,
+                batched.micros,
+                pipelined.roundTrips,
+                pipelined.micros);
+
+        assertThat(sequential.roundTrips, equalTo(5.0));
+        assertThat(batched.roundTrips, equalTo(1.0));
+        assertThat(pipelined.roundTrips, equalTo(1.0));
+        assertThat(batched.micros, lessThan(sequential.micros));
+    }
+
+    private void readSequentially() {
+        if (redis.keyExists(SESSION_KEY)) {
+            redis.getValue(SESSION_KEY);
+        }
+        redis.getValue(CLIENT_SESSION_KEY);
+        redis.getValue(CODE_BLOCKED_KEY);
+        redis.getValue(CODE_REQUEST_BLOCKED_KEY);
+    }
+
+    private void readWithMget() {
+        var values =
+                redis.getValues(
+                        List.of(
+                                SESSION_KEY,
+                                CLIENT_SESSION_KEY,
+                                CODE_BLOCKED_KEY,
+                                CODE_REQUEST_BLOCKED_KEY));
+        assertThat(values.get(0).isPresent(), equalTo(true));
+    }
+
+    private void readWithPipeline() {
+        var session = new AtomicReference<CompletableFuture<String>>();
+        redis.pipelined(
+                pipeline -> {
+                    session.set(pipeline.getValue(SESSION_KEY));
+                    pipeline.getValue(CLIENT_SESSION_KEY);
+                    pipeline.keyExists(CODE_BLOCKED_KEY);
+                    pipeline.keyExists(CODE_REQUEST_BLOCKED_KEY);
+                });
+        assertThat(session.get().isDone(), equalTo(true));
+    }
+
+    private Result measure(Runnable request) {
+        for (int i = 0; i < 100; i++) {
+            request.run();
+        }
+        long roundTripsBefore = redis.getRoundTripCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(
+                (double) (redis.getRoundTripCount() - roundTripsBefore) / ITERATIONS,
+                elapsed / 1000.0 / ITERATIONS);
+    }
+
+    private static class Result {
+        private final double roundTrips;
+        private final double micros;
+
+        private Result(double roundTrips, double micros) {
+            this.roundTrips = roundTrips;
+            this.micros = micros;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package uk.gov.di.lambdawarmer.lambda;
+
+import com.amazonaws.services.cloudwatch.AmazonCloudWatch;
+import com.amazonaws.services.cloudwatch.model.Datapoint;
+import com.amazonaws.services.cloudwatch.model.Dimension;
+import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsRequest;
+import com.amazonaws.services.cloudwatch.model.Statistic;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.stream.DoubleStream;
+
+/**
+ * Takes the peak from the Lambda {@code ConcurrentExecutions} metric over the last few minutes and
+ * over the coming few minutes a week ago, so a warmer run ahead of a weekly peak warms for it. A
+ * function with no datapoints in either window, such as one that has not been invoked, has no peak.
+ */
+public class CloudWatchPeakConcurrency implements PeakConcurrencySource {
+
+    private static final Logger LOGGER = LogManager.getLogger(CloudWatchPeakConcurrency.class);
+
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+    private static final Duration WEEK = Duration.ofDays(7);
+    private static final int PERIOD_SECONDS = 60;
+
+    private final AmazonCloudWatch cloudWatch;
+
+    public CloudWatchPeakConcurrency(AmazonCloudWatch cloudWatch) {
+        this.cloudWatch = cloudWatch;
+    }
+
+    @Override
+    public OptionalInt peakConcurrency(WarmupTarget target, Instant now) {
+        var weekAgo = now.minus(WEEK);
+        var peak =
+                DoubleStream.concat(
+                                maximum(target, now.minus(WINDOW), now).stream(),
+                                maximum(target, weekAgo, weekAgo.plus(WINDOW)).stream())
+                        .max();
+        if (peak.isEmpty()) {
+            LOGGER.info("No ConcurrentExecutions datapoints for {}", target);
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of((int) Math.ceil(peak.getAsDouble()));
+    }
+
+    private OptionalDouble maximum(WarmupTarget target, Instant start, Instant end) {
+        var request =
+                new GetMetricStatisticsRequest()
+                        .withNamespace("AWS/Lambda")
+                        .withMetricName("ConcurrentExecutions")
+                        .withDimensions(
+                                new Dimension()
+                                        .withName("FunctionName")
+                                        .withValue(target.getFunctionName()))
+                        .withStartTime(Date.from(start))
+                        .withEndTime(Date.from(end))
+                        .withPeriod(PERIOD_SECONDS)
+                        .withStatistics(Statistic.Maximum);
+        return cloudWatch.getMetricStatistics(request).getDatapoints().stream()
+                .mapToDouble(Datapoint::getMaximum)
+                .max();
+    }
+}
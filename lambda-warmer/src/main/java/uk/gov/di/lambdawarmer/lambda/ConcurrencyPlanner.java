@@ -0,0 +1,67 @@
+package uk.gov.di.lambdawarmer.lambda;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Clock;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+/**
+ * Decides how many containers to warm for a target on this run: the larger of the scheduled
+ * target for the time of day and the observed peak plus headroom, never below the minimum or above
+ * the maximum concurrency. Without an observed peak the minimum is used in its place.
+ */
+public class ConcurrencyPlanner {
+
+    private static final Logger LOGGER = LogManager.getLogger(ConcurrencyPlanner.class);
+
+    private final ConcurrencySchedule schedule;
+    private final Optional<PeakConcurrencySource> peakConcurrencySource;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final double peakHeadroom;
+    private final ZoneId zone;
+    private final Clock clock;
+
+    public ConcurrencyPlanner(
+            ConfigurationService configurationService,
+            Optional<PeakConcurrencySource> peakConcurrencySource,
+            Clock clock) {
+        this.schedule = configurationService.getConcurrencySchedule();
+        this.peakConcurrencySource = peakConcurrencySource;
+        this.minConcurrency = configurationService.getMinConcurrency();
+        this.maxConcurrency = configurationService.getMaxConcurrency();
+        this.peakHeadroom = configurationService.getPeakHeadroom();
+        this.zone = configurationService.getScheduleZone();
+        this.clock = clock;
+    }
+
+    public int targetConcurrency(WarmupTarget target) {
+        var now = ZonedDateTime.now(clock.withZone(zone));
+        int scheduled = Math.max(minConcurrency, schedule.concurrencyAt(now.toLocalTime()));
+        int observed = peakConcurrencySource.map(s -> observedPeak(s, target, now)).orElse(0);
+        int concurrency = Math.min(maxConcurrency, Math.max(scheduled, observed));
+        LOGGER.info(
+                "Warming {} containers of {} (scheduled {}, observed peak with headroom {})",
+                concurrency,
+                target,
+                scheduled,
+                observed);
+        return concurrency;
+    }
+
+    private int observedPeak(PeakConcurrencySource source, WarmupTarget target, ZonedDateTime now) {
+        try {
+            return source.peakConcurrency(target, now.toInstant())
+                    .stream()
+                    .map(peak -> (int) Math.ceil(peak * peakHeadroom))
+                    .findFirst()
+                    .orElse(minConcurrency);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to read peak concurrency of {}. Using the schedule", target, e);
+            return 0;
+        }
+    }
+}
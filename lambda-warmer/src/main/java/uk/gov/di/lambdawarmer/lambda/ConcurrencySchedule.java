@@ -0,0 +1,70 @@
+package uk.gov.di.lambdawarmer.lambda;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time of day concurrency targets, written as a comma separated list of {@code HH:mm-HH:mm=N}
+ * windows, for example {@code 07:00-09:30=20,09:30-18:00=30}. A window may wrap past midnight.
+ * Where windows overlap the highest target wins.
+ */
+public class ConcurrencySchedule {
+
+    private final List<Window> windows;
+
+    private ConcurrencySchedule(List<Window> windows) {
+        this.windows = windows;
+    }
+
+    public static ConcurrencySchedule parse(String schedule) {
+        List<Window> windows = new ArrayList<>();
+        for (String entry : schedule.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int dash = trimmed.indexOf('-');
+            int equals = trimmed.indexOf('=');
+            if (dash < 0 || equals < dash) {
+                throw new IllegalArgumentException("Invalid concurrency schedule: " + trimmed);
+            }
+            windows.add(
+                    new Window(
+                            LocalTime.parse(trimmed.substring(0, dash).trim()),
+                            LocalTime.parse(trimmed.substring(dash + 1, equals).trim()),
+                            Integer.parseInt(trimmed.substring(equals + 1).trim())));
+        }
+        return new ConcurrencySchedule(List.copyOf(windows));
+    }
+
+    /** The highest target of the windows containing {@code time}, or 0 if there are none. */
+    public int concurrencyAt(LocalTime time) {
+        int concurrency = 0;
+        for (Window window : windows) {
+            if (window.contains(time)) {
+                concurrency = Math.max(concurrency, window.concurrency);
+            }
+        }
+        return concurrency;
+    }
+
+    private static class Window {
+        private final LocalTime start;
+        private final LocalTime end;
+        private final int concurrency;
+
+        private Window(LocalTime start, LocalTime end, int concurrency) {
+            this.start = start;
+            this.end = end;
+            this.concurrency = concurrency;
+        }
+
+        private boolean contains(LocalTime time) {
+            if (start.isBefore(end)) {
+                return !time.isBefore(start) && time.isBefore(end);
+            }
+            return !time.isBefore(start) || time.isBefore(end);
+        }
+    }
+}
@@ -1,9 +1,20 @@
 package uk.gov.di.lambdawarmer.lambda;
 
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 public class ConfigurationService {
 
     // Please keep the method names in alphabetical order so we can find stuff more easily.
 
+    public ConcurrencySchedule getConcurrencySchedule() {
+        return ConcurrencySchedule.parse(
+                System.getenv().getOrDefault("LAMBDA_CONCURRENCY_SCHEDULE", ""));
+    }
+
     public String getLambdaArn() {
         return System.getenv().get("LAMBDA_ARN");
     }
@@ -17,10 +28,51 @@ public class ConfigurationService {
                 LambdaType.class, System.getenv().getOrDefault("LAMBDA_TYPE", "ENDPOINT"));
     }
 
+    public int getMaxConcurrency() {
+        return Integer.parseInt(System.getenv().getOrDefault("LAMBDA_MAX_CONCURRENCY", "100"));
+    }
+
     public int getMinConcurrency() {
         return Integer.parseInt(System.getenv().getOrDefault("LAMBDA_MIN_CONCURRENCY", "10"));
     }
 
+    public double getPeakHeadroom() {
+        return Double.parseDouble(System.getenv().getOrDefault("LAMBDA_PEAK_HEADROOM", "1.2"));
+    }
+
+    public ZoneId getScheduleZone() {
+        return ZoneId.of(System.getenv().getOrDefault("LAMBDA_SCHEDULE_ZONE", "Europe/London"));
+    }
+
+    /**
+     * The functions to warm, from {@code LAMBDA_TARGETS} as a comma separated list of {@code
+     * arn|qualifier|type} entries, where the qualifier and type are optional. Falls back to the
+     * single function in {@code LAMBDA_ARN}.
+     */
+    public List<WarmupTarget> getTargets() {
+        return Optional.ofNullable(System.getenv("LAMBDA_TARGETS"))
+                .filter(targets -> !targets.isBlank())
+                .map(
+                        targets ->
+                                Arrays.stream(targets.split(","))
+                                        .map(String::trim)
+                                        .filter(target -> !target.isEmpty())
+                                        .map(WarmupTarget::parse)
+                                        .collect(Collectors.toList()))
+                .orElseGet(
+                        () ->
+                                List.of(
+                                        new WarmupTarget(
+                                                getLambdaArn(),
+                                                getLambdaQualifier(),
+                                                getLambdaType())));
+    }
+
+    public boolean isObservedPeakEnabled() {
+        return Boolean.parseBoolean(
+                System.getenv().getOrDefault("LAMBDA_OBSERVED_PEAK_ENABLED", "false"));
+    }
+
     public enum LambdaType {
         ENDPOINT,
         AUTHORIZER
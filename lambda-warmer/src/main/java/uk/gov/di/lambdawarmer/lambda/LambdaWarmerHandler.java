@@ -1,107 +1,243 @@
 package uk.gov.di.lambdawarmer.lambda;
 
-import com.amazonaws.services.lambda.AWSLambda;
-import com.amazonaws.services.lambda.AWSLambdaClientBuilder;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.cloudwatch.AmazonCloudWatchClientBuilder;
+import com.amazonaws.services.lambda.AWSLambdaAsync;
+import com.amazonaws.services.lambda.AWSLambdaAsyncClientBuilder;
 import com.amazonaws.services.lambda.model.InvocationType;
 import com.amazonaws.services.lambda.model.InvokeRequest;
 import com.amazonaws.services.lambda.model.InvokeResult;
-import com.amazonaws.services.lambda.model.ServiceException;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.ScheduledEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static com.amazonaws.regions.Regions.EU_WEST_2;
 import static java.text.MessageFormat.format;
 
+/**
+ * Warms each configured target by invoking it as many times at once as the {@link
+ * ConcurrencyPlanner} asks for, and reports how many of those invocations landed on distinct
+ * containers. Warmed endpoints return their container id in the {@value #CONTAINER_HEADER}
+ * header. An invocation that returns a function error counts as failed.
+ */
 public class LambdaWarmerHandler implements RequestHandler<ScheduledEvent, String> {
 
     private static final Logger LOGGER = LogManager.getLogger(LambdaWarmerHandler.class);
+    private static final long DEFAULT_WAIT_MILLIS = 50_000;
+    private static final long TIMEOUT_MARGIN_MILLIS = 2_000;
     private final ConfigurationService configurationService;
-    private final AWSLambda awsLambda;
+    private final AWSLambdaAsync awsLambda;
+    private final ConcurrencyPlanner concurrencyPlanner;
 
     public static final String WARMUP_HEADER = "__WARMUP_REQUEST__";
+    public static final String CONTAINER_HEADER = "X-Warm-Container";
+    private static final Pattern CONTAINER_ID =
+            Pattern.compile("\"" + CONTAINER_HEADER + "\"\\s*:\\s*\"([^\"]+)\"");
 
-    public LambdaWarmerHandler(ConfigurationService configurationService, AWSLambda awsLambda) {
+    public LambdaWarmerHandler(
+            ConfigurationService configurationService,
+            AWSLambdaAsync awsLambda,
+            ConcurrencyPlanner concurrencyPlanner) {
         this.configurationService = configurationService;
         this.awsLambda = awsLambda;
+        this.concurrencyPlanner = concurrencyPlanner;
     }
 
     public LambdaWarmerHandler() {
-        this.configurationService = new ConfigurationService();
-        this.awsLambda = AWSLambdaClientBuilder.standard().withRegion(EU_WEST_2).build();
+        this(new ConfigurationService());
+    }
+
+    public LambdaWarmerHandler(ConfigurationService configurationService) {
+        this(
+                configurationService,
+                asyncLambdaClient(configurationService),
+                new ConcurrencyPlanner(
+                        configurationService,
+                        configurationService.isObservedPeakEnabled()
+                                ? Optional.of(
+                                        new CloudWatchPeakConcurrency(
+                                                AmazonCloudWatchClientBuilder.standard()
+                                                        .withRegion(EU_WEST_2)
+                                                        .build()))
+                                : Optional.empty(),
+                        Clock.systemUTC()));
+    }
+
+    /**
+     * Every invocation blocks a client thread and a connection for as long as the target takes to
+     * respond, so both are sized for all targets at their maximum concurrency. The client is
+     * created once per container and reused by every scheduled run.
+     */
+    private static AWSLambdaAsync asyncLambdaClient(ConfigurationService configurationService) {
+        int maxInFlight =
+                configurationService.getMaxConcurrency() * configurationService.getTargets().size();
+        return AWSLambdaAsyncClientBuilder.standard()
+                .withRegion(EU_WEST_2)
+                .withClientConfiguration(new ClientConfiguration().withMaxConnections(maxInFlight))
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(maxInFlight))
+                .build();
     }
 
     @Override
     public String handleRequest(ScheduledEvent input, Context context) {
         LOGGER.info("Lambda warmer started");
 
-        String lambdaArn = configurationService.getLambdaArn();
-        int concurrency = configurationService.getMinConcurrency();
-        List<CompletableFuture<InvokeResult>> invocations = new ArrayList<>();
-        Executor executor = Executors.newFixedThreadPool(concurrency);
-        for (int i = 0; i < concurrency; i++) {
-            invocations.add(CompletableFuture.supplyAsync(() -> warmLambda(lambdaArn), executor));
+        List<TargetRun> runs = new ArrayList<>();
+        for (WarmupTarget target : configurationService.getTargets()) {
+            int concurrency = concurrencyPlanner.targetConcurrency(target);
+            List<CompletableFuture<InvokeResult>> invocations = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                invocations.add(warmLambda(target));
+            }
+            runs.add(new TargetRun(target, invocations));
         }
 
-        CompletableFuture.allOf(invocations.toArray(new CompletableFuture[concurrency]))
-                .thenRun(
-                        () -> {
-                            invocations.forEach(
-                                    i ->
-                                            LOGGER.info(
-                                                    "Completed Successfully: {}",
-                                                    !i.isCompletedExceptionally()));
-                        })
-                .join();
-
-        LOGGER.info(
-                format(
-                        "Lambda warmup for {0}:{1} complete!",
-                        lambdaArn, configurationService.getLambdaQualifier()));
-        return format(
-                "Lambda warmup for {0}:{1} complete!",
-                lambdaArn, configurationService.getLambdaQualifier());
+        try {
+            CompletableFuture.allOf(
+                            runs.stream()
+                                    .flatMap(run -> run.invocations.stream())
+                                    .toArray(CompletableFuture[]::new))
+                    .get(waitMillis(context), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.warn("Not all warmup invocations completed in time");
+        } catch (ExecutionException e) {
+            LOGGER.warn("Some warmup invocations failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted waiting for warmup invocations");
+        }
+
+        String summary = runs.stream().map(TargetRun::summarise).collect(Collectors.joining("; "));
+        LOGGER.info("Lambda warmup complete! {}", summary);
+        return format("Lambda warmup complete! {0}", summary);
     }
 
-    private InvokeResult warmLambda(String functionName) {
+    private long waitMillis(Context context) {
+        if (context == null || context.getRemainingTimeInMillis() <= TIMEOUT_MARGIN_MILLIS) {
+            return DEFAULT_WAIT_MILLIS;
+        }
+        return context.getRemainingTimeInMillis() - TIMEOUT_MARGIN_MILLIS;
+    }
+
+    private CompletableFuture<InvokeResult> warmLambda(WarmupTarget target) {
         String warmupRequestId = UUID.randomUUID().toString();
         InvokeRequest invokeRequest =
                 new InvokeRequest()
-                        .withFunctionName(functionName)
-                        .withQualifier(configurationService.getLambdaQualifier())
+                        .withFunctionName(target.getFunctionArn())
+                        .withQualifier(target.getQualifier())
                         .withInvocationType(InvocationType.RequestResponse);
-        switch (configurationService.getLambdaType()) {
+        switch (target.getType()) {
             case ENDPOINT:
-                LOGGER.info("Using ENDPOINT payload");
                 invokeRequest.setPayload(
                         format(
                                 "'{' \"headers\": '{' \"{0}\": \"{1}\" '}}'",
                                 WARMUP_HEADER, warmupRequestId));
                 break;
             case AUTHORIZER:
-                LOGGER.info("Using AUTHORIZER payload");
                 invokeRequest.setPayload(
                         format(
                                 "'{' \"type\": \"{0}\", \"authorizationToken\": \"{1}\" '}'",
                                 WARMUP_HEADER, warmupRequestId));
                 break;
         }
+
+        var result = new CompletableFuture<InvokeResult>();
+        LOGGER.debug("Invoking warmup request with ID {}", warmupRequestId);
         try {
-            LOGGER.info("Invoking warmup request with ID {}", warmupRequestId);
-            InvokeResult invokeResult = awsLambda.invoke(invokeRequest);
-            return invokeResult;
-        } catch (ServiceException e) {
-            LOGGER.error("Error invoking lambda");
-            throw new RuntimeException("Error invoking Lambda");
+            awsLambda.invokeAsync(
+                    invokeRequest,
+                    new AsyncHandler<>() {
+                        @Override
+                        public void onError(Exception exception) {
+                            LOGGER.error("Error invoking lambda {}", target, exception);
+                            result.completeExceptionally(exception);
+                        }
+
+                        @Override
+                        public void onSuccess(InvokeRequest request, InvokeResult invokeResult) {
+                            if (invokeResult.getFunctionError() != null) {
+                                LOGGER.error(
+                                        "Lambda {} returned a function error: {}",
+                                        target,
+                                        invokeResult.getFunctionError());
+                                result.completeExceptionally(
+                                        new IllegalStateException(
+                                                "Function error: "
+                                                        + invokeResult.getFunctionError()));
+                            } else {
+                                result.complete(invokeResult);
+                            }
+                        }
+                    });
+        } catch (RuntimeException e) {
+            LOGGER.error("Error invoking lambda {}", target, e);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static Optional<String> containerId(InvokeResult result) {
+        if (result.getPayload() == null) {
+            return Optional.empty();
+        }
+        var matcher =
+                CONTAINER_ID.matcher(
+                        StandardCharsets.UTF_8.decode(result.getPayload().duplicate()));
+        return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private static class TargetRun {
+        private final WarmupTarget target;
+        private final List<CompletableFuture<InvokeResult>> invocations;
+
+        private TargetRun(WarmupTarget target, List<CompletableFuture<InvokeResult>> invocations) {
+            this.target = target;
+            this.invocations = invocations;
+        }
+
+        private String summarise() {
+            int completed = 0;
+            int unidentified = 0;
+            Set<String> containers = new HashSet<>();
+            for (CompletableFuture<InvokeResult> invocation : invocations) {
+                if (!invocation.isDone() || invocation.isCompletedExceptionally()) {
+                    continue;
+                }
+                completed++;
+                var container = containerId(invocation.join());
+                if (container.isPresent()) {
+                    containers.add(container.get());
+                } else {
+                    unidentified++;
+                }
+            }
+            return format(
+                    "{0}: {1} invoked, {2} completed, "
+                            + "{3} distinct warm containers, {4} unidentified",
+                    target,
+                    invocations.size(),
+                    completed,
+                    containers.size(),
+                    unidentified);
         }
     }
 }
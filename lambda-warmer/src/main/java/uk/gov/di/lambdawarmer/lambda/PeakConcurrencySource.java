@@ -0,0 +1,13 @@
+package uk.gov.di.lambdawarmer.lambda;
+
+import java.time.Instant;
+import java.util.OptionalInt;
+
+public interface PeakConcurrencySource {
+
+    /**
+     * The highest concurrency the target is expected to need around {@code now}, or empty if there
+     * is nothing to base it on.
+     */
+    OptionalInt peakConcurrency(WarmupTarget target, Instant now);
+}
@@ -0,0 +1,53 @@
+package uk.gov.di.lambdawarmer.lambda;
+
+import uk.gov.di.lambdawarmer.lambda.ConfigurationService.LambdaType;
+
+import java.util.Objects;
+
+public class WarmupTarget {
+
+    private final String functionArn;
+    private final String qualifier;
+    private final LambdaType type;
+
+    public WarmupTarget(String functionArn, String qualifier, LambdaType type) {
+        this.functionArn = Objects.requireNonNull(functionArn, "No function to warm");
+        this.qualifier = qualifier;
+        this.type = type;
+    }
+
+    static WarmupTarget parse(String target) {
+        String[] fields = target.split("\\|", -1);
+        if (fields.length > 3 || fields[0].isBlank()) {
+            throw new IllegalArgumentException("Invalid warmup target: " + target);
+        }
+        String qualifier = fields.length > 1 && !fields[1].isBlank() ? fields[1] : null;
+        LambdaType type =
+                fields.length > 2 && !fields[2].isBlank()
+                        ? LambdaType.valueOf(fields[2])
+                        : LambdaType.ENDPOINT;
+        return new WarmupTarget(fields[0], qualifier, type);
+    }
+
+    public String getFunctionArn() {
+        return functionArn;
+    }
+
+    /** The function name as used in CloudWatch metric dimensions. */
+    public String getFunctionName() {
+        return functionArn.substring(functionArn.lastIndexOf(':') + 1);
+    }
+
+    public String getQualifier() {
+        return qualifier;
+    }
+
+    public LambdaType getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return qualifier == null ? functionArn : functionArn + ":" + qualifier;
+    }
+}
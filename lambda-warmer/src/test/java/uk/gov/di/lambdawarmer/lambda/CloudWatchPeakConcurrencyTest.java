@@ -0,0 +1,53 @@
+package uk.gov.di.lambdawarmer.lambda;
+
+import com.amazonaws.services.cloudwatch.AmazonCloudWatch;
+import com.amazonaws.services.cloudwatch.model.Datapoint;
+import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsRequest;
+import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.OptionalInt;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.gov.di.lambdawarmer.lambda.ConfigurationService.LambdaType.ENDPOINT;
+
+class CloudWatchPeakConcurrencyTest {
+
+    private static final WarmupTarget TARGET =
+            new WarmupTarget(
+                    "arn:aws:lambda:eu-west-2:123456789012:function:login", null, ENDPOINT);
+    private static final Instant NOW = Instant.parse("2021-11-01T12:00:00Z");
+
+    private final AmazonCloudWatch cloudWatch = mock(AmazonCloudWatch.class);
+    private final CloudWatchPeakConcurrency peakConcurrency =
+            new CloudWatchPeakConcurrency(cloudWatch);
+
+    @Test
+    void shouldTakeTheHighestMaximumOfBothWindows() {
+        when(cloudWatch.getMetricStatistics(any(GetMetricStatisticsRequest.class)))
+                .thenReturn(datapoints(3.0, 7.0), datapoints(11.5));
+
+        assertThat(peakConcurrency.peakConcurrency(TARGET, NOW), equalTo(OptionalInt.of(12)));
+    }
+
+    @Test
+    void shouldHaveNoPeakWhenThereAreNoDatapoints() {
+        when(cloudWatch.getMetricStatistics(any(GetMetricStatisticsRequest.class)))
+                .thenReturn(datapoints(), datapoints());
+
+        assertThat(peakConcurrency.peakConcurrency(TARGET, NOW), equalTo(OptionalInt.empty()));
+    }
+
+    private static GetMetricStatisticsResult datapoints(Double... maximums) {
+        var result = new GetMetricStatisticsResult();
+        for (Double maximum : maximums) {
+            result.withDatapoints(new Datapoint().withMaximum(maximum));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package uk.gov.di.lambdawarmer.lambda;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.gov.di.lambdawarmer.lambda.ConfigurationService.LambdaType.ENDPOINT;
+
+class ConcurrencyPlannerTest {
+
+    private static final ZoneId LONDON = ZoneId.of("Europe/London");
+    private static final WarmupTarget TARGET =
+            new WarmupTarget(
+                    "arn:aws:lambda:eu-west-2:123456789012:function:login", null, ENDPOINT);
+
+    private final ConfigurationService configurationService = mock(ConfigurationService.class);
+    private final PeakConcurrencySource peakConcurrencySource = mock(PeakConcurrencySource.class);
+
+    @BeforeEach
+    void setUp() {
+        when(configurationService.getMinConcurrency()).thenReturn(5);
+        when(configurationService.getMaxConcurrency()).thenReturn(40);
+        when(configurationService.getPeakHeadroom()).thenReturn(1.5);
+        when(configurationService.getScheduleZone()).thenReturn(LONDON);
+        when(configurationService.getConcurrencySchedule())
+                .thenReturn(ConcurrencySchedule.parse("07:00-09:30=20, 09:30-18:00=30"));
+    }
+
+    @Test
+    void shouldUseTheMinimumOutsideTheSchedule() {
+        assertThat(plannerAt("2021-11-01T03:00:00Z").targetConcurrency(TARGET), equalTo(5));
+    }
+
+    @Test
+    void shouldUseTheScheduledConcurrencyInTheLocalTimeZone() {
+        // 08:30 in London during summer time
+        assertThat(plannerAt("2021-07-01T07:30:00Z").targetConcurrency(TARGET), equalTo(20));
+        assertThat(plannerAt("2021-07-01T12:00:00Z").targetConcurrency(TARGET), equalTo(30));
+    }
+
+    @Test
+    void shouldWarmForTheObservedPeakWithHeadroomUpToTheMaximum() {
+        when(peakConcurrencySource.peakConcurrency(any(), any()))
+                .thenReturn(OptionalInt.of(16), OptionalInt.of(30));
+
+        var planner = plannerAt("2021-11-01T12:00:00Z", Optional.of(peakConcurrencySource));
+
+        assertThat(planner.targetConcurrency(TARGET), equalTo(30));
+        assertThat(planner.targetConcurrency(TARGET), equalTo(40));
+    }
+
+    @Test
+    void shouldFallBackToTheScheduleWhenThePeakCannotBeRead() {
+        when(peakConcurrencySource.peakConcurrency(any(), any()))
+                .thenThrow(new RuntimeException("Throttled"));
+
+        var planner = plannerAt("2021-11-01T08:00:00Z", Optional.of(peakConcurrencySource));
+
+        assertThat(planner.targetConcurrency(TARGET), equalTo(20));
+    }
+
+    @Test
+    void shouldUseTheMinimumWhenThereIsNoObservedPeak() {
+        when(peakConcurrencySource.peakConcurrency(any(), any())).thenReturn(OptionalInt.empty());
+
+        var planner = plannerAt("2021-11-01T03:00:00Z", Optional.of(peakConcurrencySource));
+
+        assertThat(planner.targetConcurrency(TARGET), equalTo(5));
+    }
+
+    @Test
+    void shouldApplyWindowsThatWrapPastMidnight() {
+        var schedule = ConcurrencySchedule.parse("22:00-02:00=12");
+
+        assertThat(schedule.concurrencyAt(LocalTime.of(23, 0)), equalTo(12));
+        assertThat(schedule.concurrencyAt(LocalTime.of(1, 0)), equalTo(12));
+        assertThat(schedule.concurrencyAt(LocalTime.of(2, 0)), equalTo(0));
+    }
+
+    @Test
+    void shouldRejectAnInvalidSchedule() {
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencySchedule.parse("07:00=20"));
+    }
+
+    private ConcurrencyPlanner plannerAt(String instant) {
+        return plannerAt(instant, Optional.empty());
+    }
+
+    private ConcurrencyPlanner plannerAt(
+            String instant, Optional<PeakConcurrencySource> peakConcurrencySource) {
+        return new ConcurrencyPlanner(
+                configurationService,
+                peakConcurrencySource,
+                Clock.fixed(Instant.parse(instant), ZoneId.of("UTC")));
+    }
+}
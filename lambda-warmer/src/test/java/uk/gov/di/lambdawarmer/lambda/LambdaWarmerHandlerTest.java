@@ -1,61 +1,175 @@
 package uk.gov.di.lambdawarmer.lambda;
 
-import com.amazonaws.services.lambda.AWSLambda;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.lambda.AWSLambdaAsync;
 import com.amazonaws.services.lambda.model.InvokeRequest;
 import com.amazonaws.services.lambda.model.InvokeResult;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.ScheduledEvent;
 import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static uk.gov.di.lambdawarmer.lambda.ConfigurationService.LambdaType.AUTHORIZER;
 import static uk.gov.di.lambdawarmer.lambda.ConfigurationService.LambdaType.ENDPOINT;
 
 class LambdaWarmerHandlerTest {
 
-    private final AWSLambda lambda = mock(AWSLambda.class);
+    private static final WarmupTarget ENDPOINT_TARGET =
+            new WarmupTarget("a-function-arn", "a-function-active", ENDPOINT);
+    private static final WarmupTarget AUTHORIZER_TARGET =
+            new WarmupTarget("an-authorizer-arn", null, AUTHORIZER);
+
+    private final AWSLambdaAsync lambda = mock(AWSLambdaAsync.class);
     private final ConfigurationService configurationService = mock(ConfigurationService.class);
+    private final ConcurrencyPlanner concurrencyPlanner = mock(ConcurrencyPlanner.class);
     private final Context context = mock(Context.class);
+    private final LambdaWarmerHandler handler =
+            new LambdaWarmerHandler(configurationService, lambda, concurrencyPlanner);
 
     @Test
     void shouldExecuteTheSpecifiedNumberOfTimes() {
-        when(configurationService.getLambdaArn()).thenReturn("a-function-arn");
-        when(configurationService.getLambdaType()).thenReturn(ENDPOINT);
-        when(configurationService.getMinConcurrency()).thenReturn(5);
-        when(lambda.invoke(any(InvokeRequest.class)))
-                .thenReturn(
-                        new InvokeResult()
-                                .withPayload(
-                                        ByteBuffer.wrap(
-                                                "test-result".getBytes(StandardCharsets.UTF_8))));
-
-        LambdaWarmerHandler handler = new LambdaWarmerHandler(configurationService, lambda);
+        when(configurationService.getTargets()).thenReturn(List.of(ENDPOINT_TARGET));
+        when(concurrencyPlanner.targetConcurrency(ENDPOINT_TARGET)).thenReturn(5);
+        respondWith("test-result");
 
         handler.handleRequest(new ScheduledEvent(), context);
 
-        verify(lambda, times(5)).invoke(any(InvokeRequest.class));
+        verify(lambda, times(5))
+                .invokeAsync(
+                        argThat(
+                                request ->
+                                        request.getFunctionName().equals("a-function-arn")
+                                                && request.getQualifier()
+                                                        .equals("a-function-active")),
+                        any());
     }
 
-    void shouldExecuteTheDefaultNumberOfTimes() {
-        when(configurationService.getLambdaArn()).thenReturn("a-function-arn");
-        when(configurationService.getLambdaType()).thenReturn(ENDPOINT);
-        when(lambda.invoke(any(InvokeRequest.class)))
-                .thenReturn(
-                        new InvokeResult()
-                                .withPayload(
-                                        ByteBuffer.wrap(
-                                                "test-result".getBytes(StandardCharsets.UTF_8))));
-
-        LambdaWarmerHandler handler = new LambdaWarmerHandler(configurationService, lambda);
+    @Test
+    void shouldWarmEachTargetToItsOwnConcurrency() {
+        when(configurationService.getTargets())
+                .thenReturn(List.of(ENDPOINT_TARGET, AUTHORIZER_TARGET));
+        when(concurrencyPlanner.targetConcurrency(ENDPOINT_TARGET)).thenReturn(3);
+        when(concurrencyPlanner.targetConcurrency(AUTHORIZER_TARGET)).thenReturn(2);
+        respondWith("{}");
 
         handler.handleRequest(new ScheduledEvent(), context);
 
-        verify(lambda, times(15)).invoke(any(InvokeRequest.class));
+        verify(lambda, times(3))
+                .invokeAsync(argThat(request -> isFor(request, "a-function-arn")), any());
+        verify(lambda, times(2))
+                .invokeAsync(
+                        argThat(
+                                request ->
+                                        isFor(request, "an-authorizer-arn")
+                                                && payload(request).contains("\"type\"")),
+                        any());
+    }
+
+    @Test
+    void shouldReportHowManyDistinctContainersWereWarmed() {
+        when(configurationService.getTargets()).thenReturn(List.of(ENDPOINT_TARGET));
+        when(concurrencyPlanner.targetConcurrency(ENDPOINT_TARGET)).thenReturn(4);
+        var responses =
+                new ArrayDeque<>(
+                        List.of(
+                                warmResponse("container-a"),
+                                warmResponse("container-b"),
+                                warmResponse("container-a"),
+                                "{\"errorMessage\":\"Unauthorized\"}"));
+        when(lambda.invokeAsync(any(InvokeRequest.class), any()))
+                .thenAnswer(invocation -> complete(invocation, responses.remove()));
+
+        var result = handler.handleRequest(new ScheduledEvent(), context);
+
+        assertThat(
+                result,
+                containsString(
+                        "a-function-arn:a-function-active: 4 invoked, 4 completed, "
+                                + "2 distinct warm containers, 1 unidentified"));
+    }
+
+    @Test
+    void shouldReportFailedInvocations() {
+        when(configurationService.getTargets()).thenReturn(List.of(ENDPOINT_TARGET));
+        when(concurrencyPlanner.targetConcurrency(ENDPOINT_TARGET)).thenReturn(2);
+        when(lambda.invokeAsync(any(InvokeRequest.class), any()))
+                .thenAnswer(
+                        invocation -> {
+                            AsyncHandler<InvokeRequest, InvokeResult> asyncHandler =
+                                    invocation.getArgument(1);
+                            var exception = new RuntimeException("Rate exceeded");
+                            asyncHandler.onError(exception);
+                            return CompletableFuture.failedFuture(exception);
+                        });
+
+        var result = handler.handleRequest(new ScheduledEvent(), context);
+
+        assertThat(result, containsString("2 invoked, 0 completed"));
+    }
+
+    @Test
+    void shouldReportInvocationsReturningAFunctionErrorAsFailed() {
+        when(configurationService.getTargets()).thenReturn(List.of(ENDPOINT_TARGET));
+        when(concurrencyPlanner.targetConcurrency(ENDPOINT_TARGET)).thenReturn(2);
+        var payload = warmResponse("container-a").getBytes(StandardCharsets.UTF_8);
+        when(lambda.invokeAsync(any(InvokeRequest.class), any()))
+                .thenAnswer(
+                        invocation -> {
+                            InvokeRequest request = invocation.getArgument(0);
+                            AsyncHandler<InvokeRequest, InvokeResult> asyncHandler =
+                                    invocation.getArgument(1);
+                            var result =
+                                    new InvokeResult()
+                                            .withFunctionError("Unhandled")
+                                            .withPayload(ByteBuffer.wrap(payload));
+                            asyncHandler.onSuccess(request, result);
+                            return CompletableFuture.completedFuture(result);
+                        });
+
+        var result = handler.handleRequest(new ScheduledEvent(), context);
+
+        assertThat(result, containsString("2 invoked, 0 completed, 0 distinct warm containers"));
+    }
+
+    private void respondWith(String payload) {
+        when(lambda.invokeAsync(any(InvokeRequest.class), any()))
+                .thenAnswer(invocation -> complete(invocation, payload));
+    }
+
+    private static String warmResponse(String containerId) {
+        return "{\"statusCode\":200,\"headers\":{\"X-Warm-Container\":\"" + containerId + "\"}}";
+    }
+
+    private static CompletableFuture<InvokeResult> complete(
+            InvocationOnMock invocation, String payload) {
+        InvokeRequest request = invocation.getArgument(0);
+        AsyncHandler<InvokeRequest, InvokeResult> asyncHandler = invocation.getArgument(1);
+        var result =
+                new InvokeResult()
+                        .withPayload(ByteBuffer.wrap(payload.getBytes(StandardCharsets.UTF_8)));
+        asyncHandler.onSuccess(request, result);
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private static boolean isFor(InvokeRequest request, String functionArn) {
+        return request != null && request.getFunctionName().equals(functionArn);
+    }
+
+    private static String payload(InvokeRequest request) {
+        return StandardCharsets.UTF_8.decode(request.getPayload().duplicate()).toString();
     }
 }
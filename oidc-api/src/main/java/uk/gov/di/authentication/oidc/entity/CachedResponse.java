@@ -0,0 +1,52 @@
+package uk.gov.di.authentication.oidc.entity;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.apache.http.HttpHeaders;
+import uk.gov.di.authentication.shared.helpers.HashHelper;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateCacheableApiGatewayProxyResponse;
+import static uk.gov.di.authentication.shared.helpers.RequestHeaderHelper.getHeaderValueFromHeaders;
+
+/**
+ * A response body that is serialised once and served with a strong ETag, answering requests
+ * whose If-None-Match header already holds that ETag with a 304 and no body.
+ */
+public class CachedResponse {
+
+    private final String body;
+    private final String eTag;
+    private final String cacheControl;
+
+    public CachedResponse(String body, String cacheControl) {
+        this.body = body;
+        this.eTag = "\"" + HashHelper.hashSha256String(body) + "\"";
+        this.cacheControl = cacheControl;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public APIGatewayProxyResponseEvent toResponse(Map<String, String> requestHeaders) {
+        String ifNoneMatch =
+                getHeaderValueFromHeaders(requestHeaders, HttpHeaders.IF_NONE_MATCH, true);
+        if (ifNoneMatch != null && matches(ifNoneMatch)) {
+            return generateCacheableApiGatewayProxyResponse(304, "", eTag, cacheControl);
+        }
+        return generateCacheableApiGatewayProxyResponse(200, body, eTag, cacheControl);
+    }
+
+    private boolean matches(String ifNoneMatch) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
+    }
+}
@@ -31,6 +31,11 @@ import uk.gov.di.authentication.shared.services.AuthorisationCodeService;
 import uk.gov.di.authentication.shared.services.AuthorizationService;
 import uk.gov.di.authentication.shared.services.ClientSessionService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
+import uk.gov.di.authentication.shared.services.DynamoClientService;
+import uk.gov.di.authentication.shared.services.DynamoService;
+import uk.gov.di.authentication.shared.services.RequestScoped;
+import uk.gov.di.authentication.shared.services.RequestScopedAuthenticationService;
+import uk.gov.di.authentication.shared.services.RequestScopedClientService;
 import uk.gov.di.authentication.shared.services.SessionService;
 import uk.gov.di.authentication.shared.state.StateMachine;
 import uk.gov.di.authentication.shared.state.UserContext;
@@ -66,6 +71,7 @@ public class AuthCodeHandler
     private final AuthorizationService authorizationService;
     private final ClientSessionService clientSessionService;
     private final AuditService auditService;
+    private final List<RequestScoped> requestScopedServices;
     private final StateMachine<SessionState, SessionAction, UserContext> stateMachine =
             userJourneyStateMachine();
 
@@ -82,15 +88,25 @@ public class AuthCodeHandler
         this.authorizationService = authorizationService;
         this.clientSessionService = clientSessionService;
         this.auditService = auditService;
+        this.requestScopedServices = List.of();
     }
 
     public AuthCodeHandler(ConfigurationService configurationService) {
         this.configurationService = configurationService;
         sessionService = new SessionService(configurationService);
         authorisationCodeService = new AuthorisationCodeService(configurationService);
-        authorizationService = new AuthorizationService(configurationService);
+        var clientService =
+                new RequestScopedClientService(
+                        new DynamoClientService(
+                                configurationService.getAwsRegion(),
+                                configurationService.getEnvironment(),
+                                configurationService.getDynamoEndpointUri()));
+        var authenticationService =
+                new RequestScopedAuthenticationService(new DynamoService(configurationService));
+        authorizationService = new AuthorizationService(clientService, authenticationService);
         clientSessionService = new ClientSessionService(configurationService);
-        auditService = new AuditService(configurationService);
+        auditService = new AuditService(configurationService, true);
+        requestScopedServices = List.of(clientService, authenticationService, auditService);
     }
 
     public AuthCodeHandler() {
@@ -100,6 +116,15 @@ public class AuthCodeHandler
     @Override
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
+        try {
+            return handleAuthCodeRequest(input, context);
+        } finally {
+            RequestScoped.endRequests(requestScopedServices);
+        }
+    }
+
+    private APIGatewayProxyResponseEvent handleAuthCodeRequest(
+            APIGatewayProxyRequestEvent input, Context context) {
         return isWarming(input)
                 .orElseGet(
                         () -> {
@@ -83,7 +83,7 @@ public class AuthorisationHandler
         this.sessionService = new SessionService(configurationService);
         this.clientSessionService = new ClientSessionService(configurationService);
         this.authorizationService = new AuthorizationService(configurationService);
-        this.auditService = new AuditService(configurationService);
+        this.auditService = new AuditService(configurationService, true);
         this.stateMachine = userJourneyStateMachine();
     }
 
@@ -94,6 +94,15 @@ public class AuthorisationHandler
     @Override
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
+        try {
+            return handleAuthorisationRequest(input, context);
+        } finally {
+            auditService.endRequest();
+        }
+    }
+
+    private APIGatewayProxyResponseEvent handleAuthorisationRequest(
+            APIGatewayProxyRequestEvent input, Context context) {
         return isWarming(input)
                 .orElseGet(
                         () -> {
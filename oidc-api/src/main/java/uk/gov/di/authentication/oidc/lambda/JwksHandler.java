@@ -4,13 +4,17 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.gov.di.authentication.oidc.entity.CachedResponse;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.KmsConnectionService;
 import uk.gov.di.authentication.shared.services.TokenValidationService;
 
+import java.util.Objects;
+
 import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateApiGatewayProxyResponse;
 import static uk.gov.di.authentication.shared.helpers.WarmerHelper.isWarming;
 
@@ -20,6 +24,9 @@ public class JwksHandler
     private final TokenValidationService tokenValidationService;
     private final ConfigurationService configurationService;
     private static final Logger LOG = LogManager.getLogger(JwksHandler.class);
+    private static final String CACHE_CONTROL = "public, max-age=300";
+    private JWK signingKey;
+    private CachedResponse jwksResponse;
 
     public JwksHandler(
             TokenValidationService tokenValidationService,
@@ -45,17 +52,25 @@ public class JwksHandler
         return isWarming(input)
                 .orElseGet(
                         () -> {
-                            JWKSet jwkSet;
                             try {
                                 LOG.info("JWKs request received");
-                                jwkSet = new JWKSet(tokenValidationService.getPublicJwk());
+                                JWK publicJwk = tokenValidationService.getPublicJwk();
+                                if (jwksResponse == null
+                                        || !Objects.equals(publicJwk, signingKey)) {
+                                    LOG.info("Signing key changed. Regenerating JWKs");
+                                    jwksResponse =
+                                            new CachedResponse(
+                                                    new JWKSet(publicJwk).toString(true),
+                                                    CACHE_CONTROL);
+                                    signingKey = publicJwk;
+                                }
                             } catch (IllegalArgumentException e) {
                                 LOG.error("Error in JWKs lambda. Public Jwk is null", e);
                                 return generateApiGatewayProxyResponse(
                                         500, "Signing key is not present");
                             }
                             LOG.info("Generating JWKs successful response");
-                            return generateApiGatewayProxyResponse(200, jwkSet.toString(true));
+                            return jwksResponse.toResponse(input.getHeaders());
                         });
     }
 }
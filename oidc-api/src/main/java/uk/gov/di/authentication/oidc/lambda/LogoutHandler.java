@@ -25,7 +25,6 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 
 import static uk.gov.di.authentication.shared.helpers.LogLineHelper.attachSessionIdToLogs;
@@ -163,9 +162,7 @@ public class LogoutHandler
     }
 
     private boolean doesIDTokenExistInSession(String idTokenHint, Session session) {
-        return session.getClientSessions().stream()
-                .map(clientSessionService::getClientSession)
-                .filter(Objects::nonNull)
+        return clientSessionService.getClientSessions(session.getClientSessions()).stream()
                 .anyMatch(cs -> idTokenHint.equals(cs.getIdTokenHint()));
     }
 
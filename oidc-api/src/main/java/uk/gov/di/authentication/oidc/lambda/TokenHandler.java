@@ -4,8 +4,6 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.ErrorObject;
 import com.nimbusds.oauth2.sdk.GrantType;
@@ -20,9 +18,9 @@ import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.AuthCodeExchangeData;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientSession;
-import uk.gov.di.authentication.shared.entity.RefreshTokenStore;
 import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.helpers.ClientSubjectHelper;
+import uk.gov.di.authentication.shared.helpers.WarmupPrimers;
 import uk.gov.di.authentication.shared.services.AuthorisationCodeService;
 import uk.gov.di.authentication.shared.services.ClientService;
 import uk.gov.di.authentication.shared.services.ClientSessionService;
@@ -62,7 +60,6 @@ public class TokenHandler
     private final TokenValidationService tokenValidationService;
     private final RedisConnectionService redisConnectionService;
     private static final String TOKEN_PATH = "token";
-    private static final String REFRESH_TOKEN_PREFIX = "REFRESH_TOKEN:";
 
     public TokenHandler(
             ClientService clientService,
@@ -93,7 +90,7 @@ public class TokenHandler
         this.tokenService =
                 new TokenService(
                         configurationService,
-                        new RedisConnectionService(configurationService),
+                        RedisConnectionService.getInstance(configurationService),
                         new KmsConnectionService(configurationService));
         this.dynamoService = new DynamoService(configurationService);
         this.authorisationCodeService = new AuthorisationCodeService(configurationService);
@@ -101,7 +98,7 @@ public class TokenHandler
         this.tokenValidationService =
                 new TokenValidationService(
                         configurationService, new KmsConnectionService(configurationService));
-        this.redisConnectionService = new RedisConnectionService(configurationService);
+        this.redisConnectionService = RedisConnectionService.getInstance(configurationService);
     }
 
     public TokenHandler() {
@@ -111,7 +108,7 @@ public class TokenHandler
     @Override
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
-        return isWarming(input)
+        return isWarming(input, this::primeForWarmup)
                 .orElseGet(
                         () -> {
                             LOG.info("Token request received");
@@ -262,6 +259,14 @@ public class TokenHandler
                         });
     }
 
+    private void primeForWarmup() throws Exception {
+        WarmupPrimers.COMMON.prime();
+        tokenValidationService.getPublicKey();
+        clientService.isValidClient(WarmupPrimers.WARMUP_ID);
+        dynamoService.userExists(WarmupPrimers.WARMUP_EMAIL);
+        redisConnectionService.keyExists(WarmupPrimers.WARMUP_ID);
+    }
+
     private Subject getSubjectByEmailAndClient(UserProfile userProfile, ClientRegistry client) {
         if (client.getSubjectType().equalsIgnoreCase("public")) {
             return new Subject(userProfile.getPublicSubjectID());
@@ -322,55 +327,18 @@ public class TokenHandler
             return generateApiGatewayProxyResponse(
                     400, OAuth2Error.INVALID_SCOPE.toJSONObject().toJSONString());
         }
-        String clientId = requestBody.get("client_id");
-        String redisKey = REFRESH_TOKEN_PREFIX + clientId + "." + publicSubject.getValue();
-        Optional<String> refreshToken =
-                Optional.ofNullable(redisConnectionService.getValue(redisKey));
-        RefreshTokenStore tokenStore;
-        try {
-            tokenStore = new ObjectMapper().readValue(refreshToken.get(), RefreshTokenStore.class);
-        } catch (JsonProcessingException | NoSuchElementException | IllegalArgumentException e) {
-            LOG.error("Refresh token not found with given key");
-            return generateApiGatewayProxyResponse(
-                    400,
-                    new ErrorObject(OAuth2Error.INVALID_GRANT_CODE, "Invalid Refresh token")
-                            .toJSONObject()
-                            .toJSONString());
-        }
-        if (!tokenStore.getRefreshTokens().contains(currentRefreshToken.getValue())) {
-            LOG.error("Refresh token store does not contain Refresh token in request");
+        Optional<OIDCTokenResponse> tokenResponse =
+                tokenService.generateRefreshTokenResponse(
+                        requestBody.get("client_id"), currentRefreshToken, scopes, publicSubject);
+        if (tokenResponse.isEmpty()) {
             return generateApiGatewayProxyResponse(
                     400,
                     new ErrorObject(OAuth2Error.INVALID_GRANT_CODE, "Invalid Refresh token")
                             .toJSONObject()
                             .toJSONString());
         }
-        if (tokenStore.getRefreshTokens().size() > 1) {
-            LOG.info("Removing Refresh Token from refresh token store");
-            try {
-                redisConnectionService.saveWithExpiry(
-                        redisKey,
-                        new ObjectMapper()
-                                .writeValueAsString(
-                                        tokenStore.removeRefreshToken(
-                                                currentRefreshToken.getValue())),
-                        configurationService.getSessionExpiry());
-            } catch (JsonProcessingException e) {
-                LOG.error("Unable to serialize refresh token store when updating");
-                throw new RuntimeException(e);
-            }
-        } else {
-            LOG.info("Deleting refresh token store as no other refresh tokens exist");
-            redisConnectionService.deleteValue(redisKey);
-        }
-
-        OIDCTokenResponse tokenResponse =
-                tokenService.generateRefreshTokenResponse(
-                        clientId,
-                        new Subject(tokenStore.getInternalSubjectId()),
-                        scopes,
-                        publicSubject);
         LOG.info("Generating successful RefreshToken response");
-        return generateApiGatewayProxyResponse(200, tokenResponse.toJSONObject().toJSONString());
+        return generateApiGatewayProxyResponse(
+                200, tokenResponse.get().toJSONObject().toJSONString());
     }
 }
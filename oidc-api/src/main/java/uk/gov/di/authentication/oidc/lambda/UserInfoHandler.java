@@ -45,7 +45,7 @@ public class UserInfoHandler
         this.configurationService = configurationService;
         this.userInfoService =
                 new UserInfoService(
-                        new RedisConnectionService(configurationService),
+                        RedisConnectionService.getInstance(configurationService),
                         new DynamoService(
                                 configurationService.getAwsRegion(),
                                 configurationService.getEnvironment(),
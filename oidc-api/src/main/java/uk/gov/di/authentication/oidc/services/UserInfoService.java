@@ -1,7 +1,7 @@
 package uk.gov.di.authentication.oidc.services;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
 import com.nimbusds.oauth2.sdk.OAuth2Error;
@@ -17,6 +17,7 @@ import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.entity.ValidScopes;
 import uk.gov.di.authentication.shared.exceptions.UserInfoValidationException;
+import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
 import uk.gov.di.authentication.shared.services.RedisConnectionService;
@@ -36,6 +37,8 @@ public class UserInfoService {
     private final TokenValidationService tokenValidationService;
     private final DynamoClientService clientService;
     private static final String ACCESS_TOKEN_PREFIX = "ACCESS_TOKEN:";
+    private static final ObjectReader ACCESS_TOKEN_STORE_READER =
+            ObjectMapperFactory.getInternalReader(AccessTokenStore.class);
 
     private static final Logger LOGGER = LogManager.getLogger(UserInfoService.class);
 
@@ -103,7 +106,7 @@ public class UserInfoService {
                 throw new UserInfoValidationException(
                         "Invalid Access Token", BearerTokenError.INVALID_TOKEN);
             }
-            if (!accessTokenStore.get().getToken().equals(accessToken.getValue())) {
+            if (!accessTokenStore.get().matches(accessToken.getValue())) {
                 LOGGER.error(
                         "Access Token in Access Token Store is different to Access Token sent in request");
                 throw new UserInfoValidationException(
@@ -142,8 +145,8 @@ public class UserInfoService {
         String result =
                 redisConnectionService.getValue(ACCESS_TOKEN_PREFIX + clientId + "." + subjectId);
         try {
-            return Optional.ofNullable(
-                    new ObjectMapper().readValue(result, AccessTokenStore.class));
+            AccessTokenStore accessTokenStore = ACCESS_TOKEN_STORE_READER.readValue(result);
+            return Optional.ofNullable(accessTokenStore);
         } catch (JsonProcessingException | IllegalArgumentException e) {
             LOGGER.error("Error getting AccessToken from Redis. ClientID: {}", clientId);
             return Optional.empty();
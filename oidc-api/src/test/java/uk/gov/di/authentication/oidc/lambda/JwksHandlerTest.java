@@ -12,9 +12,12 @@ import org.junit.jupiter.api.Test;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.TokenValidationService;
 
+import java.util.Map;
 import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.authentication.sharedtest.matchers.APIGatewayProxyResponseEventMatcher.hasBody;
@@ -47,6 +50,41 @@ class JwksHandlerTest {
         assertThat(result, hasBody(expectedJWKSet.toString(true)));
     }
 
+    @Test
+    public void shouldReturn304WhenETagMatches() throws JOSEException {
+        JWK signingKey = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        when(tokenValidationService.getPublicJwk()).thenReturn(signingKey);
+
+        APIGatewayProxyResponseEvent first =
+                handler.handleRequest(new APIGatewayProxyRequestEvent(), context);
+        String eTag = first.getHeaders().get("ETag");
+        APIGatewayProxyRequestEvent event =
+                new APIGatewayProxyRequestEvent().withHeaders(Map.of("If-None-Match", eTag));
+        APIGatewayProxyResponseEvent result = handler.handleRequest(event, context);
+
+        assertThat(result, hasStatus(304));
+        assertThat(result, hasBody(""));
+        assertThat(result.getHeaders().get("Cache-Control"), equalTo("public, max-age=300"));
+    }
+
+    @Test
+    public void shouldRegenerateJwksWhenSigningKeyChanges() throws JOSEException {
+        JWK oldKey = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        JWK newKey = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        when(tokenValidationService.getPublicJwk()).thenReturn(oldKey, newKey);
+
+        APIGatewayProxyResponseEvent first =
+                handler.handleRequest(new APIGatewayProxyRequestEvent(), context);
+        APIGatewayProxyRequestEvent event =
+                new APIGatewayProxyRequestEvent()
+                        .withHeaders(Map.of("If-None-Match", first.getHeaders().get("ETag")));
+        APIGatewayProxyResponseEvent result = handler.handleRequest(event, context);
+
+        assertThat(result, hasStatus(200));
+        assertThat(result, hasBody(new JWKSet(newKey).toString(true)));
+        assertThat(result.getHeaders().get("ETag"), not(equalTo(first.getHeaders().get("ETag"))));
+    }
+
     @Test
     public void shouldReturn500WhenSigningKeyIsNotPresent() {
         when(tokenValidationService.getPublicJwk()).thenReturn(null);
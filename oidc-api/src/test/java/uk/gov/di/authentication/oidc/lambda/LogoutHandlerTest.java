@@ -40,6 +40,7 @@ import static java.lang.String.format;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -340,7 +341,7 @@ class LogoutHandlerTest {
                         LocalDateTime.now(),
                         mock(VectorOfTrust.class));
         clientSession.setIdTokenHint(idToken.serialize());
-        when(clientSessionService.getClientSession(CLIENT_SESSION_ID)).thenReturn(clientSession);
+        when(clientSessionService.getClientSessions(anyList())).thenReturn(List.of(clientSession));
     }
 
     private Session generateSession() {
@@ -3,8 +3,6 @@ package uk.gov.di.authentication.oidc.lambda;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.crypto.ECDSASigner;
@@ -37,7 +35,6 @@ import uk.gov.di.authentication.shared.entity.ClientConsent;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientSession;
 import uk.gov.di.authentication.shared.entity.CredentialTrustLevel;
-import uk.gov.di.authentication.shared.entity.RefreshTokenStore;
 import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.entity.ValidScopes;
 import uk.gov.di.authentication.shared.entity.VectorOfTrust;
@@ -76,8 +73,6 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.authentication.shared.helpers.TokenGeneratorHelper.generateIDToken;
 import static uk.gov.di.authentication.sharedtest.matchers.APIGatewayProxyResponseEventMatcher.hasBody;
@@ -97,7 +92,6 @@ public class TokenHandlerTest {
     private static final String TOKEN_URI = "http://localhost/token";
     public static final String CLIENT_SESSION_ID = "a-client-session-id";
     private static final Nonce NONCE = new Nonce();
-    private static final String REFRESH_TOKEN_PREFIX = "REFRESH_TOKEN:";
     private static final String VOT = CredentialTrustLevel.MEDIUM_LEVEL.getValue();
     private final Context context = mock(Context.class);
     private final DynamoService dynamoService = mock(DynamoService.class);
@@ -187,104 +181,55 @@ public class TokenHandlerTest {
     }
 
     @Test
-    public void shouldReturn200ForSuccessfulRefreshTokenRequest()
-            throws JOSEException, JsonProcessingException {
+    public void shouldReturn200ForSuccessfulRefreshTokenRequest() throws JOSEException {
         SignedJWT signedRefreshToken = createSignedRefreshToken();
         KeyPair keyPair = generateRsaKeyPair();
         BearerAccessToken accessToken = new BearerAccessToken();
         RefreshToken refreshToken = new RefreshToken(signedRefreshToken.serialize());
+        RefreshToken newRefreshToken = new RefreshToken();
         OIDCTokenResponse tokenResponse =
-                new OIDCTokenResponse(new OIDCTokens(accessToken, refreshToken));
+                new OIDCTokenResponse(new OIDCTokens(accessToken, newRefreshToken));
         PrivateKeyJWT privateKeyJWT = generatePrivateKeyJWT(keyPair.getPrivate());
         ClientRegistry clientRegistry = generateClientRegistry(keyPair);
-
-        when(tokenService.validateTokenRequestParams(anyString())).thenReturn(Optional.empty());
-        when(clientService.getClient(eq(CLIENT_ID))).thenReturn(Optional.of(clientRegistry));
-        when(tokenService.validatePrivateKeyJWT(
-                        anyString(),
-                        eq(clientRegistry.getPublicKey()),
-                        eq(BASE_URI),
-                        eq(CLIENT_ID)))
-                .thenReturn(Optional.empty());
-        when(tokenValidationService.validateRefreshTokenSignatureAndExpiry(refreshToken))
-                .thenReturn(true);
-        when(tokenValidationService.validateRefreshTokenScopes(
-                        SCOPES.toStringList(), SCOPES.toStringList()))
-                .thenReturn(true);
-        RefreshTokenStore tokenStore =
-                new RefreshTokenStore(
-                        singletonList(refreshToken.getValue()), INTERNAL_SUBJECT.getValue());
-        String redisKey = REFRESH_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT.getValue();
-        String tokenStoreString = new ObjectMapper().writeValueAsString(tokenStore);
-        when(redisConnectionService.getValue(redisKey)).thenReturn(tokenStoreString);
+        setUpRefreshTokenRequest(clientRegistry, refreshToken);
         when(tokenService.generateRefreshTokenResponse(
                         eq(CLIENT_ID),
-                        eq(INTERNAL_SUBJECT),
+                        eq(refreshToken),
                         eq(SCOPES.toStringList()),
                         eq(PUBLIC_SUBJECT)))
-                .thenReturn(tokenResponse);
+                .thenReturn(Optional.of(tokenResponse));
 
         APIGatewayProxyResponseEvent result =
                 generateApiGatewayRefreshRequest(privateKeyJWT, refreshToken.getValue());
         assertThat(result, hasStatus(200));
-        assertTrue(result.getBody().contains(refreshToken.getValue()));
+        assertTrue(result.getBody().contains(newRefreshToken.getValue()));
         assertTrue(result.getBody().contains(accessToken.getValue()));
-        verify(redisConnectionService, times(1)).deleteValue(redisKey);
     }
 
     @Test
-    public void shouldReturn200ForRefreshTokenRequestWhenMultipleRefreshTokensAreStored()
-            throws JOSEException, JsonProcessingException {
+    public void shouldReturn400IfRefreshTokenCannotBeExchanged() throws JOSEException {
         SignedJWT signedRefreshToken = createSignedRefreshToken();
         KeyPair keyPair = generateRsaKeyPair();
-        BearerAccessToken accessToken = new BearerAccessToken();
         RefreshToken refreshToken = new RefreshToken(signedRefreshToken.serialize());
-        RefreshToken refreshToken2 = new RefreshToken();
-        OIDCTokenResponse tokenResponse =
-                new OIDCTokenResponse(new OIDCTokens(accessToken, refreshToken));
         PrivateKeyJWT privateKeyJWT = generatePrivateKeyJWT(keyPair.getPrivate());
         ClientRegistry clientRegistry = generateClientRegistry(keyPair);
-
-        when(tokenService.validateTokenRequestParams(anyString())).thenReturn(Optional.empty());
-        when(clientService.getClient(eq(CLIENT_ID))).thenReturn(Optional.of(clientRegistry));
-        when(tokenService.validatePrivateKeyJWT(
-                        anyString(),
-                        eq(clientRegistry.getPublicKey()),
-                        eq(BASE_URI),
-                        eq(CLIENT_ID)))
-                .thenReturn(Optional.empty());
-        when(tokenValidationService.validateRefreshTokenSignatureAndExpiry(refreshToken))
-                .thenReturn(true);
-        when(tokenValidationService.validateRefreshTokenScopes(
-                        SCOPES.toStringList(), SCOPES.toStringList()))
-                .thenReturn(true);
-        RefreshTokenStore tokenStore =
-                new RefreshTokenStore(
-                        List.of(refreshToken.getValue(), refreshToken2.getValue()),
-                        INTERNAL_SUBJECT.getValue());
-        String redisKey = REFRESH_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT.getValue();
-        String tokenStoreString = new ObjectMapper().writeValueAsString(tokenStore);
-        when(redisConnectionService.getValue(redisKey)).thenReturn(tokenStoreString);
+        setUpRefreshTokenRequest(clientRegistry, refreshToken);
         when(tokenService.generateRefreshTokenResponse(
                         eq(CLIENT_ID),
-                        eq(INTERNAL_SUBJECT),
+                        eq(refreshToken),
                         eq(SCOPES.toStringList()),
                         eq(PUBLIC_SUBJECT)))
-                .thenReturn(tokenResponse);
+                .thenReturn(Optional.empty());
 
         APIGatewayProxyResponseEvent result =
                 generateApiGatewayRefreshRequest(privateKeyJWT, refreshToken.getValue());
-        assertThat(result, hasStatus(200));
-        assertTrue(result.getBody().contains(refreshToken.getValue()));
-        assertTrue(result.getBody().contains(accessToken.getValue()));
-
-        String updatedTokenstore =
-                new ObjectMapper()
-                        .writeValueAsString(
-                                new RefreshTokenStore(
-                                        List.of(refreshToken2.getValue()),
-                                        INTERNAL_SUBJECT.getValue()));
-        verify(redisConnectionService, times(1)).saveWithExpiry(redisKey, updatedTokenstore, 1234L);
+        assertThat(result, hasStatus(400));
+        assertThat(
+                result,
+                hasBody(
+                        new ErrorObject(OAuth2Error.INVALID_GRANT_CODE, "Invalid Refresh token")
+                                .toJSONObject()
+                                .toJSONString()));
     }
 
     @Test
@@ -462,6 +407,23 @@ public class TokenHandlerTest {
                                 CLIENT_ID, claims, LocalDateTime.now(ZoneId.of("UTC")).toString()));
     }
 
+    private void setUpRefreshTokenRequest(
+            ClientRegistry clientRegistry, RefreshToken refreshToken) {
+        when(tokenService.validateTokenRequestParams(anyString())).thenReturn(Optional.empty());
+        when(clientService.getClient(eq(CLIENT_ID))).thenReturn(Optional.of(clientRegistry));
+        when(tokenService.validatePrivateKeyJWT(
+                        anyString(),
+                        eq(clientRegistry.getPublicKey()),
+                        eq(BASE_URI),
+                        eq(CLIENT_ID)))
+                .thenReturn(Optional.empty());
+        when(tokenValidationService.validateRefreshTokenSignatureAndExpiry(refreshToken))
+                .thenReturn(true);
+        when(tokenValidationService.validateRefreshTokenScopes(
+                        SCOPES.toStringList(), SCOPES.toStringList()))
+                .thenReturn(true);
+    }
+
     private SignedJWT createSignedRefreshToken() throws JOSEException {
         ECKey ecSigningKey =
                 new ECKeyGenerator(Curve.P_256)
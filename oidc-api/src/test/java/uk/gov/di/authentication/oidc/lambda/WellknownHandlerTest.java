@@ -12,10 +12,12 @@ import uk.gov.di.authentication.shared.services.ConfigurationService;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -54,6 +56,23 @@ class WellknownHandlerTest {
                         .get("trustmarks"));
     }
 
+    @Test
+    public void shouldReturn304WhenETagMatches() {
+        when(configService.getBaseURL()).thenReturn(Optional.of("http://localhost:8080"));
+        handler = new WellknownHandler(configService);
+        APIGatewayProxyResponseEvent first =
+                handler.handleRequest(new APIGatewayProxyRequestEvent(), context);
+        String eTag = first.getHeaders().get("ETag");
+
+        APIGatewayProxyRequestEvent event =
+                new APIGatewayProxyRequestEvent().withHeaders(Map.of("if-none-match", eTag));
+        APIGatewayProxyResponseEvent result = handler.handleRequest(event, context);
+
+        assertThat(result, hasStatus(304));
+        assertThat(result.getHeaders().get("ETag"), equalTo(eTag));
+        assertThat(result.getHeaders().get("Cache-Control"), equalTo("public, max-age=3600"));
+    }
+
     @Test
     public void shouldThrowExceptionWhenBaseUrlIsMissing() {
         when(configService.getBaseURL()).thenReturn(Optional.empty());
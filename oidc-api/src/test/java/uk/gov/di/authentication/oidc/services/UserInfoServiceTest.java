@@ -87,7 +87,7 @@ class UserInfoServiceTest {
                 .thenReturn(
                         new ObjectMapper()
                                 .writeValueAsString(
-                                        new AccessTokenStore(
+                                        AccessTokenStore.forToken(
                                                 accessToken.getValue(),
                                                 INTERNAL_SUBJECT.getValue())));
         when(authenticationService.getUserProfileFromSubject(INTERNAL_SUBJECT.getValue()))
@@ -204,7 +204,7 @@ class UserInfoServiceTest {
                 .thenReturn(
                         new ObjectMapper()
                                 .writeValueAsString(
-                                        new AccessTokenStore(
+                                        AccessTokenStore.forToken(
                                                 createSignedAccessToken().getValue(),
                                                 INTERNAL_SUBJECT.getValue())));
 
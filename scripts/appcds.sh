@@ -0,0 +1,124 @@
+#!/usr/bin/env bash
+set -eu
+
+# Builds and measures the AppCDS archive packaged with a lambda zip. Both commands run inside the
+# Lambda java11 image, because an archive is only mapped by the exact JVM build that dumped it.
+#
+#   appcds.sh dump <task root>
+#       Dumps <task root>/app.jsa from <task root>/app.classlist, with the task root mounted at
+#       /var/task so that the custom loader sources in the class list resolve.
+#
+#   appcds.sh benchmark <task root> <handler> [runs]
+#       Cold starts the handler [runs] times (default 10) in the runtime interface emulator, with
+#       and without the archive, and prints the Init Duration of every REPORT line and the mean.
+#       Set BENCHMARK_ENV_FILE to pass the handler configuration to the container.
+
+LAMBDA_IMAGE="${LAMBDA_IMAGE:-public.ecr.aws/lambda/java:11}"
+CDS_OPTIONS="-XX:SharedArchiveFile=/var/task/app.jsa -Xshare:auto"
+WARMUP_EVENT='{"headers":{"__WARMUP_REQUEST__":"appcds-benchmark"}}'
+
+dump() {
+  local task_root
+  task_root="$(cd "$1" && pwd)"
+
+  docker run --rm \
+    --volume "${task_root}:/var/task" \
+    --entrypoint /var/lang/bin/java \
+    "${LAMBDA_IMAGE}" \
+    -Xshare:dump \
+    -XX:SharedClassListFile=/var/task/app.classlist \
+    -XX:SharedArchiveFile=/var/task/app.jsa
+}
+
+start_container() {
+  local task_root="$1"
+  local handler="$2"
+  local java_tool_options="$3"
+  local env_file_args=()
+
+  if [[ -n "${BENCHMARK_ENV_FILE:-}" ]]; then
+    env_file_args=(--env-file "${BENCHMARK_ENV_FILE}")
+  fi
+
+  docker run --detach --network host \
+    --volume "${task_root}:/var/task:ro" \
+    --env "JAVA_TOOL_OPTIONS=${java_tool_options}" \
+    "${env_file_args[@]+"${env_file_args[@]}"}" \
+    "${LAMBDA_IMAGE}" "${handler}"
+}
+
+invoke() {
+  sleep 2
+  curl --silent --output /dev/null \
+    --request POST "http://localhost:8080/2015-03-31/functions/function/invocations" \
+    --data "${WARMUP_EVENT}"
+}
+
+cold_start() {
+  local container
+  container=$(start_container "$1" "$2" "$3")
+
+  invoke
+  docker logs "${container}" 2>&1 | grep -o "Init Duration: [0-9.]* ms" | grep -o "[0-9.]*" | head -1
+  docker rm --force "${container}" > /dev/null
+}
+
+report() {
+  local label="$1"
+  shift
+  printf "%s:" "${label}"
+  printf " %s" "$@"
+  printf "\n%s mean: %s ms\n" "${label}" \
+    "$(printf "%s\n" "$@" | awk '{ total += $1 } END { if (NR > 0) printf "%.1f", total / NR }')"
+}
+
+benchmark() {
+  local task_root handler runs
+  task_root="$(cd "$1" && pwd)"
+  handler="$2"
+  runs="${3:-10}"
+  local baseline=()
+  local archived=()
+
+  if [[ ! -f "${task_root}/app.jsa" ]]; then
+    printf "No app.jsa in %s, run the dump first.\n" "${task_root}"
+    exit 1
+  fi
+
+  for ((run = 1; run <= runs; run++)); do
+    baseline+=("$(cold_start "${task_root}" "${handler}" "")")
+    archived+=("$(cold_start "${task_root}" "${handler}" "${CDS_OPTIONS}")")
+  done
+
+  printf "\nInit Duration for %s over %s cold starts\n" "${handler}" "${runs}"
+  report "without archive" "${baseline[@]}"
+  report "with archive" "${archived[@]}"
+
+  printf "\nClasses loaded from the archive on one cold start: "
+  cold_start_class_loads "${task_root}" "${handler}"
+}
+
+cold_start_class_loads() {
+  local container
+  container=$(start_container "$1" "$2" \
+    "${CDS_OPTIONS} -Xlog:class+load:file=/tmp/class-load.log")
+
+  invoke
+  docker exec "${container}" sh -c \
+    'printf "%s of %s\n" "$(grep -c "shared objects file" /tmp/class-load.log)" \
+      "$(wc -l < /tmp/class-load.log)"'
+  docker rm --force "${container}" > /dev/null
+}
+
+case "${1:-}" in
+  dump)
+    dump "$2"
+    ;;
+  benchmark)
+    benchmark "$2" "$3" "${4:-10}"
+    ;;
+  *)
+    printf "Usage: %s dump <task root> | benchmark <task root> <handler> [runs]\n" "$0"
+    exit 1
+    ;;
+esac
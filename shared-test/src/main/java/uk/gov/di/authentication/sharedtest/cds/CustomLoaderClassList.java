@@ -0,0 +1,149 @@
+package uk.gov.di.authentication.sharedtest.cds;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites a class list recorded by {@code -XX:DumpLoadedClassList} into the form JDK 11 needs to
+ * archive classes for a custom class loader. The Lambda runtime loads the task classes through its
+ * own loader, so a plain class list only archives the JDK classes. Each class found in a jar is
+ * written as {@code name id: N super: N interfaces: N.. source: /var/task/lib/<jar>}, with its
+ * super types written before it. At run time the JVM matches these entries by class name, size and
+ * checksum.
+ *
+ * <p>Classes outside a jar (the module's own classes sit directly in the task root), classes from
+ * jars that are not packaged in the task root's {@code lib} directory and classes from signed jars
+ * cannot be archived for a custom loader and are left out, together with any class that extends
+ * them.
+ *
+ * <p>Usage: {@code CustomLoaderClassList <recorded list> <output list> <task root>}
+ */
+public class CustomLoaderClassList {
+
+    private static final String LAMBDA_LIB_DIR = "/var/task/lib";
+
+    private final ClassLoader loader = ClassLoader.getSystemClassLoader();
+    private final Path libDir;
+    private final Map<String, Optional<Integer>> ids = new HashMap<>();
+    private final Map<String, Boolean> signedJars = new HashMap<>();
+    private final List<String> entries = new ArrayList<>();
+
+    private CustomLoaderClassList(Path libDir) {
+        this.libDir = libDir;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException(
+                    "Usage: CustomLoaderClassList <recorded list> <output list> <task root>");
+        }
+        var converter = new CustomLoaderClassList(Path.of(args[2], "lib"));
+        List<String> recorded =
+                Files.readAllLines(Path.of(args[0])).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .collect(Collectors.toList());
+        recorded.forEach(converter::entryFor);
+        Files.write(Path.of(args[1]), converter.entries);
+        System.out.printf(
+                "Wrote %d of %d recorded classes to %s%n",
+                converter.entries.size(), recorded.size(), args[1]);
+    }
+
+    private Optional<Integer> entryFor(String internalName) {
+        if (ids.containsKey(internalName)) {
+            return ids.get(internalName);
+        }
+        ids.put(internalName, Optional.empty());
+        Optional<Integer> id = Optional.empty();
+        try {
+            id = createEntry(internalName);
+        } catch (ClassNotFoundException | LinkageError | IOException e) {
+            System.out.println("Skipping " + internalName + ": " + e);
+        }
+        ids.put(internalName, id);
+        return id;
+    }
+
+    private Optional<Integer> createEntry(String internalName)
+            throws ClassNotFoundException, IOException {
+        URL resource = loader.getResource(internalName + ".class");
+        if (resource == null) {
+            return Optional.empty();
+        }
+        if (resource.getProtocol().equals("jrt")) {
+            return Optional.of(addEntry(internalName));
+        }
+        if (!resource.getProtocol().equals("jar")) {
+            return Optional.empty();
+        }
+        var connection = (JarURLConnection) resource.openConnection();
+        connection.setUseCaches(false);
+        Path jar = Path.of(connection.getJarFileURL().getPath());
+        if (!Files.exists(libDir.resolve(jar.getFileName())) || isSigned(jar)) {
+            return Optional.empty();
+        }
+
+        Class<?> type = Class.forName(internalName.replace('/', '.'), false, loader);
+        var line = new StringBuilder(internalName);
+        List<Integer> interfaceIds = new ArrayList<>();
+        Class<?> superclass = type.isInterface() ? Object.class : type.getSuperclass();
+        Optional<Integer> superId = entryFor(internalName(superclass));
+        if (superId.isEmpty()) {
+            return Optional.empty();
+        }
+        for (Class<?> anInterface : type.getInterfaces()) {
+            Optional<Integer> interfaceId = entryFor(internalName(anInterface));
+            if (interfaceId.isEmpty()) {
+                return Optional.empty();
+            }
+            interfaceIds.add(interfaceId.get());
+        }
+        int id = entries.size() + 1;
+        line.append(" id: ").append(id).append(" super: ").append(superId.get());
+        if (!interfaceIds.isEmpty()) {
+            line.append(" interfaces:");
+            interfaceIds.forEach(interfaceId -> line.append(' ').append(interfaceId));
+        }
+        line.append(" source: ").append(LAMBDA_LIB_DIR).append('/').append(jar.getFileName());
+        entries.add(line.toString());
+        return Optional.of(id);
+    }
+
+    private int addEntry(String internalName) {
+        int id = entries.size() + 1;
+        entries.add(internalName + " id: " + id);
+        return id;
+    }
+
+    private boolean isSigned(Path jar) throws IOException {
+        Boolean signed = signedJars.get(jar.toString());
+        if (signed == null) {
+            try (var jarFile = new JarFile(jar.toFile())) {
+                signed =
+                        jarFile.stream()
+                                .map(entry -> entry.getName().toUpperCase())
+                                .anyMatch(
+                                        name ->
+                                                name.startsWith("META-INF/")
+                                                        && name.endsWith(".SF"));
+            }
+            signedJars.put(jar.toString(), signed);
+        }
+        return signed;
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+}
@@ -0,0 +1,95 @@
+package uk.gov.di.authentication.sharedtest.cds;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import uk.gov.di.authentication.shared.helpers.WarmerHelper;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Instantiates each handler named on the command line and sends it one warm-up request, so that a
+ * JVM started with {@code -XX:DumpLoadedClassList} records the classes a cold start loads.
+ * Failures are printed and ignored: a handler that cannot reach its stores has still loaded the
+ * classes on the way there.
+ */
+public class TrainingRun {
+
+    private TrainingRun() {}
+
+    public static void main(String[] args) {
+        for (String handlerName : args) {
+            try {
+                Class<?> handlerClass = Class.forName(handlerName);
+                if (!RequestHandler.class.isAssignableFrom(handlerClass)
+                        || Modifier.isAbstract(handlerClass.getModifiers())) {
+                    continue;
+                }
+                train(handlerClass);
+                System.out.println("Trained " + handlerName);
+            } catch (Throwable e) {
+                System.out.println("Trained " + handlerName + " with failure: " + e);
+            }
+        }
+    }
+
+    private static void train(Class<?> handlerClass) throws Exception {
+        Object handler = handlerClass.getConstructor().newInstance();
+        Method handleRequest =
+                Arrays.stream(handlerClass.getMethods())
+                        .filter(m -> m.getName().equals("handleRequest"))
+                        .filter(m -> m.getParameterCount() == 2)
+                        .filter(m -> m.getParameterTypes()[1].equals(Context.class))
+                        .filter(m -> !m.isBridge())
+                        .findFirst()
+                        .orElseThrow(
+                                () ->
+                                        new IllegalArgumentException(
+                                                handlerClass.getName()
+                                                        + " has no handleRequest method"));
+        handleRequest.invoke(handler, warmupInput(handleRequest.getParameterTypes()[0]), context());
+    }
+
+    private static Object warmupInput(Class<?> inputType) throws Exception {
+        if (inputType.equals(APIGatewayProxyRequestEvent.class)) {
+            return new APIGatewayProxyRequestEvent()
+                    .withHeaders(Map.of(WarmerHelper.WARMUP_HEADER, "cds-training"));
+        }
+        return inputType.getConstructor().newInstance();
+    }
+
+    private static Context context() {
+        LambdaLogger logger =
+                new LambdaLogger() {
+                    @Override
+                    public void log(String message) {
+                        System.out.println(message);
+                    }
+
+                    @Override
+                    public void log(byte[] message) {
+                        System.out.println(new String(message));
+                    }
+                };
+        return (Context)
+                Proxy.newProxyInstance(
+                        Context.class.getClassLoader(),
+                        new Class<?>[] {Context.class},
+                        (proxy, method, methodArgs) -> {
+                            Class<?> returnType = method.getReturnType();
+                            if (returnType.equals(LambdaLogger.class)) {
+                                return logger;
+                            } else if (returnType.equals(String.class)) {
+                                return "cds-training";
+                            } else if (returnType.equals(int.class)) {
+                                return 30000;
+                            }
+                            return null;
+                        });
+    }
+}
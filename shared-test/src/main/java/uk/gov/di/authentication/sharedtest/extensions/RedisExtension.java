@@ -155,6 +155,16 @@ public class RedisExtension
         redis.saveWithExpiry(key, value, expiry);
     }
 
+    public boolean keyExists(String key) {
+        return redis.keyExists(key);
+    }
+
+    public Map<String, String> getHash(String key) {
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            return connection.sync().hgetall(key);
+        }
+    }
+
     public void flushData() {
         try (StatefulRedisConnection<String, String> connection = client.connect()) {
             connection.sync().flushall();
@@ -49,6 +49,10 @@ public class UserStoreExtension extends DynamoExtension implements AfterEachCall
         return dynamoService.getUserProfileByEmail(email).getPublicSubjectID();
     }
 
+    public String getPasswordHash(String email) {
+        return dynamoService.getUserCredentialsFromEmail(email).getPassword();
+    }
+
     public void updateConsent(String email, ClientConsent clientConsent) {
         dynamoService.updateConsent(email, clientConsent);
     }
@@ -0,0 +1,55 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of hashing and verifying a password at a range of Argon2 costs, and of deciding whether a
+ * stored hash needs upgrading, which happens on every successful login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Argon2Benchmark {
+
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    @Param({"15360", "19456", "47104"})
+    public int memoryInKibibytes;
+
+    @Param({"1", "2"})
+    public int iterations;
+
+    private Argon2Cost cost;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        cost = new Argon2Cost(memoryInKibibytes, iterations, 1);
+        encoded = Argon2EncoderHelper.argon2Hash(PASSWORD, cost);
+    }
+
+    @Benchmark
+    public String hash() {
+        return Argon2EncoderHelper.argon2Hash(PASSWORD, cost);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return Argon2MatcherHelper.matchRawStringWithEncoded(PASSWORD, encoded);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean needsRehash() {
+        return Argon2MatcherHelper.needsRehash(encoded, Argon2Cost.DEFAULT);
+    }
+}
@@ -0,0 +1,74 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Picks the Argon2 cost for a target hash time. Memory is doubled from 8 MiB until the target is
+ * reached or the memory budget is spent, then iterations are added. Lambda CPU share scales with
+ * the configured memory, so run this with the CPU and heap the login lambda has, for example in
+ * the Lambda Java 11 runtime image with {@code --cpus} set to match:
+ *
+ * <pre>./gradlew :shared:calibrateArgon2 -PtargetMillis=250 -PlambdaMemoryMb=4096</pre>
+ *
+ * The result is printed as the environment variables read by {@code ConfigurationService}.
+ */
+public class Argon2Calibration {
+
+    private static final String PASSWORD = "correct-horse-battery-staple";
+    private static final int MIN_MEMORY_IN_KIBIBYTES = 8 * 1024;
+    private static final int MAX_ITERATIONS = 10;
+    private static final int SAMPLES = 7;
+
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        int lambdaMemoryMb = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        // Leave most of the lambda's memory for the JVM and the rest of the handler.
+        int memoryBudget = lambdaMemoryMb * 1024 / 4;
+
+        Argon2Cost best = new Argon2Cost(MIN_MEMORY_IN_KIBIBYTES, 1, 1);
+        long bestMillis = measure(best);
+        for (int memory = MIN_MEMORY_IN_KIBIBYTES * 2; memory <= memoryBudget; memory *= 2) {
+            var candidate = new Argon2Cost(memory, 1, 1);
+            long millis = measure(candidate);
+            report(candidate, millis);
+            if (millis > targetMillis) {
+                break;
+            }
+            best = candidate;
+            bestMillis = millis;
+        }
+        for (int iterations = 2; iterations <= MAX_ITERATIONS; iterations++) {
+            var candidate = new Argon2Cost(best.getMemoryInKibibytes(), iterations, 1);
+            long millis = measure(candidate);
+            report(candidate, millis);
+            if (millis > targetMillis) {
+                break;
+            }
+            best = candidate;
+            bestMillis = millis;
+        }
+
+        System.out.printf(
+                "Chosen %s at %d ms (target %d ms, memory budget %d KiB)%n",
+                best, bestMillis, targetMillis, memoryBudget);
+        System.out.printf("ARGON2_MEMORY_KIB=%d%n", best.getMemoryInKibibytes());
+        System.out.printf("ARGON2_ITERATIONS=%d%n", best.getIterations());
+        System.out.printf("ARGON2_PARALLELISM=%d%n", best.getParallelism());
+    }
+
+    private static long measure(Argon2Cost cost) {
+        Argon2EncoderHelper.argon2Hash(PASSWORD, cost);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            Argon2EncoderHelper.argon2Hash(PASSWORD, cost);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private static void report(Argon2Cost cost, long millis) {
+        System.out.printf("%s: %d ms%n", cost, millis);
+    }
+}
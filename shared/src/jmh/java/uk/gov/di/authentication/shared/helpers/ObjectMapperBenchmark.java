@@ -0,0 +1,93 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.di.authentication.shared.entity.AccessTokenStore;
+import uk.gov.di.authentication.shared.entity.RefreshTokenStore;
+import uk.gov.di.authentication.shared.entity.Session;
+import uk.gov.di.authentication.shared.entity.SessionState;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request serialization cost of the values kept in Redis. Compares the previous approaches, a
+ * new ObjectMapper per call for the token stores and the validating mapper for sessions, with the
+ * shared internal mapper and its cached readers and writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ObjectMapperBenchmark {
+
+    private static final String ACCESS_TOKEN =
+            "eyJraWQiOiJ0b2tlbi1zaWduaW5nLWtleS0xIiwiYWxnIjoiRVMyNTYifQ."
+                    + "eyJzdWIiOiJ1cm46ZmRjOmdvdi51azoyMDIyOlZ0Y2lBIiwiYXVkIjoi"
+                    + "eXJLSjdadkJoekJsREFSNml4b0s0VEZkZ0NzIn0.c2lnbmF0dXJl";
+
+    private final ObjectReader refreshTokenStoreReader =
+            ObjectMapperFactory.getInternalReader(RefreshTokenStore.class);
+    private final ObjectWriter accessTokenStoreWriter =
+            ObjectMapperFactory.getInternalWriter(AccessTokenStore.class);
+
+    private AccessTokenStore accessTokenStore;
+    private String refreshTokenStoreJson;
+    private String sessionJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        accessTokenStore = AccessTokenStore.forToken(ACCESS_TOKEN, "urn:fdc:gov.uk:2022:VtciA");
+        refreshTokenStoreJson =
+                new ObjectMapper()
+                        .writeValueAsString(
+                                new RefreshTokenStore(
+                                        new ArrayList<>(List.of(ACCESS_TOKEN, ACCESS_TOKEN)),
+                                        "urn:fdc:gov.uk:2022:VtciA"));
+        var session =
+                new Session("OmrrMpp1ShHTp9pGNNwXvmfqnBM")
+                        .addClientSession("vbUzu4jL03wMjF4tcH5CePb9hDU")
+                        .setState(SessionState.AUTHENTICATED)
+                        .setEmailAddress("joe.bloggs@digital.cabinet-office.gov.uk");
+        sessionJson = ObjectMapperFactory.getInternalInstance().writeValueAsString(session);
+    }
+
+    @Benchmark
+    public String writeAccessTokenStoreWithNewMapper() throws IOException {
+        return new ObjectMapper().writeValueAsString(accessTokenStore);
+    }
+
+    @Benchmark
+    public String writeAccessTokenStoreWithCachedWriter() throws IOException {
+        return accessTokenStoreWriter.writeValueAsString(accessTokenStore);
+    }
+
+    @Benchmark
+    public RefreshTokenStore readRefreshTokenStoreWithNewMapper() throws IOException {
+        return new ObjectMapper().readValue(refreshTokenStoreJson, RefreshTokenStore.class);
+    }
+
+    @Benchmark
+    public RefreshTokenStore readRefreshTokenStoreWithCachedReader() throws IOException {
+        return refreshTokenStoreReader.readValue(refreshTokenStoreJson);
+    }
+
+    @Benchmark
+    public Session readSessionWithValidatingMapper() throws IOException {
+        return ObjectMapperFactory.getInstance().readValue(sessionJson, Session.class);
+    }
+
+    @Benchmark
+    public Session readSessionWithInternalMapper() throws IOException {
+        return ObjectMapperFactory.getInternalInstance().readValue(sessionJson, Session.class);
+    }
+}
@@ -0,0 +1,114 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.sync.RedisCommands;
+import uk.gov.di.authentication.shared.entity.AccessTokenStore;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Compares the Redis memory taken by access token store entries holding the signed JWT with
+ * entries holding its digest. Writes the given number of entries in each format to the Redis at
+ * the given URI, reports the per key and total cost, then deletes them. By default it runs against
+ * the local Redis from docker-compose:
+ *
+ * <pre>./gradlew :shared:compareTokenStoreMemory -Pentries=10000</pre>
+ */
+public class TokenStoreMemoryComparison {
+
+    private static final String SUBJECT = "urn:fdc:gov.uk:2022:VtciAOAkaJ3yGZMOqw4EkBCU4WU7Cq7";
+    private static final long EXPIRY = 300;
+
+    public static void main(String[] args) throws Exception {
+        String redisUri = args.length > 0 ? args[0] : "redis://localhost:6379";
+        int entries = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        var signer = new ECDSASigner(new ECKeyGenerator(Curve.P_256).generate());
+        var client = RedisClient.create(redisUri);
+        try (var connection = client.connect()) {
+            var commands = connection.sync();
+            compare(
+                    commands,
+                    "full token",
+                    entries,
+                    signer,
+                    token -> new AccessTokenStore(null, token, SUBJECT));
+            compare(
+                    commands,
+                    "token digest",
+                    entries,
+                    signer,
+                    token -> AccessTokenStore.forToken(token, SUBJECT));
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private static void compare(
+            RedisCommands<String, String> commands,
+            String format,
+            int entries,
+            ECDSASigner signer,
+            Function<String, AccessTokenStore> store)
+            throws IOException, JOSEException {
+        var writer = ObjectMapperFactory.getInternalWriter(AccessTokenStore.class);
+        String prefix = "ACCESS_TOKEN_MEMORY_COMPARISON:" + UUID.randomUUID() + ":";
+        long before = usedMemory(commands);
+        long keyBytes = 0;
+        for (int i = 0; i < entries; i++) {
+            String key = prefix + "client-id." + i;
+            String value = writer.writeValueAsString(store.apply(accessToken(signer)));
+            commands.setex(key, EXPIRY, value);
+            keyBytes += commands.memoryUsage(key);
+        }
+        long after = usedMemory(commands);
+        for (int i = 0; i < entries; i++) {
+            commands.del(prefix + "client-id." + i);
+        }
+        System.out.printf(
+                "%s: %d bytes per key, %d KiB used_memory for %d entries%n",
+                format, keyBytes / entries, (after - before) / 1024, entries);
+    }
+
+    private static String accessToken(ECDSASigner signer) throws JOSEException {
+        var now = Instant.now();
+        var claims =
+                new JWTClaimsSet.Builder()
+                        .claim("scope", List.of("openid", "email", "phone", "offline_access"))
+                        .issuer("https://oidc.integration.account.gov.uk/")
+                        .expirationTime(Date.from(now.plusSeconds(EXPIRY)))
+                        .issueTime(Date.from(now))
+                        .claim("client_id", "vbUzu4jL03wMjF4tcH5CePb9hDU")
+                        .subject(SUBJECT)
+                        .jwtID(UUID.randomUUID().toString())
+                        .build();
+        var header =
+                new JWSHeader.Builder(JWSAlgorithm.ES256)
+                        .keyID(UUID.randomUUID().toString())
+                        .build();
+        var jwt = new SignedJWT(header, claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+
+    private static long usedMemory(RedisCommands<String, String> commands) {
+        return commands.info("memory")
+                .lines()
+                .filter(line -> line.startsWith("used_memory:"))
+                .map(line -> Long.parseLong(line.substring("used_memory:".length()).trim()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
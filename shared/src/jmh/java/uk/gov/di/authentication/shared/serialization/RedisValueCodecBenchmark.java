@@ -0,0 +1,130 @@
+package uk.gov.di.authentication.shared.serialization;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.Session;
+import uk.gov.di.authentication.shared.entity.SessionState;
+import uk.gov.di.authentication.shared.entity.VectorOfTrust;
+import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the Redis session values in JSON and in the binary format. The size
+ * of each encoding, which is what Redis holds per session, is logged during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RedisValueCodecBenchmark {
+
+    private static final Logger LOG = LogManager.getLogger(RedisValueCodecBenchmark.class);
+    private static final String CLIENT_ID = "yrKJ7ZvBhzBlDAR6ixoK4TFdgCs";
+    private static final String REDIRECT_URI = "https://rp.example.gov.uk/oidc/callback";
+    private static final String STATE = "8VAVNSxHO1GAQcGA1A8yb3sA4kE3DYY0pD6W75UKvBI";
+    private static final String NONCE = "Ti8sWxJgXb1kBXwPFSJdDmPrVhJe9QNvmL7kkz8dUZw";
+    private static final String ID_TOKEN_HINT =
+            "eyJraWQiOiJ0b2tlbi1zaWduaW5nLWtleS0xIiwiYWxnIjoiRVMyNTYifQ."
+                    + "eyJzdWIiOiJ1cm46ZmRjOmdvdi51azoyMDIyOlZ0Y2lBIiwiYXVkIjoi"
+                    + "eXJLSjdadkJoekJsREFSNml4b0s0VEZkZ0NzIn0.c2lnbmF0dXJl";
+
+    private final RedisValueCodec<Session> sessionCodec =
+            new RedisValueCodec<>(Session.class, ObjectMapperFactory.getInternalInstance());
+    private final RedisValueCodec<ClientSession> clientSessionCodec =
+            new RedisValueCodec<>(ClientSession.class, ObjectMapperFactory.getInternalInstance());
+
+    private Session session;
+    private ClientSession clientSession;
+    private byte[] sessionJson;
+    private byte[] sessionBinary;
+    private byte[] clientSessionJson;
+    private byte[] clientSessionBinary;
+
+    @Setup
+    public void setUp() throws IOException {
+        session =
+                new Session("OmrrMpp1ShHTp9pGNNwXvmfqnBM")
+                        .addClientSession("vbUzu4jL03wMjF4tcH5CePb9hDU")
+                        .setState(SessionState.AUTHENTICATED)
+                        .setEmailAddress("joe.bloggs@digital.cabinet-office.gov.uk");
+        clientSession =
+                new ClientSession(
+                                Map.of(
+                                        "response_type", List.of("code"),
+                                        "scope", List.of("openid email phone"),
+                                        "client_id", List.of(CLIENT_ID),
+                                        "redirect_uri", List.of(REDIRECT_URI),
+                                        "state", List.of(STATE),
+                                        "nonce", List.of(NONCE)),
+                                LocalDateTime.now(),
+                                VectorOfTrust.getDefaults())
+                        .setIdTokenHint(ID_TOKEN_HINT);
+
+        sessionJson = sessionCodec.encodeJson(session).getBytes(StandardCharsets.UTF_8);
+        sessionBinary = sessionCodec.encode(session);
+        clientSessionJson =
+                clientSessionCodec.encodeJson(clientSession).getBytes(StandardCharsets.UTF_8);
+        clientSessionBinary = clientSessionCodec.encode(clientSession);
+
+        LOG.info(
+                "Bytes stored per value. Session: {} JSON, {} binary. "
+                        + "ClientSession: {} JSON, {} binary.",
+                sessionJson.length,
+                sessionBinary.length,
+                clientSessionJson.length,
+                clientSessionBinary.length);
+    }
+
+    @Benchmark
+    public String encodeSessionJson() throws IOException {
+        return sessionCodec.encodeJson(session);
+    }
+
+    @Benchmark
+    public byte[] encodeSessionBinary() throws IOException {
+        return sessionCodec.encode(session);
+    }
+
+    @Benchmark
+    public Session decodeSessionJson() throws IOException {
+        return sessionCodec.decode(sessionJson);
+    }
+
+    @Benchmark
+    public Session decodeSessionBinary() throws IOException {
+        return sessionCodec.decode(sessionBinary);
+    }
+
+    @Benchmark
+    public String encodeClientSessionJson() throws IOException {
+        return clientSessionCodec.encodeJson(clientSession);
+    }
+
+    @Benchmark
+    public byte[] encodeClientSessionBinary() throws IOException {
+        return clientSessionCodec.encode(clientSession);
+    }
+
+    @Benchmark
+    public ClientSession decodeClientSessionJson() throws IOException {
+        return clientSessionCodec.decode(clientSessionJson);
+    }
+
+    @Benchmark
+    public ClientSession decodeClientSessionBinary() throws IOException {
+        return clientSessionCodec.decode(clientSessionBinary);
+    }
+}
@@ -0,0 +1,75 @@
+package uk.gov.di.authentication.shared.state;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.CredentialTrustLevel;
+import uk.gov.di.authentication.shared.entity.Session;
+import uk.gov.di.authentication.shared.entity.SessionAction;
+import uk.gov.di.authentication.shared.entity.SessionState;
+import uk.gov.di.authentication.shared.entity.VectorOfTrust;
+import uk.gov.di.authentication.shared.services.ConfigurationService;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a user journey transition: a single unconditional transition, a fall through to a
+ * transition allowed at any state, and a chain of conditions evaluated against a user context.
+ * Building the machine, which each handler used to do, is measured for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StateMachineBenchmark {
+
+    private final ConfigurationService configurationService =
+            new ConfigurationService(Map.of("TERMS_CONDITIONS_VERSION", "1.0"), null);
+
+    private StateMachine<SessionState, SessionAction, UserContext> stateMachine;
+    private UserContext upliftContext;
+
+    @Setup
+    public void setUp() {
+        stateMachine = StateMachine.userJourneyStateMachine(configurationService);
+        upliftContext =
+                UserContext.builder(
+                                new Session("OmrrMpp1ShHTp9pGNNwXvmfqnBM")
+                                        .setCurrentCredentialStrength(
+                                                CredentialTrustLevel.LOW_LEVEL))
+                        .withClientSession(
+                                new ClientSession(null, null, null)
+                                        .setEffectiveVectorOfTrust(VectorOfTrust.getDefaults()))
+                        .build();
+    }
+
+    @Benchmark
+    public SessionState unconditionalTransition() {
+        return stateMachine.transition(
+                SessionState.NEW, SessionAction.USER_ENTERED_REGISTERED_EMAIL_ADDRESS);
+    }
+
+    @Benchmark
+    public SessionState anyStateTransition() {
+        return stateMachine.transition(
+                SessionState.LOGGED_IN, SessionAction.USER_HAS_STARTED_A_NEW_JOURNEY);
+    }
+
+    @Benchmark
+    public SessionState conditionalTransition() {
+        return stateMachine.transition(
+                SessionState.MFA_SMS_CODE_SENT,
+                SessionAction.USER_HAS_STARTED_A_NEW_JOURNEY,
+                upliftContext);
+    }
+
+    @Benchmark
+    public StateMachine<SessionState, SessionAction, UserContext> buildStateMachine() {
+        return StateMachine.userJourneyStateMachine(configurationService);
+    }
+}
@@ -2,6 +2,10 @@ package uk.gov.di.authentication.shared.configuration;
 
 public interface AuditPublisherConfiguration extends BaseLambdaConfiguration {
 
+    default int getAuditQueueCapacity() {
+        return Integer.parseInt(System.getenv().getOrDefault("AUDIT_QUEUE_CAPACITY", "100"));
+    }
+
     default String getAuditSigningKeyAlias() {
         return System.getenv("AUDIT_SIGNING_KEY_ALIAS");
     }
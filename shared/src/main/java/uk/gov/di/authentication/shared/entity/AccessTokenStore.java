@@ -1,28 +1,63 @@
 package uk.gov.di.authentication.shared.entity;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import uk.gov.di.authentication.shared.helpers.HashHelper;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * The access token most recently issued to a client for a subject, held either as the token itself
+ * or as its SHA-256. Readers accept both. Writers keep to the token until every reader in the
+ * environment understands the digest, since older readers reject any field they do not know.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AccessTokenStore {
 
+    @JsonProperty("token_hash")
+    private String tokenHash;
+
     @JsonProperty("token")
     private String token;
 
     @JsonProperty("internal_subject_id")
     private String internalSubjectId;
 
+    @JsonCreator
     public AccessTokenStore(
-            @JsonProperty(required = true, value = "token") String token,
+            @JsonProperty("token_hash") String tokenHash,
+            @JsonProperty("token") String token,
             @JsonProperty(required = true, value = "internal_subject_id")
                     String internalSubjectId) {
+        this.tokenHash = tokenHash;
         this.token = token;
         this.internalSubjectId = internalSubjectId;
     }
 
-    public String getToken() {
-        return token;
+    public static AccessTokenStore forToken(String token, String internalSubjectId) {
+        return new AccessTokenStore(HashHelper.hashSha256String(token), null, internalSubjectId);
+    }
+
+    public static AccessTokenStore withToken(String token, String internalSubjectId) {
+        return new AccessTokenStore(null, token, internalSubjectId);
     }
 
     public String getInternalSubjectId() {
         return internalSubjectId;
     }
+
+    /** Checks the presented token against the stored one in constant time. */
+    public boolean matches(String presentedToken) {
+        if (tokenHash != null) {
+            return constantTimeEquals(tokenHash, HashHelper.hashSha256String(presentedToken));
+        }
+        return token != null && constantTimeEquals(token, presentedToken);
+    }
+
+    private static boolean constantTimeEquals(String expected, String actual) {
+        return MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -4,6 +4,10 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
 
+/**
+ * Refresh tokens as stored before token families were introduced. It is only read now, so tokens
+ * issued before then can be exchanged once.
+ */
 public class RefreshTokenStore {
 
     @JsonProperty("refresh_tokens")
@@ -2,12 +2,12 @@ package uk.gov.di.authentication.shared.helpers;
 
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpHeaders;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.ErrorResponse;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -33,14 +33,15 @@ public class ApiGatewayResponseHelper {
     public static <T> APIGatewayProxyResponseEvent generateApiGatewayProxyResponse(
             int statusCode, T body) throws JsonProcessingException {
         return generateApiGatewayProxyResponse(
-                statusCode, new ObjectMapper().writeValueAsString(body));
+                statusCode, ObjectMapperFactory.getInternalInstance().writeValueAsString(body));
     }
 
     public static <T> APIGatewayProxyResponseEvent generateApiGatewayProxyErrorResponse(
             int statusCode, ErrorResponse errorResponse) {
         try {
             return generateApiGatewayProxyResponse(
-                    statusCode, new ObjectMapper().writeValueAsString(errorResponse));
+                    statusCode,
+                    ObjectMapperFactory.getInternalInstance().writeValueAsString(errorResponse));
         } catch (JsonProcessingException e) {
             LOGGER.warn("Unable to generateApiGatewayProxyErrorResponse: " + e);
             return generateApiGatewayProxyResponse(500, "Internal server error");
@@ -86,4 +87,18 @@ public class ApiGatewayResponseHelper {
 
         return apiGatewayProxyResponseEvent;
     }
+
+    public static APIGatewayProxyResponseEvent generateCacheableApiGatewayProxyResponse(
+            int statusCode, String body, String eTag, String cacheControl) {
+        APIGatewayProxyResponseEvent apiGatewayProxyResponseEvent =
+                generateApiGatewayProxyResponse(statusCode, body, null);
+
+        Map<String, String> headers = new HashMap<>(apiGatewayProxyResponseEvent.getHeaders());
+        headers.remove(HttpHeaders.PRAGMA);
+        headers.put(HttpHeaders.CACHE_CONTROL, cacheControl);
+        headers.put(HttpHeaders.ETAG, eTag);
+        apiGatewayProxyResponseEvent.setHeaders(headers);
+
+        return apiGatewayProxyResponseEvent;
+    }
 }
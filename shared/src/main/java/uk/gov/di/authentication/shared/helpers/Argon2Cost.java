@@ -0,0 +1,63 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import java.util.Objects;
+
+/**
+ * The memory, iteration and parallelism cost of an Argon2id password hash. Every encoded hash
+ * records the cost it was made with, so a hash made with an older, cheaper cost can be recognised
+ * and replaced when the user next logs in.
+ */
+public class Argon2Cost {
+
+    public static final Argon2Cost DEFAULT = new Argon2Cost(15360, 2, 1);
+
+    private final int memoryInKibibytes;
+    private final int iterations;
+    private final int parallelism;
+
+    public Argon2Cost(int memoryInKibibytes, int iterations, int parallelism) {
+        if (memoryInKibibytes < 8 * parallelism || iterations < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Invalid Argon2 cost");
+        }
+        this.memoryInKibibytes = memoryInKibibytes;
+        this.iterations = iterations;
+        this.parallelism = parallelism;
+    }
+
+    public int getMemoryInKibibytes() {
+        return memoryInKibibytes;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /** True if this cost uses less memory or fewer iterations than {@code other}. */
+    public boolean isWeakerThan(Argon2Cost other) {
+        return memoryInKibibytes < other.memoryInKibibytes || iterations < other.iterations;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Argon2Cost that = (Argon2Cost) o;
+        return memoryInKibibytes == that.memoryInKibibytes
+                && iterations == that.iterations
+                && parallelism == that.parallelism;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(memoryInKibibytes, iterations, parallelism);
+    }
+
+    @Override
+    public String toString() {
+        return "m=" + memoryInKibibytes + ",t=" + iterations + ",p=" + parallelism;
+    }
+}
@@ -8,35 +8,39 @@ import java.util.Base64;
 
 public class Argon2EncoderHelper {
 
-    private static final int MEMORY_IN_KIBIBYTES = 15360;
-    private static final int PARALLELISM = 1;
-    private static final int ITERATIONS = 2;
+    private static final int SALT_LENGTH = 32;
+    private static final int HASH_LENGTH = 32;
     private static final Base64.Encoder BASE64_ENCODER = Base64.getEncoder().withoutPadding();
     private static final SecureRandom RANDOM = new SecureRandom();
 
     public static String argon2Hash(String raw) {
-        byte[] salt = new byte[32];
+        return argon2Hash(raw, Argon2Cost.DEFAULT);
+    }
+
+    public static String argon2Hash(String raw, Argon2Cost cost) {
+        byte[] salt = new byte[SALT_LENGTH];
         RANDOM.nextBytes(salt);
 
         var parameters =
                 new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
                         .withVersion(Argon2Parameters.ARGON2_VERSION_13)
-                        .withIterations(ITERATIONS)
+                        .withIterations(cost.getIterations())
                         .withSalt(salt)
-                        .withMemoryAsKB(MEMORY_IN_KIBIBYTES)
-                        .withParallelism(PARALLELISM)
+                        .withMemoryAsKB(cost.getMemoryInKibibytes())
+                        .withParallelism(cost.getParallelism())
                         .build();
 
+        byte[] hash = new byte[HASH_LENGTH];
         var generator = new Argon2BytesGenerator();
         generator.init(parameters);
-        generator.generateBytes(raw.toCharArray(), salt);
+        generator.generateBytes(raw.toCharArray(), hash);
 
-        return encode(salt, parameters);
+        return encode(hash, parameters);
     }
 
     private static String encode(byte[] hash, Argon2Parameters parameters)
             throws IllegalArgumentException {
-        StringBuilder stringBuilder = new StringBuilder();
+        StringBuilder stringBuilder = new StringBuilder(128);
         stringBuilder.append("$argon2id");
         stringBuilder
                 .append("$v=")
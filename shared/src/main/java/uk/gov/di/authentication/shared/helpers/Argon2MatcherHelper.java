@@ -2,12 +2,12 @@ package uk.gov.di.authentication.shared.helpers;
 
 import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
 import org.bouncycastle.crypto.params.Argon2Parameters;
-import org.bouncycastle.util.Arrays;
 
 import java.util.Base64;
 
 public class Argon2MatcherHelper {
 
+    private static final String PREFIX = "$argon2id$";
     private static final Base64.Decoder BASE64_DECODER = Base64.getDecoder();
 
     public static boolean matchRawStringWithEncoded(String rawPassword, String encodedPassword) {
@@ -17,11 +17,26 @@ public class Argon2MatcherHelper {
         } catch (IllegalArgumentException ex) {
             return false;
         }
-        byte[] hashBytes = new byte[decoded.getHash().length];
+        byte[] hashBytes = new byte[decoded.hash.length];
         Argon2BytesGenerator generator = new Argon2BytesGenerator();
-        generator.init(decoded.getParameters());
+        generator.init(decoded.toParameters());
         generator.generateBytes(rawPassword.toCharArray(), hashBytes);
-        return constantTimeArrayEquals(decoded.getHash(), hashBytes);
+        return constantTimeArrayEquals(decoded.hash, hashBytes);
+    }
+
+    /**
+     * True if the encoded hash was made with an older Argon2 version or with less memory or fewer
+     * iterations than {@code currentCost}, and so should be replaced once the password has been
+     * verified. Hashes which cannot be decoded are never upgraded.
+     */
+    public static boolean needsRehash(String encodedPassword, Argon2Cost currentCost) {
+        try {
+            var decoded = decode(encodedPassword);
+            return decoded.version != Argon2Parameters.ARGON2_VERSION_13
+                    || decoded.cost.isWeakerThan(currentCost);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
     }
 
     private static boolean constantTimeArrayEquals(byte[] expected, byte[] actual) {
@@ -35,59 +50,79 @@ public class Argon2MatcherHelper {
         return result == 0;
     }
 
+    /**
+     * Decodes {@code $argon2id$v=19$m=15360,t=2,p=1$<salt>$<hash>} in a single pass over the
+     * string. The version is optional and defaults to 19, as it did when the hash was parsed
+     * with {@link Argon2Parameters.Builder}.
+     */
     private static Argon2Hash decode(String encodedHash) throws IllegalArgumentException {
-        Argon2Parameters.Builder paramsBuilder;
-        String[] parts = encodedHash.split("\\$");
-        if (parts.length < 4) {
+        if (encodedHash == null || !encodedHash.startsWith(PREFIX)) {
             throw new IllegalArgumentException("Invalid encoded Argon2-hash");
         }
-        int currentPart = 2;
-        paramsBuilder = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id);
-        if (parts[currentPart].startsWith("v=")) {
-            paramsBuilder.withVersion(Integer.parseInt(parts[currentPart].substring(2)));
-            currentPart++;
-        }
-        String[] performanceParams = parts[currentPart++].split(",");
-        if (performanceParams.length != 3) {
-            throw new IllegalArgumentException("Amount of performance parameters invalid");
-        }
-        if (!performanceParams[0].startsWith("m=")) {
-            throw new IllegalArgumentException("Invalid memory parameter");
+        try {
+            int position = PREFIX.length();
+            int version = Argon2Parameters.ARGON2_VERSION_13;
+            if (encodedHash.startsWith("v=", position)) {
+                int end = indexOf(encodedHash, '$', position);
+                version = Integer.parseInt(encodedHash, position + 2, end, 10);
+                position = end + 1;
+            }
+            int memoryEnd = field(encodedHash, "m=", ',', position, "memory");
+            int memory = Integer.parseInt(encodedHash, position + 2, memoryEnd, 10);
+            position = memoryEnd + 1;
+            int iterationsEnd = field(encodedHash, "t=", ',', position, "iterations");
+            int iterations = Integer.parseInt(encodedHash, position + 2, iterationsEnd, 10);
+            position = iterationsEnd + 1;
+            int parallelismEnd = field(encodedHash, "p=", '$', position, "parallelity");
+            int parallelism = Integer.parseInt(encodedHash, position + 2, parallelismEnd, 10);
+            position = parallelismEnd + 1;
+            int saltEnd = indexOf(encodedHash, '$', position);
+            byte[] salt = BASE64_DECODER.decode(encodedHash.substring(position, saltEnd));
+            byte[] hash = BASE64_DECODER.decode(encodedHash.substring(saltEnd + 1));
+            return new Argon2Hash(
+                    version, new Argon2Cost(memory, iterations, parallelism), salt, hash);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid encoded Argon2-hash", e);
         }
-        paramsBuilder.withMemoryAsKB(Integer.parseInt(performanceParams[0].substring(2)));
-        if (!performanceParams[1].startsWith("t=")) {
-            throw new IllegalArgumentException("Invalid iterations parameter");
+    }
+
+    private static int field(String encoded, String name, char end, int position, String label) {
+        if (!encoded.startsWith(name, position)) {
+            throw new IllegalArgumentException("Invalid " + label + " parameter");
         }
-        paramsBuilder.withIterations(Integer.parseInt(performanceParams[1].substring(2)));
-        if (!performanceParams[2].startsWith("p=")) {
-            throw new IllegalArgumentException("Invalid parallelity parameter");
+        return indexOf(encoded, end, position);
+    }
+
+    private static int indexOf(String encoded, char character, int from) {
+        int index = encoded.indexOf(character, from);
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid encoded Argon2-hash");
         }
-        paramsBuilder.withParallelism(Integer.parseInt(performanceParams[2].substring(2)));
-        paramsBuilder.withSalt(BASE64_DECODER.decode(parts[currentPart++]));
-        return new Argon2Hash(BASE64_DECODER.decode(parts[currentPart]), paramsBuilder.build());
+        return index;
     }
 
     private static class Argon2Hash {
 
-        private byte[] hash;
-
-        private Argon2Parameters parameters;
-
-        Argon2Hash(byte[] hash, Argon2Parameters parameters) {
-            this.hash = Arrays.clone(hash);
-            this.parameters = parameters;
-        }
-
-        public byte[] getHash() {
-            return Arrays.clone(this.hash);
-        }
+        private final int version;
+        private final Argon2Cost cost;
+        private final byte[] salt;
+        private final byte[] hash;
 
-        public Argon2Parameters getParameters() {
-            return this.parameters;
+        private Argon2Hash(int version, Argon2Cost cost, byte[] salt, byte[] hash) {
+            this.version = version;
+            this.cost = cost;
+            this.salt = salt;
+            this.hash = hash;
         }
 
-        public void setParameters(Argon2Parameters parameters) {
-            this.parameters = parameters;
+        private Argon2Parameters toParameters() {
+            return new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                    .withVersion(version)
+                    .withIterations(cost.getIterations())
+                    .withMemoryAsKB(cost.getMemoryInKibibytes())
+                    .withParallelism(cost.getParallelism())
+                    .withSalt(salt)
+                    .build();
         }
     }
 }
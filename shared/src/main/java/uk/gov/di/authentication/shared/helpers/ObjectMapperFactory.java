@@ -6,6 +6,8 @@ import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.deser.BeanDeserializer;
 import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
 import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
@@ -16,41 +18,83 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Provides the two shared mappers. The validating mapper runs Bean Validation on every object it
+ * reads and is for request bodies and anything else from outside. The internal mapper skips
+ * validation and is for values this service wrote itself, such as the sessions, auth codes and
+ * token stores held in Redis. Both are built once, thread-safely, on first use.
+ */
 public class ObjectMapperFactory {
-    private static ObjectMapper objectMapper;
+
+    private static final Map<Class<?>, ObjectReader> INTERNAL_READERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> INTERNAL_WRITERS = new ConcurrentHashMap<>();
+
+    private static class ValidatingMapperHolder {
+        private static final ObjectMapper INSTANCE = buildValidatingMapper();
+    }
+
+    private static class InternalMapperHolder {
+        private static final ObjectMapper INSTANCE =
+                JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    }
+
+    private static class ValidatorHolder {
+        private static final ValidatorFactory FACTORY = Validation.buildDefaultValidatorFactory();
+        private static final Validator VALIDATOR = FACTORY.getValidator();
+    }
 
     public static ObjectMapper getInstance() {
-        if (Objects.isNull(ObjectMapperFactory.objectMapper)) {
-            SimpleModule validationModule = new SimpleModule();
-            validationModule.setDeserializerModifier(
-                    new BeanDeserializerModifier() {
-                        @Override
-                        public JsonDeserializer<?> modifyDeserializer(
-                                DeserializationConfig config,
-                                BeanDescription beanDesc,
-                                JsonDeserializer<?> deserializer) {
-                            if (deserializer instanceof BeanDeserializer) {
-                                return new ValidatingBeanDeserializer(
-                                        (BeanDeserializer) deserializer);
-                            }
-
-                            return deserializer;
+        return ValidatingMapperHolder.INSTANCE;
+    }
+
+    public static ObjectMapper getInternalInstance() {
+        return InternalMapperHolder.INSTANCE;
+    }
+
+    /** A reader of the internal mapper for the type, created once per type. */
+    public static ObjectReader getInternalReader(Class<?> type) {
+        return INTERNAL_READERS.computeIfAbsent(type, t -> getInternalInstance().readerFor(t));
+    }
+
+    /** A writer of the internal mapper for the type, created once per type. */
+    public static ObjectWriter getInternalWriter(Class<?> type) {
+        return INTERNAL_WRITERS.computeIfAbsent(type, t -> getInternalInstance().writerFor(t));
+    }
+
+    /** The validator shared by every validating deserializer. Validators are thread-safe. */
+    public static Validator getValidator() {
+        return ValidatorHolder.VALIDATOR;
+    }
+
+    private static ObjectMapper buildValidatingMapper() {
+        SimpleModule validationModule = new SimpleModule();
+        validationModule.setDeserializerModifier(
+                new BeanDeserializerModifier() {
+                    @Override
+                    public JsonDeserializer<?> modifyDeserializer(
+                            DeserializationConfig config,
+                            BeanDescription beanDesc,
+                            JsonDeserializer<?> deserializer) {
+                        if (deserializer instanceof BeanDeserializer) {
+                            return new ValidatingBeanDeserializer((BeanDeserializer) deserializer);
                         }
-                    });
-            ObjectMapperFactory.objectMapper =
-                    JsonMapper.builder()
-                            .addModule(new JavaTimeModule())
-                            .addModule(validationModule)
-                            .build();
-        }
-        return ObjectMapperFactory.objectMapper;
+
+                        return deserializer;
+                    }
+                });
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(validationModule)
+                .build();
     }
 
     public static class ValidatingBeanDeserializer extends BeanDeserializer {
@@ -59,7 +103,7 @@ public class ObjectMapperFactory {
 
         public ValidatingBeanDeserializer(BeanDeserializerBase src) {
             super(src);
-            validator = Validation.buildDefaultValidatorFactory().getValidator();
+            validator = getValidator();
         }
 
         @Override
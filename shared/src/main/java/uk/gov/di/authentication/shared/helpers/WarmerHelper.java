@@ -7,7 +7,10 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.ThreadContext;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.Thread.sleep;
 
@@ -17,23 +20,91 @@ public class WarmerHelper {
     private static final Logger LOGGER = LogManager.getLogger(WarmerHelper.class);
 
     public static final String WARMUP_HEADER = "__WARMUP_REQUEST__";
+    public static final String CONTAINER_HEADER = "X-Warm-Container";
+    private static final String CONTAINER_ID = UUID.randomUUID().toString();
+
+    private static boolean warmedUp;
+    private static long firstRequestStartNanos = -1;
+    private static boolean firstRequestReported;
 
     public static Optional<APIGatewayProxyResponseEvent> isWarming(
             APIGatewayProxyRequestEvent input) {
+        return isWarming(input, WarmupPrimers.COMMON);
+    }
+
+    public static Optional<APIGatewayProxyResponseEvent> isWarming(
+            APIGatewayProxyRequestEvent input, WarmupPrimer primer) {
         ThreadContext.clearMap();
 
         if (input.getHeaders() != null && input.getHeaders().containsKey(WARMUP_HEADER)) {
+            LOGGER.info("Warmup Request Received {}", input.getHeaders().get(WARMUP_HEADER));
+            warmUp(primer);
+            LOGGER.info("Instance warmed for request {}", input.getHeaders().get(WARMUP_HEADER));
+            return Optional.of(
+                    new APIGatewayProxyResponseEvent()
+                            .withStatusCode(200)
+                            .withHeaders(Map.of(CONTAINER_HEADER, CONTAINER_ID)));
+        }
+        requestStarted();
+        return Optional.empty();
+    }
+
+    /**
+     * Runs the primer and then holds the container for whatever is left of the warm-up delay, so
+     * that concurrent warm-up requests still land on separate containers. A failing primer is
+     * logged and never fails the warm-up. With priming disabled this only sleeps, which gives a
+     * baseline for the first request latency logged by {@link #requestComplete()}.
+     */
+    public static void warmUp(WarmupPrimer primer) {
+        long start = System.nanoTime();
+        if (configurationService.isWarmupPrimingEnabled()) {
+            try {
+                primer.prime();
+            } catch (Exception e) {
+                LOGGER.warn("Warmup priming failed", e);
+            }
+        }
+        warmedUp = true;
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOGGER.info("Warmup priming took {} ms", elapsed);
+        long remaining = configurationService.getWarmupDelayMillis() - elapsed;
+        if (remaining > 0) {
             try {
-                LOGGER.info("Warmup Request Received {}", input.getHeaders().get(WARMUP_HEADER));
-                sleep(configurationService.getWarmupDelayMillis());
-                LOGGER.info(
-                        "Instance warmed for request {}", input.getHeaders().get(WARMUP_HEADER));
-                return Optional.of(new APIGatewayProxyResponseEvent().withStatusCode(200));
+                sleep(remaining);
             } catch (InterruptedException e) {
                 LOGGER.error("Sleep was interrupted", e);
+                Thread.currentThread().interrupt();
                 throw new RuntimeException("Sleep was interrupted", e);
             }
         }
-        return Optional.empty();
+    }
+
+    /** Marks the start of a real request, for the first request latency. */
+    public static void requestStarted() {
+        if (firstRequestStartNanos < 0) {
+            firstRequestStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Logs how long the first real request on this container took, and whether it followed a cold
+     * start, a primed warm-up or a sleeping warm-up. Later requests are not logged. Compare with
+     * the CloudWatch Insights query {@code filter @message like "First request latency" | parse
+     * @message "First request latency: * ms after *" as ms, start | stats avg(ms), pct(ms, 99) by
+     * start}.
+     */
+    public static void requestComplete() {
+        if (firstRequestReported || firstRequestStartNanos < 0) {
+            return;
+        }
+        firstRequestReported = true;
+        LOGGER.info(
+                "First request latency: {} ms after {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstRequestStartNanos),
+                !warmedUp
+                        ? "cold start"
+                        : configurationService.isWarmupPrimingEnabled()
+                                ? "primed warm-up"
+                                : "sleeping warm-up");
     }
 }
@@ -0,0 +1,19 @@
+package uk.gov.di.authentication.shared.helpers;
+
+/**
+ * Work run by a warm-up request so that the first real request on a container does not pay for
+ * connection setup, class loading or first-use initialisation. A primer must only read: it runs
+ * against the real dependencies of the lambda.
+ */
+@FunctionalInterface
+public interface WarmupPrimer {
+
+    void prime() throws Exception;
+
+    default WarmupPrimer andThen(WarmupPrimer next) {
+        return () -> {
+            prime();
+            next.prime();
+        };
+    }
+}
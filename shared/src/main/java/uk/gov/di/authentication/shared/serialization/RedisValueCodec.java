@@ -0,0 +1,51 @@
+package uk.gov.di.authentication.shared.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+
+/**
+ * Encodes values stored in Redis. Binary values start with a one byte format version followed by
+ * the Smile encoding of the object, which reuses the Jackson annotations on the entity. Values
+ * that do not start with a known version are read as JSON, so entries written before the binary
+ * format was enabled remain readable.
+ */
+public class RedisValueCodec<T> {
+
+    public static final byte SMILE_V1 = 0x01;
+
+    private static final ObjectMapper SMILE_MAPPER =
+            SmileMapper.builder().addModule(new JavaTimeModule()).build();
+
+    private final Class<T> type;
+    private final ObjectMapper jsonMapper;
+
+    public RedisValueCodec(Class<T> type, ObjectMapper jsonMapper) {
+        this.type = type;
+        this.jsonMapper = jsonMapper;
+    }
+
+    public byte[] encode(T value) throws IOException {
+        byte[] payload = SMILE_MAPPER.writeValueAsBytes(value);
+        byte[] encoded = new byte[payload.length + 1];
+        encoded[0] = SMILE_V1;
+        System.arraycopy(payload, 0, encoded, 1, payload.length);
+        return encoded;
+    }
+
+    public String encodeJson(T value) throws IOException {
+        return jsonMapper.writeValueAsString(value);
+    }
+
+    public T decode(byte[] value) throws IOException {
+        if (value == null || value.length == 0) {
+            throw new IllegalArgumentException("No value to decode for " + type.getSimpleName());
+        }
+        if (value[0] == SMILE_V1) {
+            return SMILE_MAPPER.readValue(value, 1, value.length - 1, type);
+        }
+        return jsonMapper.readValue(value, type);
+    }
+}
@@ -0,0 +1,208 @@
+package uk.gov.di.authentication.shared.services;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Collects signed audit messages during a request and publishes them to SNS in batches of up to
+ * ten. A full batch is published in the background as soon as it is available, and whatever is
+ * left is published when the request ends, so every event is sent before the Lambda returns.
+ *
+ * <p>Each message carries a way to sign it again. If its asynchronous signature fails, the message
+ * is re-signed on the publish thread and the rest of its batch is published regardless. Messages
+ * that still cannot be signed, and batches that SNS rejects, fail the request when it ends.
+ */
+public class AuditPublisher implements RequestScoped {
+
+    private static final Logger LOG = LogManager.getLogger(AuditPublisher.class);
+    static final int MAX_BATCH_SIZE = 10;
+
+    private final SnsService snsService;
+    private final BlockingQueue<PendingMessage> queue;
+    private final Executor publishExecutor;
+    private final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+    private int maxQueueDepth;
+    private int batches;
+    private int published;
+    private long publishNanos;
+    private int unsigned;
+
+    public AuditPublisher(SnsService snsService, int queueCapacity) {
+        this(
+                snsService,
+                queueCapacity,
+                Executors.newSingleThreadExecutor(
+                        runnable -> {
+                            var thread = new Thread(runnable, "audit-publisher");
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    public AuditPublisher(SnsService snsService, int queueCapacity, Executor publishExecutor) {
+        this.snsService = snsService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.publishExecutor = publishExecutor;
+    }
+
+    public void submit(CompletableFuture<String> signedMessage, Supplier<String> resign) {
+        var message = new PendingMessage(signedMessage, resign);
+        while (!queue.offer(message)) {
+            LOG.warn("Audit queue is full. Publishing a batch on the request thread");
+            publishBatch(drainBatch());
+        }
+        synchronized (this) {
+            maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+            if (queue.size() >= MAX_BATCH_SIZE) {
+                publishInBackground(drainBatch());
+            }
+        }
+    }
+
+    /**
+     * Publishes every queued message and waits for all batches of the request. Throws once they
+     * have all been attempted if any batch could not be published or any message could not be
+     * signed, so the invocation fails as it did when events were published inline.
+     */
+    public void flush() {
+        List<CompletableFuture<Void>> pending;
+        synchronized (this) {
+            while (!queue.isEmpty()) {
+                publishInBackground(drainBatch());
+            }
+            pending = new ArrayList<>(inFlight);
+            inFlight.clear();
+        }
+        RuntimeException failure = null;
+        for (var publish : pending) {
+            try {
+                publish.join();
+            } catch (RuntimeException e) {
+                LOG.error("Unable to publish audit events", e);
+                failure = addFailure(failure, e);
+            }
+        }
+        int unsignedEvents;
+        synchronized (this) {
+            if (batches > 0) {
+                LOG.info(
+                        "Published {} audit events in {} batches. Max queue depth {}. "
+                                + "Mean publish latency {} ms",
+                        published,
+                        batches,
+                        maxQueueDepth,
+                        TimeUnit.NANOSECONDS.toMillis(publishNanos / batches));
+            }
+            unsignedEvents = unsigned;
+            maxQueueDepth = 0;
+            batches = 0;
+            published = 0;
+            publishNanos = 0;
+            unsigned = 0;
+        }
+        if (unsignedEvents > 0) {
+            LOG.error("{} audit events could not be signed and were not published", unsignedEvents);
+            failure =
+                    addFailure(
+                            failure,
+                            new RuntimeException(
+                                    format("%d audit events could not be signed", unsignedEvents)));
+        }
+        if (failure != null) {
+            throw new RuntimeException("Unable to publish every audit event", failure);
+        }
+    }
+
+    @Override
+    public void endRequest() {
+        flush();
+    }
+
+    private static RuntimeException addFailure(
+            RuntimeException failure, RuntimeException another) {
+        if (failure == null) {
+            return another;
+        }
+        failure.addSuppressed(another);
+        return failure;
+    }
+
+    private void publishInBackground(List<PendingMessage> batch) {
+        inFlight.add(CompletableFuture.runAsync(() -> publishBatch(batch), publishExecutor));
+    }
+
+    private List<PendingMessage> drainBatch() {
+        List<PendingMessage> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        queue.drainTo(batch, MAX_BATCH_SIZE);
+        return batch;
+    }
+
+    private void publishBatch(List<PendingMessage> batch) {
+        List<String> messages = new ArrayList<>(batch.size());
+        for (var message : batch) {
+            var signed = sign(message);
+            if (signed == null) {
+                synchronized (this) {
+                    unsigned++;
+                }
+            } else {
+                messages.add(signed);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        snsService.publishAuditMessages(messages);
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            batches++;
+            published += messages.size();
+            publishNanos += elapsed;
+        }
+    }
+
+    private String sign(PendingMessage message) {
+        var signed =
+                message.signed
+                        .handle(
+                                (value, failure) -> {
+                                    if (failure != null) {
+                                        LOG.warn("Unable to sign audit event. Retrying", failure);
+                                    }
+                                    return value;
+                                })
+                        .join();
+        if (signed != null) {
+            return signed;
+        }
+        try {
+            return message.resign.get();
+        } catch (RuntimeException e) {
+            LOG.error("Unable to sign audit event", e);
+            return null;
+        }
+    }
+
+    private static class PendingMessage {
+        private final CompletableFuture<String> signed;
+        private final Supplier<String> resign;
+
+        private PendingMessage(CompletableFuture<String> signed, Supplier<String> resign) {
+            this.signed = signed;
+            this.resign = resign;
+        }
+    }
+}
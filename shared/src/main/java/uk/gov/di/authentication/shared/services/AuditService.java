@@ -15,7 +15,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
-public class AuditService {
+public class AuditService implements RequestScoped {
 
     @Deprecated // All audit arguments currently marked as unknown will need to be reviewed later.
     public static final String UNKNOWN = "";
@@ -24,19 +24,39 @@ public class AuditService {
     private final SnsService snsService;
     private final KmsConnectionService kmsConnectionService;
     private final ConfigurationService configurationService;
+    private final AuditPublisher auditPublisher;
 
     public AuditService(
             Clock clock,
             SnsService snsService,
             KmsConnectionService kmsConnectionService,
             ConfigurationService configurationService) {
+        this(clock, snsService, kmsConnectionService, configurationService, null);
+    }
+
+    public AuditService(
+            Clock clock,
+            SnsService snsService,
+            KmsConnectionService kmsConnectionService,
+            ConfigurationService configurationService,
+            AuditPublisher auditPublisher) {
         this.clock = clock;
         this.snsService = snsService;
         this.kmsConnectionService = kmsConnectionService;
         this.configurationService = configurationService;
+        this.auditPublisher = auditPublisher;
     }
 
     public AuditService(ConfigurationService configurationService) {
+        this(configurationService, false);
+    }
+
+    /**
+     * When {@code publishAtEndOfRequest} is set, events are signed and published in batches off
+     * the request thread, and are only guaranteed to be sent once {@link #endRequest()} has been
+     * called. Handlers using this must end the request before returning.
+     */
+    public AuditService(ConfigurationService configurationService, boolean publishAtEndOfRequest) {
         this.configurationService = configurationService;
         this.clock = Clock.systemUTC();
         this.snsService = new SnsService(configurationService);
@@ -45,6 +65,11 @@ public class AuditService {
                         configurationService.getLocalstackEndpointUri(),
                         configurationService.getAwsRegion(),
                         configurationService.getAuditSigningKeyAlias());
+        this.auditPublisher =
+                publishAtEndOfRequest
+                        ? new AuditPublisher(
+                                snsService, configurationService.getAuditQueueCapacity())
+                        : null;
     }
 
     public void submitAuditEvent(
@@ -58,8 +83,23 @@ public class AuditService {
             String phoneNumber,
             String persistentSessionId,
             MetadataPair... metadataPairs) {
-        snsService.publishAuditMessage(
-                generateLogLine(
+        if (auditPublisher == null) {
+            snsService.publishAuditMessage(
+                    generateLogLine(
+                            event,
+                            requestId,
+                            sessionId,
+                            clientId,
+                            subjectId,
+                            email,
+                            ipAddress,
+                            phoneNumber,
+                            persistentSessionId,
+                            metadataPairs));
+            return;
+        }
+        var auditEvent =
+                buildAuditEvent(
                         event,
                         requestId,
                         sessionId,
@@ -69,7 +109,25 @@ public class AuditService {
                         ipAddress,
                         phoneNumber,
                         persistentSessionId,
-                        metadataPairs));
+                        metadataPairs);
+        auditPublisher.submit(
+                kmsConnectionService
+                        .signAsync(signRequest(auditEvent.toByteArray()))
+                        .thenApply(
+                                signResult ->
+                                        encode(auditEvent, signResult.getSignature().array())),
+                () -> signIndividually(auditEvent));
+    }
+
+    @Override
+    public void endRequest() {
+        if (auditPublisher != null) {
+            auditPublisher.flush();
+        }
+    }
+
+    private String signIndividually(AuditEvent auditEvent) {
+        return encode(auditEvent, signPayload(auditEvent.toByteArray()));
     }
 
     String generateLogLine(
@@ -83,6 +141,32 @@ public class AuditService {
             String phoneNumber,
             String persistentSessionId,
             MetadataPair... metadataPairs) {
+        var auditEvent =
+                buildAuditEvent(
+                        eventEnum,
+                        requestId,
+                        sessionId,
+                        clientId,
+                        subjectId,
+                        email,
+                        ipAddress,
+                        phoneNumber,
+                        persistentSessionId,
+                        metadataPairs);
+        return signIndividually(auditEvent);
+    }
+
+    private AuditEvent buildAuditEvent(
+            AuditableEvent eventEnum,
+            String requestId,
+            String sessionId,
+            String clientId,
+            String subjectId,
+            String email,
+            String ipAddress,
+            String phoneNumber,
+            String persistentSessionId,
+            MetadataPair... metadataPairs) {
         var uniqueId = UUID.randomUUID();
         var timestamp = clock.instant().toString();
 
@@ -111,23 +195,29 @@ public class AuditService {
                                 auditEventBuilder.putExtensions(
                                         pair.getKey(), pair.getValue().toString()));
 
-        var auditEvent = auditEventBuilder.build();
+        return auditEventBuilder.build();
+    }
 
-        var signedEventBuilder =
+    private String encode(AuditEvent auditEvent, byte[] signature) {
+        var signedAuditEvent =
                 SignedAuditEvent.newBuilder()
-                        .setSignature(ByteString.copyFrom(signPayload(auditEvent.toByteArray())))
-                        .setPayload(auditEvent.toByteString());
+                        .setSignature(ByteString.copyFrom(signature))
+                        .setPayload(auditEvent.toByteString())
+                        .build();
 
-        return Base64.getEncoder().encodeToString(signedEventBuilder.build().toByteArray());
+        return Base64.getEncoder().encodeToString(signedAuditEvent.toByteArray());
     }
 
     private byte[] signPayload(byte[] payload) {
+        return kmsConnectionService.sign(signRequest(payload)).getSignature().array();
+    }
+
+    private SignRequest signRequest(byte[] payload) {
         SignRequest signRequest = new SignRequest();
         signRequest.setKeyId(configurationService.getAuditSigningKeyAlias());
         signRequest.setMessage(ByteBuffer.wrap(payload));
         signRequest.setSigningAlgorithm(SigningAlgorithmSpec.ECDSA_SHA_256.toString());
-
-        return kmsConnectionService.sign(signRequest).getSignature().array();
+        return signRequest;
     }
 
     public static class MetadataPair {
@@ -17,6 +17,8 @@ public interface AuthenticationService {
 
     boolean login(String email, String password);
 
+    boolean login(UserCredentials userCredentials, String password);
+
     Subject getSubjectFromEmail(String email);
 
     void updatePhoneNumber(String email, String profileInformation);
@@ -20,14 +20,9 @@ public class AuthorisationCodeService {
     private final ObjectMapper objectMapper;
 
     public AuthorisationCodeService(ConfigurationService configurationService) {
-        this.redisConnectionService =
-                new RedisConnectionService(
-                        configurationService.getRedisHost(),
-                        configurationService.getRedisPort(),
-                        configurationService.getUseRedisTLS(),
-                        configurationService.getRedisPassword());
+        this.redisConnectionService = RedisConnectionService.getInstance(configurationService);
         this.authorisationCodeExpiry = configurationService.getAuthCodeExpiry();
-        this.objectMapper = ObjectMapperFactory.getInstance();
+        this.objectMapper = ObjectMapperFactory.getInternalInstance();
     }
 
     public AuthorizationCode generateAuthorisationCode(String clientSessionId, String email) {
@@ -37,12 +37,12 @@ public class AuthorizationService {
 
     public static final String VTR = "vtr";
     private static final String CLIENT_ID = "client_id";
-    private final DynamoClientService dynamoClientService;
-    private final DynamoService dynamoService;
+    private final ClientService dynamoClientService;
+    private final AuthenticationService dynamoService;
     private static final Logger LOGGER = LogManager.getLogger(AuthorizationService.class);
 
     public AuthorizationService(
-            DynamoClientService dynamoClientService, DynamoService dynamoService) {
+            ClientService dynamoClientService, AuthenticationService dynamoService) {
         this.dynamoClientService = dynamoClientService;
         this.dynamoService = dynamoService;
     }
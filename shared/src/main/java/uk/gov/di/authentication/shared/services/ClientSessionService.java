@@ -1,15 +1,17 @@
 package uk.gov.di.authentication.shared.services;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.ClientSession;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
 import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
+import uk.gov.di.authentication.shared.serialization.RedisValueCodec;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static uk.gov.di.authentication.shared.domain.RequestHeaders.CLIENT_SESSION_ID_HEADER;
 import static uk.gov.di.authentication.shared.helpers.RequestHeaderHelper.getHeaderValueFromHeaders;
@@ -22,17 +24,14 @@ public class ClientSessionService {
 
     private final RedisConnectionService redisConnectionService;
     private final ConfigurationService configurationService;
-    private final ObjectMapper objectMapper;
+    private final RedisValueCodec<ClientSession> codec;
 
     public ClientSessionService(ConfigurationService configurationService) {
         this.configurationService = configurationService;
-        this.redisConnectionService =
-                new RedisConnectionService(
-                        configurationService.getRedisHost(),
-                        configurationService.getRedisPort(),
-                        configurationService.getUseRedisTLS(),
-                        configurationService.getRedisPassword());
-        objectMapper = ObjectMapperFactory.getInstance();
+        this.redisConnectionService = RedisConnectionService.getInstance(configurationService);
+        codec =
+                new RedisValueCodec<>(
+                        ClientSession.class, ObjectMapperFactory.getInternalInstance());
     }
 
     public ClientSessionService(
@@ -40,30 +39,24 @@ public class ClientSessionService {
             RedisConnectionService redisConnectionService) {
         this.configurationService = configurationService;
         this.redisConnectionService = redisConnectionService;
-        objectMapper = ObjectMapperFactory.getInstance();
+        codec =
+                new RedisValueCodec<>(
+                        ClientSession.class, ObjectMapperFactory.getInternalInstance());
     }
 
     public String generateClientSession(ClientSession clientSession) {
         String id = IdGenerator.generate();
-        try {
-            redisConnectionService.saveWithExpiry(
-                    CLIENT_SESSION_PREFIX.concat(id),
-                    objectMapper.writeValueAsString(clientSession),
-                    configurationService.getSessionExpiry());
-        } catch (JsonProcessingException e) {
-            LOG.error("Error saving client session: {} to Redis", id);
-            throw new RuntimeException(e);
-        }
+        saveClientSession(id, clientSession);
         LOG.info("Generated new ClientSession with ID: {}", id);
         return id;
     }
 
     public ClientSession getClientSession(String clientSessionId) {
         try {
-            String result =
-                    redisConnectionService.getValue(CLIENT_SESSION_PREFIX.concat(clientSessionId));
-            return objectMapper.readValue(result, ClientSession.class);
-        } catch (JsonProcessingException | IllegalArgumentException e) {
+            byte[] result =
+                    redisConnectionService.getBytes(CLIENT_SESSION_PREFIX.concat(clientSessionId));
+            return codec.decode(result);
+        } catch (IOException | IllegalArgumentException e) {
             LOG.error(
                     "Error getting client session from Redis with ClientSessionId: {}",
                     clientSessionId);
@@ -71,13 +64,38 @@ public class ClientSessionService {
         }
     }
 
+    public List<ClientSession> getClientSessions(List<String> clientSessionIds) {
+        var keys =
+                clientSessionIds.stream()
+                        .map(CLIENT_SESSION_PREFIX::concat)
+                        .collect(Collectors.toList());
+        return redisConnectionService.getByteValues(keys).stream()
+                .flatMap(Optional::stream)
+                .map(
+                        result -> {
+                            try {
+                                return codec.decode(result);
+                            } catch (IOException e) {
+                                LOG.error("Error parsing client session from Redis");
+                                throw new RuntimeException(e);
+                            }
+                        })
+                .collect(Collectors.toList());
+    }
+
     public void saveClientSession(String clientSessionId, ClientSession clientSession) {
+        String key = CLIENT_SESSION_PREFIX.concat(clientSessionId);
         try {
-            redisConnectionService.saveWithExpiry(
-                    CLIENT_SESSION_PREFIX.concat(clientSessionId),
-                    objectMapper.writeValueAsString(clientSession),
-                    configurationService.getSessionExpiry());
-        } catch (JsonProcessingException e) {
+            if (configurationService.isRedisBinarySessionsEnabled()) {
+                redisConnectionService.saveWithExpiry(
+                        key, codec.encode(clientSession), configurationService.getSessionExpiry());
+            } else {
+                redisConnectionService.saveWithExpiry(
+                        key,
+                        codec.encodeJson(clientSession),
+                        configurationService.getSessionExpiry());
+            }
+        } catch (IOException e) {
             LOG.error("Error saving client session: {} to Redis", clientSessionId);
             throw new RuntimeException(e);
         }
@@ -88,25 +106,28 @@ public class ClientSessionService {
     }
 
     public Optional<ClientSession> getClientSessionFromRequestHeaders(Map<String, String> headers) {
+        Optional<String> clientSessionId = getClientSessionIdFromRequestHeaders(headers);
+        if (clientSessionId.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(getClientSession(clientSessionId.get()));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Optional<String> getClientSessionIdFromRequestHeaders(Map<String, String> headers) {
         if (!headersContainValidHeader(
                 headers,
                 CLIENT_SESSION_ID_HEADER,
                 configurationService.getHeadersCaseInsensitive())) {
             return Optional.empty();
         }
-        String clientSessionId =
+        return Optional.ofNullable(
                 getHeaderValueFromHeaders(
                         headers,
                         CLIENT_SESSION_ID_HEADER,
-                        configurationService.getHeadersCaseInsensitive());
-        if (clientSessionId == null) {
-            LOG.error("Value not found for Client-Session-Id header");
-            return Optional.empty();
-        }
-        try {
-            return Optional.of(getClientSession(clientSessionId));
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+                        configurationService.getHeadersCaseInsensitive()));
     }
 }
@@ -1,11 +1,15 @@
 package uk.gov.di.authentication.shared.services;
 
+import io.lettuce.core.ScriptOutputType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.NotificationType;
 import uk.gov.di.authentication.shared.helpers.HashHelper;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
@@ -24,21 +28,36 @@ public class CodeStorageService {
     private static final String RESET_PASSWORD_KEY_PREFIX = "reset-password-code:";
     private static final String MULTIPLE_INCORRECT_PASSWORDS_PREFIX =
             "multiple-incorrect-passwords:";
+    private static final long INCORRECT_PASSWORD_EXPIRY = 900L;
+
+    private static final String RECORD_PASSWORD_ATTEMPT_SCRIPT =
+            "local count = tonumber(redis.call('GET', KEYS[1]) or '0') "
+                    + "if count >= tonumber(ARGV[1]) then return count + 1 end "
+                    + "count = redis.call('INCR', KEYS[1]) "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+                    + "return count";
 
     public CodeStorageService(RedisConnectionService redisConnectionService) {
         this.redisConnectionService = redisConnectionService;
     }
 
-    public void increaseIncorrectPasswordCount(String email) {
-        String encodedHash = HashHelper.hashSha256String(email);
-        String key = MULTIPLE_INCORRECT_PASSWORDS_PREFIX + encodedHash;
-        Optional<String> count =
-                Optional.ofNullable(
-                        redisConnectionService.getValue(
-                                MULTIPLE_INCORRECT_PASSWORDS_PREFIX + encodedHash));
-        int newCount = count.map(t -> Integer.parseInt(t) + 1).orElse(1);
+    /**
+     * Counts an incorrect password for the email address with one script call, and returns the
+     * count including this one. If the limit has already been reached, for example by a concurrent
+     * attempt, nothing is counted, the expiry is left alone, and a number over the limit is
+     * returned.
+     */
+    public int increaseIncorrectPasswordCount(String email, int maxRetries) {
+        String key = getIncorrectPasswordCountKey(email);
         try {
-            redisConnectionService.saveWithExpiry(key, String.valueOf(newCount), 900L);
+            Long attempts =
+                    redisConnectionService.evalScript(
+                            RECORD_PASSWORD_ATTEMPT_SCRIPT,
+                            ScriptOutputType.INTEGER,
+                            new String[] {key},
+                            String.valueOf(maxRetries),
+                            String.valueOf(INCORRECT_PASSWORD_EXPIRY));
+            return attempts.intValue();
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -47,12 +66,14 @@ public class CodeStorageService {
     public int getIncorrectPasswordCount(String email) {
         Optional<String> count =
                 Optional.ofNullable(
-                        redisConnectionService.getValue(
-                                MULTIPLE_INCORRECT_PASSWORDS_PREFIX
-                                        + HashHelper.hashSha256String(email)));
+                        redisConnectionService.getValue(getIncorrectPasswordCountKey(email)));
         return count.map(Integer::parseInt).orElse(0);
     }
 
+    public static String getIncorrectPasswordCountKey(String email) {
+        return MULTIPLE_INCORRECT_PASSWORDS_PREFIX + HashHelper.hashSha256String(email);
+    }
+
     public void deleteIncorrectPasswordCount(String email) {
         String encodedHash = HashHelper.hashSha256String(email);
         String key = MULTIPLE_INCORRECT_PASSWORDS_PREFIX + encodedHash;
@@ -79,6 +100,34 @@ public class CodeStorageService {
                 != null;
     }
 
+    /**
+     * Checks all of the given block prefixes for the email address with one read. Returns the
+     * first prefix, in the order given, that has a block in place.
+     */
+    public Optional<String> getBlockForEmail(String emailAddress, String... prefixes) {
+        String encodedHash = HashHelper.hashSha256String(emailAddress);
+        List<Optional<String>> blocks =
+                redisConnectionService.getValues(
+                        Arrays.stream(prefixes)
+                                .map(prefix -> prefix + encodedHash)
+                                .collect(Collectors.toList()));
+        for (int i = 0; i < prefixes.length; i++) {
+            if (blocks.get(i).isPresent()) {
+                return Optional.of(prefixes[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** The keys of every block that can be placed on the email address. */
+    public static List<String> getBlockKeysForEmail(String emailAddress) {
+        String encodedHash = HashHelper.hashSha256String(emailAddress);
+        return List.of(
+                CODE_REQUEST_BLOCKED_KEY_PREFIX + encodedHash,
+                CODE_BLOCKED_KEY_PREFIX + encodedHash,
+                PASSWORD_RESET_BLOCKED_KEY_PREFIX + encodedHash);
+    }
+
     public void saveOtpCode(
             String emailAddress,
             String code,
@@ -3,25 +3,45 @@ package uk.gov.di.authentication.shared.services;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.simplesystemsmanagement.AWSSimpleSystemsManagement;
 import com.amazonaws.services.simplesystemsmanagement.AWSSimpleSystemsManagementClient;
-import com.amazonaws.services.simplesystemsmanagement.model.GetParameterRequest;
-import com.amazonaws.services.simplesystemsmanagement.model.GetParametersRequest;
-import com.amazonaws.services.simplesystemsmanagement.model.ParameterNotFoundException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.configuration.AuditPublisherConfiguration;
 import uk.gov.di.authentication.shared.configuration.BaseLambdaConfiguration;
+import uk.gov.di.authentication.shared.helpers.Argon2Cost;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import static java.text.MessageFormat.format;
 
 public class ConfigurationService implements BaseLambdaConfiguration, AuditPublisherConfiguration {
 
     private static final Logger LOGGER = LogManager.getLogger(ConfigurationService.class);
+    private static final Set<String> TUNABLES =
+            Set.of(
+                    "ACCESS_TOKEN_EXPIRY",
+                    "AUTH_CODE_EXPIRY",
+                    "CODE_EXPIRY",
+                    "CODE_MAX_RETRIES",
+                    "ID_TOKEN_EXPIRY",
+                    "PASSWORD_MAX_RETRIES",
+                    "PUBLIC_KEY_CACHE_TTL",
+                    "SESSION_EXPIRY",
+                    "WARMER_DELAY");
     private static ConfigurationService configurationService;
 
     public static ConfigurationService getInstance() {
@@ -31,101 +51,162 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
         return configurationService;
     }
 
+    private final Map<String, String> environment;
+    private final boolean tunablesHotReloadEnabled;
+    private final Clock clock;
+    private volatile Snapshot snapshot;
+    private volatile Instant nextTunablesCheck = Instant.MIN;
     private AWSSimpleSystemsManagement ssmClient;
-    private Map<String, String> ssmRedisParameters;
-    private Optional<String> passwordPepper;
+    private SsmParameterCache ssmParameterCache;
+
+    public ConfigurationService() {
+        this(System.getenv(), null);
+    }
+
+    public ConfigurationService(
+            Map<String, String> environment, SsmParameterCache ssmParameterCache) {
+        this(environment, ssmParameterCache, Clock.systemUTC());
+    }
+
+    public ConfigurationService(
+            Map<String, String> environment, SsmParameterCache ssmParameterCache, Clock clock) {
+        this.environment = environment;
+        this.ssmParameterCache = ssmParameterCache;
+        this.clock = clock;
+        this.tunablesHotReloadEnabled =
+                environment.getOrDefault("TUNABLES_HOT_RELOAD_ENABLED", "false").equals("true");
+        this.snapshot = new Snapshot(environment, "");
+    }
 
     // Please keep the method names in alphabetical order so we can find stuff more easily.
     public long getAccessTokenExpiry() {
-        return Long.parseLong(System.getenv().getOrDefault("ACCESS_TOKEN_EXPIRY", "180"));
+        return getLong("ACCESS_TOKEN_EXPIRY", 180);
     }
 
     public String getAccountManagementURI() {
-        return System.getenv("ACCOUNT_MANAGEMENT_URI");
+        return getValue("ACCOUNT_MANAGEMENT_URI");
+    }
+
+    @Override
+    public int getAuditQueueCapacity() {
+        return getInt("AUDIT_QUEUE_CAPACITY", 100);
+    }
+
+    @Override
+    public String getAuditSigningKeyAlias() {
+        return getValue("AUDIT_SIGNING_KEY_ALIAS");
+    }
+
+    public Argon2Cost getArgon2Cost() {
+        var defaults = Argon2Cost.DEFAULT;
+        return new Argon2Cost(
+                getInt("ARGON2_MEMORY_KIB", defaults.getMemoryInKibibytes()),
+                getInt("ARGON2_ITERATIONS", defaults.getIterations()),
+                getInt("ARGON2_PARALLELISM", defaults.getParallelism()));
     }
 
     public long getAuthCodeExpiry() {
-        return Long.parseLong(System.getenv().getOrDefault("AUTH_CODE_EXPIRY", "300"));
+        return getLong("AUTH_CODE_EXPIRY", 300);
+    }
+
+    @Override
+    public String getAwsRegion() {
+        return environment.get("AWS_REGION");
     }
 
     public Optional<String> getBaseURL() {
-        return Optional.ofNullable(System.getenv("BASE_URL"));
+        return getOptional("BASE_URL");
     }
 
     public long getCodeExpiry() {
-        return Long.parseLong(System.getenv().getOrDefault("CODE_EXPIRY", "900"));
+        return getLong("CODE_EXPIRY", 900);
     }
 
     public int getCodeMaxRetries() {
-        return Integer.parseInt(System.getenv().getOrDefault("CODE_MAX_RETRIES", "5"));
+        return getInt("CODE_MAX_RETRIES", 5);
     }
 
     public String getCustomerSupportLinkRoute() {
-        return System.getenv().getOrDefault("CUSTOMER_SUPPORT_LINK_ROUTE", "");
+        return getValue("CUSTOMER_SUPPORT_LINK_ROUTE", "");
     }
 
     public int getMaxPasswordRetries() {
-        return Integer.parseInt(System.getenv().getOrDefault("PASSWORD_MAX_RETRIES", "5"));
+        return getInt("PASSWORD_MAX_RETRIES", 5);
     }
 
     public URI getDefaultLogoutURI() {
-        return URI.create(System.getenv("DEFAULT_LOGOUT_URI"));
+        return getUri("DEFAULT_LOGOUT_URI", null);
     }
 
     public String getDomainName() {
-        return System.getenv("DOMAIN_NAME");
+        return getValue("DOMAIN_NAME");
     }
 
     public Optional<String> getDynamoEndpointUri() {
-        return Optional.ofNullable(System.getenv("DYNAMO_ENDPOINT"));
+        return getOptional("DYNAMO_ENDPOINT");
     }
 
     public String getEmailQueueUri() {
-        return System.getenv("EMAIL_QUEUE_URL");
+        return getValue("EMAIL_QUEUE_URL");
+    }
+
+    @Override
+    public String getEnvironment() {
+        return environment.get("ENVIRONMENT");
+    }
+
+    @Override
+    public String getEventsSnsTopicArn() {
+        return getValue("EVENTS_SNS_TOPIC_ARN");
     }
 
     public String getFrontendBaseUrl() {
-        return System.getenv().getOrDefault("FRONTEND_BASE_URL", "");
+        return getValue("FRONTEND_BASE_URL", "");
     }
 
     public boolean getHeadersCaseInsensitive() {
-        return System.getenv().getOrDefault("HEADERS_CASE_INSENSITIVE", "false").equals("true");
+        return isTrue("HEADERS_CASE_INSENSITIVE", false);
     }
 
     public long getIDTokenExpiry() {
-        return Long.parseLong(System.getenv().getOrDefault("ID_TOKEN_EXPIRY", "120"));
+        return getLong("ID_TOKEN_EXPIRY", 120);
+    }
+
+    @Override
+    public Optional<String> getLocalstackEndpointUri() {
+        return Optional.ofNullable(environment.get("LOCALSTACK_ENDPOINT"));
     }
 
     public URI getLoginURI() {
-        return URI.create(System.getenv("LOGIN_URI"));
+        return getUri("LOGIN_URI", null);
     }
 
     public String getNotifyApiKey() {
-        return System.getenv("NOTIFY_API_KEY");
+        return getValue("NOTIFY_API_KEY");
     }
 
     public Optional<String> getNotifyApiUrl() {
-        return Optional.ofNullable(System.getenv("NOTIFY_URL"));
+        return getOptional("NOTIFY_URL");
     }
 
     public Optional<String> getNotifyTestPhoneNumber() {
-        return Optional.ofNullable(System.getenv("NOTIFY_TEST_PHONE_NUMBER"));
+        return getOptional("NOTIFY_TEST_PHONE_NUMBER");
+    }
+
+    public String getPasswordMigrationKeyAlias() {
+        return getValue("PASSWORD_MIGRATION_KEY_ALIAS");
+    }
+
+    public String getPasswordMigrationQueueUri() {
+        return getValue("PASSWORD_MIGRATION_QUEUE_URL");
     }
 
     public Optional<String> getPasswordPepper() {
-        if (passwordPepper == null) {
-            try {
-                var request =
-                        new GetParameterRequest()
-                                .withWithDecryption(true)
-                                .withName(format("{0}-password-pepper", getEnvironment()));
-                passwordPepper =
-                        Optional.of(getSsmClient().getParameter(request).getParameter().getValue());
-            } catch (ParameterNotFoundException e) {
-                passwordPepper = Optional.empty();
-            }
-        }
-        return passwordPepper;
+        return getSsmParameterCache().get(format("{0}-password-pepper", getEnvironment()));
+    }
+
+    public long getPublicKeyCacheTtl() {
+        return getLong("PUBLIC_KEY_CACHE_TTL", 900);
     }
 
     public String getRedisHost() {
@@ -133,6 +214,10 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
                 .get(format("{0}-{1}-redis-master-host", getEnvironment(), getRedisKey()));
     }
 
+    public int getRedisMaxPoolSize() {
+        return getInt("REDIS_MAX_POOL_SIZE", 8);
+    }
+
     public Optional<String> getRedisPassword() {
         return Optional.ofNullable(
                 getSsmRedisParameters()
@@ -152,95 +237,118 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
     }
 
     public String getResetPasswordRoute() {
-        return System.getenv().getOrDefault("RESET_PASSWORD_ROUTE", "");
+        return getValue("RESET_PASSWORD_ROUTE", "");
     }
 
     public String getSessionCookieAttributes() {
-        return Optional.ofNullable(System.getenv("SESSION_COOKIE_ATTRIBUTES"))
-                .orElse("Secure; HttpOnly;");
+        return getValue("SESSION_COOKIE_ATTRIBUTES", "Secure; HttpOnly;");
     }
 
     public int getSessionCookieMaxAge() {
-        return Integer.parseInt(System.getenv().getOrDefault("SESSION_COOKIE_MAX_AGE", "3600"));
+        return getInt("SESSION_COOKIE_MAX_AGE", 3600);
     }
 
     public int getPersistentCookieMaxAge() {
-        return Integer.parseInt(
-                System.getenv().getOrDefault("PERSISTENT_COOKIE_MAX_AGE", "34190000"));
+        return getInt("PERSISTENT_COOKIE_MAX_AGE", 34190000);
     }
 
     public long getSessionExpiry() {
-        return Long.parseLong(System.getenv().getOrDefault("SESSION_EXPIRY", "3600"));
+        return getLong("SESSION_EXPIRY", 3600);
     }
 
     public String getSmoketestBucketName() {
-        return System.getenv("SMOKETEST_SMS_BUCKET_NAME");
+        return getValue("SMOKETEST_SMS_BUCKET_NAME");
     }
 
     public URI getSkipLoginURI() {
-        return URI.create(System.getenv().getOrDefault("SKIP_LOGIN_URI", "http://skip-login"));
+        return getUri("SKIP_LOGIN_URI", "http://skip-login");
     }
 
     public Optional<String> getSqsEndpointUri() {
-        return Optional.ofNullable(System.getenv("SQS_ENDPOINT"));
+        return getOptional("SQS_ENDPOINT");
+    }
+
+    public Duration getSsmParameterCacheTtl() {
+        return Duration.ofSeconds(
+                Long.parseLong(environment.getOrDefault("SSM_PARAMETER_CACHE_TTL", "300")));
     }
 
     public String getTermsAndConditionsVersion() {
-        return System.getenv("TERMS_CONDITIONS_VERSION");
+        return getValue("TERMS_CONDITIONS_VERSION");
     }
 
     public Optional<String> getTestClientVerifyEmailOTP() {
-        return Optional.ofNullable(System.getenv("TEST_CLIENT_VERIFY_EMAIL_OTP"));
+        return getOptional("TEST_CLIENT_VERIFY_EMAIL_OTP");
     }
 
     public Optional<String> getTestClientVerifyPhoneNumberOTP() {
-        return Optional.ofNullable(System.getenv("TEST_CLIENT_VERIFY_PHONE_NUMBER_OTP"));
+        return getOptional("TEST_CLIENT_VERIFY_PHONE_NUMBER_OTP");
+    }
+
+    public boolean isAccessTokenStoreCheckEnabled() {
+        return isTrue("ACCESS_TOKEN_STORE_CHECK_ENABLED", false);
+    }
+
+    public boolean isAccessTokenStoreDigestEnabled() {
+        return isTrue("ACCESS_TOKEN_STORE_DIGEST_ENABLED", false);
+    }
+
+    public boolean isLocalAuditSignatureValidationEnabled() {
+        return isTrue("AUDIT_LOCAL_SIGNATURE_VALIDATION_ENABLED", true);
+    }
+
+    public boolean isRedisBinarySessionsEnabled() {
+        return isTrue("REDIS_BINARY_SESSIONS_ENABLED", false);
     }
 
     public boolean isTestClientsEnabled() {
-        return System.getenv().getOrDefault("TEST_CLIENTS_ENABLED", "false").equals("true");
+        return isTrue("TEST_CLIENTS_ENABLED", false);
+    }
+
+    public boolean isTunablesHotReloadEnabled() {
+        return tunablesHotReloadEnabled;
+    }
+
+    public boolean isWarmupPrimingEnabled() {
+        return isTrue("WARMUP_PRIMING_ENABLED", true);
     }
 
     public String getTokenSigningKeyAlias() {
-        return System.getenv("TOKEN_SIGNING_KEY_ALIAS");
+        return getValue("TOKEN_SIGNING_KEY_ALIAS");
     }
 
     public String getAuditStorageS3Bucket() {
-        return System.getenv("AUDIT_STORAGE_S3_BUCKET");
+        return getValue("AUDIT_STORAGE_S3_BUCKET");
     }
 
     public int getWarmupDelayMillis() {
-        return Integer.parseInt(System.getenv().getOrDefault("WARMER_DELAY", "75"));
+        return getInt("WARMER_DELAY", 75);
     }
 
     public byte[] getSalt() {
-        return System.getenv().getOrDefault("SALT", "random").getBytes(StandardCharsets.UTF_8);
+        return getValue("SALT", "random").getBytes(StandardCharsets.UTF_8);
     }
 
     public String getAuditHmacSecret() {
-        return System.getenv("AUDIT_HMAC_SECRET");
+        return getValue("AUDIT_HMAC_SECRET");
     }
 
     private Map<String, String> getSsmRedisParameters() {
-        if (ssmRedisParameters == null) {
-            var getParametersRequest =
-                    new GetParametersRequest()
-                            .withNames(
-                                    format(
-                                            "{0}-{1}-redis-master-host",
-                                            getEnvironment(), getRedisKey()),
-                                    format(
-                                            "{0}-{1}-redis-password",
-                                            getEnvironment(), getRedisKey()),
-                                    format("{0}-{1}-redis-port", getEnvironment(), getRedisKey()),
-                                    format("{0}-{1}-redis-tls", getEnvironment(), getRedisKey()))
-                            .withWithDecryption(true);
-            var result = getSsmClient().getParameters(getParametersRequest);
-            ssmRedisParameters =
-                    result.getParameters().stream()
-                            .collect(Collectors.toMap(p -> p.getName(), p -> p.getValue()));
+        var prefix = format("{0}-{1}", getEnvironment(), getRedisKey());
+        return getSsmParameterCache()
+                .getAll(
+                        List.of(
+                                prefix + "-redis-master-host",
+                                prefix + "-redis-password",
+                                prefix + "-redis-port",
+                                prefix + "-redis-tls"));
+    }
+
+    private synchronized SsmParameterCache getSsmParameterCache() {
+        if (ssmParameterCache == null) {
+            ssmParameterCache = new SsmParameterCache(getSsmClient(), getSsmParameterCacheTtl());
         }
-        return ssmRedisParameters;
+        return ssmParameterCache;
     }
 
     private AWSSimpleSystemsManagement getSsmClient() {
@@ -265,6 +373,108 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
     }
 
     private String getRedisKey() {
-        return System.getenv("REDIS_KEY");
+        return getValue("REDIS_KEY");
+    }
+
+    private String getValue(String name) {
+        return snapshot().values.get(name);
+    }
+
+    private String getValue(String name, String defaultValue) {
+        return snapshot().values.getOrDefault(name, defaultValue);
+    }
+
+    private Optional<String> getOptional(String name) {
+        return Optional.ofNullable(getValue(name));
+    }
+
+    private int getInt(String name, int defaultValue) {
+        return parsed(name, value -> value == null ? defaultValue : Integer.parseInt(value));
+    }
+
+    private long getLong(String name, long defaultValue) {
+        return parsed(name, value -> value == null ? defaultValue : Long.parseLong(value));
+    }
+
+    private boolean isTrue(String name, boolean defaultValue) {
+        return parsed(name, value -> value == null ? defaultValue : value.equals("true"));
+    }
+
+    private URI getUri(String name, String defaultValue) {
+        return parsed(name, value -> URI.create(value == null ? defaultValue : value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T parsed(String name, Function<String, T> parser) {
+        var current = snapshot();
+        return (T)
+                current.parsed.computeIfAbsent(
+                        name, key -> parser.apply(current.values.get(key)));
+    }
+
+    /**
+     * Returns the configuration in force. Without hot reload this is the environment the Lambda
+     * started with. With it, {@code NAME=value} lines in the {@code <environment>-tunables} SSM
+     * parameter override the environment for the names in {@link #TUNABLES}. Any other name is
+     * logged and ignored, so the parameter cannot change keys, secrets, redirect URIs or test
+     * client settings. The parameter is checked at most once per SSM cache
+     * TTL, and a new snapshot is taken when it has changed. Between checks getters only read the
+     * current snapshot.
+     */
+    private Snapshot snapshot() {
+        var current = snapshot;
+        if (!tunablesHotReloadEnabled) {
+            return current;
+        }
+        var now = clock.instant();
+        if (now.isBefore(nextTunablesCheck)) {
+            return current;
+        }
+        nextTunablesCheck = now.plus(getSsmParameterCacheTtl());
+        String tunables;
+        try {
+            tunables =
+                    getSsmParameterCache()
+                            .get(format("{0}-tunables", getEnvironment()))
+                            .orElse("");
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to read configuration tunables, keeping current values", e);
+            return current;
+        }
+        if (!tunables.equals(current.tunables)) {
+            current = new Snapshot(environment, tunables);
+            snapshot = current;
+            LOGGER.info("Reloaded configuration tunables");
+        }
+        return current;
+    }
+
+    private static class Snapshot {
+        private final Map<String, String> values;
+        private final String tunables;
+        private final Map<String, Object> parsed = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, String> environment, String tunables) {
+            this.tunables = tunables;
+            if (tunables.isEmpty()) {
+                this.values = environment;
+                return;
+            }
+            var overrides = new Properties();
+            try {
+                overrides.load(new StringReader(tunables));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            var merged = new HashMap<>(environment);
+            for (String name : overrides.stringPropertyNames()) {
+                if (TUNABLES.contains(name)) {
+                    merged.put(name, overrides.getProperty(name));
+                } else {
+                    LOGGER.warn("Ignoring tunable {} as it cannot be overridden", name);
+                }
+            }
+            this.values = Map.copyOf(merged);
+        }
     }
 }
@@ -10,28 +10,62 @@ import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.UpdateClientConfigRequest;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class DynamoClientService implements ClientService {
 
     private static final String CLIENT_REGISTRY_TABLE = "client-registry";
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+    private static final Duration NEGATIVE_CACHE_TTL = Duration.ofSeconds(30);
+    private static final int MAX_CACHED_CLIENTS = 500;
+
     private final DynamoDBMapper clientRegistryMapper;
     private final AmazonDynamoDB dynamoDB;
+    private final Duration cacheTtl;
+    private final Duration negativeCacheTtl;
+    private final Clock clock;
+    private final Map<String, CachedClient> cache =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedClient> eldest) {
+                    return size() > MAX_CACHED_CLIENTS;
+                }
+            };
 
     public DynamoClientService(String region, String environment, Optional<String> dynamoEndpoint) {
-        String tableName = environment + "-" + CLIENT_REGISTRY_TABLE;
-        dynamoDB =
-                dynamoEndpoint
-                        .map(
-                                t ->
-                                        AmazonDynamoDBClientBuilder.standard()
-                                                .withEndpointConfiguration(
-                                                        new AwsClientBuilder.EndpointConfiguration(
-                                                                t, region)))
-                        .orElse(AmazonDynamoDBClientBuilder.standard().withRegion(region))
-                        .build();
+        this(buildClient(region, dynamoEndpoint), environment + "-" + CLIENT_REGISTRY_TABLE);
+    }
 
+    private DynamoClientService(AmazonDynamoDB dynamoDB, String tableName) {
+        this(
+                dynamoDB,
+                buildMapper(dynamoDB, tableName),
+                CACHE_TTL,
+                NEGATIVE_CACHE_TTL,
+                Clock.systemUTC());
+        warmUp(tableName);
+    }
+
+    DynamoClientService(
+            AmazonDynamoDB dynamoDB,
+            DynamoDBMapper clientRegistryMapper,
+            Duration cacheTtl,
+            Duration negativeCacheTtl,
+            Clock clock) {
+        this.dynamoDB = dynamoDB;
+        this.clientRegistryMapper = clientRegistryMapper;
+        this.cacheTtl = cacheTtl;
+        this.negativeCacheTtl = negativeCacheTtl;
+        this.clock = clock;
+    }
+
+    private static DynamoDBMapper buildMapper(AmazonDynamoDB dynamoDB, String tableName) {
         DynamoDBMapperConfig clientRegistryConfig =
                 new DynamoDBMapperConfig.Builder()
                         .withTableNameOverride(
@@ -39,13 +73,24 @@ public class DynamoClientService implements ClientService {
                                         tableName))
                         .build();
 
-        this.clientRegistryMapper = new DynamoDBMapper(dynamoDB, clientRegistryConfig);
-        warmUp(tableName);
+        return new DynamoDBMapper(dynamoDB, clientRegistryConfig);
+    }
+
+    private static AmazonDynamoDB buildClient(String region, Optional<String> dynamoEndpoint) {
+        return dynamoEndpoint
+                .map(
+                        t ->
+                                AmazonDynamoDBClientBuilder.standard()
+                                        .withEndpointConfiguration(
+                                                new AwsClientBuilder.EndpointConfiguration(
+                                                        t, region)))
+                .orElse(AmazonDynamoDBClientBuilder.standard().withRegion(region))
+                .build();
     }
 
     @Override
     public boolean isValidClient(String clientId) {
-        return clientRegistryMapper.load(ClientRegistry.class, clientId) != null;
+        return getClient(clientId).isPresent();
     }
 
     @Override
@@ -73,6 +118,7 @@ public class DynamoClientService implements ClientService {
                         .setSectorIdentifierUri(sectorIdentifierUri)
                         .setSubjectType(subjectType);
         clientRegistryMapper.save(clientRegistry);
+        invalidate(clientID);
     }
 
     @Override
@@ -89,12 +135,32 @@ public class DynamoClientService implements ClientService {
         Optional.ofNullable(updateRequest.getServiceType())
                 .ifPresent(clientRegistry::setServiceType);
         clientRegistryMapper.save(clientRegistry);
+        invalidate(clientId);
         return clientRegistry;
     }
 
+    /**
+     * Returns the client from the in-memory cache when it is within its TTL, and otherwise reloads
+     * it. Unknown client IDs are cached for a shorter time so that repeated requests with bogus IDs
+     * do not each reach DynamoDB.
+     */
     @Override
     public Optional<ClientRegistry> getClient(String clientId) {
-        return Optional.ofNullable(clientRegistryMapper.load(ClientRegistry.class, clientId));
+        Instant now = clock.instant();
+        CachedClient cached;
+        synchronized (cache) {
+            cached = cache.get(clientId);
+        }
+        if (cached != null && now.isBefore(cached.expiresAt)) {
+            return cached.client;
+        }
+
+        var client = Optional.ofNullable(clientRegistryMapper.load(ClientRegistry.class, clientId));
+        Duration ttl = client.isPresent() ? cacheTtl : negativeCacheTtl;
+        synchronized (cache) {
+            cache.put(clientId, new CachedClient(client, now.plus(ttl)));
+        }
+        return client;
     }
 
     @Override
@@ -102,7 +168,23 @@ public class DynamoClientService implements ClientService {
         return new ClientID(IdGenerator.generate());
     }
 
+    private void invalidate(String clientId) {
+        synchronized (cache) {
+            cache.remove(clientId);
+        }
+    }
+
     private void warmUp(String tableName) {
         dynamoDB.describeTable(tableName);
     }
+
+    private static class CachedClient {
+        private final Optional<ClientRegistry> client;
+        private final Instant expiresAt;
+
+        private CachedClient(Optional<ClientRegistry> client, Instant expiresAt) {
+            this.client = client;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
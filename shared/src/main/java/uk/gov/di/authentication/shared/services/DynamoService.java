@@ -1,49 +1,76 @@
 package uk.gov.di.authentication.shared.services;
 
+import com.amazonaws.SdkBaseException;
 import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.retry.RetryUtils;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.nimbusds.oauth2.sdk.id.Subject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.ClientConsent;
 import uk.gov.di.authentication.shared.entity.TermsAndConditions;
 import uk.gov.di.authentication.shared.entity.UserCredentials;
 import uk.gov.di.authentication.shared.entity.UserProfile;
+import uk.gov.di.authentication.shared.helpers.Argon2Cost;
 import uk.gov.di.authentication.shared.helpers.Argon2EncoderHelper;
 import uk.gov.di.authentication.shared.helpers.Argon2MatcherHelper;
 import uk.gov.di.authentication.shared.helpers.PhoneNumberHelper;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static java.lang.String.format;
 import static java.util.Objects.nonNull;
 
 public class DynamoService implements AuthenticationService {
 
+    private static final Logger LOG = LogManager.getLogger(DynamoService.class);
+
     private final DynamoDBMapper userCredentialsMapper;
     private final DynamoDBMapper userProfileMapper;
     private static final String USER_CREDENTIALS_TABLE = "user-credentials";
     private static final String USER_PROFILE_TABLE = "user-profile";
+    private static final int MAX_BATCH_WRITE_ATTEMPTS = 5;
+    private static final long BATCH_WRITE_BACKOFF_MILLIS = 100;
     private final AmazonDynamoDB dynamoDB;
+    private final Argon2Cost passwordHashCost;
 
     public DynamoService(ConfigurationService configurationService) {
         this(
                 configurationService.getAwsRegion(),
                 configurationService.getEnvironment(),
-                configurationService.getDynamoEndpointUri());
+                configurationService.getDynamoEndpointUri(),
+                configurationService.getArgon2Cost());
     }
 
     public DynamoService(String region, String environment, Optional<String> dynamoEndpoint) {
+        this(region, environment, dynamoEndpoint, Argon2Cost.DEFAULT);
+    }
+
+    public DynamoService(
+            String region,
+            String environment,
+            Optional<String> dynamoEndpoint,
+            Argon2Cost passwordHashCost) {
+        this.passwordHashCost = passwordHashCost;
         dynamoDB =
                 dynamoEndpoint
                         .map(
@@ -108,7 +135,39 @@ public class DynamoService implements AuthenticationService {
     public boolean login(String email, String password) {
         UserCredentials userCredentials =
                 userCredentialsMapper.load(UserCredentials.class, email.toLowerCase(Locale.ROOT));
-        return verifyPassword(userCredentials.getPassword(), password);
+        return login(userCredentials, password);
+    }
+
+    /**
+     * Verifies the password and, if the stored hash was made with a cheaper Argon2 cost than the
+     * one configured, replaces it with a hash at the current cost. The upgrade is only written if
+     * the stored hash is still the one verified, so a password changed in the meantime is never
+     * overwritten. A failed upgrade is logged and retried at the next login; it never fails the
+     * login itself.
+     */
+    @Override
+    public boolean login(UserCredentials userCredentials, String password) {
+        if (!verifyPassword(userCredentials.getPassword(), password)) {
+            return false;
+        }
+        if (Argon2MatcherHelper.needsRehash(userCredentials.getPassword(), passwordHashCost)) {
+            var verifiedHash = new AttributeValue(userCredentials.getPassword());
+            try {
+                userCredentialsMapper.save(
+                        userCredentials
+                                .setPassword(hashPassword(password))
+                                .setUpdated(LocalDateTime.now().toString()),
+                        new DynamoDBSaveExpression()
+                                .withExpectedEntry(
+                                        "Password", new ExpectedAttributeValue(verifiedHash)));
+                LOG.info("Upgraded password hash to {}", passwordHashCost);
+            } catch (ConditionalCheckFailedException e) {
+                LOG.info("Password changed during login, so its hash was not upgraded");
+            } catch (RuntimeException e) {
+                LOG.warn("Unable to upgrade password hash", e);
+            }
+        }
+        return true;
     }
 
     @Override
@@ -232,8 +291,52 @@ public class DynamoService implements AuthenticationService {
     @Override
     public void bulkAdd(
             List<UserCredentials> userCredentialsList, List<UserProfile> userProfileList) {
-        userCredentialsMapper.batchSave(userCredentialsList);
-        userProfileMapper.batchSave(userProfileList);
+        var failedBatches = new ArrayList<>(userCredentialsMapper.batchSave(userCredentialsList));
+        failedBatches.addAll(userProfileMapper.batchSave(userProfileList));
+        for (var failedBatch : failedBatches) {
+            var exception = failedBatch.getException();
+            if (exception != null && !isThrottling(exception)) {
+                throw new RuntimeException(
+                        format(
+                                "Unable to write batch of %d items",
+                                failedBatch.getUnprocessedItems().values().stream()
+                                        .mapToInt(List::size)
+                                        .sum()),
+                        exception);
+            }
+            retryUnprocessedItems(failedBatch.getUnprocessedItems());
+        }
+    }
+
+    /**
+     * Only throttled batches are worth retrying. Anything else, such as a validation error, would
+     * fail the same way on every attempt.
+     */
+    private static boolean isThrottling(Exception exception) {
+        return exception instanceof SdkBaseException
+                && RetryUtils.isThrottlingException((SdkBaseException) exception);
+    }
+
+    private void retryUnprocessedItems(Map<String, List<WriteRequest>> unprocessedItems) {
+        for (int attempt = 1; !unprocessedItems.isEmpty(); attempt++) {
+            if (attempt > MAX_BATCH_WRITE_ATTEMPTS) {
+                throw new RuntimeException(
+                        format(
+                                "Unable to write %d items after %d attempts",
+                                unprocessedItems.values().stream().mapToInt(List::size).sum(),
+                                MAX_BATCH_WRITE_ATTEMPTS));
+            }
+            long backoff = BATCH_WRITE_BACKOFF_MILLIS << (attempt - 1);
+            try {
+                Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            unprocessedItems =
+                    dynamoDB.batchWriteItem(new BatchWriteItemRequest(unprocessedItems))
+                            .getUnprocessedItems();
+        }
     }
 
     @Override
@@ -315,8 +418,8 @@ public class DynamoService implements AuthenticationService {
         return scanPage.getResults().get(0);
     }
 
-    private static String hashPassword(String password) {
-        return Argon2EncoderHelper.argon2Hash(password);
+    private String hashPassword(String password) {
+        return Argon2EncoderHelper.argon2Hash(password, passwordHashCost);
     }
 
     private static boolean verifyPassword(String hashedPassword, String password) {
@@ -1,8 +1,13 @@
 package uk.gov.di.authentication.shared.services;
 
 import com.amazonaws.client.builder.AwsClientBuilder;
-import com.amazonaws.services.kms.AWSKMS;
-import com.amazonaws.services.kms.AWSKMSClientBuilder;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.kms.AWSKMSAsync;
+import com.amazonaws.services.kms.AWSKMSAsyncClientBuilder;
+import com.amazonaws.services.kms.model.DecryptRequest;
+import com.amazonaws.services.kms.model.DecryptResult;
+import com.amazonaws.services.kms.model.EncryptRequest;
+import com.amazonaws.services.kms.model.EncryptResult;
 import com.amazonaws.services.kms.model.GetPublicKeyRequest;
 import com.amazonaws.services.kms.model.GetPublicKeyResult;
 import com.amazonaws.services.kms.model.SignRequest;
@@ -14,10 +19,11 @@ import org.apache.logging.log4j.Logger;
 
 import java.nio.ByteBuffer;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class KmsConnectionService {
 
-    private final AWSKMS kmsClient;
+    private final AWSKMSAsync kmsClient;
     private static final Logger LOGGER = LogManager.getLogger(KmsConnectionService.class);
 
     public KmsConnectionService(ConfigurationService configurationService) {
@@ -29,18 +35,26 @@ public class KmsConnectionService {
 
     public KmsConnectionService(
             Optional<String> localstackEndpointUri, String awsRegion, String tokenSigningKeyId) {
+        this(localstackEndpointUri, awsRegion);
+        warmUp(tokenSigningKeyId);
+    }
+
+    /**
+     * For keys without a public key, such as symmetric encryption keys, so no GetPublicKey call is
+     * made to warm up the client.
+     */
+    public KmsConnectionService(Optional<String> localstackEndpointUri, String awsRegion) {
         if (localstackEndpointUri.isPresent()) {
             LOGGER.info("Localstack endpoint URI is present: " + localstackEndpointUri.get());
             this.kmsClient =
-                    AWSKMSClientBuilder.standard()
+                    AWSKMSAsyncClientBuilder.standard()
                             .withEndpointConfiguration(
                                     new AwsClientBuilder.EndpointConfiguration(
                                             localstackEndpointUri.get(), awsRegion))
                             .build();
         } else {
-            this.kmsClient = AWSKMSClientBuilder.standard().withRegion(awsRegion).build();
+            this.kmsClient = AWSKMSAsyncClientBuilder.standard().withRegion(awsRegion).build();
         }
-        warmUp(tokenSigningKeyId);
     }
 
     public GetPublicKeyResult getPublicKey(GetPublicKeyRequest getPublicKeyRequest) {
@@ -65,6 +79,36 @@ public class KmsConnectionService {
         return kmsClient.sign(signRequest);
     }
 
+    public CompletableFuture<SignResult> signAsync(SignRequest signRequest) {
+        LOGGER.info(
+                "Calling KMS asynchronously with SignRequest and KeyId {}", signRequest.getKeyId());
+        CompletableFuture<SignResult> result = new CompletableFuture<>();
+        kmsClient.signAsync(
+                signRequest,
+                new AsyncHandler<>() {
+                    @Override
+                    public void onError(Exception exception) {
+                        result.completeExceptionally(exception);
+                    }
+
+                    @Override
+                    public void onSuccess(SignRequest request, SignResult signResult) {
+                        result.complete(signResult);
+                    }
+                });
+        return result;
+    }
+
+    public EncryptResult encrypt(EncryptRequest encryptRequest) {
+        LOGGER.info("Calling KMS with EncryptRequest and KeyId {}", encryptRequest.getKeyId());
+        return kmsClient.encrypt(encryptRequest);
+    }
+
+    public DecryptResult decrypt(DecryptRequest decryptRequest) {
+        LOGGER.info("Calling KMS with DecryptRequest and KeyId {}", decryptRequest.getKeyId());
+        return kmsClient.decrypt(decryptRequest);
+    }
+
     private void warmUp(String keyId) {
         GetPublicKeyRequest request = new GetPublicKeyRequest();
         request.setKeyId(keyId);
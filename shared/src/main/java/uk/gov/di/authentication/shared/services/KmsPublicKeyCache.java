@@ -0,0 +1,218 @@
+package uk.gov.di.authentication.shared.services;
+
+import com.amazonaws.services.kms.model.GetPublicKeyRequest;
+import com.amazonaws.services.kms.model.GetPublicKeyResult;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.KeyUse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the public half of KMS signing keys in memory, keyed by key alias, so that signatures can
+ * be verified locally without a KMS round trip. Entries older than the TTL are still served while
+ * a single background refresh replaces them.
+ */
+public class KmsPublicKeyCache {
+
+    private static final Logger LOG = LogManager.getLogger(KmsPublicKeyCache.class);
+    private static final Duration MIN_FORCED_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    private final KmsConnectionService kmsConnectionService;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    private final Map<String, CachedPublicKey> keys = new ConcurrentHashMap<>();
+    private final Set<String> refreshesInFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    public KmsPublicKeyCache(KmsConnectionService kmsConnectionService, Duration ttl) {
+        this(
+                kmsConnectionService,
+                ttl,
+                Clock.systemUTC(),
+                Executors.newSingleThreadExecutor(
+                        runnable -> {
+                            var thread = new Thread(runnable, "kms-public-key-refresh");
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    public KmsPublicKeyCache(
+            KmsConnectionService kmsConnectionService,
+            Duration ttl,
+            Clock clock,
+            Executor refreshExecutor) {
+        this.kmsConnectionService = kmsConnectionService;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public CachedPublicKey get(String keyAlias) {
+        var cached = keys.get(keyAlias);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return load(keyAlias);
+        }
+        hits.incrementAndGet();
+        if (cached.getFetchedAt().plus(ttl).isBefore(clock.instant())) {
+            refreshInBackground(keyAlias);
+        }
+        return cached;
+    }
+
+    /**
+     * Re-fetches the key for the alias straight away, e.g. after seeing a key ID we don't
+     * recognise. Forced refreshes are rate limited so that a stream of tokens with bogus key IDs
+     * cannot be amplified into KMS calls.
+     */
+    public CachedPublicKey refresh(String keyAlias) {
+        var cached = keys.get(keyAlias);
+        if (cached != null
+                && cached.getFetchedAt()
+                        .plus(MIN_FORCED_REFRESH_INTERVAL)
+                        .isAfter(clock.instant())) {
+            LOG.info("Public key for {} was refreshed recently, not refreshing again", keyAlias);
+            return cached;
+        }
+        return load(keyAlias);
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    private void refreshInBackground(String keyAlias) {
+        if (!refreshesInFlight.add(keyAlias)) {
+            return;
+        }
+        refreshExecutor.execute(
+                () -> {
+                    try {
+                        load(keyAlias);
+                    } catch (Exception e) {
+                        LOG.warn(
+                                "Unable to refresh public key for {}, keeping cached key",
+                                keyAlias,
+                                e);
+                    } finally {
+                        refreshesInFlight.remove(keyAlias);
+                    }
+                });
+    }
+
+    private CachedPublicKey load(String keyAlias) {
+        LOG.info("Fetching public key from KMS for {}", keyAlias);
+        GetPublicKeyResult result =
+                kmsConnectionService.getPublicKey(new GetPublicKeyRequest().withKeyId(keyAlias));
+        var publicKey = parsePublicKey(result.getPublicKey());
+        var cachedPublicKey =
+                new CachedPublicKey(keyAlias, result.getKeyId(), publicKey, clock.instant());
+        keys.put(keyAlias, cachedPublicKey);
+        refreshes.incrementAndGet();
+        LOG.info(
+                "Public key cache for {} updated. Hits: {}, misses: {}, refreshes: {}",
+                keyAlias,
+                hits.get(),
+                misses.get(),
+                refreshes.get());
+        return cachedPublicKey;
+    }
+
+    private static ECPublicKey parsePublicKey(ByteBuffer subjectPublicKeyInfo) {
+        var encoded = new byte[subjectPublicKeyInfo.remaining()];
+        subjectPublicKeyInfo.duplicate().get(encoded);
+        try {
+            return (ECPublicKey)
+                    KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            LOG.error("Error parsing the PublicKey returned by KMS", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static class CachedPublicKey {
+        private final String keyAlias;
+        private final String kmsKeyId;
+        private final ECPublicKey publicKey;
+        private final ECKey jwk;
+        private final JWSVerifier verifier;
+        private final Instant fetchedAt;
+
+        CachedPublicKey(
+                String keyAlias, String kmsKeyId, ECPublicKey publicKey, Instant fetchedAt) {
+            this.keyAlias = keyAlias;
+            this.kmsKeyId = kmsKeyId;
+            this.publicKey = publicKey;
+            this.fetchedAt = fetchedAt;
+            this.jwk =
+                    new ECKey.Builder(Curve.P_256, publicKey)
+                            .keyID(keyAlias)
+                            .keyUse(KeyUse.SIGNATURE)
+                            .algorithm(JWSAlgorithm.ES256)
+                            .build();
+            try {
+                this.verifier = new ECDSAVerifier(publicKey);
+            } catch (JOSEException e) {
+                LOG.error("Unable to create verifier for public key {}", keyAlias, e);
+                throw new RuntimeException(e);
+            }
+        }
+
+        public boolean matchesKeyId(String keyId) {
+            return keyAlias.equals(keyId)
+                    || Optional.ofNullable(kmsKeyId)
+                            .map(id -> id.equals(keyId) || id.endsWith("/" + keyId))
+                            .orElse(false);
+        }
+
+        public ECPublicKey getPublicKey() {
+            return publicKey;
+        }
+
+        public ECKey getJwk() {
+            return jwk;
+        }
+
+        public JWSVerifier getVerifier() {
+            return verifier;
+        }
+
+        public Instant getFetchedAt() {
+            return fetchedAt;
+        }
+    }
+}
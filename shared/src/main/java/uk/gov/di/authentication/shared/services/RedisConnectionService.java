@@ -1,77 +1,209 @@
 package uk.gov.di.authentication.shared.services;
 
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisNoScriptException;
 import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.TransactionResult;
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
 import io.lettuce.core.support.ConnectionPoolSupport;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
-public class RedisConnectionService implements AutoCloseable {
+public class RedisConnectionService implements AutoCloseable, RequestScoped {
+
+    private static final Logger LOG = LogManager.getLogger(RedisConnectionService.class);
+
+    private static final Map<String, RedisConnectionService> INSTANCES = new ConcurrentHashMap<>();
 
     private final RedisClient client;
 
     private final GenericObjectPool<StatefulRedisConnection<String, String>> pool;
 
+    private volatile StatefulRedisConnection<String, String> connection;
+
+    private volatile StatefulRedisConnection<String, byte[]> binaryConnection;
+
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    private final Map<String, String> scriptDigests = new ConcurrentHashMap<>();
+
+    private final Map<String, Optional<byte[]>> prefetched = new ConcurrentHashMap<>();
+
+    private final boolean shared;
+
     public RedisConnectionService(
             String host, int port, boolean useSsl, Optional<String> password) {
-        RedisURI.Builder builder = RedisURI.builder().withHost(host).withPort(port).withSsl(useSsl);
-        password.ifPresent(s -> builder.withPassword(s.toCharArray()));
-        RedisURI redisURI = builder.build();
-        this.client = RedisClient.create(redisURI);
-        this.pool =
-                ConnectionPoolSupport.createGenericObjectPool(
-                        client::connect, new GenericObjectPoolConfig());
-        warmUp();
+        this(host, port, useSsl, password, GenericObjectPoolConfig.DEFAULT_MAX_TOTAL);
+    }
+
+    public RedisConnectionService(
+            String host, int port, boolean useSsl, Optional<String> password, int maxPoolSize) {
+        this(host, port, useSsl, password, maxPoolSize, false);
     }
 
     public RedisConnectionService(ConfigurationService configurationService) {
+        this(configurationService, false);
+    }
+
+    private RedisConnectionService(ConfigurationService configurationService, boolean shared) {
         this(
                 configurationService.getRedisHost(),
                 configurationService.getRedisPort(),
                 configurationService.getUseRedisTLS(),
-                configurationService.getRedisPassword());
+                configurationService.getRedisPassword(),
+                configurationService.getRedisMaxPoolSize(),
+                shared);
+    }
+
+    private RedisConnectionService(
+            String host,
+            int port,
+            boolean useSsl,
+            Optional<String> password,
+            int maxPoolSize,
+            boolean shared) {
+        this.shared = shared;
+        RedisURI.Builder builder = RedisURI.builder().withHost(host).withPort(port).withSsl(useSsl);
+        password.ifPresent(s -> builder.withPassword(s.toCharArray()));
+        RedisURI redisURI = builder.build();
+        this.client = RedisClient.create(redisURI);
+        var poolConfig = new GenericObjectPoolConfig<StatefulRedisConnection<String, String>>();
+        poolConfig.setMaxTotal(maxPoolSize);
+        this.pool = ConnectionPoolSupport.createGenericObjectPool(client::connect, poolConfig);
+        warmUp();
+    }
+
+    /**
+     * Returns the connection service for the configured Redis, creating it on first use. All
+     * services in the JVM share the one client and its multiplexed connection, so a handler opens
+     * a single socket to Redis however many services it builds. For the same reason {@link
+     * #close()} does nothing on it.
+     */
+    public static RedisConnectionService getInstance(ConfigurationService configurationService) {
+        String key =
+                String.join(
+                        ":",
+                        configurationService.getRedisHost(),
+                        String.valueOf(configurationService.getRedisPort()),
+                        String.valueOf(configurationService.getUseRedisTLS()));
+        return INSTANCES.computeIfAbsent(
+                key, k -> new RedisConnectionService(configurationService, true));
     }
 
     public void saveWithExpiry(String key, String value, long expiry) {
-        try (StatefulRedisConnection<String, String> connection = pool.borrowObject()) {
-            connection.sync().setex(key, expiry, value);
+        prefetched.remove(key);
+        try {
+            roundTrips.incrementAndGet();
+            getConnection().sync().setex(key, expiry, value);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
     public boolean keyExists(String key) {
-        try (StatefulRedisConnection<String, String> connection = pool.borrowObject()) {
-            return (connection.sync().exists(key) == 1);
+        var cached = prefetched.get(key);
+        if (cached != null) {
+            return cached.isPresent();
+        }
+        try {
+            roundTrips.incrementAndGet();
+            return (getConnection().sync().exists(key) == 1);
         } catch (Exception e) {
             return false;
         }
     }
 
     public String getValue(String key) {
-        try (StatefulRedisConnection<String, String> connection = pool.borrowObject()) {
-            return connection.sync().get(key);
+        var cached = prefetched.get(key);
+        if (cached != null) {
+            return cached.map(value -> new String(value, StandardCharsets.UTF_8)).orElse(null);
+        }
+        try {
+            roundTrips.incrementAndGet();
+            return getConnection().sync().get(key);
         } catch (Exception e) {
             return null;
         }
     }
 
     public long deleteValue(String key) {
-        try (StatefulRedisConnection<String, String> connection = pool.borrowObject()) {
-            return connection.sync().del(key);
+        prefetched.remove(key);
+        try {
+            roundTrips.incrementAndGet();
+            return getConnection().sync().del(key);
         } catch (Exception e) {
             return 0;
         }
     }
 
+    public void saveWithExpiry(String key, byte[] value, long expiry) {
+        prefetched.remove(key);
+        try {
+            roundTrips.incrementAndGet();
+            getBinaryConnection().sync().setex(key, expiry, value);
+        } catch (Exception e) {
+            LOG.error("Error saving value to Redis", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    public byte[] getBytes(String key) {
+        var cached = prefetched.get(key);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        try {
+            roundTrips.incrementAndGet();
+            return getBinaryConnection().sync().get(key);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /** Binary equivalent of {@link #getValues(List)}, for values that are not UTF-8 strings. */
+    public List<Optional<byte[]>> getByteValues(List<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (prefetched.keySet().containsAll(keys)) {
+            return keys.stream().map(prefetched::get).collect(Collectors.toList());
+        }
+        try {
+            roundTrips.incrementAndGet();
+            return getBinaryConnection().sync().mget(keys.toArray(new String[0])).stream()
+                    .map(KeyValue::optional)
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            LOG.error("Error getting values from Redis", e);
+            return keys.stream().map(k -> Optional.<byte[]>empty()).collect(Collectors.toList());
+        }
+    }
+
     public String popValue(String key) {
+        prefetched.remove(key);
+        // MULTI/EXEC needs a connection to itself, so transactions use the pool rather than the
+        // shared connection.
         try (StatefulRedisConnection<String, String> connection = pool.borrowObject()) {
             RedisCommands<String, String> commands = connection.sync();
+            roundTrips.addAndGet(4);
             commands.multi();
             commands.get(key);
             commands.del(key);
@@ -82,9 +214,134 @@ public class RedisConnectionService implements AutoCloseable {
         }
     }
 
-    private void warmUp() {
+    /**
+     * Runs a Lua script on the server, where it executes atomically in one round trip. Scripts
+     * are sent by their SHA1 digest, and only sent in full when Redis has not cached them yet.
+     */
+    public <T> T evalScript(String script, ScriptOutputType type, String[] keys, String... args) {
+        for (String key : keys) {
+            prefetched.remove(key);
+        }
+        var commands = getConnection().sync();
+        roundTrips.incrementAndGet();
+        String digest = scriptDigests.computeIfAbsent(script, commands::digest);
+        try {
+            return commands.evalsha(digest, type, keys, args);
+        } catch (RedisNoScriptException e) {
+            return commands.eval(script, type, keys, args);
+        }
+    }
+
+    /**
+     * Fetches several keys with a single MGET. The result has one entry per key, in the same
+     * order, which is empty when the key does not exist.
+     */
+    public List<Optional<String>> getValues(List<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (prefetched.keySet().containsAll(keys)) {
+            return keys.stream()
+                    .map(prefetched::get)
+                    .map(value -> value.map(v -> new String(v, StandardCharsets.UTF_8)))
+                    .collect(Collectors.toList());
+        }
+        try {
+            roundTrips.incrementAndGet();
+            return getConnection().sync().mget(keys.toArray(new String[0])).stream()
+                    .map(KeyValue::optional)
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            LOG.error("Error getting values from Redis", e);
+            return keys.stream().map(k -> Optional.<String>empty()).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Reads the given keys with one MGET and answers later reads of any of them from the result
+     * until {@link #endRequest()}, so a handler can fetch everything it is about to read in a
+     * single round trip. Writes and deletes through this service drop the key from the result, so
+     * a request always sees its own changes. Nothing is kept if the MGET fails.
+     */
+    public void prefetch(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            roundTrips.incrementAndGet();
+            List<KeyValue<String, byte[]>> values =
+                    getBinaryConnection().sync().mget(keys.toArray(new String[0]));
+            values.forEach(value -> prefetched.put(value.getKey(), value.optional()));
+        } catch (Exception e) {
+            LOG.error("Error prefetching values from Redis", e);
+        }
+    }
+
+    /**
+     * Queues every command issued on the {@link RedisPipeline} without flushing, then sends them
+     * together and waits for all the replies. The pipeline runs on a pooled connection, because
+     * holding back flushes on the shared connection would also hold back other callers. The
+     * futures returned by the pipeline are complete once this method returns, exceptionally if
+     * their command failed or timed out, and the first failure is rethrown.
+     */
+    public void pipelined(Consumer<RedisPipeline> commands) {
+        prefetched.clear();
         try (StatefulRedisConnection<String, String> connection = pool.borrowObject()) {
-            connection.sync().clientGetname();
+            var pipeline = new RedisPipeline(connection.async());
+            connection.setAutoFlushCommands(false);
+            try {
+                commands.accept(pipeline);
+            } finally {
+                connection.flushCommands();
+                connection.setAutoFlushCommands(true);
+                roundTrips.incrementAndGet();
+                pipeline.awaitAll(connection.getTimeout());
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Error executing Redis pipeline", e);
+            throw e;
+        } catch (Exception e) {
+            LOG.error("Unable to get a Redis connection for the pipeline", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    public long getRoundTripCount() {
+        return roundTrips.get();
+    }
+
+    @Override
+    public void endRequest() {
+        prefetched.clear();
+    }
+
+    private StatefulRedisConnection<String, String> getConnection() {
+        if (connection == null) {
+            synchronized (this) {
+                if (connection == null) {
+                    connection = client.connect();
+                }
+            }
+        }
+        return connection;
+    }
+
+    private StatefulRedisConnection<String, byte[]> getBinaryConnection() {
+        if (binaryConnection == null) {
+            synchronized (this) {
+                if (binaryConnection == null) {
+                    binaryConnection =
+                            client.connect(
+                                    RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+                }
+            }
+        }
+        return binaryConnection;
+    }
+
+    private void warmUp() {
+        try {
+            getConnection().sync().clientGetname();
         } catch (Exception e) {
 
         }
@@ -92,6 +349,16 @@ public class RedisConnectionService implements AutoCloseable {
 
     @Override
     public void close() {
+        if (shared) {
+            LOG.warn("Ignoring close of the shared Redis connection service");
+            return;
+        }
+        if (connection != null) {
+            connection.close();
+        }
+        if (binaryConnection != null) {
+            binaryConnection.close();
+        }
         pool.close();
         client.shutdown();
     }
@@ -0,0 +1,59 @@
+package uk.gov.di.authentication.shared.services;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class RedisPipeline {
+
+    private final RedisAsyncCommands<String, String> commands;
+    private final List<RedisFuture<?>> futures = new ArrayList<>();
+
+    RedisPipeline(RedisAsyncCommands<String, String> commands) {
+        this.commands = commands;
+    }
+
+    public CompletableFuture<String> getValue(String key) {
+        return track(commands.get(key));
+    }
+
+    public CompletableFuture<Boolean> keyExists(String key) {
+        return track(commands.exists(key)).thenApply(count -> count == 1);
+    }
+
+    public CompletableFuture<String> saveWithExpiry(String key, String value, long expiry) {
+        return track(commands.setex(key, expiry, value));
+    }
+
+    public CompletableFuture<Long> deleteValue(String key) {
+        return track(commands.del(key));
+    }
+
+    /**
+     * Waits for every queued command. If any fails or the timeout passes, the commands still
+     * outstanding are completed with the same failure before it is thrown, so no caller is left
+     * waiting on a future that will never complete.
+     */
+    void awaitAll(Duration timeout) {
+        try {
+            if (!LettuceFutures.awaitAll(timeout, futures.toArray(new RedisFuture[0]))) {
+                throw new RedisCommandTimeoutException(
+                        "Redis pipeline did not complete within " + timeout);
+            }
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.toCompletableFuture().completeExceptionally(e));
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> track(RedisFuture<T> future) {
+        futures.add(future);
+        return future.toCompletableFuture();
+    }
+}
@@ -0,0 +1,31 @@
+package uk.gov.di.authentication.shared.services;
+
+import java.util.List;
+
+/** A service that holds state for a single invocation and is reset before the next one. */
+public interface RequestScoped {
+
+    void endRequest();
+
+    /**
+     * Ends the request on every service, even when one of them fails, then rethrows the first
+     * failure with any later ones suppressed.
+     */
+    static void endRequests(List<? extends RequestScoped> services) {
+        RuntimeException failure = null;
+        for (var service : services) {
+            try {
+                service.endRequest();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
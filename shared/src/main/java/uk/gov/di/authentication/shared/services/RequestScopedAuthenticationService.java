@@ -0,0 +1,217 @@
+package uk.gov.di.authentication.shared.services;
+
+import com.nimbusds.oauth2.sdk.id.Subject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.authentication.shared.entity.ClientConsent;
+import uk.gov.di.authentication.shared.entity.TermsAndConditions;
+import uk.gov.di.authentication.shared.entity.UserCredentials;
+import uk.gov.di.authentication.shared.entity.UserProfile;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Read-through identity map in front of an {@link AuthenticationService}. Each user profile and
+ * set of credentials is loaded at most once per request, and any write clears what has been read
+ * so far. {@link #endRequest()} must be called once the request has been handled.
+ */
+public class RequestScopedAuthenticationService implements AuthenticationService, RequestScoped {
+
+    private static final Logger LOG =
+            LogManager.getLogger(RequestScopedAuthenticationService.class);
+
+    private final AuthenticationService delegate;
+    private final Map<String, Optional<UserProfile>> profilesByEmail = new HashMap<>();
+    private final Map<String, UserProfile> profilesBySubject = new HashMap<>();
+    private final Map<String, Optional<UserCredentials>> credentialsByEmail = new HashMap<>();
+    private int dynamoCallCount;
+
+    public RequestScopedAuthenticationService(AuthenticationService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean userExists(String email) {
+        return getUserProfileByEmail(email) != null;
+    }
+
+    @Override
+    public void signUp(
+            String email, String password, Subject subject, TermsAndConditions termsAndConditions) {
+        write(() -> delegate.signUp(email, password, subject, termsAndConditions));
+    }
+
+    @Override
+    public boolean login(String email, String password) {
+        return login(getUserCredentialsFromEmail(email), password);
+    }
+
+    @Override
+    public boolean login(UserCredentials userCredentials, String password) {
+        return delegate.login(userCredentials, password);
+    }
+
+    @Override
+    public Subject getSubjectFromEmail(String email) {
+        return new Subject(getUserProfileByEmail(email).getSubjectID());
+    }
+
+    @Override
+    public void updatePhoneNumber(String email, String profileInformation) {
+        write(() -> delegate.updatePhoneNumber(email, profileInformation));
+    }
+
+    @Override
+    public void updateConsent(String email, ClientConsent clientConsent) {
+        write(() -> delegate.updateConsent(email, clientConsent));
+    }
+
+    @Override
+    public UserProfile getUserProfileByEmail(String email) {
+        Optional<UserProfile> cached = profilesByEmail.get(key(email));
+        if (nonNull(cached)) {
+            return cached.orElse(null);
+        }
+        UserProfile userProfile = read(() -> delegate.getUserProfileByEmail(email));
+        profilesByEmail.put(key(email), Optional.ofNullable(userProfile));
+        remember(userProfile);
+        return userProfile;
+    }
+
+    @Override
+    public Optional<List<ClientConsent>> getUserConsents(String email) {
+        return Optional.ofNullable(getUserProfileByEmail(email).getClientConsent());
+    }
+
+    @Override
+    public void updatePhoneNumberVerifiedStatus(String email, boolean verifiedStatus) {
+        write(() -> delegate.updatePhoneNumberVerifiedStatus(email, verifiedStatus));
+    }
+
+    @Override
+    public Optional<String> getPhoneNumber(String email) {
+        return Optional.ofNullable(getUserProfileByEmail(email).getPhoneNumber());
+    }
+
+    @Override
+    public UserProfile getUserProfileFromSubject(String subject) {
+        UserProfile cached = profilesBySubject.get(subject);
+        if (nonNull(cached)) {
+            return cached;
+        }
+        UserProfile userProfile = read(() -> delegate.getUserProfileFromSubject(subject));
+        remember(userProfile);
+        return userProfile;
+    }
+
+    @Override
+    public UserProfile getUserProfileFromPublicSubject(String subject) {
+        return read(() -> delegate.getUserProfileFromPublicSubject(subject));
+    }
+
+    @Override
+    public void updateTermsAndConditions(String email, String version) {
+        write(() -> delegate.updateTermsAndConditions(email, version));
+    }
+
+    @Override
+    public void updateEmail(String currentEmail, String newEmail) {
+        write(() -> delegate.updateEmail(currentEmail, newEmail));
+    }
+
+    @Override
+    public void updatePassword(String email, String newPassword) {
+        write(() -> delegate.updatePassword(email, newPassword));
+    }
+
+    @Override
+    public void removeAccount(String email) {
+        write(() -> delegate.removeAccount(email));
+    }
+
+    @Override
+    public UserCredentials getUserCredentialsFromSubject(String subject) {
+        return read(() -> delegate.getUserCredentialsFromSubject(subject));
+    }
+
+    @Override
+    public Optional<UserProfile> getUserProfileFromEmail(String email) {
+        if (nonNull(email) && !email.isBlank()) {
+            UserCredentials userCredentials = getUserCredentialsFromEmail(email);
+
+            if (nonNull(userCredentials)) {
+                return Optional.of(getUserProfileFromSubject(userCredentials.getSubjectID()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public UserCredentials getUserCredentialsFromEmail(String email) {
+        return credentialsByEmail
+                .computeIfAbsent(
+                        key(email),
+                        k ->
+                                Optional.ofNullable(
+                                        read(() -> delegate.getUserCredentialsFromEmail(k))))
+                .orElse(null);
+    }
+
+    @Override
+    public void migrateLegacyPassword(String email, String password) {
+        write(() -> delegate.migrateLegacyPassword(email, password));
+    }
+
+    @Override
+    public void bulkAdd(
+            List<UserCredentials> userCredentialsList, List<UserProfile> userProfileList) {
+        write(() -> delegate.bulkAdd(userCredentialsList, userProfileList));
+    }
+
+    public int getDynamoCallCount() {
+        return dynamoCallCount;
+    }
+
+    @Override
+    public void endRequest() {
+        LOG.info("User store was called {} times during the request", dynamoCallCount);
+        clear();
+        dynamoCallCount = 0;
+    }
+
+    private <T> T read(Supplier<T> call) {
+        dynamoCallCount++;
+        return call.get();
+    }
+
+    private void write(Runnable call) {
+        clear();
+        dynamoCallCount++;
+        call.run();
+    }
+
+    /** A profile is the same entity whichever key it was loaded by, so index it by both. */
+    private void remember(UserProfile userProfile) {
+        if (nonNull(userProfile)) {
+            profilesByEmail.put(key(userProfile.getEmail()), Optional.of(userProfile));
+            profilesBySubject.put(userProfile.getSubjectID(), userProfile);
+        }
+    }
+
+    private void clear() {
+        profilesByEmail.clear();
+        profilesBySubject.clear();
+        credentialsByEmail.clear();
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
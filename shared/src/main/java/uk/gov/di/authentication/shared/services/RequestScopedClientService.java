@@ -0,0 +1,94 @@
+package uk.gov.di.authentication.shared.services;
+
+import com.nimbusds.oauth2.sdk.id.ClientID;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.UpdateClientConfigRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through identity map in front of a {@link ClientService}. Each client is loaded at most
+ * once per request. {@link #endRequest()} must be called once the request has been handled.
+ */
+public class RequestScopedClientService implements ClientService, RequestScoped {
+
+    private static final Logger LOG = LogManager.getLogger(RequestScopedClientService.class);
+
+    private final ClientService delegate;
+    private final Map<String, Optional<ClientRegistry>> clients = new HashMap<>();
+    private int dynamoCallCount;
+
+    public RequestScopedClientService(ClientService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isValidClient(String clientId) {
+        return getClient(clientId).isPresent();
+    }
+
+    @Override
+    public void addClient(
+            String clientID,
+            String clientName,
+            List<String> redirectUris,
+            List<String> contacts,
+            List<String> scopes,
+            String publicKey,
+            List<String> postLogoutRedirectUris,
+            String serviceType,
+            String sectorIdentifierUri,
+            String subjectType) {
+        clients.remove(clientID);
+        dynamoCallCount++;
+        delegate.addClient(
+                clientID,
+                clientName,
+                redirectUris,
+                contacts,
+                scopes,
+                publicKey,
+                postLogoutRedirectUris,
+                serviceType,
+                sectorIdentifierUri,
+                subjectType);
+    }
+
+    @Override
+    public Optional<ClientRegistry> getClient(String clientId) {
+        return clients.computeIfAbsent(
+                clientId,
+                k -> {
+                    dynamoCallCount++;
+                    return delegate.getClient(k);
+                });
+    }
+
+    @Override
+    public ClientID generateClientID() {
+        return delegate.generateClientID();
+    }
+
+    @Override
+    public ClientRegistry updateClient(String clientId, UpdateClientConfigRequest updateRequest) {
+        clients.remove(clientId);
+        dynamoCallCount++;
+        return delegate.updateClient(clientId, updateRequest);
+    }
+
+    public int getDynamoCallCount() {
+        return dynamoCallCount;
+    }
+
+    @Override
+    public void endRequest() {
+        LOG.info("Client registry was called {} times during the request", dynamoCallCount);
+        clients.clear();
+        dynamoCallCount = 0;
+    }
+}
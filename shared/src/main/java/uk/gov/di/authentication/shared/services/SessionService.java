@@ -1,12 +1,12 @@
 package uk.gov.di.authentication.shared.services;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.helpers.CookieHelper;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
 import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
+import uk.gov.di.authentication.shared.serialization.RedisValueCodec;
 
 import java.util.Map;
 import java.util.Optional;
@@ -19,7 +19,8 @@ public class SessionService {
 
     private static final Logger LOGGER = LogManager.getLogger(SessionService.class);
 
-    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.getInstance();
+    private static final RedisValueCodec<Session> CODEC =
+            new RedisValueCodec<>(Session.class, ObjectMapperFactory.getInternalInstance());
 
     private final ConfigurationService configurationService;
     private final RedisConnectionService redisConnectionService;
@@ -32,13 +33,7 @@ public class SessionService {
     }
 
     public SessionService(ConfigurationService configurationService) {
-        this(
-                configurationService,
-                new RedisConnectionService(
-                        configurationService.getRedisHost(),
-                        configurationService.getRedisPort(),
-                        configurationService.getUseRedisTLS(),
-                        configurationService.getRedisPassword()));
+        this(configurationService, RedisConnectionService.getInstance(configurationService));
     }
 
     public Session createSession() {
@@ -47,10 +42,17 @@ public class SessionService {
 
     public void save(Session session) {
         try {
-            redisConnectionService.saveWithExpiry(
-                    session.getSessionId(),
-                    OBJECT_MAPPER.writeValueAsString(session),
-                    configurationService.getSessionExpiry());
+            if (configurationService.isRedisBinarySessionsEnabled()) {
+                redisConnectionService.saveWithExpiry(
+                        session.getSessionId(),
+                        CODEC.encode(session),
+                        configurationService.getSessionExpiry());
+            } else {
+                redisConnectionService.saveWithExpiry(
+                        session.getSessionId(),
+                        CODEC.encodeJson(session),
+                        configurationService.getSessionExpiry());
+            }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -68,25 +70,28 @@ public class SessionService {
     }
 
     public Optional<Session> getSessionFromRequestHeaders(Map<String, String> headers) {
+        Optional<String> sessionId = getSessionIdFromRequestHeaders(headers);
+        if (sessionId.isEmpty()) {
+            LOGGER.error("Headers are missing a Session-Id header value");
+            return Optional.empty();
+        }
+        try {
+            return readSessionFromRedis(sessionId.get());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Optional<String> getSessionIdFromRequestHeaders(Map<String, String> headers) {
         if (!headersContainValidHeader(
                 headers, SESSION_ID_HEADER, configurationService.getHeadersCaseInsensitive())) {
-            LOGGER.error("Headers are missing Session-Id header");
             return Optional.empty();
         }
-        String sessionId =
+        return Optional.ofNullable(
                 getHeaderValueFromHeaders(
                         headers,
                         SESSION_ID_HEADER,
-                        configurationService.getHeadersCaseInsensitive());
-        if (sessionId == null) {
-            LOGGER.error("Value not found for Session-Id header");
-            return Optional.empty();
-        }
-        try {
-            return readSessionFromRedis(sessionId);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+                        configurationService.getHeadersCaseInsensitive()));
     }
 
     public Optional<Session> getSessionFromSessionCookie(Map<String, String> headers) {
@@ -104,13 +109,11 @@ public class SessionService {
 
     public Optional<Session> readSessionFromRedis(String sessionId) {
         try {
-            if (redisConnectionService.keyExists(sessionId)) {
-                return Optional.of(
-                        OBJECT_MAPPER.readValue(
-                                redisConnectionService.getValue(sessionId), Session.class));
-            } else {
+            byte[] serializedSession = redisConnectionService.getBytes(sessionId);
+            if (serializedSession == null) {
                 return Optional.empty();
             }
+            return Optional.of(CODEC.decode(serializedSession));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -3,10 +3,16 @@ package uk.gov.di.authentication.shared.services;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.sns.AmazonSNS;
 import com.amazonaws.services.sns.AmazonSNSClientBuilder;
+import com.amazonaws.services.sns.model.PublishBatchRequest;
+import com.amazonaws.services.sns.model.PublishBatchRequestEntry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.configuration.AuditPublisherConfiguration;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 public class SnsService {
 
     private final String topicArn;
@@ -33,4 +39,28 @@ public class SnsService {
     public void publishAuditMessage(String message) {
         snsClient.publish(topicArn, message);
     }
+
+    public void publishAuditMessages(List<String> messages) {
+        var entries =
+                IntStream.range(0, messages.size())
+                        .mapToObj(
+                                i ->
+                                        new PublishBatchRequestEntry()
+                                                .withId(String.valueOf(i))
+                                                .withMessage(messages.get(i)))
+                        .collect(Collectors.toList());
+        var result =
+                snsClient.publishBatch(
+                        new PublishBatchRequest()
+                                .withTopicArn(topicArn)
+                                .withPublishBatchRequestEntries(entries));
+        result.getFailed()
+                .forEach(
+                        failure -> {
+                            LOGGER.warn(
+                                    "Audit message failed in batch with code {}. Retrying",
+                                    failure.getCode());
+                            publishAuditMessage(messages.get(Integer.parseInt(failure.getId())));
+                        });
+    }
 }
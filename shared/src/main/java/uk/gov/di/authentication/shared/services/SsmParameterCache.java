@@ -0,0 +1,215 @@
+package uk.gov.di.authentication.shared.services;
+
+import com.amazonaws.services.simplesystemsmanagement.AWSSimpleSystemsManagement;
+import com.amazonaws.services.simplesystemsmanagement.model.GetParametersRequest;
+import com.amazonaws.services.simplesystemsmanagement.model.GetParametersResult;
+import com.amazonaws.services.simplesystemsmanagement.model.Parameter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Holds decrypted SSM parameter values in memory, keyed by parameter name. Only the first read of
+ * a parameter waits for SSM. Values older than the TTL are still served while a single background
+ * refresh replaces them. Parameters that don't exist are cached as absent in the same way.
+ *
+ * <p>A failed first read is cached too. Until a backoff has passed, further reads of the same
+ * parameter fail straight away without calling SSM. The backoff starts at one second and doubles
+ * with each failure, up to the TTL.
+ */
+public class SsmParameterCache {
+
+    private static final Logger LOG = LogManager.getLogger(SsmParameterCache.class);
+    private static final int MAX_NAMES_PER_REQUEST = 10;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+
+    private final AWSSimpleSystemsManagement ssmClient;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    private final Map<String, CachedParameter> parameters = new ConcurrentHashMap<>();
+    private final Set<String> refreshesInFlight = ConcurrentHashMap.newKeySet();
+
+    public SsmParameterCache(AWSSimpleSystemsManagement ssmClient, Duration ttl) {
+        this(
+                ssmClient,
+                ttl,
+                Clock.systemUTC(),
+                Executors.newSingleThreadExecutor(
+                        runnable -> {
+                            var thread = new Thread(runnable, "ssm-parameter-refresh");
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    public SsmParameterCache(
+            AWSSimpleSystemsManagement ssmClient,
+            Duration ttl,
+            Clock clock,
+            Executor refreshExecutor) {
+        this.ssmClient = ssmClient;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public Optional<String> get(String name) {
+        return Optional.ofNullable(getAll(List.of(name)).get(name));
+    }
+
+    /**
+     * Returns the values of the named parameters that exist. Any that have not been read before
+     * are fetched together in as few requests as possible.
+     */
+    public Map<String, String> getAll(Collection<String> names) {
+        var now = clock.instant();
+        var missing =
+                names.stream()
+                        .filter(
+                                name ->
+                                        !parameters.containsKey(name)
+                                                || parameters.get(name).canRetry(now))
+                        .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            load(missing);
+        }
+        for (String name : names) {
+            var failure = parameters.get(name).getFailure();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        var stale =
+                names.stream()
+                        .filter(name -> parameters.get(name).getFetchedAt().plus(ttl).isBefore(now))
+                        .collect(Collectors.toList());
+        if (!stale.isEmpty()) {
+            refreshInBackground(stale);
+        }
+        var values = new HashMap<String, String>();
+        for (String name : names) {
+            parameters.get(name).getValue().ifPresent(value -> values.put(name, value));
+        }
+        return values;
+    }
+
+    private void refreshInBackground(List<String> names) {
+        var toRefresh =
+                names.stream().filter(refreshesInFlight::add).collect(Collectors.toList());
+        if (toRefresh.isEmpty()) {
+            return;
+        }
+        refreshExecutor.execute(
+                () -> {
+                    try {
+                        load(toRefresh);
+                    } catch (Exception e) {
+                        LOG.warn("Unable to refresh SSM parameters, keeping cached values", e);
+                    } finally {
+                        toRefresh.forEach(refreshesInFlight::remove);
+                    }
+                });
+    }
+
+    private void load(List<String> names) {
+        for (int start = 0; start < names.size(); start += MAX_NAMES_PER_REQUEST) {
+            var batch = names.subList(start, Math.min(names.size(), start + MAX_NAMES_PER_REQUEST));
+            LOG.info("Fetching {} parameters from SSM", batch.size());
+            GetParametersResult result;
+            try {
+                result =
+                        ssmClient.getParameters(
+                                new GetParametersRequest()
+                                        .withNames(batch)
+                                        .withWithDecryption(true));
+            } catch (RuntimeException e) {
+                recordFailure(batch, e);
+                throw e;
+            }
+            var fetchedAt = clock.instant();
+            var found =
+                    result.getParameters().stream()
+                            .collect(Collectors.toMap(Parameter::getName, Parameter::getValue));
+            for (String name : batch) {
+                parameters.put(
+                        name,
+                        new CachedParameter(Optional.ofNullable(found.get(name)), fetchedAt));
+            }
+        }
+    }
+
+    private void recordFailure(List<String> names, RuntimeException failure) {
+        var failedAt = clock.instant();
+        for (String name : names) {
+            parameters.compute(
+                    name,
+                    (key, cached) -> {
+                        if (cached != null && cached.getFailure() == null) {
+                            return cached;
+                        }
+                        int failures = cached == null ? 1 : cached.failures + 1;
+                        return new CachedParameter(
+                                failure, failures, failedAt.plus(backoff(failures)));
+                    });
+        }
+    }
+
+    private Duration backoff(int failures) {
+        var backoff = INITIAL_BACKOFF.multipliedBy(1L << Math.min(failures - 1, 20));
+        return backoff.compareTo(ttl) < 0 ? backoff : ttl;
+    }
+
+    private static class CachedParameter {
+        private final Optional<String> value;
+        private final Instant fetchedAt;
+        private final RuntimeException failure;
+        private final int failures;
+        private final Instant retryAt;
+
+        private CachedParameter(Optional<String> value, Instant fetchedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+            this.failure = null;
+            this.failures = 0;
+            this.retryAt = null;
+        }
+
+        private CachedParameter(RuntimeException failure, int failures, Instant retryAt) {
+            this.value = Optional.empty();
+            this.fetchedAt = null;
+            this.failure = failure;
+            this.failures = failures;
+            this.retryAt = retryAt;
+        }
+
+        private RuntimeException getFailure() {
+            return failure;
+        }
+
+        private boolean canRetry(Instant now) {
+            return failure != null && !now.isBefore(retryAt);
+        }
+
+        private Optional<String> getValue() {
+            return value;
+        }
+
+        private Instant getFetchedAt() {
+            return fetchedAt;
+        }
+    }
+}
@@ -4,11 +4,14 @@ import com.amazonaws.services.kms.model.SignRequest;
 import com.amazonaws.services.kms.model.SignResult;
 import com.amazonaws.services.kms.model.SigningAlgorithmSpec;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
 import com.nimbusds.jose.crypto.impl.ECDSA;
+import com.nimbusds.jose.jca.JCAContext;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
@@ -36,12 +39,15 @@ import com.nimbusds.openid.connect.sdk.OIDCTokenResponse;
 import com.nimbusds.openid.connect.sdk.claims.AccessTokenHash;
 import com.nimbusds.openid.connect.sdk.claims.IDTokenClaimsSet;
 import com.nimbusds.openid.connect.sdk.token.OIDCTokens;
+import io.lettuce.core.ScriptOutputType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.AccessTokenStore;
 import uk.gov.di.authentication.shared.entity.ClientConsent;
 import uk.gov.di.authentication.shared.entity.RefreshTokenStore;
 import uk.gov.di.authentication.shared.entity.ValidScopes;
+import uk.gov.di.authentication.shared.helpers.HashHelper;
+import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
 import uk.gov.di.authentication.shared.helpers.RequestBodyHelper;
 
 import java.net.URI;
@@ -62,6 +68,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import static uk.gov.di.authentication.shared.helpers.ConstructUriHelper.buildURI;
@@ -74,7 +82,77 @@ public class TokenService {
     private static final JWSAlgorithm TOKEN_ALGORITHM = JWSAlgorithm.ES256;
     private static final Logger LOGGER = LogManager.getLogger(TokenService.class);
     private static final String REFRESH_TOKEN_PREFIX = "REFRESH_TOKEN:";
+    private static final String REFRESH_TOKEN_FAMILY_PREFIX = "REFRESH_TOKEN_FAMILY:";
     private static final String ACCESS_TOKEN_PREFIX = "ACCESS_TOKEN:";
+    private static final long ROTATED = 1;
+    private static final long REUSED = -1;
+    private static final int MAX_USED_REFRESH_TOKENS = 10;
+
+    /**
+     * A refresh token family is a hash keyed by client and public subject. It holds the internal
+     * subject, and one field per refresh token issued to the client for that subject, named by
+     * the SHA-256 of the token and marked active until the token is exchanged.
+     */
+    private static final String ISSUE_REFRESH_TOKEN_SCRIPT =
+            "redis.call('HSET', KEYS[1], 'subject', ARGV[1], ARGV[2], 'active') "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[3]) "
+                    + "return 1";
+
+    /**
+     * Marks the presented token used. Presenting a token that is already used means it has leaked,
+     * so the family and the access token issued with it are deleted.
+     *
+     * <p>Used tokens are numbered in the order they were exchanged, with a {@code used:<n>} field
+     * pointing back at each one, so only the most recent few are kept. A token older than that is
+     * no longer recognised, and is rejected without revoking the family.
+     */
+    private static final String ROTATE_REFRESH_TOKEN_SCRIPT =
+            "local state = redis.call('HGET', KEYS[1], ARGV[1]) "
+                    + "if state == 'active' then "
+                    + "local used = redis.call('HINCRBY', KEYS[1], 'used_count', 1) "
+                    + "redis.call('HSET', KEYS[1], ARGV[1], used, 'used:' .. used, ARGV[1]) "
+                    + "local expired = 'used:' .. (used - tonumber(ARGV[3])) "
+                    + "local expiredToken = redis.call('HGET', KEYS[1], expired) "
+                    + "if expiredToken then redis.call('HDEL', KEYS[1], expired, expiredToken) end "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+                    + "return {1, redis.call('HGET', KEYS[1], 'subject'), used} "
+                    + "end "
+                    + "if state then "
+                    + "redis.call('DEL', KEYS[1], KEYS[2]) "
+                    + "return {-1} "
+                    + "end "
+                    + "return {0}";
+
+    /**
+     * Adds the replacement for a rotated token. Returns 0 without adding it when the family has
+     * been revoked since the rotation, so a token signed in the meantime is never stored.
+     */
+    private static final String ADD_REFRESH_TOKEN_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "redis.call('HSET', KEYS[1], ARGV[1], 'active') "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+                    + "return 1";
+
+    /**
+     * Marks a rotated token active again when its replacements could not be signed, so the client
+     * can retry with it. Does nothing if the token has moved on since it was rotated.
+     */
+    private static final String RESTORE_REFRESH_TOKEN_SCRIPT =
+            "if redis.call('HGET', KEYS[1], ARGV[1]) ~= ARGV[2] then return 0 end "
+                    + "redis.call('HSET', KEYS[1], ARGV[1], 'active') "
+                    + "redis.call('HDEL', KEYS[1], 'used:' .. ARGV[2]) "
+                    + "return 1";
+
+    private static final String START_REFRESH_TOKEN_FAMILY_SCRIPT =
+            "redis.call('HSET', KEYS[1], 'subject', ARGV[1]) "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+                    + "return 1";
+    private static final ObjectWriter ACCESS_TOKEN_STORE_WRITER =
+            ObjectMapperFactory.getInternalWriter(AccessTokenStore.class);
+    private static final ObjectReader REFRESH_TOKEN_STORE_READER =
+            ObjectMapperFactory.getInternalReader(RefreshTokenStore.class);
+    private static final ObjectWriter REFRESH_TOKEN_STORE_WRITER =
+            ObjectMapperFactory.getInternalWriter(RefreshTokenStore.class);
     private static final List<String> ALLOWED_GRANTS =
             List.of(GrantType.AUTHORIZATION_CODE.getValue(), GrantType.REFRESH_TOKEN.getValue());
 
@@ -102,30 +180,70 @@ public class TokenService {
         } else {
             scopesForToken = calculateScopesForToken(clientConsents, clientID, authRequestScopes);
         }
-        AccessToken accessToken =
-                generateAndStoreAccessToken(
-                        clientID, internalSubject, scopesForToken, publicSubject);
-        AccessTokenHash accessTokenHash = AccessTokenHash.compute(accessToken, TOKEN_ALGORITHM);
-        SignedJWT idToken =
-                generateIDToken(
-                        clientID, publicSubject, additionalTokenClaims, accessTokenHash, vot);
-        if (scopesForToken.contains(OIDCScopeValue.OFFLINE_ACCESS.getValue())) {
-            RefreshToken refreshToken =
-                    generateAndStoreRefreshToken(
-                            clientID, internalSubject, scopesForToken, publicSubject);
-            return new OIDCTokenResponse(new OIDCTokens(idToken, accessToken, refreshToken));
-        } else {
-            return new OIDCTokenResponse(new OIDCTokens(idToken, accessToken, null));
-        }
+        CompletableFuture<AccessToken> accessToken =
+                generateAccessToken(clientID, scopesForToken, publicSubject);
+        CompletableFuture<RefreshToken> refreshToken =
+                scopesForToken.contains(OIDCScopeValue.OFFLINE_ACCESS.getValue())
+                        ? generateAndStoreRefreshToken(
+                                clientID, internalSubject, scopesForToken, publicSubject)
+                        : CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> accessTokenStored =
+                accessToken.thenAccept(
+                        token -> storeAccessToken(clientID, internalSubject, publicSubject, token));
+        CompletableFuture<SignedJWT> idToken =
+                accessToken.thenCompose(
+                        token ->
+                                generateIDToken(
+                                        clientID,
+                                        publicSubject,
+                                        additionalTokenClaims,
+                                        AccessTokenHash.compute(token, TOKEN_ALGORITHM),
+                                        vot));
+        await(CompletableFuture.allOf(accessTokenStored, idToken, refreshToken));
+        return new OIDCTokenResponse(
+                new OIDCTokens(idToken.join(), accessToken.join(), refreshToken.join()));
     }
 
-    public OIDCTokenResponse generateRefreshTokenResponse(
-            String clientID, Subject internalSubject, List<String> scopes, Subject publicSubject) {
-        AccessToken accessToken =
-                generateAndStoreAccessToken(clientID, internalSubject, scopes, publicSubject);
-        RefreshToken refreshToken =
-                generateAndStoreRefreshToken(clientID, internalSubject, scopes, publicSubject);
-        return new OIDCTokenResponse(new OIDCTokens(accessToken, refreshToken));
+    /**
+     * Exchanges a refresh token for a new access token and refresh token. Returns empty when the
+     * presented token is not in the store, or has already been exchanged, in which case every
+     * refresh token in its family is revoked. The presented token is checked before anything is
+     * signed, so a rejected token never costs a KMS call. If the new tokens cannot be signed the
+     * presented token is made usable again, so a retry is not mistaken for reuse.
+     */
+    public Optional<OIDCTokenResponse> generateRefreshTokenResponse(
+            String clientID,
+            RefreshToken currentRefreshToken,
+            List<String> scopes,
+            Subject publicSubject) {
+        Optional<Rotation> rotation =
+                rotateRefreshToken(clientID, publicSubject, currentRefreshToken);
+        if (rotation.isEmpty()) {
+            return Optional.empty();
+        }
+        CompletableFuture<AccessToken> accessToken =
+                generateAccessToken(clientID, scopes, publicSubject);
+        CompletableFuture<RefreshToken> refreshToken =
+                generateRefreshToken(clientID, scopes, publicSubject);
+        try {
+            await(CompletableFuture.allOf(accessToken, refreshToken));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to sign new tokens, restoring the presented refresh token");
+            try {
+                rotation.get().restore.run();
+            } catch (RuntimeException restoreFailure) {
+                e.addSuppressed(restoreFailure);
+            }
+            throw e;
+        }
+        if (!addRefreshToken(clientID, publicSubject, refreshToken.join())) {
+            LOGGER.warn("Refresh token family was revoked while its new tokens were signed");
+            return Optional.empty();
+        }
+        storeAccessToken(
+                clientID, rotation.get().internalSubject, publicSubject, accessToken.join());
+        return Optional.of(
+                new OIDCTokenResponse(new OIDCTokens(accessToken.join(), refreshToken.join())));
     }
 
     public Optional<ErrorObject> validateTokenRequestParams(String tokenRequestBody) {
@@ -235,7 +353,7 @@ public class TokenService {
         return Optional.empty();
     }
 
-    private SignedJWT generateIDToken(
+    private CompletableFuture<SignedJWT> generateIDToken(
             String clientId,
             Subject publicSubject,
             Map<String, Object> additionalTokenClaims,
@@ -265,8 +383,8 @@ public class TokenService {
         }
     }
 
-    private AccessToken generateAndStoreAccessToken(
-            String clientId, Subject internalSubject, List<String> scopes, Subject publicSubject) {
+    private CompletableFuture<AccessToken> generateAccessToken(
+            String clientId, List<String> scopes, Subject publicSubject) {
         LOGGER.info("Generating AccessToken for ClientId: {}", clientId);
         LocalDateTime localDateTime =
                 LocalDateTime.now().plusSeconds(configService.getAccessTokenExpiry());
@@ -283,26 +401,41 @@ public class TokenService {
                         .subject(publicSubject.getValue())
                         .jwtID(UUID.randomUUID().toString())
                         .build();
-        SignedJWT signedJWT = generateSignedJWT(claimsSet);
-        AccessToken accessToken = new BearerAccessToken(signedJWT.serialize());
+        return generateSignedJWT(claimsSet)
+                .thenApply(signedJWT -> new BearerAccessToken(signedJWT.serialize()));
+    }
 
+    private void storeAccessToken(
+            String clientId, Subject internalSubject, Subject publicSubject, AccessToken token) {
         try {
             redisConnectionService.saveWithExpiry(
                     ACCESS_TOKEN_PREFIX + clientId + "." + publicSubject.getValue(),
-                    new ObjectMapper()
-                            .writeValueAsString(
-                                    new AccessTokenStore(
-                                            accessToken.getValue(), internalSubject.getValue())),
+                    ACCESS_TOKEN_STORE_WRITER.writeValueAsString(
+                            configService.isAccessTokenStoreDigestEnabled()
+                                    ? AccessTokenStore.forToken(
+                                            token.getValue(), internalSubject.getValue())
+                                    : AccessTokenStore.withToken(
+                                            token.getValue(), internalSubject.getValue())),
                     configService.getAccessTokenExpiry());
         } catch (JsonProcessingException e) {
             LOGGER.error("Unable to save access token to Redis");
             throw new RuntimeException(e);
         }
-        return accessToken;
     }
 
-    private RefreshToken generateAndStoreRefreshToken(
+    private CompletableFuture<RefreshToken> generateAndStoreRefreshToken(
             String clientId, Subject internalSubject, List<String> scopes, Subject publicSubject) {
+        return generateRefreshToken(clientId, scopes, publicSubject)
+                .thenApply(
+                        refreshToken -> {
+                            storeRefreshToken(
+                                    clientId, internalSubject, publicSubject, refreshToken);
+                            return refreshToken;
+                        });
+    }
+
+    private CompletableFuture<RefreshToken> generateRefreshToken(
+            String clientId, List<String> scopes, Subject publicSubject) {
         LOGGER.info("Generating RefreshToken for ClientId: {}", clientId);
         LocalDateTime localDateTime =
                 LocalDateTime.now().plusSeconds(configService.getSessionExpiry());
@@ -318,65 +451,172 @@ public class TokenService {
                         .subject(publicSubject.getValue())
                         .jwtID(UUID.randomUUID().toString())
                         .build();
-        SignedJWT signedJWT = generateSignedJWT(claimsSet);
-        RefreshToken refreshToken = new RefreshToken(signedJWT.serialize());
+        return generateSignedJWT(claimsSet)
+                .thenApply(signedJWT -> new RefreshToken(signedJWT.serialize()));
+    }
+
+    private void storeRefreshToken(
+            String clientId,
+            Subject internalSubject,
+            Subject publicSubject,
+            RefreshToken refreshToken) {
+        String redisKey = REFRESH_TOKEN_FAMILY_PREFIX + clientId + "." + publicSubject.getValue();
+        redisConnectionService.evalScript(
+                ISSUE_REFRESH_TOKEN_SCRIPT,
+                ScriptOutputType.INTEGER,
+                new String[] {redisKey},
+                internalSubject.getValue(),
+                HashHelper.hashSha256String(refreshToken.getValue()),
+                String.valueOf(configService.getSessionExpiry()));
+    }
+
+    private boolean addRefreshToken(
+            String clientId, Subject publicSubject, RefreshToken refreshToken) {
+        String redisKey = REFRESH_TOKEN_FAMILY_PREFIX + clientId + "." + publicSubject.getValue();
+        Long added =
+                redisConnectionService.evalScript(
+                        ADD_REFRESH_TOKEN_SCRIPT,
+                        ScriptOutputType.INTEGER,
+                        new String[] {redisKey},
+                        HashHelper.hashSha256String(refreshToken.getValue()),
+                        String.valueOf(configService.getSessionExpiry()));
+        return added == 1;
+    }
+
+    private void restoreRefreshToken(
+            String clientId, Subject publicSubject, RefreshToken refreshToken, long used) {
+        redisConnectionService.evalScript(
+                RESTORE_REFRESH_TOKEN_SCRIPT,
+                ScriptOutputType.INTEGER,
+                new String[] {
+                    REFRESH_TOKEN_FAMILY_PREFIX + clientId + "." + publicSubject.getValue()
+                },
+                HashHelper.hashSha256String(refreshToken.getValue()),
+                String.valueOf(used));
+    }
+
+    private Optional<Rotation> rotateRefreshToken(
+            String clientId, Subject publicSubject, RefreshToken currentRefreshToken) {
+        String keySuffix = clientId + "." + publicSubject.getValue();
+        List<Object> result =
+                redisConnectionService.evalScript(
+                        ROTATE_REFRESH_TOKEN_SCRIPT,
+                        ScriptOutputType.MULTI,
+                        new String[] {
+                            REFRESH_TOKEN_FAMILY_PREFIX + keySuffix, ACCESS_TOKEN_PREFIX + keySuffix
+                        },
+                        HashHelper.hashSha256String(currentRefreshToken.getValue()),
+                        String.valueOf(configService.getSessionExpiry()),
+                        String.valueOf(MAX_USED_REFRESH_TOKENS));
+        long outcome = (Long) result.get(0);
+        if (outcome == ROTATED) {
+            long used = (Long) result.get(2);
+            return Optional.of(
+                    new Rotation(
+                            new Subject((String) result.get(1)),
+                            () ->
+                                    restoreRefreshToken(
+                                            clientId, publicSubject, currentRefreshToken, used)));
+        }
+        if (outcome == REUSED) {
+            LOGGER.warn("Refresh token has already been used, revoking its token family");
+            return Optional.empty();
+        }
+        return rotateLegacyRefreshToken(clientId, publicSubject, currentRefreshToken);
+    }
+
+    /**
+     * Refresh tokens issued before token families were introduced are held as a JSON list under
+     * the old key. Each can be exchanged once, and its replacement goes into a new family. This can
+     * be removed once the session expiry has passed since the change was deployed.
+     *
+     * <p>The presented token has left the legacy store by the time its replacements are signed, so
+     * it is restored by adding it to the new family.
+     */
+    private Optional<Rotation> rotateLegacyRefreshToken(
+            String clientId, Subject publicSubject, RefreshToken currentRefreshToken) {
         String redisKey = REFRESH_TOKEN_PREFIX + clientId + "." + publicSubject.getValue();
         Optional<String> existingRefreshTokenStore =
                 Optional.ofNullable(redisConnectionService.getValue(redisKey));
+        if (existingRefreshTokenStore.isEmpty()) {
+            LOGGER.error("Refresh token not found with given key");
+            return Optional.empty();
+        }
+        RefreshTokenStore tokenStore;
         try {
-            String serializedTokenStore;
-            if (existingRefreshTokenStore.isPresent()) {
-                RefreshTokenStore refreshTokenStore =
-                        new ObjectMapper()
-                                .readValue(
-                                        existingRefreshTokenStore.get(), RefreshTokenStore.class);
-                serializedTokenStore =
-                        new ObjectMapper()
-                                .writeValueAsString(
-                                        refreshTokenStore.addRefreshToken(refreshToken.getValue()));
-            } else {
-                serializedTokenStore =
-                        new ObjectMapper()
-                                .writeValueAsString(
-                                        new RefreshTokenStore(
-                                                List.of(refreshToken.getValue()),
-                                                internalSubject.getValue()));
-            }
-            redisConnectionService.saveWithExpiry(
-                    redisKey, serializedTokenStore, configService.getSessionExpiry());
+            tokenStore = REFRESH_TOKEN_STORE_READER.readValue(existingRefreshTokenStore.get());
         } catch (JsonProcessingException e) {
-            LOGGER.error("Unable to create new TokenStore with RefreshToken");
-            throw new RuntimeException(e);
+            LOGGER.error("Unable to read refresh token store");
+            return Optional.empty();
         }
-        return refreshToken;
+        if (!tokenStore.getRefreshTokens().contains(currentRefreshToken.getValue())) {
+            LOGGER.error("Refresh token store does not contain Refresh token in request");
+            return Optional.empty();
+        }
+        if (tokenStore.getRefreshTokens().size() > 1) {
+            LOGGER.info("Removing Refresh Token from refresh token store");
+            try {
+                redisConnectionService.saveWithExpiry(
+                        redisKey,
+                        REFRESH_TOKEN_STORE_WRITER.writeValueAsString(
+                                tokenStore.removeRefreshToken(currentRefreshToken.getValue())),
+                        configService.getSessionExpiry());
+            } catch (JsonProcessingException e) {
+                LOGGER.error("Unable to serialize refresh token store when updating");
+                throw new RuntimeException(e);
+            }
+        } else {
+            LOGGER.info("Deleting refresh token store as no other refresh tokens exist");
+            redisConnectionService.deleteValue(redisKey);
+        }
+        Subject internalSubject = new Subject(tokenStore.getInternalSubjectId());
+        redisConnectionService.evalScript(
+                START_REFRESH_TOKEN_FAMILY_SCRIPT,
+                ScriptOutputType.INTEGER,
+                new String[] {
+                    REFRESH_TOKEN_FAMILY_PREFIX + clientId + "." + publicSubject.getValue()
+                },
+                internalSubject.getValue(),
+                String.valueOf(configService.getSessionExpiry()));
+        return Optional.of(
+                new Rotation(
+                        internalSubject,
+                        () -> addRefreshToken(clientId, publicSubject, currentRefreshToken)));
     }
 
-    private SignedJWT generateSignedJWT(JWTClaimsSet claimsSet) {
+    private CompletableFuture<SignedJWT> generateSignedJWT(JWTClaimsSet claimsSet) {
+        JWSHeader jwsHeader =
+                new JWSHeader.Builder(TOKEN_ALGORITHM)
+                        .keyID(configService.getTokenSigningKeyAlias())
+                        .build();
+        SignedJWT signedJWT = new SignedJWT(jwsHeader, claimsSet);
+        SignRequest signRequest = new SignRequest();
+        signRequest.setMessage(ByteBuffer.wrap(signedJWT.getSigningInput()));
+        signRequest.setKeyId(configService.getTokenSigningKeyAlias());
+        signRequest.setSigningAlgorithm(SigningAlgorithmSpec.ECDSA_SHA_256.toString());
+        return kmsConnectionService
+                .signAsync(signRequest)
+                .thenApply(
+                        signResult -> {
+                            try {
+                                signedJWT.sign(new KmsSignature(signResult));
+                            } catch (JOSEException e) {
+                                LOGGER.error("Exception thrown when trying to sign JWT", e);
+                                throw new RuntimeException(e);
+                            }
+                            LOGGER.info("Token has been signed successfully");
+                            return signedJWT;
+                        });
+    }
+
+    private static void await(CompletableFuture<Void> future) {
         try {
-            JWSHeader jwsHeader =
-                    new JWSHeader.Builder(TOKEN_ALGORITHM)
-                            .keyID(configService.getTokenSigningKeyAlias())
-                            .build();
-            Base64URL encodedHeader = jwsHeader.toBase64URL();
-            Base64URL encodedClaims = Base64URL.encode(claimsSet.toString());
-            String message = encodedHeader + "." + encodedClaims;
-            ByteBuffer messageToSign = ByteBuffer.wrap(message.getBytes());
-            SignRequest signRequest = new SignRequest();
-            signRequest.setMessage(messageToSign);
-            signRequest.setKeyId(configService.getTokenSigningKeyAlias());
-            signRequest.setSigningAlgorithm(SigningAlgorithmSpec.ECDSA_SHA_256.toString());
-            SignResult signResult = kmsConnectionService.sign(signRequest);
-            LOGGER.info("Token has been signed successfully");
-            String signature =
-                    Base64URL.encode(
-                                    ECDSA.transcodeSignatureToConcat(
-                                            signResult.getSignature().array(),
-                                            ECDSA.getSignatureByteArrayLength(TOKEN_ALGORITHM)))
-                            .toString();
-            return SignedJWT.parse(message + "." + signature);
-        } catch (java.text.ParseException | JOSEException e) {
-            LOGGER.error("Exception thrown when trying to parse SignedJWT or JWTClaimSet", e);
-            throw new RuntimeException(e);
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
         }
     }
 
@@ -424,4 +664,46 @@ public class TokenService {
             }
         };
     }
+
+    /**
+     * Applies a signature already produced by KMS to a {@link SignedJWT}, so the token can be
+     * completed without serialising and parsing it again.
+     */
+    private static class KmsSignature implements JWSSigner {
+
+        private final SignResult signResult;
+        private final JCAContext jcaContext = new JCAContext();
+
+        private KmsSignature(SignResult signResult) {
+            this.signResult = signResult;
+        }
+
+        @Override
+        public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+            return Base64URL.encode(
+                    ECDSA.transcodeSignatureToConcat(
+                            signResult.getSignature().array(),
+                            ECDSA.getSignatureByteArrayLength(TOKEN_ALGORITHM)));
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return Set.of(TOKEN_ALGORITHM);
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+
+    private static class Rotation {
+        private final Subject internalSubject;
+        private final Runnable restore;
+
+        private Rotation(Subject internalSubject, Runnable restore) {
+            this.internalSubject = internalSubject;
+            this.restore = restore;
+        }
+    }
 }
@@ -1,16 +1,8 @@
 package uk.gov.di.authentication.shared.services;
 
-import com.amazonaws.services.kms.model.GetPublicKeyRequest;
-import com.amazonaws.services.kms.model.GetPublicKeyResult;
-import com.nimbusds.jose.Algorithm;
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.ECDSAVerifier;
-import com.nimbusds.jose.jwk.Curve;
-import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
@@ -19,14 +11,9 @@ import com.nimbusds.oauth2.sdk.token.RefreshToken;
 import com.nimbusds.openid.connect.sdk.OIDCScopeValue;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
-import org.bouncycastle.openssl.PEMException;
-import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
 
-import java.security.Provider;
 import java.security.PublicKey;
-import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
@@ -35,13 +22,22 @@ import java.util.List;
 public class TokenValidationService {
 
     private final ConfigurationService configService;
-    private final KmsConnectionService kmsConnectionService;
+    private final KmsPublicKeyCache publicKeyCache;
     private static final Logger LOGGER = LogManager.getLogger(TokenValidationService.class);
 
     public TokenValidationService(
             ConfigurationService configService, KmsConnectionService kmsConnectionService) {
+        this(
+                configService,
+                new KmsPublicKeyCache(
+                        kmsConnectionService,
+                        Duration.ofSeconds(configService.getPublicKeyCacheTtl())));
+    }
+
+    public TokenValidationService(
+            ConfigurationService configService, KmsPublicKeyCache publicKeyCache) {
         this.configService = configService;
-        this.kmsConnectionService = kmsConnectionService;
+        this.publicKeyCache = publicKeyCache;
     }
 
     public boolean validateAccessTokenSignature(AccessToken accessToken) {
@@ -82,7 +78,7 @@ public class TokenValidationService {
         try {
             LOGGER.info("TokenSigningKeyID: " + configService.getTokenSigningKeyAlias());
             SignedJWT signedJwt = SignedJWT.parse(tokenValue);
-            JWSVerifier verifier = new ECDSAVerifier(getPublicJwk().toECKey());
+            JWSVerifier verifier = getVerifier(signedJwt.getHeader().getKeyID());
             isVerified = signedJwt.verify(verifier);
         } catch (JOSEException | java.text.ParseException e) {
             LOGGER.error("Unable to validate Signature of Token", e);
@@ -105,36 +101,28 @@ public class TokenValidationService {
     }
 
     public PublicKey getPublicKey() {
-        LOGGER.info("Creating GetPublicKeyRequest to retrieve PublicKey from KMS");
-        Provider bcProvider = new BouncyCastleProvider();
-        GetPublicKeyRequest getPublicKeyRequest = new GetPublicKeyRequest();
-        getPublicKeyRequest.setKeyId(configService.getTokenSigningKeyAlias());
-        GetPublicKeyResult publicKeyResult = kmsConnectionService.getPublicKey(getPublicKeyRequest);
-        try {
-            LOGGER.info("PUBLICKEYRESULT: " + publicKeyResult.toString());
-            SubjectPublicKeyInfo subjectKeyInfo =
-                    SubjectPublicKeyInfo.getInstance(publicKeyResult.getPublicKey().array());
-            return new JcaPEMKeyConverter().setProvider(bcProvider).getPublicKey(subjectKeyInfo);
-        } catch (PEMException e) {
-            LOGGER.error("Error getting the PublicKey using the JcaPEMKeyConverter", e);
-            throw new RuntimeException();
-        }
+        return publicKeyCache.get(configService.getTokenSigningKeyAlias()).getPublicKey();
     }
 
     public JWK getPublicJwk() {
-        try {
-            PublicKey publicKey = getPublicKey();
-            ECKey jwk =
-                    new ECKey.Builder(Curve.P_256, (ECPublicKey) publicKey)
-                            .keyID(configService.getTokenSigningKeyAlias())
-                            .keyUse(KeyUse.SIGNATURE)
-                            .algorithm(new Algorithm(JWSAlgorithm.ES256.getName()))
-                            .build();
-            LOGGER.info("ECKey KeyID: " + jwk.getKeyID());
-            return JWK.parse(jwk.toString());
-        } catch (java.text.ParseException e) {
-            LOGGER.error("Error parsing the ECKey to JWK", e);
-            throw new RuntimeException(e);
+        return publicKeyCache.get(configService.getTokenSigningKeyAlias()).getJwk();
+    }
+
+    public long getPublicKeyCacheHitCount() {
+        return publicKeyCache.getHitCount();
+    }
+
+    public long getPublicKeyCacheMissCount() {
+        return publicKeyCache.getMissCount();
+    }
+
+    private JWSVerifier getVerifier(String keyId) {
+        String keyAlias = configService.getTokenSigningKeyAlias();
+        var publicKey = publicKeyCache.get(keyAlias);
+        if (keyId != null && !publicKey.matchesKeyId(keyId)) {
+            LOGGER.warn("Token has unknown KeyID: {}. Refreshing signing key", keyId);
+            publicKey = publicKeyCache.refresh(keyAlias);
         }
+        return publicKey.getVerifier();
     }
 }
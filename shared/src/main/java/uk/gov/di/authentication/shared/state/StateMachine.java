@@ -10,14 +10,18 @@ import uk.gov.di.authentication.shared.services.ConfigurationService;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.Collections.emptyList;
+import static java.lang.String.format;
 import static uk.gov.di.authentication.shared.entity.SessionAction.ACCOUNT_LOCK_EXPIRED;
 import static uk.gov.di.authentication.shared.entity.SessionAction.SYSTEM_HAS_ISSUED_AUTHORIZATION_CODE;
 import static uk.gov.di.authentication.shared.entity.SessionAction.SYSTEM_HAS_SENT_EMAIL_VERIFICATION_CODE;
@@ -94,8 +98,8 @@ import static uk.gov.di.authentication.shared.state.conditions.TermsAndCondition
 
 public class StateMachine<T, A, C> {
 
-    private final Map<T, List<Transition<T, A, C>>> states;
-    private final List<Transition<T, A, C>> anyStateTransitions;
+    private final Map<T, Map<A, Dispatch<T, A, C>>> dispatchTable;
+    private final Map<A, Dispatch<T, A, C>> anyStateDispatch;
 
     private static final Logger LOGGER = LogManager.getLogger(StateMachine.class);
 
@@ -103,19 +107,29 @@ public class StateMachine<T, A, C> {
         this(states, List.of());
     }
 
+    /**
+     * Compiles the transitions into a table from state and action to the candidate transitions,
+     * in the order their conditions are evaluated: those for the state first, then those allowed
+     * at any state. Enum states and actions are keyed by {@link EnumMap}. Transitions that are
+     * incomplete, or that follow an unconditional transition and so can never be taken, are
+     * rejected here rather than when a session reaches them.
+     */
     public StateMachine(
             Map<T, List<Transition<T, A, C>>> states,
             List<Transition<T, A, C>> anyStateTransitions) {
-        this.states = Collections.unmodifiableMap(states);
-        this.anyStateTransitions = anyStateTransitions;
+        validate("any state", anyStateTransitions);
+        this.anyStateDispatch = compile(List.of(), anyStateTransitions);
+        this.dispatchTable = lookupTable(states.keySet());
+        states.forEach(
+                (state, transitions) -> {
+                    validate(state, transitions);
+                    dispatchTable.put(state, compile(transitions, anyStateTransitions));
+                });
     }
 
     private T transition(T from, A action, Optional<C> context) {
-        if (context.isEmpty()
-                && states.getOrDefault(from, emptyList()).stream()
-                                .filter(t -> t.getAction().equals(action))
-                                .count()
-                        > 1) {
+        var dispatch = dispatchTable.getOrDefault(from, anyStateDispatch).get(action);
+        if (context.isEmpty() && dispatch != null && dispatch.isAmbiguous()) {
             throw handleNoTransitionContext(from, action);
         }
         var sessionId =
@@ -124,27 +138,10 @@ public class StateMachine<T, A, C> {
                         .map(UserContext::getSession)
                         .map(Session::getSessionId)
                         .orElse(null);
-        T to =
-                states.getOrDefault(from, emptyList()).stream()
-                        .filter(
-                                t ->
-                                        t.getAction().equals(action)
-                                                && t.getCondition().isMet(context))
-                        .findFirst()
-                        .orElseGet(
-                                () ->
-                                        anyStateTransitions.stream()
-                                                .filter(
-                                                        t ->
-                                                                t.getAction().equals(action)
-                                                                        && t.getCondition()
-                                                                                .isMet(context))
-                                                .findFirst()
-                                                .orElseThrow(
-                                                        () ->
-                                                                handleBadStateTransition(
-                                                                        from, action, sessionId)))
-                        .getNextState();
+        T to = dispatch == null ? null : dispatch.nextState(context);
+        if (to == null) {
+            throw handleBadStateTransition(from, action, sessionId);
+        }
 
         LOGGER.info(
                 "Session transitioned from {} to {} on action {} for sessionId {}",
@@ -169,8 +166,12 @@ public class StateMachine<T, A, C> {
         return Transition.<SessionState, SessionAction, UserContext>builder().on(action);
     }
 
+    /**
+     * Returns the user journey state machine for the configuration of this JVM. It is compiled
+     * once, on first use, and shared by every handler.
+     */
     public static StateMachine<SessionState, SessionAction, UserContext> userJourneyStateMachine() {
-        return userJourneyStateMachine(ConfigurationService.getInstance());
+        return UserJourneyHolder.INSTANCE;
     }
 
     public static StateMachine<SessionState, SessionAction, UserContext> userJourneyStateMachine(
@@ -524,6 +525,11 @@ public class StateMachine<T, A, C> {
                 .build();
     }
 
+    private static class UserJourneyHolder {
+        private static final StateMachine<SessionState, SessionAction, UserContext> INSTANCE =
+                userJourneyStateMachine(ConfigurationService.getInstance());
+    }
+
     public static class InvalidStateTransitionException extends RuntimeException {}
 
     public static class NoTransitionContextProvidedException extends RuntimeException {}
@@ -611,6 +617,85 @@ public class StateMachine<T, A, C> {
         }
     }
 
+    private static <T, A, C> void validate(Object state, List<Transition<T, A, C>> transitions) {
+        Set<A> unconditional = new HashSet<>();
+        for (Transition<T, A, C> transition : transitions) {
+            if (transition.getAction() == null || transition.getNextState() == null) {
+                throw new IllegalStateException(
+                        format("Transition from %s is missing an action or next state", state));
+            }
+            if (unconditional.contains(transition.getAction())) {
+                throw new IllegalStateException(
+                        format(
+                                "Transition from %s on %s to %s can never be taken as it follows"
+                                        + " an unconditional transition",
+                                state, transition.getAction(), transition.getNextState()));
+            }
+            if (transition.getCondition() instanceof Default) {
+                unconditional.add(transition.getAction());
+            }
+        }
+    }
+
+    private static <T, A, C> Map<A, Dispatch<T, A, C>> compile(
+            List<Transition<T, A, C>> stateTransitions,
+            List<Transition<T, A, C>> anyStateTransitions) {
+        Map<A, List<Transition<T, A, C>>> byAction = new LinkedHashMap<>();
+        Stream.concat(stateTransitions.stream(), anyStateTransitions.stream())
+                .forEach(
+                        t ->
+                                byAction.computeIfAbsent(t.getAction(), a -> new ArrayList<>())
+                                        .add(t));
+        Map<A, Dispatch<T, A, C>> dispatch = lookupTable(byAction.keySet());
+        byAction.forEach(
+                (action, candidates) -> {
+                    long stateCandidates =
+                            stateTransitions.stream()
+                                    .filter(t -> t.getAction().equals(action))
+                                    .count();
+                    dispatch.put(action, new Dispatch<>(candidates, stateCandidates > 1));
+                });
+        return dispatch;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> Map<K, V> lookupTable(Set<K> keys) {
+        return keys.stream()
+                .findFirst()
+                .filter(Enum.class::isInstance)
+                .map(key -> (Map<K, V>) new EnumMap(((Enum) key).getDeclaringClass()))
+                .orElseGet(HashMap::new);
+    }
+
+    /**
+     * The transitions that can follow an action from one state. It is ambiguous when the state
+     * has more than one transition for the action, so a context is needed to choose between
+     * them.
+     */
+    private static class Dispatch<T, A, C> {
+        private final Transition<T, A, C>[] candidates;
+        private final boolean ambiguous;
+
+        @SuppressWarnings("unchecked")
+        private Dispatch(List<Transition<T, A, C>> candidates, boolean ambiguous) {
+            this.candidates = candidates.toArray(new Transition[0]);
+            this.ambiguous = ambiguous;
+        }
+
+        private boolean isAmbiguous() {
+            return ambiguous;
+        }
+
+        private T nextState(Optional<C> context) {
+            for (Transition<T, A, C> candidate : candidates) {
+                if (candidate.getCondition().isMet(context)) {
+                    return candidate.getNextState();
+                }
+            }
+            return null;
+        }
+    }
+
     private InvalidStateTransitionException handleBadStateTransition(
             T from, A action, String sessionId) {
         LOGGER.error(
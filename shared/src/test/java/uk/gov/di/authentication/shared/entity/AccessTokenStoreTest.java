@@ -0,0 +1,68 @@
+package uk.gov.di.authentication.shared.entity;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.shared.helpers.ObjectMapperFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessTokenStoreTest {
+
+    private static final String ACCESS_TOKEN = "eyJraWQiOiIxIn0.eyJzdWIiOiJzdWJqZWN0In0.c2ln";
+
+    @Test
+    void shouldStoreDigestRatherThanToken() throws Exception {
+        var json =
+                ObjectMapperFactory.getInternalInstance()
+                        .writeValueAsString(
+                                AccessTokenStore.forToken(ACCESS_TOKEN, "internal-subject"));
+
+        assertThat(json, not(containsString(ACCESS_TOKEN)));
+        assertThat(json, not(containsString("\"token\"")));
+    }
+
+    @Test
+    void shouldMatchTokenAfterRoundTrip() throws Exception {
+        var mapper = ObjectMapperFactory.getInternalInstance();
+        var json =
+                mapper.writeValueAsString(
+                        AccessTokenStore.forToken(ACCESS_TOKEN, "internal-subject"));
+
+        var accessTokenStore = mapper.readValue(json, AccessTokenStore.class);
+
+        assertTrue(accessTokenStore.matches(ACCESS_TOKEN));
+        assertFalse(accessTokenStore.matches(ACCESS_TOKEN + "x"));
+        assertThat(accessTokenStore.getInternalSubjectId(), equalTo("internal-subject"));
+    }
+
+    @Test
+    void shouldWriteTokenInTheShapeOlderReadersExpect() throws Exception {
+        var json =
+                ObjectMapperFactory.getInternalInstance()
+                        .writeValueAsString(
+                                AccessTokenStore.withToken(ACCESS_TOKEN, "internal-subject"));
+
+        assertThat(
+                json,
+                equalTo(
+                        "{\"token\":\""
+                                + ACCESS_TOKEN
+                                + "\",\"internal_subject_id\":\"internal-subject\"}"));
+    }
+
+    @Test
+    void shouldMatchTokenInEntryWrittenBeforeDigestsWereStored() throws Exception {
+        var json =
+                "{\"token\":\"" + ACCESS_TOKEN + "\",\"internal_subject_id\":\"internal-subject\"}";
+
+        var accessTokenStore =
+                ObjectMapperFactory.getInternalInstance().readValue(json, AccessTokenStore.class);
+
+        assertTrue(accessTokenStore.matches(ACCESS_TOKEN));
+        assertFalse(accessTokenStore.matches(ACCESS_TOKEN + "x"));
+    }
+}
@@ -2,11 +2,15 @@ package uk.gov.di.authentication.shared.helpers;
 
 import org.junit.jupiter.api.Test;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class Argon2HelperTest {
 
+    private static final Argon2Cost CHEAP_COST = new Argon2Cost(1024, 1, 1);
+
     @Test
     public void correctPasswordShouldMatchEncodedPassword() {
         String testPassword = "test-password123";
@@ -23,4 +27,54 @@ class Argon2HelperTest {
 
         assertFalse(Argon2MatcherHelper.matchRawStringWithEncoded(wrongPassword, encodedPassword));
     }
+
+    @Test
+    public void shouldEncodeTheCostThePasswordWasHashedWith() {
+        String testPassword = "test-password123";
+        String encodedPassword = Argon2EncoderHelper.argon2Hash(testPassword, CHEAP_COST);
+
+        assertThat(encodedPassword, containsString("$v=19$m=1024,t=1,p=1$"));
+        assertTrue(Argon2MatcherHelper.matchRawStringWithEncoded(testPassword, encodedPassword));
+    }
+
+    @Test
+    public void shouldNeedRehashWhenHashWasMadeWithACheaperCost() {
+        String encodedPassword = Argon2EncoderHelper.argon2Hash("test-password123", CHEAP_COST);
+
+        assertTrue(Argon2MatcherHelper.needsRehash(encodedPassword, new Argon2Cost(2048, 1, 1)));
+        assertTrue(Argon2MatcherHelper.needsRehash(encodedPassword, new Argon2Cost(1024, 2, 1)));
+    }
+
+    @Test
+    public void shouldNotNeedRehashWhenHashWasMadeWithTheCurrentOrAHigherCost() {
+        String encodedPassword = Argon2EncoderHelper.argon2Hash("test-password123", CHEAP_COST);
+
+        assertFalse(Argon2MatcherHelper.needsRehash(encodedPassword, CHEAP_COST));
+        assertFalse(Argon2MatcherHelper.needsRehash(encodedPassword, new Argon2Cost(512, 1, 1)));
+    }
+
+    @Test
+    public void shouldTreatHashesWithoutAVersionAsVersion19() {
+        String testPassword = "test-password123";
+        String encodedPassword =
+                Argon2EncoderHelper.argon2Hash(testPassword, CHEAP_COST).replace("$v=19$", "$");
+
+        assertTrue(Argon2MatcherHelper.matchRawStringWithEncoded(testPassword, encodedPassword));
+        assertFalse(Argon2MatcherHelper.needsRehash(encodedPassword, CHEAP_COST));
+    }
+
+    @Test
+    public void shouldNotMatchOrRehashMalformedHashes() {
+        for (String encoded :
+                new String[] {
+                    "",
+                    "$argon2id$v=19$m=1024,t=1,p=1",
+                    "$argon2id$v=19$m=1024,p=1,t=1$c2FsdA$aGFzaA",
+                    "$argon2id$v=19$m=abc,t=1,p=1$c2FsdA$aGFzaA",
+                    "$argon2i$v=19$m=1024,t=1,p=1$c2FsdA$aGFzaA"
+                }) {
+            assertFalse(Argon2MatcherHelper.matchRawStringWithEncoded("password", encoded));
+            assertFalse(Argon2MatcherHelper.needsRehash(encoded, CHEAP_COST));
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.constraints.NotNull;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.shared.entity.RefreshTokenStore;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ObjectMapperFactoryTest {
+
+    private static final String MISSING_EMAIL = "{\"email\":null}";
+
+    @Test
+    void shouldValidateObjectsReadByTheValidatingMapper() {
+        assertThrows(
+                ConstraintViolationException.class,
+                () -> ObjectMapperFactory.getInstance().readValue(MISSING_EMAIL, Request.class));
+    }
+
+    @Test
+    void shouldNotValidateObjectsReadByTheInternalMapper() throws Exception {
+        var request =
+                ObjectMapperFactory.getInternalInstance().readValue(MISSING_EMAIL, Request.class);
+
+        assertThat(request.email, nullValue());
+    }
+
+    @Test
+    void shouldReuseMappersReadersAndWriters() {
+        assertThat(
+                ObjectMapperFactory.getInstance(), sameInstance(ObjectMapperFactory.getInstance()));
+        assertThat(
+                ObjectMapperFactory.getInternalReader(RefreshTokenStore.class),
+                sameInstance(ObjectMapperFactory.getInternalReader(RefreshTokenStore.class)));
+        assertThat(
+                ObjectMapperFactory.getInternalWriter(RefreshTokenStore.class),
+                sameInstance(ObjectMapperFactory.getInternalWriter(RefreshTokenStore.class)));
+    }
+
+    @Test
+    void shouldRoundTripTokenStoresWithTheInternalReaderAndWriter() throws Exception {
+        var tokenStoreToWrite = new RefreshTokenStore(List.of("refresh-token"), "internal-subject");
+        var json =
+                ObjectMapperFactory.getInternalWriter(RefreshTokenStore.class)
+                        .writeValueAsString(tokenStoreToWrite);
+
+        RefreshTokenStore tokenStore =
+                ObjectMapperFactory.getInternalReader(RefreshTokenStore.class).readValue(json);
+
+        assertThat(tokenStore.getRefreshTokens(), equalTo(List.of("refresh-token")));
+        assertThat(tokenStore.getInternalSubjectId(), equalTo("internal-subject"));
+    }
+
+    static class Request {
+        @NotNull @JsonProperty private String email;
+    }
+}
@@ -0,0 +1,62 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static uk.gov.di.authentication.shared.helpers.WarmerHelper.CONTAINER_HEADER;
+import static uk.gov.di.authentication.shared.helpers.WarmerHelper.WARMUP_HEADER;
+
+class WarmerHelperTest {
+
+    private final WarmupPrimer primer = mock(WarmupPrimer.class);
+
+    @Test
+    void shouldPrimeAndIdentifyTheContainerOnAWarmupRequest() throws Exception {
+        var response = WarmerHelper.isWarming(warmupRequest(), primer);
+
+        verify(primer).prime();
+        assertThat(response.isPresent(), equalTo(true));
+        assertThat(response.get().getStatusCode(), equalTo(200));
+        assertThat(response.get().getHeaders(), hasKey(CONTAINER_HEADER));
+    }
+
+    @Test
+    void shouldStillWarmWhenPrimingFails() throws Exception {
+        doThrow(new RuntimeException("Redis unavailable")).when(primer).prime();
+
+        var response = WarmerHelper.isWarming(warmupRequest(), primer);
+
+        assertThat(response.get().getStatusCode(), equalTo(200));
+    }
+
+    @Test
+    void shouldNotPrimeARealRequest() throws Exception {
+        var response =
+                WarmerHelper.isWarming(
+                        new APIGatewayProxyRequestEvent().withHeaders(Map.of()), primer);
+
+        verify(primer, never()).prime();
+        assertThat(response.isPresent(), equalTo(false));
+    }
+
+    @Test
+    void shouldRunTheCommonPrimersWithoutRemoteDependencies() throws Exception {
+        WarmupPrimers.COMMON
+                .andThen(WarmupPrimers.PHONE_NUMBERS)
+                .andThen(WarmupPrimers.ARGON2)
+                .prime();
+    }
+
+    private static APIGatewayProxyRequestEvent warmupRequest() {
+        return new APIGatewayProxyRequestEvent().withHeaders(Map.of(WARMUP_HEADER, "request-id"));
+    }
+}
@@ -0,0 +1,74 @@
+package uk.gov.di.authentication.shared.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.VectorOfTrust;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RedisValueCodecTest {
+
+    private final ObjectMapper objectMapper =
+            JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    private final RedisValueCodec<ClientSession> codec =
+            new RedisValueCodec<>(ClientSession.class, objectMapper);
+
+    @Test
+    void shouldRoundTripClientSessionInBinaryFormat() throws IOException {
+        var clientSession = clientSession();
+
+        var decoded = codec.decode(codec.encode(clientSession));
+
+        assertThat(decoded.getAuthRequestParams(), equalTo(clientSession.getAuthRequestParams()));
+        assertThat(decoded.getCreationDate(), equalTo(clientSession.getCreationDate()));
+        assertThat(decoded.getIdTokenHint(), equalTo(clientSession.getIdTokenHint()));
+    }
+
+    @Test
+    void shouldReadValuesWrittenAsJson() throws IOException {
+        var clientSession = clientSession();
+
+        var decoded = codec.decode(objectMapper.writeValueAsBytes(clientSession));
+
+        assertThat(decoded.getAuthRequestParams(), equalTo(clientSession.getAuthRequestParams()));
+    }
+
+    @Test
+    void shouldEncodeToFewerBytesThanJson() throws IOException {
+        var clientSession = clientSession();
+
+        assertThat(
+                codec.encode(clientSession).length,
+                lessThan(codec.encodeJson(clientSession).getBytes().length));
+    }
+
+    @Test
+    void shouldThrowWhenThereIsNoValueToDecode() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(null));
+    }
+
+    private ClientSession clientSession() {
+        return new ClientSession(
+                        Map.of(
+                                "response_type", List.of("code"),
+                                "scope", List.of("openid email phone"),
+                                "client_id", List.of("test-client-id"),
+                                "redirect_uri", List.of("https://rp.example.com/redirect"),
+                                "state", List.of("8VAVNSxHO1GAQcGA1A8yb3sA4kE3DYY0pD6W75UKvBI"),
+                                "nonce", List.of("Ti8sWxJgXb1kBXwPFSJdDmPrVhJe9QNvmL7kkz8dUZw")),
+                        LocalDateTime.now(),
+                        VectorOfTrust.getDefaults())
+                .setIdTokenHint("eyJraWQiOiJ0b2tlbi1zaWduaW5nLWtleSIsImFsZyI6IkVTMjU2In0");
+    }
+}
@@ -0,0 +1,119 @@
+package uk.gov.di.authentication.shared.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class AuditPublisherTest {
+
+    private final SnsService snsService = mock(SnsService.class);
+    private final AuditPublisher auditPublisher =
+            new AuditPublisher(snsService, 100, Runnable::run);
+
+    @Test
+    void shouldPublishFullBatchesAsSoonAsTheyAreAvailable() {
+        messages(12).forEach(message -> submit(auditPublisher, message));
+
+        verify(snsService).publishAuditMessages(messages(10));
+        verifyNoMoreInteractions(snsService);
+    }
+
+    @Test
+    void shouldPublishRemainingMessagesWhenRequestEnds() {
+        messages(12).forEach(message -> submit(auditPublisher, message));
+
+        auditPublisher.endRequest();
+
+        verify(snsService).publishAuditMessages(messages(10));
+        verify(snsService).publishAuditMessages(List.of("message-10", "message-11"));
+    }
+
+    @Test
+    void shouldNotPublishWhenThereAreNoMessages() {
+        auditPublisher.endRequest();
+
+        verify(snsService, never()).publishAuditMessages(anyList());
+    }
+
+    @Test
+    void shouldPublishOnTheRequestThreadWhenTheQueueIsFull() {
+        var smallPublisher = new AuditPublisher(snsService, 2, Runnable::run);
+
+        messages(3).forEach(message -> submit(smallPublisher, message));
+
+        verify(snsService).publishAuditMessages(List.of("message-0", "message-1"));
+    }
+
+    @Test
+    void shouldResignAndPublishWholeBatchWhenOneSignatureFails() {
+        var messages = messages(10);
+        for (int i = 0; i < messages.size(); i++) {
+            var message = messages.get(i);
+            auditPublisher.submit(i == 3 ? failed() : signed(message), () -> message);
+        }
+
+        verify(snsService).publishAuditMessages(messages);
+    }
+
+    @Test
+    void shouldPublishRestOfBatchAndFailTheRequestWhenAnEventCannotBeSigned() {
+        var messages = messages(3);
+        auditPublisher.submit(signed(messages.get(0)), () -> messages.get(0));
+        auditPublisher.submit(
+                failed(),
+                () -> {
+                    throw new RuntimeException("KMS unavailable");
+                });
+        auditPublisher.submit(signed(messages.get(2)), () -> messages.get(2));
+
+        assertThrows(RuntimeException.class, auditPublisher::endRequest);
+
+        verify(snsService).publishAuditMessages(List.of("message-0", "message-2"));
+        verifyNoMoreInteractions(snsService);
+    }
+
+    @Test
+    void shouldFailTheRequestWhenABatchCannotBePublished() {
+        doThrow(new RuntimeException("SNS unavailable"))
+                .when(snsService)
+                .publishAuditMessages(anyList());
+        messages(2).forEach(message -> submit(auditPublisher, message));
+
+        var exception = assertThrows(RuntimeException.class, auditPublisher::endRequest);
+
+        assertThat(exception.getCause().getCause().getMessage(), equalTo("SNS unavailable"));
+        assertDoesNotThrow(auditPublisher::endRequest);
+    }
+
+    private static void submit(AuditPublisher auditPublisher, String message) {
+        auditPublisher.submit(signed(message), () -> message);
+    }
+
+    private static List<String> messages(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "message-" + i)
+                .collect(Collectors.toList());
+    }
+
+    private static CompletableFuture<String> signed(String message) {
+        return CompletableFuture.completedFuture(message);
+    }
+
+    private static CompletableFuture<String> failed() {
+        return CompletableFuture.failedFuture(new RuntimeException("KMS unavailable"));
+    }
+}
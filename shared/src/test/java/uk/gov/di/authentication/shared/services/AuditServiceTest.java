@@ -17,11 +17,16 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -49,6 +54,7 @@ class AuditServiceTest {
     private final KmsConnectionService kmsConnectionService = mock(KmsConnectionService.class);
 
     @Captor private ArgumentCaptor<String> messageCaptor;
+    @Captor private ArgumentCaptor<List<String>> messagesCaptor;
 
     enum TestEvents implements AuditableEvent {
         TEST_EVENT_ONE
@@ -58,6 +64,8 @@ class AuditServiceTest {
     public void beforeEach() {
         var stubSignature = new SignResult().withSignature(ByteBuffer.wrap("signature".getBytes()));
         when(kmsConnectionService.sign(any(SignRequest.class))).thenReturn(stubSignature);
+        when(kmsConnectionService.signAsync(any(SignRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(stubSignature));
         MockitoAnnotations.openMocks(this);
     }
 
@@ -66,6 +74,69 @@ class AuditServiceTest {
         verifyNoMoreInteractions(snsService);
     }
 
+    @Test
+    void shouldPublishDeferredAuditEventsWhenRequestEnds() {
+        var auditService =
+                new AuditService(
+                        FIXED_CLOCK,
+                        snsService,
+                        kmsConnectionService,
+                        mock(ConfigurationService.class),
+                        new AuditPublisher(snsService, 100, Runnable::run));
+
+        auditService.submitAuditEvent(
+                TEST_EVENT_ONE,
+                "request-id",
+                "session-id",
+                "client-id",
+                "subject-id",
+                "email",
+                "ip-address",
+                "phone-number",
+                "persistent-session-id");
+
+        verify(snsService, never()).publishAuditMessages(anyList());
+
+        auditService.endRequest();
+
+        verify(snsService).publishAuditMessages(messagesCaptor.capture());
+        assertThat(messagesCaptor.getValue().size(), is(1));
+        assertThat(messagesCaptor.getValue().get(0), hasEventName(TEST_EVENT_ONE.toString()));
+        assertThat(messagesCaptor.getValue().get(0), hasRequestId("request-id"));
+    }
+
+    @Test
+    void shouldSignDeferredEventsIndividuallyWhenAsyncSignatureFails() {
+        CompletableFuture<SignResult> failedSignature =
+                CompletableFuture.failedFuture(new RuntimeException("KMS unavailable"));
+        when(kmsConnectionService.signAsync(any(SignRequest.class))).thenReturn(failedSignature);
+        var auditService =
+                new AuditService(
+                        FIXED_CLOCK,
+                        snsService,
+                        kmsConnectionService,
+                        mock(ConfigurationService.class),
+                        new AuditPublisher(snsService, 100, Runnable::run));
+
+        for (var requestId : List.of("request-1", "request-2", "request-3")) {
+            auditService.submitAuditEvent(
+                    TEST_EVENT_ONE,
+                    requestId,
+                    "session-id",
+                    "client-id",
+                    "subject-id",
+                    "email",
+                    "ip-address",
+                    "phone-number",
+                    "persistent-session-id");
+        }
+        auditService.endRequest();
+
+        verify(kmsConnectionService, times(3)).sign(any(SignRequest.class));
+        verify(snsService).publishAuditMessages(messagesCaptor.capture());
+        assertThat(messagesCaptor.getValue().size(), is(3));
+    }
+
     @Test
     void shouldLogAuditEvent() {
         var auditService =
@@ -19,7 +19,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ClientSessionServiceTest {
@@ -34,7 +37,7 @@ class ClientSessionServiceTest {
 
     @Test
     void shouldRetrieveClientSessionUsingRequestHeaders() throws JsonProcessingException {
-        when(redis.getValue("client-session-cs1")).thenReturn(generateSerialisedClientSession());
+        when(redis.getBytes("client-session-cs1")).thenReturn(generateSerialisedClientSession());
 
         Optional<ClientSession> clientSessionInRedis =
                 clientSessionService.getClientSessionFromRequestHeaders(
@@ -50,7 +53,7 @@ class ClientSessionServiceTest {
 
     @Test
     void shouldNotRetrieveClientSessionUsingNullRequestHeaders() throws JsonProcessingException {
-        when(redis.getValue("client-session-cs1")).thenReturn(generateSerialisedClientSession());
+        when(redis.getBytes("client-session-cs1")).thenReturn(generateSerialisedClientSession());
 
         Optional<ClientSession> clientSessionInRedis =
                 clientSessionService.getClientSessionFromRequestHeaders(null);
@@ -60,7 +63,7 @@ class ClientSessionServiceTest {
 
     @Test
     void shouldNotRetrieveClientSessionForLowerCaseHeaderName() throws JsonProcessingException {
-        when(redis.getValue("client-session-cs1")).thenReturn(generateSerialisedClientSession());
+        when(redis.getBytes("client-session-cs1")).thenReturn(generateSerialisedClientSession());
 
         Optional<ClientSession> clientSessionInRedis =
                 clientSessionService.getClientSessionFromRequestHeaders(
@@ -71,7 +74,7 @@ class ClientSessionServiceTest {
 
     @Test
     void shouldNotRetrieveClientSessionWithNoHeaders() throws JsonProcessingException {
-        when(redis.getValue("client-session-cs1")).thenReturn(generateSerialisedClientSession());
+        when(redis.getBytes("client-session-cs1")).thenReturn(generateSerialisedClientSession());
 
         Optional<ClientSession> clientSessionInRedis =
                 clientSessionService.getClientSessionFromRequestHeaders(Collections.emptyMap());
@@ -81,7 +84,7 @@ class ClientSessionServiceTest {
 
     @Test
     void shouldNotRetrieveClientSessionWithMissingHeader() throws JsonProcessingException {
-        when(redis.getValue("client-session-cs1")).thenReturn(generateSerialisedClientSession());
+        when(redis.getBytes("client-session-cs1")).thenReturn(generateSerialisedClientSession());
 
         Optional<ClientSession> clientSessionInRedis =
                 clientSessionService.getClientSessionFromRequestHeaders(
@@ -104,11 +107,24 @@ class ClientSessionServiceTest {
                 exception
                         .getMessage()
                         .contains(
-                                "java.lang.IllegalArgumentException: argument \"content\" is null"));
+                                "java.lang.IllegalArgumentException: No value to decode for ClientSession"));
     }
 
-    private String generateSerialisedClientSession() throws JsonProcessingException {
-        return objectMapper.writeValueAsString(
+    @Test
+    void shouldRetrieveAllExistingClientSessionsInOneRequest() throws JsonProcessingException {
+        when(redis.getByteValues(List.of("client-session-cs1", "client-session-cs2")))
+                .thenReturn(
+                        List.of(Optional.of(generateSerialisedClientSession()), Optional.empty()));
+
+        List<ClientSession> clientSessions =
+                clientSessionService.getClientSessions(List.of("cs1", "cs2"));
+
+        assertThat(clientSessions.size(), is(1));
+        verify(redis, never()).getBytes(anyString());
+    }
+
+    private byte[] generateSerialisedClientSession() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(
                 new ClientSession(
                         Map.of("authparam", List.of("v1", "v2")),
                         LocalDateTime.now(),
@@ -1,16 +1,24 @@
 package uk.gov.di.authentication.shared.services;
 
 import com.nimbusds.oauth2.sdk.AuthorizationCode;
+import io.lettuce.core.ScriptOutputType;
 import org.junit.jupiter.api.Test;
 import uk.gov.di.authentication.shared.entity.NotificationType;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
 
+import java.util.List;
+import java.util.Optional;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.authentication.shared.entity.NotificationType.RESET_PASSWORD;
@@ -250,22 +258,45 @@ class CodeStorageServiceTest {
     }
 
     @Test
-    public void shouldCreateCountInRedisWhenThereHasBeenNoPreviousIncorrectPasswordAttempt() {
-        when(redisConnectionService.getValue(REDIS_INCORRECT_PASSWORDS_KEY)).thenReturn(null);
-        codeStorageService.increaseIncorrectPasswordCount(TEST_EMAIL);
+    public void shouldIncreaseIncorrectPasswordCountWithOneScriptCallAndReturnCount() {
+        when(redisConnectionService.evalScript(
+                        anyString(),
+                        eq(ScriptOutputType.INTEGER),
+                        aryEq(new String[] {REDIS_INCORRECT_PASSWORDS_KEY}),
+                        eq("5"),
+                        eq(String.valueOf(CODE_EXPIRY_TIME))))
+                .thenReturn(4L);
+
+        assertThat(codeStorageService.increaseIncorrectPasswordCount(TEST_EMAIL, 5), equalTo(4));
+        verify(redisConnectionService, never()).getValue(REDIS_INCORRECT_PASSWORDS_KEY);
+    }
 
-        verify(redisConnectionService)
-                .saveWithExpiry(REDIS_INCORRECT_PASSWORDS_KEY, String.valueOf(1), CODE_EXPIRY_TIME);
+    @Test
+    public void shouldReturnFirstBlockInPlaceForEmailFromASingleRead() {
+        when(redisConnectionService.getValues(
+                        List.of(REDIS_BLOCKED_REQUEST_KEY, REDIS_BLOCKED_KEY)))
+                .thenReturn(List.of(Optional.empty(), Optional.of(CODE_BLOCKED_VALUE)));
+
+        assertThat(
+                codeStorageService.getBlockForEmail(
+                        TEST_EMAIL, CODE_REQUEST_BLOCKED_KEY_PREFIX, CODE_BLOCKED_KEY_PREFIX),
+                equalTo(Optional.of(CODE_BLOCKED_KEY_PREFIX)));
+        verify(redisConnectionService, never()).getValue(anyString());
     }
 
     @Test
-    public void shouldIncrementCountWhenThereHasBeenPreviousIncorrectPasswordAttempts() {
-        when(redisConnectionService.getValue(REDIS_INCORRECT_PASSWORDS_KEY))
-                .thenReturn(String.valueOf(3));
-        codeStorageService.increaseIncorrectPasswordCount(TEST_EMAIL);
+    public void shouldReturnEmptyWhenNoBlockIsInPlaceForEmail() {
+        when(redisConnectionService.getValues(
+                        List.of(REDIS_BLOCKED_REQUEST_KEY, REDIS_BLOCKED_KEY)))
+                .thenReturn(List.of(Optional.empty(), Optional.empty()));
 
-        verify(redisConnectionService)
-                .saveWithExpiry(REDIS_INCORRECT_PASSWORDS_KEY, String.valueOf(4), CODE_EXPIRY_TIME);
+        assertTrue(
+                codeStorageService
+                        .getBlockForEmail(
+                                TEST_EMAIL,
+                                CODE_REQUEST_BLOCKED_KEY_PREFIX,
+                                CODE_BLOCKED_KEY_PREFIX)
+                        .isEmpty());
     }
 
     @Test
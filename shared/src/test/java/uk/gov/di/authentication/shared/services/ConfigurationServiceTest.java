@@ -1,11 +1,43 @@
 package uk.gov.di.authentication.shared.services;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 class ConfigurationServiceTest {
 
+    private static final Instant NOW = Instant.parse("2021-11-01T10:00:00Z");
+    private static final Map<String, String> HOT_RELOAD_ENVIRONMENT =
+            Map.of(
+                    "ENVIRONMENT",
+                    "build",
+                    "CODE_MAX_RETRIES",
+                    "3",
+                    "TUNABLES_HOT_RELOAD_ENABLED",
+                    "true");
+
+    private final SsmParameterCache ssmParameterCache = mock(SsmParameterCache.class);
+    private final Clock clock = mock(Clock.class);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(NOW);
+    }
+
     @Test
     void sessionCookieMaxAgeShouldEqualDefaultWhenEnvVarUnset() {
         ConfigurationService configurationService = new ConfigurationService();
@@ -17,4 +49,113 @@ class ConfigurationServiceTest {
         ConfigurationService configurationService = new ConfigurationService();
         assertEquals("Secure; HttpOnly;", configurationService.getSessionCookieAttributes());
     }
+
+    @Test
+    void shouldReadTypedValuesFromTheEnvironment() {
+        var configurationService =
+                new ConfigurationService(
+                        Map.of("CODE_MAX_RETRIES", "3", "HEADERS_CASE_INSENSITIVE", "true"),
+                        ssmParameterCache);
+
+        assertEquals(3, configurationService.getCodeMaxRetries());
+        assertEquals(3, configurationService.getCodeMaxRetries());
+        assertEquals(true, configurationService.getHeadersCaseInsensitive());
+        verifyNoInteractions(ssmParameterCache);
+    }
+
+    @Test
+    void shouldReadPasswordPepperFromTheParameterCache() {
+        when(ssmParameterCache.get("build-password-pepper")).thenReturn(Optional.of("pepper"));
+        var configurationService =
+                new ConfigurationService(Map.of("ENVIRONMENT", "build"), ssmParameterCache);
+
+        assertEquals(Optional.of("pepper"), configurationService.getPasswordPepper());
+    }
+
+    @Test
+    void shouldApplyTunablesWhenHotReloadIsEnabled() {
+        var configurationService =
+                new ConfigurationService(HOT_RELOAD_ENVIRONMENT, ssmParameterCache, clock);
+        when(ssmParameterCache.get("build-tunables")).thenReturn(Optional.empty());
+
+        assertEquals(3, configurationService.getCodeMaxRetries());
+
+        when(ssmParameterCache.get("build-tunables"))
+                .thenReturn(Optional.of("CODE_MAX_RETRIES=6\nSESSION_EXPIRY=1800"));
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(5)));
+
+        assertEquals(6, configurationService.getCodeMaxRetries());
+        assertEquals(1800, configurationService.getSessionExpiry());
+    }
+
+    @Test
+    void shouldIgnoreTunablesThatAreNotAllowed() {
+        var environment = new HashMap<>(HOT_RELOAD_ENVIRONMENT);
+        environment.put("TOKEN_SIGNING_KEY_ALIAS", "token-signing-key");
+        var configurationService = new ConfigurationService(environment, ssmParameterCache, clock);
+        when(ssmParameterCache.get("build-tunables"))
+                .thenReturn(
+                        Optional.of(
+                                "TEST_CLIENTS_ENABLED=true\n"
+                                        + "TOKEN_SIGNING_KEY_ALIAS=attacker-key\n"
+                                        + "CODE_MAX_RETRIES=6"));
+
+        assertEquals(6, configurationService.getCodeMaxRetries());
+        assertFalse(configurationService.isTestClientsEnabled());
+        assertEquals("token-signing-key", configurationService.getTokenSigningKeyAlias());
+    }
+
+    @Test
+    void shouldOnlyCheckTunablesOncePerTtl() {
+        var configurationService =
+                new ConfigurationService(HOT_RELOAD_ENVIRONMENT, ssmParameterCache, clock);
+        when(ssmParameterCache.get("build-tunables")).thenReturn(Optional.empty());
+
+        configurationService.getCodeMaxRetries();
+        configurationService.getSessionExpiry();
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(4)));
+        configurationService.getCodeMaxRetries();
+
+        verify(ssmParameterCache, times(1)).get("build-tunables");
+    }
+
+    @Test
+    void shouldUseEnvironmentUntilNextCheckWhenTunablesCannotBeRead() {
+        var configurationService =
+                new ConfigurationService(HOT_RELOAD_ENVIRONMENT, ssmParameterCache, clock);
+        when(ssmParameterCache.get("build-tunables"))
+                .thenThrow(new RuntimeException("Access denied"));
+
+        assertEquals(3, configurationService.getCodeMaxRetries());
+        assertEquals(3600, configurationService.getSessionExpiry());
+        verify(ssmParameterCache, times(1)).get("build-tunables");
+    }
+
+    @Test
+    void shouldReadRegionAndLocalstackEndpointFromTheGivenEnvironment() {
+        var configurationService =
+                new ConfigurationService(
+                        Map.of(
+                                "AWS_REGION",
+                                "eu-west-2",
+                                "LOCALSTACK_ENDPOINT",
+                                "http://localhost:45678"),
+                        ssmParameterCache);
+
+        assertEquals("eu-west-2", configurationService.getAwsRegion());
+        assertEquals(
+                Optional.of("http://localhost:45678"),
+                configurationService.getLocalstackEndpointUri());
+    }
+
+    @Test
+    void shouldIgnoreTunablesWhenHotReloadIsDisabled() {
+        var configurationService =
+                new ConfigurationService(
+                        Map.of("ENVIRONMENT", "build", "CODE_MAX_RETRIES", "3"),
+                        ssmParameterCache);
+
+        assertEquals(3, configurationService.getCodeMaxRetries());
+        verifyNoInteractions(ssmParameterCache);
+    }
 }
@@ -0,0 +1,93 @@
+package uk.gov.di.authentication.shared.services;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.UpdateClientConfigRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DynamoClientServiceTest {
+
+    private static final String CLIENT_ID = "client-id";
+    private static final Instant NOW = Instant.parse("2021-11-01T10:00:00Z");
+
+    private final AmazonDynamoDB dynamoDB = mock(AmazonDynamoDB.class);
+    private final DynamoDBMapper mapper = mock(DynamoDBMapper.class);
+    private final Clock clock = mock(Clock.class);
+    private final DynamoClientService clientService =
+            new DynamoClientService(
+                    dynamoDB, mapper, Duration.ofMinutes(5), Duration.ofSeconds(30), clock);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @Test
+    void shouldServeClientFromCacheWithinTtl() {
+        when(mapper.load(ClientRegistry.class, CLIENT_ID)).thenReturn(client("a-client"));
+
+        clientService.getClient(CLIENT_ID);
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(4)));
+        var client = clientService.getClient(CLIENT_ID);
+
+        assertThat(client.map(ClientRegistry::getClientID), equalTo(Optional.of(CLIENT_ID)));
+        verify(mapper, times(1)).load(ClientRegistry.class, CLIENT_ID);
+    }
+
+    @Test
+    void shouldReloadClientWhenTtlHasPassed() {
+        when(mapper.load(ClientRegistry.class, CLIENT_ID))
+                .thenReturn(client("a-client"), client("a-renamed-client"));
+
+        clientService.getClient(CLIENT_ID);
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(6)));
+        var client = clientService.getClient(CLIENT_ID);
+
+        assertThat(
+                client.map(ClientRegistry::getClientName),
+                equalTo(Optional.of("a-renamed-client")));
+        verify(mapper, times(2)).load(ClientRegistry.class, CLIENT_ID);
+    }
+
+    @Test
+    void shouldCacheUnknownClientsForTheNegativeTtl() {
+        clientService.isValidClient(CLIENT_ID);
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofSeconds(20)));
+        assertThat(clientService.isValidClient(CLIENT_ID), equalTo(false));
+        verify(mapper, times(1)).load(ClientRegistry.class, CLIENT_ID);
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofSeconds(31)));
+        clientService.isValidClient(CLIENT_ID);
+        verify(mapper, times(2)).load(ClientRegistry.class, CLIENT_ID);
+    }
+
+    @Test
+    void shouldInvalidateCacheOnUpdate() {
+        when(mapper.load(ClientRegistry.class, CLIENT_ID)).thenReturn(client("a-client"));
+
+        clientService.getClient(CLIENT_ID);
+        var updated = clientService.updateClient(CLIENT_ID, new UpdateClientConfigRequest());
+        clientService.getClient(CLIENT_ID);
+
+        verify(mapper).save(updated);
+        verify(mapper, times(3)).load(ClientRegistry.class, CLIENT_ID);
+    }
+
+    private ClientRegistry client(String clientName) {
+        return new ClientRegistry().setClientID(CLIENT_ID).setClientName(clientName);
+    }
+}
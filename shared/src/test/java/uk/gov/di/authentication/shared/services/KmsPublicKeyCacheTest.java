@@ -0,0 +1,90 @@
+package uk.gov.di.authentication.shared.services;
+
+import com.amazonaws.services.kms.model.GetPublicKeyRequest;
+import com.amazonaws.services.kms.model.GetPublicKeyResult;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KmsPublicKeyCacheTest {
+
+    private static final String KEY_ALIAS = "alias/token-signing-key";
+    private static final Instant NOW = Instant.parse("2021-11-01T10:00:00Z");
+
+    private final KmsConnectionService kmsConnectionService = mock(KmsConnectionService.class);
+    private final Clock clock = mock(Clock.class);
+    private final KmsPublicKeyCache cache =
+            new KmsPublicKeyCache(
+                    kmsConnectionService, Duration.ofMinutes(5), clock, Runnable::run);
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        var publicKey = new ECKeyGenerator(Curve.P_256).generate().toECPublicKey();
+        when(kmsConnectionService.getPublicKey(any(GetPublicKeyRequest.class)))
+                .thenReturn(
+                        new GetPublicKeyResult()
+                                .withKeyId("arn:aws:kms:eu-west-2:123456789012:key/1234")
+                                .withPublicKey(ByteBuffer.wrap(publicKey.getEncoded())));
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @Test
+    void shouldOnlyCallKmsOnceWhileKeyIsWithinTtl() {
+        cache.get(KEY_ALIAS);
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(4)));
+        cache.get(KEY_ALIAS);
+        cache.get(KEY_ALIAS);
+
+        verify(kmsConnectionService, times(1)).getPublicKey(any(GetPublicKeyRequest.class));
+        assertThat(cache.getMissCount(), equalTo(1L));
+        assertThat(cache.getHitCount(), equalTo(2L));
+    }
+
+    @Test
+    void shouldRefreshKeyOnceTtlHasExpired() {
+        cache.get(KEY_ALIAS);
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(6)));
+        cache.get(KEY_ALIAS);
+        cache.get(KEY_ALIAS);
+
+        verify(kmsConnectionService, times(2)).getPublicKey(any(GetPublicKeyRequest.class));
+        assertThat(cache.getRefreshCount(), equalTo(2L));
+    }
+
+    @Test
+    void shouldRateLimitForcedRefreshes() {
+        cache.get(KEY_ALIAS);
+        cache.refresh(KEY_ALIAS);
+
+        verify(kmsConnectionService, times(1)).getPublicKey(any(GetPublicKeyRequest.class));
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofSeconds(31)));
+        cache.refresh(KEY_ALIAS);
+
+        verify(kmsConnectionService, times(2)).getPublicKey(any(GetPublicKeyRequest.class));
+    }
+
+    @Test
+    void shouldMatchKeyIdsAgainstAliasAndKmsKeyId() {
+        var cachedPublicKey = cache.get(KEY_ALIAS);
+
+        assertThat(cachedPublicKey.matchesKeyId(KEY_ALIAS), equalTo(true));
+        assertThat(cachedPublicKey.matchesKeyId("1234"), equalTo(true));
+        assertThat(cachedPublicKey.matchesKeyId("some-other-key"), equalTo(false));
+    }
+}
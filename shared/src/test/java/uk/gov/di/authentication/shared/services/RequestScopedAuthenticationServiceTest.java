@@ -0,0 +1,89 @@
+package uk.gov.di.authentication.shared.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.shared.entity.UserCredentials;
+import uk.gov.di.authentication.shared.entity.UserProfile;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequestScopedAuthenticationServiceTest {
+
+    private static final String EMAIL = "joe.bloggs@digital.cabinet-office.gov.uk";
+    private static final String SUBJECT = "some-subject-id";
+    private static final String PASSWORD = "password-1";
+
+    private final AuthenticationService delegate = mock(AuthenticationService.class);
+    private final RequestScopedAuthenticationService authenticationService =
+            new RequestScopedAuthenticationService(delegate);
+    private final UserCredentials userCredentials =
+            new UserCredentials().setEmail(EMAIL).setSubjectID(SUBJECT);
+    private final UserProfile userProfile =
+            new UserProfile().setEmail(EMAIL).setSubjectID(SUBJECT);
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.getUserCredentialsFromEmail(EMAIL)).thenReturn(userCredentials);
+        when(delegate.getUserProfileFromSubject(SUBJECT)).thenReturn(userProfile);
+        when(delegate.getUserProfileByEmail(EMAIL)).thenReturn(userProfile);
+        when(delegate.login(userCredentials, PASSWORD)).thenReturn(true);
+    }
+
+    @Test
+    void shouldOnlyLoadEachEntityOnceDuringALogin() {
+        authenticationService.getUserProfileFromEmail(EMAIL);
+        authenticationService.getUserProfileByEmail(EMAIL);
+        authenticationService.getUserCredentialsFromEmail(EMAIL);
+
+        assertThat(authenticationService.login(EMAIL, PASSWORD), equalTo(true));
+        verify(delegate, times(1)).getUserCredentialsFromEmail(EMAIL);
+        verify(delegate, times(1)).getUserProfileFromSubject(SUBJECT);
+        verify(delegate, never()).getUserProfileByEmail(anyString());
+        verify(delegate, never()).login(anyString(), anyString());
+        assertThat(authenticationService.getDynamoCallCount(), equalTo(2));
+    }
+
+    @Test
+    void shouldShareAProfileLoadedByEmailWithLookupsBySubject() {
+        authenticationService.getUserProfileByEmail(EMAIL);
+        authenticationService.getUserProfileFromSubject(SUBJECT);
+
+        verify(delegate, times(1)).getUserProfileByEmail(EMAIL);
+        verify(delegate, never()).getUserProfileFromSubject(anyString());
+        assertThat(authenticationService.getDynamoCallCount(), equalTo(1));
+    }
+
+    @Test
+    void shouldReloadEntitiesAfterAWrite() {
+        authenticationService.getUserProfileByEmail(EMAIL);
+        authenticationService.updatePhoneNumberVerifiedStatus(EMAIL, true);
+        authenticationService.getUserProfileByEmail(EMAIL);
+
+        verify(delegate, times(2)).getUserProfileByEmail(EMAIL);
+    }
+
+    @Test
+    void shouldReloadEntitiesInTheNextRequest() {
+        authenticationService.getUserProfileByEmail(EMAIL);
+        authenticationService.endRequest();
+        authenticationService.getUserProfileByEmail(EMAIL);
+
+        verify(delegate, times(2)).getUserProfileByEmail(EMAIL);
+        assertThat(authenticationService.getDynamoCallCount(), equalTo(1));
+    }
+
+    @Test
+    void shouldRememberUsersThatDoNotExist() {
+        authenticationService.userExists("not.a.user@example.com");
+        authenticationService.userExists("not.a.user@example.com");
+
+        verify(delegate, times(1)).getUserProfileByEmail("not.a.user@example.com");
+    }
+}
@@ -0,0 +1,54 @@
+package uk.gov.di.authentication.shared.services;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.UpdateClientConfigRequest;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequestScopedClientServiceTest {
+
+    private static final String CLIENT_ID = "client-id";
+
+    private final ClientService delegate = mock(ClientService.class);
+    private final RequestScopedClientService clientService =
+            new RequestScopedClientService(delegate);
+
+    @Test
+    void shouldOnlyLoadEachClientOnceDuringARequest() {
+        when(delegate.getClient(CLIENT_ID))
+                .thenReturn(Optional.of(new ClientRegistry().setClientID(CLIENT_ID)));
+
+        clientService.getClient(CLIENT_ID);
+        clientService.isValidClient(CLIENT_ID);
+        clientService.getClient(CLIENT_ID);
+
+        verify(delegate, times(1)).getClient(CLIENT_ID);
+        assertThat(clientService.getDynamoCallCount(), equalTo(1));
+    }
+
+    @Test
+    void shouldReloadClientAfterItIsUpdated() {
+        clientService.getClient(CLIENT_ID);
+        clientService.updateClient(CLIENT_ID, new UpdateClientConfigRequest());
+        clientService.getClient(CLIENT_ID);
+
+        verify(delegate, times(2)).getClient(CLIENT_ID);
+    }
+
+    @Test
+    void shouldReloadClientInTheNextRequest() {
+        clientService.getClient(CLIENT_ID);
+        clientService.endRequest();
+        clientService.getClient(CLIENT_ID);
+
+        verify(delegate, times(2)).getClient(CLIENT_ID);
+    }
+}
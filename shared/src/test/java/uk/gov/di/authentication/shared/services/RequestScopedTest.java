@@ -0,0 +1,36 @@
+package uk.gov.di.authentication.shared.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RequestScopedTest {
+
+    @Test
+    void shouldEndEveryRequestBeforeRethrowingTheFirstFailure() {
+        var first = mock(RequestScoped.class);
+        var second = mock(RequestScoped.class);
+        var third = mock(RequestScoped.class);
+        var firstFailure = new RuntimeException("first");
+        var secondFailure = new RuntimeException("second");
+        doThrow(firstFailure).when(first).endRequest();
+        doThrow(secondFailure).when(second).endRequest();
+
+        var exception =
+                assertThrows(
+                        RuntimeException.class,
+                        () -> RequestScoped.endRequests(List.of(first, second, third)));
+
+        assertThat(exception, sameInstance(firstFailure));
+        assertThat(exception.getSuppressed(), arrayContaining(secondFailure));
+        verify(third).endRequest();
+    }
+}
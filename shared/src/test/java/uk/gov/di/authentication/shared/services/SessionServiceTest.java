@@ -6,13 +6,17 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.helpers.CookieHelper;
+import uk.gov.di.authentication.shared.serialization.RedisValueCodec;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,7 +25,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -47,10 +53,29 @@ class SessionServiceTest {
                 .saveWithExpiry("session-id", objectMapper.writeValueAsString(session), 1234L);
     }
 
+    @Test
+    void shouldPersistSessionInBinaryFormatWhenEnabled() throws IOException {
+        when(configuration.getSessionExpiry()).thenReturn(1234L);
+        when(configuration.isRedisBinarySessionsEnabled()).thenReturn(true);
+
+        var session = new Session("session-id").addClientSession("client-session-id");
+
+        sessionService.save(session);
+
+        var captor = ArgumentCaptor.forClass(byte[].class);
+        verify(redis).saveWithExpiry(eq("session-id"), captor.capture(), eq(1234L));
+        assertThat(captor.getValue()[0], is(RedisValueCodec.SMILE_V1));
+
+        when(redis.getBytes("session-id")).thenReturn(captor.getValue());
+
+        var sessionInRedis = sessionService.readSessionFromRedis("session-id");
+
+        assertThat(sessionInRedis.get().getClientSessions(), hasItem("client-session-id"));
+    }
+
     @Test
     void shouldRetrieveSessionUsingRequestHeaders() throws JsonProcessingException {
-        when(redis.keyExists("session-id")).thenReturn(true);
-        when(redis.getValue("session-id")).thenReturn(generateSearlizedSession());
+        when(redis.getBytes("session-id")).thenReturn(generateSearlizedSession());
 
         var sessionInRedis =
                 sessionService.getSessionFromRequestHeaders(Map.of("Session-Id", "session-id"));
@@ -58,12 +83,12 @@ class SessionServiceTest {
         sessionInRedis.ifPresentOrElse(
                 session -> assertThat(session.getSessionId(), is("session-id")),
                 () -> fail("Could not retrieve result"));
+        verify(redis, never()).keyExists(anyString());
     }
 
     @Test
     void shouldNotRetrieveSessionForLowerCaseHeaderName() throws JsonProcessingException {
-        when(redis.keyExists("session-id")).thenReturn(true);
-        when(redis.getValue("session-id")).thenReturn(generateSearlizedSession());
+        when(redis.getBytes("session-id")).thenReturn(generateSearlizedSession());
 
         var sessionInRedis =
                 sessionService.getSessionFromRequestHeaders(Map.of("session-id", "session-id"));
@@ -90,7 +115,7 @@ class SessionServiceTest {
 
     @Test
     void shouldNotRetrieveSessionIfNotPresentInRedis() {
-        when(redis.keyExists("session-id")).thenReturn(false);
+        when(redis.getBytes("session-id")).thenReturn(null);
 
         var session =
                 sessionService.getSessionFromRequestHeaders(Map.of("Session-Id", "session-id"));
@@ -111,8 +136,7 @@ class SessionServiceTest {
     @Test
     void shouldReturnSessionFromSessionCookieCalledWithValidCookieHeaderValues()
             throws JsonProcessingException {
-        when(redis.keyExists("session-id")).thenReturn(true);
-        when(redis.getValue("session-id")).thenReturn(generateSearlizedSession());
+        when(redis.getBytes("session-id")).thenReturn(generateSearlizedSession());
 
         Optional<Session> sessionFromSessionCookie =
                 sessionService.getSessionFromSessionCookie(
@@ -126,7 +150,7 @@ class SessionServiceTest {
 
     @Test
     void shouldNotReturnSessionFromSessionCookieCalledWithMissingSessionId() {
-        when(redis.keyExists("session-id")).thenReturn(false);
+        when(redis.getBytes("session-id")).thenReturn(null);
         Optional<Session> session =
                 sessionService.getSessionFromSessionCookie(
                         Map.ofEntries(
@@ -157,9 +181,9 @@ class SessionServiceTest {
         verify(redis).deleteValue("session-id");
     }
 
-    private String generateSearlizedSession() throws JsonProcessingException {
+    private byte[] generateSearlizedSession() throws JsonProcessingException {
         var session = new Session("session-id").addClientSession("client-session-id");
 
-        return objectMapper.writeValueAsString(session);
+        return objectMapper.writeValueAsBytes(session);
     }
 }
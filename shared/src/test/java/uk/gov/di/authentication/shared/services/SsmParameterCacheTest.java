@@ -0,0 +1,130 @@
+package uk.gov.di.authentication.shared.services;
+
+import com.amazonaws.services.simplesystemsmanagement.AWSSimpleSystemsManagement;
+import com.amazonaws.services.simplesystemsmanagement.model.GetParametersRequest;
+import com.amazonaws.services.simplesystemsmanagement.model.GetParametersResult;
+import com.amazonaws.services.simplesystemsmanagement.model.Parameter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SsmParameterCacheTest {
+
+    private static final String PEPPER = "test-password-pepper";
+    private static final Instant NOW = Instant.parse("2021-11-01T10:00:00Z");
+
+    private final AWSSimpleSystemsManagement ssmClient = mock(AWSSimpleSystemsManagement.class);
+    private final Clock clock = mock(Clock.class);
+    private final SsmParameterCache cache =
+            new SsmParameterCache(ssmClient, Duration.ofMinutes(5), clock, Runnable::run);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(NOW);
+        when(ssmClient.getParameters(any(GetParametersRequest.class)))
+                .thenReturn(result(parameter(PEPPER, "pepper")));
+    }
+
+    @Test
+    void shouldOnlyCallSsmOnceWhileParameterIsWithinTtl() {
+        cache.get(PEPPER);
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(4)));
+
+        assertThat(cache.get(PEPPER), equalTo(Optional.of("pepper")));
+        verify(ssmClient, times(1)).getParameters(any(GetParametersRequest.class));
+    }
+
+    @Test
+    void shouldRefreshParameterOnceTtlHasExpired() {
+        cache.get(PEPPER);
+        when(ssmClient.getParameters(any(GetParametersRequest.class)))
+                .thenReturn(result(parameter(PEPPER, "new-pepper")));
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(6)));
+
+        assertThat(cache.get(PEPPER), equalTo(Optional.of("new-pepper")));
+        verify(ssmClient, times(2)).getParameters(any(GetParametersRequest.class));
+    }
+
+    @Test
+    void shouldKeepCachedValueWhenRefreshFails() {
+        cache.get(PEPPER);
+        when(ssmClient.getParameters(any(GetParametersRequest.class)))
+                .thenThrow(new RuntimeException("SSM unavailable"));
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(6)));
+
+        assertThat(cache.get(PEPPER), equalTo(Optional.of("pepper")));
+    }
+
+    @Test
+    void shouldNotCallSsmAgainUntilBackoffHasPassedAfterAFailedRead() {
+        when(ssmClient.getParameters(any(GetParametersRequest.class)))
+                .thenThrow(new RuntimeException("Access denied"));
+
+        assertThrows(RuntimeException.class, () -> cache.get(PEPPER));
+        assertThrows(RuntimeException.class, () -> cache.get(PEPPER));
+        verify(ssmClient, times(1)).getParameters(any(GetParametersRequest.class));
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofSeconds(1)));
+        assertThrows(RuntimeException.class, () -> cache.get(PEPPER));
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMillis(2500)));
+        assertThrows(RuntimeException.class, () -> cache.get(PEPPER));
+        verify(ssmClient, times(2)).getParameters(any(GetParametersRequest.class));
+    }
+
+    @Test
+    void shouldReadParameterOnceSsmRecoversAfterBackoff() {
+        when(ssmClient.getParameters(any(GetParametersRequest.class)))
+                .thenThrow(new RuntimeException("SSM unavailable"))
+                .thenReturn(result(parameter(PEPPER, "pepper")));
+
+        assertThrows(RuntimeException.class, () -> cache.get(PEPPER));
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofSeconds(1)));
+
+        assertThat(cache.get(PEPPER), equalTo(Optional.of("pepper")));
+    }
+
+    @Test
+    void shouldCacheMissingParametersAsAbsent() {
+        when(ssmClient.getParameters(any(GetParametersRequest.class)))
+                .thenReturn(result().withInvalidParameters(PEPPER));
+
+        assertThat(cache.get(PEPPER), equalTo(Optional.empty()));
+        assertThat(cache.get(PEPPER), equalTo(Optional.empty()));
+        verify(ssmClient, times(1)).getParameters(any(GetParametersRequest.class));
+    }
+
+    @Test
+    void shouldFetchUncachedParametersInOneRequest() {
+        when(ssmClient.getParameters(any(GetParametersRequest.class)))
+                .thenReturn(
+                        result(parameter("redis-host", "localhost"), parameter("port", "6379")));
+
+        var values = cache.getAll(List.of("redis-host", "port", "redis-password"));
+
+        assertThat(values, equalTo(Map.of("redis-host", "localhost", "port", "6379")));
+        verify(ssmClient, times(1)).getParameters(any(GetParametersRequest.class));
+    }
+
+    private static Parameter parameter(String name, String value) {
+        return new Parameter().withName(name).withValue(value);
+    }
+
+    private static GetParametersResult result(Parameter... parameters) {
+        return new GetParametersResult().withParameters(parameters);
+    }
+}
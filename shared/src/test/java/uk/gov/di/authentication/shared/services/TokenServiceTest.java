@@ -1,5 +1,6 @@
 package uk.gov.di.authentication.shared.services;
 
+import com.amazonaws.services.kms.model.KMSInternalException;
 import com.amazonaws.services.kms.model.SignRequest;
 import com.amazonaws.services.kms.model.SignResult;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -28,13 +29,16 @@ import com.nimbusds.oauth2.sdk.util.URLUtils;
 import com.nimbusds.openid.connect.sdk.Nonce;
 import com.nimbusds.openid.connect.sdk.OIDCScopeValue;
 import com.nimbusds.openid.connect.sdk.OIDCTokenResponse;
+import io.lettuce.core.ScriptOutputType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import uk.gov.di.authentication.shared.entity.AccessTokenStore;
 import uk.gov.di.authentication.shared.entity.ClientConsent;
 import uk.gov.di.authentication.shared.entity.CredentialTrustLevel;
 import uk.gov.di.authentication.shared.entity.RefreshTokenStore;
 import uk.gov.di.authentication.shared.entity.ValidScopes;
+import uk.gov.di.authentication.shared.helpers.HashHelper;
 import uk.gov.di.authentication.shared.helpers.TokenGeneratorHelper;
 
 import java.nio.ByteBuffer;
@@ -45,6 +49,7 @@ import java.security.interfaces.RSAPrivateKey;
 import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
@@ -53,15 +58,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -91,6 +103,9 @@ public class TokenServiceTest {
     private static final String KEY_ID = "14342354354353";
     private static final String REFRESH_TOKEN_PREFIX = "REFRESH_TOKEN:";
     private static final String ACCESS_TOKEN_PREFIX = "ACCESS_TOKEN:";
+    private static final String REFRESH_TOKEN_FAMILY_KEY =
+            "REFRESH_TOKEN_FAMILY:" + CLIENT_ID + "." + PUBLIC_SUBJECT;
+    private static final RefreshToken CURRENT_REFRESH_TOKEN = new RefreshToken();
 
     @BeforeEach
     public void setUp() {
@@ -136,7 +151,7 @@ public class TokenServiceTest {
         assertNotNull(tokenResponse.getOIDCTokens().getRefreshToken());
         String accessTokenKey = ACCESS_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT;
         AccessTokenStore accessTokenStore =
-                new AccessTokenStore(
+                AccessTokenStore.withToken(
                         tokenResponse.getOIDCTokens().getAccessToken().getValue(),
                         INTERNAL_SUBJECT.getValue());
         verify(redisConnectionService)
@@ -144,16 +159,15 @@ public class TokenServiceTest {
                         accessTokenKey,
                         new ObjectMapper().writeValueAsString(accessTokenStore),
                         300L);
-        String refreshTokenKey = REFRESH_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT;
-        RefreshTokenStore refreshTokenStore =
-                new RefreshTokenStore(
-                        List.of(tokenResponse.getOIDCTokens().getRefreshToken().getValue()),
-                        INTERNAL_SUBJECT.getValue());
+        String refreshToken = tokenResponse.getOIDCTokens().getRefreshToken().getValue();
         verify(redisConnectionService)
-                .saveWithExpiry(
-                        refreshTokenKey,
-                        new ObjectMapper().writeValueAsString(refreshTokenStore),
-                        300L);
+                .evalScript(
+                        anyString(),
+                        eq(ScriptOutputType.INTEGER),
+                        aryEq(new String[] {REFRESH_TOKEN_FAMILY_KEY}),
+                        eq(INTERNAL_SUBJECT.getValue()),
+                        eq(HashHelper.hashSha256String(refreshToken)),
+                        eq("300"));
         assertEquals(
                 nonce.getValue(),
                 tokenResponse.getOIDCTokens().getIDToken().getJWTClaimsSet().getClaim("nonce"));
@@ -194,7 +208,7 @@ public class TokenServiceTest {
         assertNull(tokenResponse.getOIDCTokens().getRefreshToken());
         String accessTokenKey = ACCESS_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT;
         AccessTokenStore accessTokenStore =
-                new AccessTokenStore(
+                AccessTokenStore.withToken(
                         tokenResponse.getOIDCTokens().getAccessToken().getValue(),
                         INTERNAL_SUBJECT.getValue());
         verify(redisConnectionService)
@@ -207,6 +221,220 @@ public class TokenServiceTest {
                 tokenResponse.getOIDCTokens().getIDToken().getJWTClaimsSet().getClaim("nonce"));
     }
 
+    @Test
+    public void shouldRotateRefreshTokenAndStoreNewAccessToken()
+            throws JOSEException, JsonProcessingException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        when(configurationService.isAccessTokenStoreDigestEnabled()).thenReturn(true);
+        createSignedAccessToken();
+        givenRotationResult(List.of(1L, INTERNAL_SUBJECT.getValue(), 3L));
+
+        Optional<OIDCTokenResponse> tokenResponse =
+                tokenService.generateRefreshTokenResponse(
+                        CLIENT_ID,
+                        CURRENT_REFRESH_TOKEN,
+                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                        PUBLIC_SUBJECT);
+
+        assertTrue(tokenResponse.isPresent());
+        assertNotNull(tokenResponse.get().getOIDCTokens().getRefreshToken());
+        AccessTokenStore accessTokenStore =
+                AccessTokenStore.forToken(
+                        tokenResponse.get().getOIDCTokens().getAccessToken().getValue(),
+                        INTERNAL_SUBJECT.getValue());
+        verify(redisConnectionService)
+                .saveWithExpiry(
+                        ACCESS_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT,
+                        new ObjectMapper().writeValueAsString(accessTokenStore),
+                        300L);
+    }
+
+    @Test
+    public void shouldNotIssueTokensWhenRefreshTokenHasAlreadyBeenUsed() throws JOSEException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        createSignedAccessToken();
+        givenRotationResult(List.of(-1L));
+
+        Optional<OIDCTokenResponse> tokenResponse =
+                tokenService.generateRefreshTokenResponse(
+                        CLIENT_ID,
+                        CURRENT_REFRESH_TOKEN,
+                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                        PUBLIC_SUBJECT);
+
+        assertTrue(tokenResponse.isEmpty());
+        verify(kmsConnectionService, never()).signAsync(any(SignRequest.class));
+        verify(redisConnectionService, never()).getValue(anyString());
+        verify(redisConnectionService, never())
+                .saveWithExpiry(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    public void shouldNotIssueTokensWhenFamilyIsRevokedWhileTheyAreSigned() throws JOSEException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        createSignedAccessToken();
+        givenRotationResult(List.of(1L, INTERNAL_SUBJECT.getValue(), 3L));
+        givenAddRefreshTokenResult(0L);
+
+        Optional<OIDCTokenResponse> tokenResponse =
+                tokenService.generateRefreshTokenResponse(
+                        CLIENT_ID,
+                        CURRENT_REFRESH_TOKEN,
+                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                        PUBLIC_SUBJECT);
+
+        assertTrue(tokenResponse.isEmpty());
+        verify(redisConnectionService, never())
+                .saveWithExpiry(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    public void shouldRestoreRefreshTokenSoARetrySucceedsWhenNewTokensCannotBeSigned()
+            throws JOSEException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        SignResult signResult = createSignedAccessToken();
+        var signingFailure = new KMSInternalException("KMS is unavailable");
+        when(kmsConnectionService.signAsync(any(SignRequest.class)))
+                .thenReturn(
+                        CompletableFuture.failedFuture(signingFailure),
+                        CompletableFuture.completedFuture(signResult));
+        givenRotationResult(List.of(1L, INTERNAL_SUBJECT.getValue(), 3L));
+        String currentRefreshTokenHash =
+                HashHelper.hashSha256String(CURRENT_REFRESH_TOKEN.getValue());
+
+        var thrown =
+                assertThrows(
+                        KMSInternalException.class,
+                        () ->
+                                tokenService.generateRefreshTokenResponse(
+                                        CLIENT_ID,
+                                        CURRENT_REFRESH_TOKEN,
+                                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                                        PUBLIC_SUBJECT));
+
+        assertThat(thrown, equalTo(signingFailure));
+        verify(redisConnectionService)
+                .evalScript(
+                        anyString(),
+                        eq(ScriptOutputType.INTEGER),
+                        aryEq(new String[] {REFRESH_TOKEN_FAMILY_KEY}),
+                        eq(currentRefreshTokenHash),
+                        eq("3"));
+        verify(redisConnectionService, never())
+                .saveWithExpiry(anyString(), anyString(), anyLong());
+
+        givenRotationResult(List.of(1L, INTERNAL_SUBJECT.getValue(), 4L));
+        Optional<OIDCTokenResponse> retry =
+                tokenService.generateRefreshTokenResponse(
+                        CLIENT_ID,
+                        CURRENT_REFRESH_TOKEN,
+                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                        PUBLIC_SUBJECT);
+
+        assertTrue(retry.isPresent());
+        verify(redisConnectionService)
+                .saveWithExpiry(
+                        eq(ACCESS_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT),
+                        anyString(),
+                        eq(300L));
+    }
+
+    @Test
+    public void shouldMoveRefreshTokenFromLegacyStoreIntoNewFamily()
+            throws JOSEException, JsonProcessingException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        createSignedAccessToken();
+        givenRotationResult(List.of(0L));
+        String legacyKey = REFRESH_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT;
+        when(redisConnectionService.getValue(legacyKey))
+                .thenReturn(
+                        new ObjectMapper()
+                                .writeValueAsString(
+                                        new RefreshTokenStore(
+                                                new ArrayList<>(
+                                                        List.of(CURRENT_REFRESH_TOKEN.getValue())),
+                                                INTERNAL_SUBJECT.getValue())));
+
+        Optional<OIDCTokenResponse> tokenResponse =
+                tokenService.generateRefreshTokenResponse(
+                        CLIENT_ID,
+                        CURRENT_REFRESH_TOKEN,
+                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                        PUBLIC_SUBJECT);
+
+        assertTrue(tokenResponse.isPresent());
+        String refreshToken = tokenResponse.get().getOIDCTokens().getRefreshToken().getValue();
+        verify(redisConnectionService).deleteValue(legacyKey);
+        verify(redisConnectionService)
+                .evalScript(
+                        anyString(),
+                        eq(ScriptOutputType.INTEGER),
+                        aryEq(new String[] {REFRESH_TOKEN_FAMILY_KEY}),
+                        eq(INTERNAL_SUBJECT.getValue()),
+                        eq("300"));
+        verify(redisConnectionService)
+                .evalScript(
+                        anyString(),
+                        eq(ScriptOutputType.INTEGER),
+                        aryEq(new String[] {REFRESH_TOKEN_FAMILY_KEY}),
+                        eq(HashHelper.hashSha256String(refreshToken)),
+                        eq("300"));
+    }
+
+    @Test
+    public void shouldKeepOtherRefreshTokensInLegacyStoreWhenOneIsMovedIntoNewFamily()
+            throws JOSEException, JsonProcessingException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        createSignedAccessToken();
+        givenRotationResult(List.of(0L));
+        String legacyKey = REFRESH_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT;
+        List<String> otherRefreshTokens =
+                List.of(new RefreshToken().getValue(), new RefreshToken().getValue());
+        List<String> legacyRefreshTokens = new ArrayList<>(otherRefreshTokens);
+        legacyRefreshTokens.add(1, CURRENT_REFRESH_TOKEN.getValue());
+        when(redisConnectionService.getValue(legacyKey))
+                .thenReturn(
+                        new ObjectMapper()
+                                .writeValueAsString(
+                                        new RefreshTokenStore(
+                                                legacyRefreshTokens,
+                                                INTERNAL_SUBJECT.getValue())));
+
+        Optional<OIDCTokenResponse> tokenResponse =
+                tokenService.generateRefreshTokenResponse(
+                        CLIENT_ID,
+                        CURRENT_REFRESH_TOKEN,
+                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                        PUBLIC_SUBJECT);
+
+        assertTrue(tokenResponse.isPresent());
+        ArgumentCaptor<String> legacyStore = ArgumentCaptor.forClass(String.class);
+        verify(redisConnectionService)
+                .saveWithExpiry(eq(legacyKey), legacyStore.capture(), eq(300L));
+        RefreshTokenStore remaining =
+                new ObjectMapper().readValue(legacyStore.getValue(), RefreshTokenStore.class);
+        assertEquals(otherRefreshTokens, remaining.getRefreshTokens());
+        assertEquals(INTERNAL_SUBJECT.getValue(), remaining.getInternalSubjectId());
+        verify(redisConnectionService, never()).deleteValue(legacyKey);
+    }
+
+    @Test
+    public void shouldNotIssueTokensWhenRefreshTokenIsNotInAnyStore() throws JOSEException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        createSignedAccessToken();
+        givenRotationResult(List.of(0L));
+
+        Optional<OIDCTokenResponse> tokenResponse =
+                tokenService.generateRefreshTokenResponse(
+                        CLIENT_ID,
+                        CURRENT_REFRESH_TOKEN,
+                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                        PUBLIC_SUBJECT);
+
+        assertTrue(tokenResponse.isEmpty());
+        verify(kmsConnectionService, never()).signAsync(any(SignRequest.class));
+    }
+
     @Test
     public void shouldSuccessfullyValidatePrivateKeyJWT() throws JOSEException, ParseException {
         KeyPair keyPair = generateRsaKeyPair();
@@ -398,6 +626,32 @@ public class TokenServiceTest {
         assertTrue(errorObject.isPresent());
     }
 
+    private void givenRotationResult(List<Object> result) {
+        when(redisConnectionService.evalScript(
+                        anyString(),
+                        eq(ScriptOutputType.MULTI),
+                        aryEq(
+                                new String[] {
+                                    REFRESH_TOKEN_FAMILY_KEY,
+                                    ACCESS_TOKEN_PREFIX + CLIENT_ID + "." + PUBLIC_SUBJECT
+                                }),
+                        eq(HashHelper.hashSha256String(CURRENT_REFRESH_TOKEN.getValue())),
+                        eq("300"),
+                        eq("10")))
+                .thenReturn(result);
+        givenAddRefreshTokenResult(1L);
+    }
+
+    private void givenAddRefreshTokenResult(long result) {
+        when(redisConnectionService.evalScript(
+                        anyString(),
+                        eq(ScriptOutputType.INTEGER),
+                        aryEq(new String[] {REFRESH_TOKEN_FAMILY_KEY}),
+                        anyString(),
+                        eq("300")))
+                .thenReturn(result);
+    }
+
     private String generateSerialisedPrivateKeyJWT(KeyPair keyPair, long expiryTime)
             throws JOSEException {
         JWTAuthenticationClaimsSet claimsSet =
@@ -429,7 +683,8 @@ public class TokenServiceTest {
         idTokenSignedResult.setSignature(ByteBuffer.wrap(idTokenSignatureDer));
         idTokenSignedResult.setKeyId(KEY_ID);
         idTokenSignedResult.setSigningAlgorithm(JWSAlgorithm.ES256.getName());
-        when(kmsConnectionService.sign(any(SignRequest.class))).thenReturn(idTokenSignedResult);
+        when(kmsConnectionService.signAsync(any(SignRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(idTokenSignedResult));
     }
 
     private SignedJWT createSignedIdToken(JWSSigner signer) {
@@ -439,7 +694,7 @@ public class TokenServiceTest {
                 CLIENT_ID, PUBLIC_SUBJECT, BASE_URL, signer, KEY_ID, expiryDate);
     }
 
-    private void createSignedAccessToken() throws JOSEException {
+    private SignResult createSignedAccessToken() throws JOSEException {
         ECKey ecSigningKey =
                 new ECKeyGenerator(Curve.P_256)
                         .keyID(KEY_ID)
@@ -460,7 +715,9 @@ public class TokenServiceTest {
         accessTokenResult.setSignature(ByteBuffer.wrap(accessTokenSignatureDer));
         accessTokenResult.setKeyId(KEY_ID);
         accessTokenResult.setSigningAlgorithm(JWSAlgorithm.ES256.getName());
-        when(kmsConnectionService.sign(any(SignRequest.class))).thenReturn(accessTokenResult);
+        when(kmsConnectionService.signAsync(any(SignRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(accessTokenResult));
+        return accessTokenResult;
     }
 
     private KeyPair generateRsaKeyPair() {
@@ -33,14 +33,15 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class TokenValidationServiceTest {
 
     private final ConfigurationService configurationService = mock(ConfigurationService.class);
     private final KmsConnectionService kmsConnectionService = mock(KmsConnectionService.class);
-    private final TokenValidationService tokenValidationService =
-            new TokenValidationService(configurationService, kmsConnectionService);
+    private TokenValidationService tokenValidationService;
     private static final Subject SUBJECT = new Subject("some-subject");
     private static final List<String> SCOPES = List.of("openid", "email", "phone");
     private static final List<String> REFRESH_SCOPES = List.of("openid", "email", "offline_access");
@@ -57,6 +58,7 @@ class TokenValidationServiceTest {
         ECKey ecPublicJWK = ecJWK.toPublicJWK();
         signer = new ECDSASigner(ecJWK);
         when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        when(configurationService.getPublicKeyCacheTtl()).thenReturn(300L);
         GetPublicKeyResult getPublicKeyResult = new GetPublicKeyResult();
         getPublicKeyResult.setKeyUsage("SIGN_VERIFY");
         getPublicKeyResult.setKeyId(KEY_ID);
@@ -65,6 +67,8 @@ class TokenValidationServiceTest {
         getPublicKeyResult.setPublicKey(ByteBuffer.wrap(ecPublicJWK.toECPublicKey().getEncoded()));
         when(kmsConnectionService.getPublicKey(any(GetPublicKeyRequest.class)))
                 .thenReturn(getPublicKeyResult);
+        tokenValidationService =
+                new TokenValidationService(configurationService, kmsConnectionService);
     }
 
     @Test
@@ -135,6 +139,31 @@ class TokenValidationServiceTest {
         assertEquals(publicKeyJwk.getKeyUse(), KeyUse.SIGNATURE);
     }
 
+    @Test
+    public void shouldOnlyRetrievePublicKeyFromKmsOnceForRepeatedValidations() {
+        SignedJWT signedAccessToken = createSignedAccessToken(signer);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(
+                    tokenValidationService.validateAccessTokenSignature(
+                            new BearerAccessToken(signedAccessToken.serialize())));
+        }
+
+        verify(kmsConnectionService, times(1)).getPublicKey(any(GetPublicKeyRequest.class));
+        assertEquals(1, tokenValidationService.getPublicKeyCacheMissCount());
+        assertEquals(4, tokenValidationService.getPublicKeyCacheHitCount());
+    }
+
+    @Test
+    public void shouldFailValidationWhenTokenIsSignedWithADifferentKey() throws JOSEException {
+        JWSSigner otherSigner = new ECDSASigner(generateECKeyPair());
+        SignedJWT signedAccessToken = createSignedAccessToken(otherSigner);
+
+        assertFalse(
+                tokenValidationService.validateAccessTokenSignature(
+                        new BearerAccessToken(signedAccessToken.serialize())));
+    }
+
     @Test
     public void shouldSuccessfullyValidateRefreshTokenScopes() {
         List<String> clientScopes = List.of("openid", "email", "phone", "offline_access");
@@ -159,6 +159,33 @@ public class StateMachineTest {
                 () -> builtMachine.transition(STATE_3, ACTION_COMMON_TO_SOME_STATES, true));
     }
 
+    @Test
+    void throwsNoTransitionContextProvidedExceptionWhenAmbiguousTransitionHasNoContext() {
+        assertThrows(
+                StateMachine.NoTransitionContextProvidedException.class,
+                () -> stateMachine.transition(STATE_3, CONDITIONAL_MOVE));
+    }
+
+    @Test
+    void rejectsTransitionThatFollowsAnUnconditionalTransitionWhenBuilt() {
+        var builder =
+                StateMachine.<State, Action, Boolean>builder()
+                        .when(STATE_1)
+                        .allow(
+                                on(CONDITIONAL_MOVE).then(STATE_4),
+                                on(CONDITIONAL_MOVE).ifCondition(testCondition).then(STATE_5));
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    void rejectsTransitionWithoutNextStateWhenBuilt() {
+        var builder =
+                StateMachine.<State, Action, Boolean>builder().when(STATE_1).allow(on(MOVE_TO_2));
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
     private static Transition.Builder<State, Action, Boolean> on(Action action) {
         return Transition.<State, Action, Boolean>builder().on(action);
     }